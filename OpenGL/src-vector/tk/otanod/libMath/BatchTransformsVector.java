@@ -0,0 +1,100 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libMath;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * jdk.incubator.vector kernels of BatchTransforms, loaded by BatchTransforms.getInstance() only when the module is present
+ * (JDK 17+, compiled by the "vector" maven profile, run with --add-modules jdk.incubator.vector).
+ *
+ * Same operations in the same order as the scalar code, so the results are the same floats:
+ *   transformPoints, transformAabbs  one element per lane (SoA input and output), the remaining elements go to the scalar loop
+ *   mul                              one column per 128 bits vector (AoS matrices)
+ * composeTRS stays scalar: its output is AoS, the scatter stores (intoArray with an index map) were slower than the scalar
+ * loop and crash the C2 compiler of JDK 17.0.9.
+ */
+class BatchTransformsVector extends BatchTransforms {
+
+	private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+	private static final VectorSpecies<Float> SPECIES_128 = FloatVector.SPECIES_128;
+
+	@Override
+	public boolean isVectorized() {
+		return true;
+	}
+
+	@Override
+	protected void mul(float[] p, int from, int to, float[] src, int srcOffset, float[] dst, int dstOffset) {
+		FloatVector c0 = FloatVector.fromArray(SPECIES_128, p, 0);
+		FloatVector c1 = FloatVector.fromArray(SPECIES_128, p, 4);
+		FloatVector c2 = FloatVector.fromArray(SPECIES_128, p, 8);
+		FloatVector c3 = FloatVector.fromArray(SPECIES_128, p, 12);
+		for (int i = from; i < to; i++) {
+			for (int col = 0; col < 4; col++) {
+				int s = srcOffset + i * MATRIX_FLOATS + col * 4;
+				// parent * column = p.c0 * b0 + p.c1 * b1 + p.c2 * b2 + p.c3 * b3
+				c0.mul(src[s]).add(c1.mul(src[s + 1])).add(c2.mul(src[s + 2])).add(c3.mul(src[s + 3]))
+					.intoArray(dst, dstOffset + i * MATRIX_FLOATS + col * 4);
+			}
+		}
+	}
+
+	@Override
+	protected void transformPoints(float[] m, int from, int to, int n, float[] points, float[] dst) {
+		int i = from;
+		for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+			FloatVector x = FloatVector.fromArray(SPECIES, points, i);
+			FloatVector y = FloatVector.fromArray(SPECIES, points, n + i);
+			FloatVector z = FloatVector.fromArray(SPECIES, points, 2 * n + i);
+			x.mul(m[0]).add(y.mul(m[4])).add(z.mul(m[8])).add(m[12]).intoArray(dst, i);
+			x.mul(m[1]).add(y.mul(m[5])).add(z.mul(m[9])).add(m[13]).intoArray(dst, n + i);
+			x.mul(m[2]).add(y.mul(m[6])).add(z.mul(m[10])).add(m[14]).intoArray(dst, 2 * n + i);
+		}
+		super.transformPoints(m, i, to, n, points, dst);
+	}
+
+	@Override
+	protected void transformAabbs(float[] m, int from, int to, int n, float[] aabbs, float[] dst) {
+		int i = from;
+		for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+			FloatVector minX = FloatVector.fromArray(SPECIES, aabbs, MIN_X * n + i);
+			FloatVector minY = FloatVector.fromArray(SPECIES, aabbs, MIN_Y * n + i);
+			FloatVector minZ = FloatVector.fromArray(SPECIES, aabbs, MIN_Z * n + i);
+			FloatVector maxX = FloatVector.fromArray(SPECIES, aabbs, MAX_X * n + i);
+			FloatVector maxY = FloatVector.fromArray(SPECIES, aabbs, MAX_Y * n + i);
+			FloatVector maxZ = FloatVector.fromArray(SPECIES, aabbs, MAX_Z * n + i);
+			FloatVector cx = minX.add(maxX).mul(0.5f), cy = minY.add(maxY).mul(0.5f), cz = minZ.add(maxZ).mul(0.5f);
+			FloatVector ex = maxX.sub(minX).mul(0.5f), ey = maxY.sub(minY).mul(0.5f), ez = maxZ.sub(minZ).mul(0.5f);
+
+			FloatVector tcx = cx.mul(m[0]).add(cy.mul(m[4])).add(cz.mul(m[8])).add(m[12]);
+			FloatVector tcy = cx.mul(m[1]).add(cy.mul(m[5])).add(cz.mul(m[9])).add(m[13]);
+			FloatVector tcz = cx.mul(m[2]).add(cy.mul(m[6])).add(cz.mul(m[10])).add(m[14]);
+			FloatVector tex = ex.mul(m[16]).add(ey.mul(m[20])).add(ez.mul(m[24]));
+			FloatVector tey = ex.mul(m[17]).add(ey.mul(m[21])).add(ez.mul(m[25]));
+			FloatVector tez = ex.mul(m[18]).add(ey.mul(m[22])).add(ez.mul(m[26]));
+
+			tcx.sub(tex).intoArray(dst, MIN_X * n + i);
+			tcy.sub(tey).intoArray(dst, MIN_Y * n + i);
+			tcz.sub(tez).intoArray(dst, MIN_Z * n + i);
+			tcx.add(tex).intoArray(dst, MAX_X * n + i);
+			tcy.add(tey).intoArray(dst, MAX_Y * n + i);
+			tcz.add(tez).intoArray(dst, MAX_Z * n + i);
+		}
+		super.transformAabbs(m, i, to, n, aabbs, dst);
+	}
+
+}
@@ -14,13 +14,15 @@ SOFTWARE.
 
 package tk.otanod.demo;
 
-import java.util.ArrayList;
+import java.nio.file.Paths;
 import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import tk.otanod.engine.awt.MouseListeners;
 import tk.otanod.engine.awt.Pointer;
@@ -32,6 +34,9 @@ import tk.otanod.engine.camera.Camera;
 import tk.otanod.engine.font.Font;
 import tk.otanod.engine.font.FontEffect;
 import tk.otanod.engine.light.Light;
+import tk.otanod.engine.loader.AssetLoader;
+import tk.otanod.engine.render.FrameUniforms;
+import tk.otanod.engine.render.GLUploadQueue;
 import tk.otanod.engine.render.LayoutPercentage;
 import tk.otanod.engine.render.Model;
 import tk.otanod.engine.render.RenderGenericInstance;
@@ -39,14 +44,16 @@ import tk.otanod.engine.render.RenderGenericInstanceAtlasText;
 import tk.otanod.engine.render.RenderGenericInstanceAtlasTextGUI;
 import tk.otanod.engine.render.RenderSkyBox;
 import tk.otanod.engine.render.RenderTerrainMultitexture;
+import tk.otanod.engine.render.ShaderProgramCache;
 import tk.otanod.engine.terrain.RawTerrain;
 import tk.otanod.engine.terrain.TerrainFlat;
-import tk.otanod.libIO.ImageFile;
 import tk.otanod.libIO.RawImage;
 import tk.otanod.libIO.RawImagePack;
+import tk.otanod.libIO.TextureAtlas;
+import tk.otanod.libMath.BatchTransforms;
 import tk.otanod.libMath.M4f;
 import tk.otanod.libMath.V3f;
-import tk.otanod.libOBJ.OBJLoader;
+import tk.otanod.libOBJ.QuantizedOBJ;
 import tk.otanod.libOBJ.RawOBJ;
 
 
@@ -62,6 +69,13 @@ public class Main {
 	private static final double YAW_SENSIBILITY = 150d / (double) WIDTH;		// Higher values move the camera faster
 	private static final float ZOOM_SENSIBILITY = 0.02f;						// Higher values move the camera faster
 	private static final float UP_SENSIBILITY = 0.05f;							// Higher values move the camera faster
+	// Assets loaded in the background while the window is already open, -Djgames.syncLoading=true loads them before opening it
+	private static final boolean IS_ASYNC_LOADING = !Boolean.getBoolean("jgames.syncLoading");
+	// ETC2 model and terrain textures (the font atlases stay RGBA), -Djgames.uncompressedTextures=true uploads RGBA
+	private static final boolean IS_COMPRESSED_TEXTURES = !Boolean.getBoolean("jgames.uncompressedTextures");
+	// Linked GLSL programs saved in res/shaders (glGetProgramBinary), -Djgames.noShaderCache=true compiles them every time
+	private static final boolean IS_SHADER_CACHE = !Boolean.getBoolean("jgames.noShaderCache");
+	private static final float UPLOAD_BUDGET_MS = 4f;							// GL time per frame for the uploads of new models
 
 	private static Random random = new Random();
 	
@@ -69,7 +83,13 @@ public class Main {
 		
 		System.out.println("Main thread : " + Thread.currentThread().getName());
 		
-		List<Model> models = new ArrayList<>();
+		// The GL thread adds the models to the render list once they are on the GPU
+		List<Model> models = new CopyOnWriteArrayList<>();
+		AssetLoader loader = new AssetLoader(IS_ASYNC_LOADING);
+		GLUploadQueue uploads = new GLUploadQueue(IS_ASYNC_LOADING ? UPLOAD_BUDGET_MS : Float.POSITIVE_INFINITY);
+		if ( IS_SHADER_CACHE ) {
+			ShaderProgramCache.getInstance().setBinaryDirectory(Paths.get("res/shaders"));
+		}
 		
 		// Common environment for all the models
 		/*********************
@@ -99,6 +119,7 @@ public class Main {
 		//M4f m4Projection = new M4f(Camera.getInfiniteProjectionMatrix(1.0f, -1.0f, 1.0f, -1.0f, 1.0f));
 		//M4f m4Projection = new M4f(Camera.getProjectionMatrix(1.0f, -1.0f, 1.0f, -1.0f, 1.0f, 100.0f));
 		M4f m4Projection = new M4f(Camera.getProjectionMatrix(FOV, WIDTH/HEIGHT, 1.0f, 150.0f));			// 150 farZPlane ==> fogDensity = 0.02
+		FrameUniforms.getInstance().update(camera, light, m4Projection);								// one uniform buffer per frame for all the models
 		
 		
 		/*********************
@@ -141,55 +162,55 @@ public class Main {
 		// 3D Flat terrain Multitexture
 		float width = 512.0f;
 		int slices = 128;
-		RawTerrain terrain = TerrainFlat.getInstance().create(width, slices);				// width, slices
-		RawImagePack textureImageGroundPack = new RawImagePack(new String[] {
+		List<RawTerrain> terrain = TerrainFlat.getInstance().createChunks(width, slices);	// width, slices, chunks of 16 bits indices
+		CompletableFuture<RawImagePack> textureImageGroundPack = loader.loadTexturePack(new String[] {
 				"res/drawable/grassy2.png",
 				"res/drawable/mud.png",
 				"res/drawable/grassFlowers.png",
 				"res/drawable/path.png",
 				"res/drawable/blendMap1.png"
-			}, true);
-		Model t2 = new RenderTerrainMultitexture(new V3f(-width/2.0f, 0f, -width/2.0f), new V3f(1f,1f,1f), terrain, textureImageGroundPack, camera, light, m4Projection);
-		models.add(t2);
+			}, true, IS_COMPRESSED_TEXTURES);
+		uploads.add(models, textureImageGroundPack, () -> new RenderTerrainMultitexture(new V3f(-width/2.0f, 0f, -width/2.0f), new V3f(1f,1f,1f), terrain, textureImageGroundPack.join(), camera, light, m4Projection));
 		
 		
 		// 3D model loaded from OBJ file drawn with indices and texture and MVP
-//		RawOBJ dragon = OBJLoader.load("res/models/dragon.obj");
+//		RawOBJ dragon = OBJLoader.loadCached("res/models/dragon.obj");
 //		RawImage textureImageDragon = ImageFile.loadFlippedImageFile("res/drawable/white.png");
 //		Model d = new RenderGeneric(new V3f(0f, 0f, -30f), new V3f(.2f,.2f,.2f), dragon, textureImageDragon, camera, light, m4Projection);
 //		models.add(d);
 			
+		// The props share one texture (TextureAtlas): one texture object and one texture unit instead of one per model
+		CompletableFuture<TextureAtlas> propsAtlas = loader.loadAtlas("res/drawable/props-atlas", new String[] {
+				"res/drawable/stall.png",
+				"res/drawable/tree.png",
+				"res/drawable/lowPolyTree.png",
+				"res/drawable/lamp.png"
+			}, true, IS_COMPRESSED_TEXTURES);
+		CompletableFuture<RawImage> textureImageProps = propsAtlas.thenApply(TextureAtlas::getImage);
+		
 		// 3D model loaded from OBJ file drawn with indices and texture and MVP
-		RawOBJ stall = OBJLoader.load("res/models/stall.obj");
-		RawImage textureImageStall = ImageFile.loadFlippedImageFile("res/drawable/stall.png");
+		CompletableFuture<RawOBJ> stall = loader.loadOBJ("res/models/stall.obj", propsAtlas, 0);
 		int instancesStall = 3;
 		float[] instancesModelMatrixStall = createInstancesModelArray(1.5f, 1.5f, -80.0f, 80.0f, -80.0f, 80.0f, instancesStall);
-		Model stallModel = new RenderGenericInstance(instancesStall, instancesModelMatrixStall, stall, textureImageStall, camera, light, m4Projection);
-		models.add(stallModel);
+		uploads.add(models, CompletableFuture.allOf(stall, textureImageProps), () -> new RenderGenericInstance(instancesStall, instancesModelMatrixStall, stall.join(), textureImageProps.join(), camera, light, m4Projection));
 			
 		// 3D model loaded from OBJ file drawn with indices and texture and MVP
-		RawOBJ tree1 = OBJLoader.load("res/models/tree.obj");
-		RawImage textureImageTree1 = ImageFile.loadFlippedImageFile("res/drawable/tree.png");
+		CompletableFuture<RawOBJ> tree1 = loader.loadOBJ("res/models/tree.obj", propsAtlas, 1);
 		int instancesTree1 = 50;
 		float[] instancesModelMatrixTree1 = createInstancesModelArray(3.0f, 4.0f, -80.0f, 80.0f, -80.0f, 80.0f, instancesTree1);
-		Model tree1Model = new RenderGenericInstance(instancesTree1, instancesModelMatrixTree1, tree1, textureImageTree1, camera, light, m4Projection);
-		models.add(tree1Model);
+		uploads.add(models, CompletableFuture.allOf(tree1, textureImageProps), () -> new RenderGenericInstance(instancesTree1, instancesModelMatrixTree1, tree1.join(), textureImageProps.join(), camera, light, m4Projection));
 		
 		// 3D model loaded from OBJ file drawn with indices and texture and MVP
-		RawOBJ tree2 = OBJLoader.load("res/models/lowPolyTree.obj");
-		RawImage textureImageTree2 = ImageFile.loadFlippedImageFile("res/drawable/lowPolyTree.png");
+		CompletableFuture<RawOBJ> tree2 = loader.loadOBJ("res/models/lowPolyTree.obj", propsAtlas, 2);
 		int instancesTree2 = 50;
 		float[] instancesModelMatrixTree2 = createInstancesModelArray(5.0f, 6.0f, -80.0f, 80.0f, -80.0f, 80.0f, instancesTree2);
-		Model tree2Model = new RenderGenericInstance(instancesTree2, instancesModelMatrixTree2, tree2, textureImageTree2, camera, light, m4Projection);
-		models.add(tree2Model);
+		uploads.add(models, CompletableFuture.allOf(tree2, textureImageProps), () -> new RenderGenericInstance(instancesTree2, instancesModelMatrixTree2, tree2.join(), textureImageProps.join(), camera, light, m4Projection));
 		
 		// 3D model loaded from OBJ file drawn with indices and texture and MVP
-		RawOBJ lamp = OBJLoader.load("res/models/lamp.obj");
-		RawImage textureImageLamp = ImageFile.loadFlippedImageFile("res/drawable/lamp.png");
+		CompletableFuture<RawOBJ> lamp = loader.loadOBJ("res/models/lamp.obj", propsAtlas, 3);
 		int instancesLamp = 5;
 		float[] instancesModelMatrixLamp = createInstancesModelArray(4.5f, 4.5f, -60.0f, 60.0f, -60.0f, 60.0f, instancesLamp);
-		Model lampModel = new RenderGenericInstance(instancesLamp, instancesModelMatrixLamp, lamp, textureImageLamp, camera, light, m4Projection);
-		models.add(lampModel);
+		uploads.add(models, CompletableFuture.allOf(lamp, textureImageProps), () -> new RenderGenericInstance(instancesLamp, instancesModelMatrixLamp, lamp.join(), textureImageProps.join(), camera, light, m4Projection));
 		
 		
 		// SkyBox
@@ -203,11 +224,10 @@ public class Main {
 //				"res/drawable/skybox4/front.png"		// GL_TEXTURE_CUBE_MAP_NEGATIVE_Z 	Front
 //		}, false);
 		// Skybox with 1 image	
-		RawImagePack textureSkyBox = new RawImagePack("res/drawable/skyboxClouds.png", 4, 4);			// skyboxTEST.png
+		CompletableFuture<RawImagePack> textureSkyBox = loader.loadCubeMap("res/drawable/skyboxClouds.png", 4, 4);			// skyboxTEST.png
 		
 		RawOBJ cube = RawOBJ.buildSkyBox();
-		Model skyBoxModel = new RenderSkyBox(new V3f(0.0f, 0.0f, 0.0f), new V3f(1.0f,1.0f,1.0f), cube, textureSkyBox, camera, light, m4Projection);
-		models.add(skyBoxModel);
+		uploads.add(models, textureSkyBox, () -> new RenderSkyBox(new V3f(0.0f, 0.0f, 0.0f), new V3f(1.0f,1.0f,1.0f), cube, textureSkyBox.join(), camera, light, m4Projection));
 		
 		
 		
@@ -215,32 +235,31 @@ public class Main {
 		 * TRANSPARENT OBJETS
 		 *******************************/
 		
+		// Same for the vegetation, the texture coordinates are remapped before they are quantized
+		CompletableFuture<TextureAtlas> vegetationAtlas = loader.loadAtlas("res/drawable/vegetation-atlas", new String[] {
+				"res/drawable/grass1.png",
+				"res/drawable/pine.png",
+				"res/drawable/fern.png"
+			}, true, IS_COMPRESSED_TEXTURES);
+		CompletableFuture<RawImage> textureImageVegetation = vegetationAtlas.thenApply(TextureAtlas::getImage);
+		
 		// 3D model loaded from OBJ file drawn with indices and texture and MVP
-		RawOBJ grass = OBJLoader.load("res/models/grassY.obj");
-		RawImage textureImageGrass = ImageFile.loadFlippedImageFile("res/drawable/grass1.png");
-		textureImageGrass.setTransparent(true);
+		CompletableFuture<QuantizedOBJ> grass = loader.loadOBJ("res/models/grassY.obj", vegetationAtlas, 0).thenApply(QuantizedOBJ::quantize);
 		int instancesGrass = 300;
 		float[] instancesModelMatrixGrass = createInstancesModelArray(0.5f, 1.0f, -60.0f, 60.0f, -60.0f, 60.0f, instancesGrass);
-		Model grassModel = new RenderGenericInstance(instancesGrass, instancesModelMatrixGrass, grass, textureImageGrass, camera, light, m4Projection);
-		models.add(grassModel);
+		uploads.add(models, CompletableFuture.allOf(grass, textureImageVegetation), () -> new RenderGenericInstance(instancesGrass, instancesModelMatrixGrass, grass.join(), getTransparent(textureImageVegetation), camera, light, m4Projection));
 		
 		// 3D model loaded from OBJ file drawn with indices and texture and MVP
-		RawOBJ tree3 = OBJLoader.load("res/models/pine_sorted.obj");
-		RawImage textureImageTree3 = ImageFile.loadFlippedImageFile("res/drawable/pine.png");
-		textureImageTree3.setTransparent(true);
+		CompletableFuture<QuantizedOBJ> tree3 = loader.loadOBJ("res/models/pine_sorted.obj", vegetationAtlas, 1).thenApply(QuantizedOBJ::quantize);
 		int instancesTree3 = 60;
 		float[] instancesModelMatrixTree3 = createInstancesModelArray(3.0f, 4.0f, -60.0f, 60.0f, -60.0f, 60.0f, instancesTree3);
-		Model tree3Model = new RenderGenericInstance(instancesTree3, instancesModelMatrixTree3, tree3, textureImageTree3, camera, light, m4Projection);
-		models.add(tree3Model);
+		uploads.add(models, CompletableFuture.allOf(tree3, textureImageVegetation), () -> new RenderGenericInstance(instancesTree3, instancesModelMatrixTree3, tree3.join(), getTransparent(textureImageVegetation), camera, light, m4Projection));
 		
 		// 3D model loaded from OBJ file drawn with indices and texture and MVP
-		RawOBJ fern = OBJLoader.load("res/models/fern.obj");
-		RawImage textureImageFern = ImageFile.loadFlippedImageFile("res/drawable/fern.png");
-		textureImageFern.setTransparent(true);
+		CompletableFuture<QuantizedOBJ> fern = loader.loadOBJ("res/models/fern.obj", vegetationAtlas, 2).thenApply(QuantizedOBJ::quantize);
 		int instancesFern = 60;
 		float[] instancesModelMatrixFern = createInstancesModelArray(1.0f, 2.0f, -60.0f, 60.0f, -60.0f, 60.0f, instancesFern);
-		Model fernModel = new RenderGenericInstance(instancesFern, instancesModelMatrixFern, fern, textureImageFern, camera, light, m4Projection);
-		models.add(fernModel);
+		uploads.add(models, CompletableFuture.allOf(fern, textureImageVegetation), () -> new RenderGenericInstance(instancesFern, instancesModelMatrixFern, fern.join(), getTransparent(textureImageVegetation), camera, light, m4Projection));
 	
 		// 3D model loaded from OBJ file drawn with indices and texture and MVP
 		String fontName;
@@ -255,33 +274,32 @@ public class Main {
 //		fontName = "Carten";
 	
 		RawOBJ textObj = RawOBJ.buildTextQuad();
-		RawImage textureImageText = ImageFile.loadImageFile("res/fonts/" + fontName + ".png");
-		textureImageText.setTransparent(true);
+		CompletableFuture<RawImage> textureImageText = loader.loadTexture("res/fonts/" + fontName + ".png", false);
 		String str = "Hello World!";
 		FontEffect fe = new FontEffect(0.47f, 0.01f, 0.06f, 0.04f, new float[] {0f,0f}, FontEffect.RGBcolor(100, 161, 0), FontEffect.RGBcolor(145, 74, 0));
 		int instancesText = str.length();
-		Font f = new Font("res/fonts/" + fontName + ".fnt");
-		float[] m4InstancesModel = f.buildInstancesModel(str, -0.5f, 1.0f);
-		float[] instancesTextureAtlasArea = f.buildInstancesTextureAtlasArea(str);
+		CompletableFuture<Font> f = loader.loadFont("res/fonts/" + fontName + ".fnt");
 		M4f stringModelMatrix = new M4f().scale(4.0f, 2.0f, 1.0f).rotateYaxisCCW(0d).setTranslate(0.0f, 1.0f, -15.0f);
-		Model textModel = new RenderGenericInstanceAtlasText(instancesText, stringModelMatrix, m4InstancesModel, instancesTextureAtlasArea, textObj, textureImageText, fe, camera, light, m4Projection);
-		models.add(textModel);
+		uploads.add(models, CompletableFuture.allOf(textureImageText, f), () -> {
+			float[] m4InstancesModel = f.join().buildInstancesModel(str, -0.5f, 1.0f);
+			float[] instancesTextureAtlasArea = f.join().buildInstancesTextureAtlasArea(str);
+			return new RenderGenericInstanceAtlasText(instancesText, stringModelMatrix, m4InstancesModel, instancesTextureAtlasArea, textObj, getTransparent(textureImageText), fe, camera, light, m4Projection);
+		});
 		
 		// GUI Text
 		fontName = "Ubuntu-R";
 		RawOBJ textGUI = RawOBJ.buildTextQuad();
-		RawImage textureImageTextGUI = ImageFile.loadImageFile("res/fonts/" + fontName + ".png");
-		textureImageTextGUI.setTransparent(true);
-		Font fontGUI = new Font("res/fonts/" + fontName + ".fnt");
+		CompletableFuture<RawImage> textureImageTextGUI = loader.loadTexture("res/fonts/" + fontName + ".png", false);
+		CompletableFuture<Font> fontGUI = loader.loadFont("res/fonts/" + fontName + ".fnt");
 		FontEffect fontEffectTextGUI = new FontEffect(0.48f, 0.05f, 0.12f, 0.05f, new float[] {0f,0f}, FontEffect.RGBcolor(255, 255, 255), FontEffect.RGBcolor(0, 0, 0));
-		String strGUI = getElpasedTimeString(System.nanoTime());
-		int instancesTextGUI = strGUI.length();
-		float[] m4InstancesModelGUI = fontGUI.buildInstancesModel(strGUI, 0.0f, 1.0f);
-		float[] instancesTextureAtlasAreaGUI = fontGUI.buildInstancesTextureAtlasArea(strGUI);
 		//M4f stringModelMatrixGUI = (new LayoutPercentage(0.0f, 100.0f, 0.0f, 10.0f, 5.0f, 0.0f)).getMatrix();
 		M4f stringModelMatrixGUI = (new LayoutPercentage(1.0f, 5.0f, 25.0f, 5.0f)).getMatrix();
-		Model texGUItModel = new RenderGenericInstanceAtlasTextGUI(instancesTextGUI, stringModelMatrixGUI, m4InstancesModelGUI, instancesTextureAtlasAreaGUI, textGUI, textureImageTextGUI, fontEffectTextGUI);
-		models.add(texGUItModel);
+		CompletableFuture<RenderGenericInstanceAtlasTextGUI> texGUItModel = uploads.add(models, CompletableFuture.allOf(textureImageTextGUI, fontGUI), () -> {
+			String strGUI = getElpasedTimeString(System.nanoTime());
+			float[] m4InstancesModelGUI = fontGUI.join().buildInstancesModel(strGUI, 0.0f, 1.0f);
+			float[] instancesTextureAtlasAreaGUI = fontGUI.join().buildInstancesTextureAtlasArea(strGUI);
+			return new RenderGenericInstanceAtlasTextGUI(strGUI.length(), stringModelMatrixGUI, m4InstancesModelGUI, instancesTextureAtlasAreaGUI, textGUI, getTransparent(textureImageTextGUI), fontEffectTextGUI);
+		});
 		
 		// 3D model loaded from OBJ file drawn with indices and texture and MVP
 //		Model m6 = new ModelMVPIndicesTextureOBJLight();
@@ -296,9 +314,12 @@ public class Main {
 		 *********************/
 		WindowGlobalParameters params = new WindowGlobalParameters(WIDTH, HEIGHT, FPS);
 		// AWT - OpenGL window
-		Window w = new Window(params, models);
+		Window w = new Window(params, models, uploads);
 		// Init the windows/openGL
 		w.createDisplay("DEMO 15 - Anisotropic");
+		System.out.println("Cold start: window after " + (System.nanoTime() - startTime) / 1000000 + " ms" + (IS_ASYNC_LOADING ? ", loading the assets" : ""));
+		CompletableFuture<Void> allLoaded = loader.getAllLoaded();
+		boolean isLoaded = false;
 		// Attach the listeners
 		WindowListeners listener1 = new WindowListeners();
 		w.attachListener(listener1);
@@ -343,12 +364,18 @@ public class Main {
 			
 			
 			// Game updates
-			if ( true == logicTick(1f) ) {
-				strGUI = getElpasedTimeString(System.nanoTime()) + "  FPS " + params.getFPS() + " Screen " + params.getWindow_width_px() + "x" + params.getWindow_height_px();
-				instancesTextGUI = strGUI.length();
-				m4InstancesModelGUI = fontGUI.buildInstancesModel(strGUI, 0.0f, 1.0f);
-				instancesTextureAtlasAreaGUI = fontGUI.buildInstancesTextureAtlasArea(strGUI);
-				((RenderGenericInstanceAtlasTextGUI) texGUItModel).update(instancesTextGUI, m4InstancesModelGUI, instancesTextureAtlasAreaGUI);
+			if ( true == logicTick(1f) && texGUItModel.isDone() ) {
+				String strGUI = getElpasedTimeString(System.nanoTime()) + "  FPS " + params.getFPS() + " Screen " + params.getWindow_width_px() + "x" + params.getWindow_height_px();
+				int instancesTextGUI = strGUI.length();
+				float[] m4InstancesModelGUI = fontGUI.join().buildInstancesModel(strGUI, 0.0f, 1.0f);
+				float[] instancesTextureAtlasAreaGUI = fontGUI.join().buildInstancesTextureAtlasArea(strGUI);
+				texGUItModel.join().update(instancesTextGUI, m4InstancesModelGUI, instancesTextureAtlasAreaGUI);
+			}
+			if ( !isLoaded && allLoaded.isDone() && uploads.isEmpty() ) {
+				isLoaded = true;
+				loader.close();
+				System.out.println("Cold start: all the models on the GPU after " + (System.nanoTime() - startTime) / 1000000 + " ms");
+				System.out.println("Cold start: " + ShaderProgramCache.getInstance().getStatistics());
 			}
 
 			// 2. update the camera
@@ -362,9 +389,19 @@ public class Main {
 			
 	}
 
+	/**
+	 * GL thread, the image is already loaded
+	 */
+	private static RawImage getTransparent(CompletableFuture<RawImage> image) {
+		RawImage rawImage = image.join();
+		rawImage.setTransparent(true);
+		return rawImage;
+	}
+
 	private static float[] createInstancesModelArray(float minSize, float maxSize, float minX, float maxX, float minZ, float maxZ, int instances) {
 		
 		float[] instancesModelMatrix = new float[instances * 16];
+		float[] trs = new float[instances * BatchTransforms.TRS_COMPONENTS];				// SoA: tx[] ty[] tz[] q[] s[]
 		
 		for (int i=0; i<instances; i++) {
 			float x = (random.nextFloat() * (maxX - minX) ) + minX;
@@ -375,9 +412,10 @@ public class Main {
 			
 			float angle = (float) (random.nextFloat() * Math.PI);
 			
-			M4f m4 = new M4f().scale(scale, scale, scale).rotateYaxisCCW(angle).setTranslate(x, y, z);
-			System.arraycopy(m4.getElements(), 0, instancesModelMatrix, i*16, 16);		// arraycopy(Object src, int srcPos, Object dest, int destPos, int length)
+			// same matrix as new M4f().scale(scale, scale, scale).rotateYaxisCCW(angle).setTranslate(x, y, z)
+			BatchTransforms.setTRSYaw(trs, instances, i, x, y, z, angle, scale);
 		}
+		BatchTransforms.getInstance().composeTRS(instances, trs, instancesModelMatrix, 0);	// all the instances in one call, no M4f per instance
 		return instancesModelMatrix;
 	}
 	
@@ -34,6 +34,7 @@ import com.jogamp.opengl.GLProfile;
 import com.jogamp.opengl.awt.GLCanvas;
 
 import tk.otanod.engine.render.CanvasListener;
+import tk.otanod.engine.render.GLUploadQueue;
 import tk.otanod.engine.render.Model;
 
 public class Window {
@@ -42,10 +43,19 @@ public class Window {
 	private Frame frame;
 	private GLCanvas canvas;
 	List<Model> models;
+	private GLUploadQueue uploads;
 	
 	public Window(WindowGlobalParameters params, List<Model> models) {
+		this(params, models, null);
+	}
+	
+	/**
+	 * uploads: models loaded in the background, added to the list by the GL thread (use a CopyOnWriteArrayList)
+	 */
+	public Window(WindowGlobalParameters params, List<Model> models, GLUploadQueue uploads) {
 		this.params = params;
 		this.models = models;
+		this.uploads = uploads;
 	}
 	
 	public void createDisplay(String title) {
@@ -102,7 +112,7 @@ public class Window {
 
 		// Canvas
 		GLCanvas canvas = new GLCanvas(capabilities); 						// jogl
-		CanvasListener cl = new CanvasListener(this.models, this.params);
+		CanvasListener cl = new CanvasListener(this.models, this.params, this.uploads);
 		canvas.addGLEventListener(cl);
 		
 		//frame.add(canvas);
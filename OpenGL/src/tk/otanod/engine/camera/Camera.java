@@ -14,7 +14,9 @@ SOFTWARE.
 
 package tk.otanod.engine.camera;
 
+import tk.otanod.libMath.Frustum;
 import tk.otanod.libMath.M4f;
+import tk.otanod.libMath.Quatf;
 import tk.otanod.libMath.V3f;
 
 public class Camera {
@@ -24,13 +26,20 @@ public class Camera {
 	private V3f v3Eye = new V3f(0.0f, 0.0f, 0.0f);			// default: camera at (0,0,0)
 	private M4f m4LookAtViewMatrix;	// = new M4f(Camera.getViewMatrixLookAt(v3Eye, v3Center, v3Up));
 	private boolean isDelayedUpdateNeeded = false;
+	
+	// Scratch objects, updateCamera runs every frame and it doesn't allocate
+	private final Quatf qYawPitch = new Quatf();
+	private final Quatf qPitch = new Quatf();
+	private final M4f m4Rotation = new M4f();
+	private final V3f v3InvForward = new V3f();
+	private final V3f v3InvForwardXZ = new V3f();
 
 	public Camera(V3f v3Up, V3f v3Center, V3f v3Eye) {
 		this.v3Up = v3Up;
 		this.v3Center = v3Center;
 		this.v3Eye = v3Eye;
 		
-		this.m4LookAtViewMatrix = new M4f(Camera.getViewMatrixLookAt(v3Eye, v3Center, v3Up));
+		this.m4LookAtViewMatrix = M4f.lookAt(v3Eye, v3Center, v3Up, new M4f());
 		this.isDelayedUpdateNeeded = false;
 	}
 
@@ -58,21 +67,30 @@ public class Camera {
 		return m4LookAtViewMatrix;
 	}
 	
+	/**
+	 * World space planes of projection * view, m4Projection from getProjectionMatrix (the camera doesn't keep it)
+	 */
+	public Frustum getFrustum(M4f m4Projection, Frustum dest) {
+		return dest.set(m4Projection, getLookAtViewMatrix());
+	}
+	
 	public void updateCamera() {
 		if ( isDelayedUpdateNeeded ) {
-			M4f yawMatrix = new M4f().rotateYaxisCCW(draggedYawAngleRad);
-			M4f pitchMatrix = new M4f().rotateXaxisCW(draggedPitchAngleRad);
-			m4LookAtViewMatrix = new M4f(Camera.getViewMatrixLookAt(v3Eye, v3Center, v3Up));
-			m4LookAtViewMatrix.preMultiply(yawMatrix).preMultiply(pitchMatrix);
+			// The view matrix is updated in place, the renderers keep a reference to it
+			// Rpitch * Ryaw as one quaternion, a single matrix product
+			qPitch.identity().rotateXaxisCW(draggedPitchAngleRad);
+			qYawPitch.identity().rotateYaxisCCW(draggedYawAngleRad).preMultiply(qPitch);
+			M4f.lookAt(v3Eye, v3Center, v3Up, m4LookAtViewMatrix);
+			m4LookAtViewMatrix.preMultiply(m4Rotation.set(qYawPitch));
 	
 			if ( step != 0.0f ) {
-				V3f invForward = new V3f(m4LookAtViewMatrix.getElement(2),m4LookAtViewMatrix.getElement(6),m4LookAtViewMatrix.getElement(10)).scale(-1.0f).normalize();
-				V3f invForwardXZ = new V3f(invForward.x(), 0.0f, invForward.z()).normalize();
-				v3Eye.add(invForwardXZ.clone().scale(step));
-				v3Center = v3Eye.clone().add(invForwardXZ.scale(10f));
+				v3InvForward.set(m4LookAtViewMatrix.getElement(2),m4LookAtViewMatrix.getElement(6),m4LookAtViewMatrix.getElement(10)).scale(-1.0f).normalize();
+				v3InvForwardXZ.set(v3InvForward.x(), 0.0f, v3InvForward.z()).normalize();
+				v3Eye.fma(step, v3InvForwardXZ);
+				v3Center.set(v3Eye).fma(10f, v3InvForwardXZ);
 				
-				m4LookAtViewMatrix = new M4f(Camera.getViewMatrixLookAt(v3Eye, v3Center, v3Up));
-				m4LookAtViewMatrix.preMultiply(pitchMatrix);
+				M4f.lookAt(v3Eye, v3Center, v3Up, m4LookAtViewMatrix);
+				m4LookAtViewMatrix.preMultiply(m4Rotation.set(qPitch));
 				draggedYawAngleRad = 0.0f;
 				step = 0.0f;
 			}
@@ -110,8 +128,8 @@ public class Camera {
 	
 	public void moveUpDown(float step) {
 		this.isDelayedUpdateNeeded = true;
-		this.v3Eye.add(new V3f(0.0f, step, 0.0f));
-		this.v3Center.add(new V3f(0.0f, step, 0.0f));
+		this.v3Eye.set(this.v3Eye.x(), this.v3Eye.y() + step, this.v3Eye.z());
+		this.v3Center.set(this.v3Center.x(), this.v3Center.y() + step, this.v3Center.z());
 	}
 		
 	
@@ -277,50 +295,9 @@ public class Camera {
 		
 		// Orig XYZ
 		// Dest right, up, -forward
+		// Column major and pre-multiplied, M4f.lookAt writes into an existing matrix without allocating
 		
-		V3f forward = v3Eye.clone().sub(v3Center);		// V3f, all operations modify the source vector
-		forward.normalize();
-
-		V3f up = v3UP;
-
-		V3f right = up.clone().crossProduct( forward );		// V3f, all operations modify the source vector
-		right.normalize();
-
-		up = forward.clone().crossProduct( right );
-		up.normalize();								// Not needed, because the product of two unit vectors is another unit vector. 
-
-		// Column major and pre-multiplied
-		float[] out = new float[16];
-
-		//first column, Right vector in XYZ cartesian system
-		out[0] = right.x();
-		out[4] = right.y();
-		out[8] = right.z();
-		
-		//second column, Up vector in XYZ cartesian system
-		out[1] = up.x();
-		out[5] = up.y();
-		out[9] = up.z();
-		
-		//third column, Forward vector in XYZ cartesian system
-		out[2] = forward.x();
-		out[6] = forward.y();
-		out[10]= forward.z();
-		
-		// Fourth row
-		out[3] = 0;
-		out[7] = 0;
-		out[11]= 0;
-
-		//Fourth column
-		out[12] = -right.dotProduct( v3Eye );  //tx
-		out[13] = -up.dotProduct( v3Eye );  //ty
-		out[14] = -forward.dotProduct( v3Eye );  //tz
-		
-		// Always 1
-		out[15] = 1.0f;
-
-		return(out);
+		return(M4f.lookAt(v3Eye, v3Center, v3UP, new M4f()).getElements());
 	}
 	
 	public static float[] getViewMatrixFPS(V3f v3Eye, double pitchGrades, double yawGrades) {
@@ -20,7 +20,7 @@ import java.io.StringReader;
 import java.util.HashMap;
 import java.util.Map;
 
-import tk.otanod.libIO.TextFile;
+import tk.otanod.libIO.MappedTextSource;
 import tk.otanod.libMath.M4f;
 
 public class Font {
@@ -48,18 +48,16 @@ public class Font {
 		
 		String newLine = System.lineSeparator();
 		
-		// Step 1 - read the file from disk
+		// Step 1 - map the file, the lines are read in place
 		this.fontFile = fntFile;
-		String str = TextFile.readTextFile(fntFile);
-		
-		BufferedReader reader = new BufferedReader(new StringReader(str));
 
 		// Step 2 - extract the header and the raw chars	
 		StringBuilder sbChars = new StringBuilder();
 		StringBuilder sbKernings = new StringBuilder();
         try {
-            String line = reader.readLine();
-            while (line != null) {
+            MappedTextSource.Lines lines = MappedTextSource.open(fntFile).lines();
+            while (lines.next()) {
+            	String line = lines.toString();
 
             	String[] tokens = line.split("\\s+");
             	
@@ -93,9 +91,7 @@ public class Font {
             		sbKernings.append(line);
             		sbKernings.append(newLine);
             	}
-            	line = reader.readLine();
             }
-            reader.close();            
         } catch (IOException e) {
         	e.printStackTrace();
         }
@@ -43,6 +43,10 @@ public class Light {
 		return position.getFloats();
 	}
 
+	public float[] getPosition(float[] dst, int offset) {
+		return position.getFloats(dst, offset);
+	}
+
 	/**********************************
 	 * BlinnPhong reflection model
 	 **********************************/
@@ -51,17 +55,33 @@ public class Light {
 		return ambientColor.getFloats();
 	}
 
+	public float[] getAmbientColor(float[] dst, int offset) {
+		return ambientColor.getFloats(dst, offset);
+	}
+
 	public float[] getDiffuseColor() {
 		return diffuseColor.getFloats();
 	}
 
+	public float[] getDiffuseColor(float[] dst, int offset) {
+		return diffuseColor.getFloats(dst, offset);
+	}
+
 	public float[] getSpecularColor() {
 		return specularColor.getFloats();
 	}
 
+	public float[] getSpecularColor(float[] dst, int offset) {
+		return specularColor.getFloats(dst, offset);
+	}
+
 	public float[] getSkyColor() {
 		return skyColor.getFloats();
 	}
+
+	public float[] getSkyColor(float[] dst, int offset) {
+		return skyColor.getFloats(dst, offset);
+	}
 	
 	/*****************************
 	 * FOG
@@ -70,6 +90,10 @@ public class Light {
 		return skyColor.getFloats();
 	}
 
+	public float[] getFogColor(float[] dst, int offset) {
+		return skyColor.getFloats(dst, offset);
+	}
+
 	public float getFogUpperLimit() {
 		return fogUpperLimit;
 	}
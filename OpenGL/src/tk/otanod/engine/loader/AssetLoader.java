@@ -0,0 +1,219 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.engine.loader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import tk.otanod.engine.font.Font;
+import tk.otanod.libIO.ImageFile;
+import tk.otanod.libIO.RawImage;
+import tk.otanod.libIO.RawImagePack;
+import tk.otanod.libIO.TextureAtlas;
+import tk.otanod.libOBJ.OBJLoader;
+import tk.otanod.libOBJ.RawOBJ;
+
+/**
+ * Loads the assets in the background and returns futures, the GPU uploads go through GLUploadQueue.
+ *   I/O      file reads, virtual threads (Java 21+) or a cached pool of daemon threads
+ *   decode   PNG inflate, OBJ parse, fonts: a fixed pool, one core stays free for the GL thread
+ * Sequential loader (isAsync false): every asset is loaded by the calling thread, the futures are already completed.
+ *
+ * A missing or unreadable file completes the future exceptionally (UncheckedIOException).
+ */
+public class AssetLoader implements AutoCloseable {
+
+	private static final Executor CALLER = Runnable::run;
+
+	private final Executor io;
+	private final Executor decode;
+	private final Queue<CompletableFuture<?>> futures = new ConcurrentLinkedQueue<>();
+
+	public AssetLoader() {
+		this(true);
+	}
+
+	public AssetLoader(boolean isAsync) {
+		if ( isAsync ) {
+			this.io = newIOExecutor();
+			this.decode = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), getThreadFactory("asset-decode"));
+		} else {
+			this.io = CALLER;
+			this.decode = CALLER;
+		}
+	}
+
+	private static ExecutorService newIOExecutor() {
+		try {
+			Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) m.invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newCachedThreadPool(getThreadFactory("asset-io"));		// before Java 21
+		}
+	}
+
+	private static ThreadFactory getThreadFactory(String name) {
+		AtomicInteger counter = new AtomicInteger();
+		return r -> {
+			Thread thread = new Thread(r, name + "-" + counter.incrementAndGet());
+			thread.setDaemon(true);														// never keeps the JVM alive
+			return thread;
+		};
+	}
+
+	/************************
+	 *	ASSETS
+	 ************************/
+
+	public CompletableFuture<byte[]> read(String file) {
+		return track(CompletableFuture.supplyAsync(() -> {
+			try {
+				return Files.readAllBytes(Paths.get(file));
+			} catch (IOException e) {
+				throw new UncheckedIOException(file, e);
+			}
+		}, io));
+	}
+
+	/**
+	 * Same image as ImageFile.loadImageFile(file, isFlipped)
+	 */
+	public CompletableFuture<RawImage> loadImage(String file, boolean isFlipped) {
+		return track(read(file).thenApplyAsync(data -> ImageFile.loadImageFile(file, data, isFlipped), decode));
+	}
+
+	public CompletableFuture<RawImage> loadFlippedImage(String file) {
+		return loadImage(file, true);
+	}
+
+	/**
+	 * Same pack as new RawImagePack(files, isFlipped), the images are decoded in parallel
+	 */
+	public CompletableFuture<RawImagePack> loadImagePack(String[] files, boolean isFlipped) {
+		@SuppressWarnings("unchecked")
+		CompletableFuture<RawImage>[] images = new CompletableFuture[files.length];
+		for (int i = 0; i < files.length; i++) {
+			images[i] = loadImage(files[i], isFlipped);
+		}
+		return getPack(images);
+	}
+
+	/**
+	 * Same image as ImageFile.loadCachedImageFile(file, isFlipped), with its mip chain.
+	 * The .rawtex cache is memory mapped so it is a decode task (decode and mipmaps when it is stale).
+	 */
+	public CompletableFuture<RawImage> loadTexture(String file, boolean isFlipped) {
+		return loadTexture(file, isFlipped, false);
+	}
+
+	/**
+	 * isCompressed: with the ETC2 blocks of every level, ImageFile.loadCachedImageFile(file, isFlipped, true)
+	 */
+	public CompletableFuture<RawImage> loadTexture(String file, boolean isFlipped, boolean isCompressed) {
+		return track(CompletableFuture.supplyAsync(() -> ImageFile.loadCachedImageFile(file, isFlipped, isCompressed), decode));
+	}
+
+	public CompletableFuture<RawImagePack> loadTexturePack(String[] files, boolean isFlipped) {
+		return loadTexturePack(files, isFlipped, false);
+	}
+
+	public CompletableFuture<RawImagePack> loadTexturePack(String[] files, boolean isFlipped, boolean isCompressed) {
+		@SuppressWarnings("unchecked")
+		CompletableFuture<RawImage>[] images = new CompletableFuture[files.length];
+		for (int i = 0; i < files.length; i++) {
+			images[i] = loadTexture(files[i], isFlipped, isCompressed);
+		}
+		return getPack(images);
+	}
+
+	private CompletableFuture<RawImagePack> getPack(CompletableFuture<RawImage>[] images) {
+		return track(CompletableFuture.allOf(images).thenApply(v -> {
+			RawImage[] rawImages = new RawImage[images.length];
+			for (int i = 0; i < images.length; i++) {
+				rawImages[i] = images[i].join();
+			}
+			return new RawImagePack(rawImages);
+		}));
+	}
+
+	/**
+	 * TextureAtlas.loadCached(name, files, isFlipped, isCompressed), one texture for several models (loadOBJ(file, atlas, index))
+	 */
+	public CompletableFuture<TextureAtlas> loadAtlas(String name, String[] files, boolean isFlipped, boolean isCompressed) {
+		return track(CompletableFuture.supplyAsync(() -> TextureAtlas.loadCached(name, files, isFlipped, isCompressed), decode));
+	}
+
+	/**
+	 * Same pack as new RawImagePack(file, rows, cols)
+	 */
+	public CompletableFuture<RawImagePack> loadCubeMap(String file, int rows, int cols) {
+		return track(loadImage(file, false).thenApplyAsync(image -> new RawImagePack(image, rows, cols), decode));
+	}
+
+	/**
+	 * OBJLoader.loadCached(file), the binary cache is memory mapped so it is a decode task
+	 */
+	public CompletableFuture<RawOBJ> loadOBJ(String file) {
+		return track(CompletableFuture.supplyAsync(() -> OBJLoader.loadCached(file), decode));
+	}
+
+	/**
+	 * OBJ with its texture coordinates moved into the region of image index of the atlas
+	 */
+	public CompletableFuture<RawOBJ> loadOBJ(String file, CompletableFuture<TextureAtlas> atlas, int index) {
+		return track(loadOBJ(file).thenCombineAsync(atlas, (model, a) -> model.withTextureCoords(a.remap(model.getTextureCoords(), index)), decode));
+	}
+
+	public CompletableFuture<Font> loadFont(String fntFile) {
+		return track(CompletableFuture.supplyAsync(() -> new Font(fntFile), decode));
+	}
+
+	/**
+	 * Completed when every asset requested so far is loaded (or failed)
+	 */
+	public CompletableFuture<Void> getAllLoaded() {
+		return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).handle((v, e) -> null);
+	}
+
+	private <T> CompletableFuture<T> track(CompletableFuture<T> future) {
+		futures.add(future);
+		return future;
+	}
+
+	/**
+	 * Stops the threads, the running loads finish
+	 */
+	@Override
+	public void close() {
+		if ( io instanceof ExecutorService ) {
+			((ExecutorService) io).shutdown();
+		}
+		if ( decode instanceof ExecutorService ) {
+			((ExecutorService) decode).shutdown();
+		}
+	}
+
+}
@@ -26,10 +26,17 @@ public class CanvasListener implements GLEventListener {
 
 	private List<Model> models;
 	private WindowGlobalParameters params;
+	private GLUploadQueue uploads;						// null: the models are already in the list
+	private final RenderQueue queue = new RenderQueue();	// draw items of the frame, sorted to reduce the state changes
 	
 	public CanvasListener(List<Model> models, WindowGlobalParameters params) {
+		this(models, params, null);
+	}
+	
+	public CanvasListener(List<Model> models, WindowGlobalParameters params, GLUploadQueue uploads) {
 		this.models = models;
 		this.params = params;
+		this.uploads = uploads;
 	}
 	
 	@Override
@@ -75,6 +82,13 @@ public class CanvasListener implements GLEventListener {
 		// 		//Handle no texture compression founded.
 		// 		debug("GL", "Maybe ETC1 (Ericsson texture compression). This format is supported by all Android phones. But, it doesn't support an alpha channel, so can only be used for opaque textures.");
 		// }
+		debug("GL", "ETC2 compressed textures: " + TextureUpload.isETC2Supported(gl));
+		
+		// Linked programs are saved and loaded again with glGetProgramBinary/glProgramBinary, only valid for the same driver
+		int[] nProgramBinaryFormats = new int[1];
+		gl.glGetIntegerv(GL4ES3.GL_NUM_PROGRAM_BINARY_FORMATS, nProgramBinaryFormats, 0);
+		debug("GL", "program binary formats: " + nProgramBinaryFormats[0]);
+		ShaderProgramCache.getInstance().setDriver(glRenderer, glVersion, nProgramBinaryFormats[0] > 0);
 		
 		// TODO: avoid limitation to 60FPS
 		gl.setSwapInterval(0); // MAX FPS, not limited to 60 FPS
@@ -159,8 +173,7 @@ public class CanvasListener implements GLEventListener {
 
 	@Override
 	public void dispose(GLAutoDrawable drawable) {
-		// TODO Auto-generated method stub
-
+		FrameUniforms.getInstance().dispose(drawable.getGL().getGL4ES3());
 	}
 	
 	@Override
@@ -173,10 +186,16 @@ public class CanvasListener implements GLEventListener {
 //		gl.glClear(GL4ES3.GL_COLOR_BUFFER_BIT | GL4ES3.GL_DEPTH_BUFFER_BIT);  
 		gl.glClear(GL4ES3.GL_DEPTH_BUFFER_BIT);			// GL_COLOR_BUFFER_BIT is not needed because we redraw the full window. BUT it could be faster clearing the COLOR BUFFER in mobiles!!!
 
-		// 3. Draw all models
+		// 3. Upload the models loaded since the last frame (time budget), then draw all models
+		if ( this.uploads != null ) {
+			this.uploads.upload(drawable);
+		}
+		FrameUniforms.getInstance().upload(gl);				// P, V, light, eye and fog once for all the models
+		this.queue.clear();
 		for( Model model: models ) {
-			model.display(drawable);
+			model.submit(this.queue);
 		}
+		this.queue.execute(drawable);						// opaque front to back, sky, transparent back to front, overlay
 		
 		// 4. update and display the FPS in the console
 		updateFPS(5);
@@ -212,6 +231,7 @@ public class CanvasListener implements GLEventListener {
 		if ( delta > everyNanoSeconds ) {
 			this.params.setFPS(FPSticks / everySeconds);
 			debug("FPS","" + (FPSticks/everySeconds));
+			debug("RenderQueue", this.queue.getStatistics());
 			delta -= everyNanoSeconds;
 			FPSticks=0;
 		} else {
@@ -0,0 +1,27 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.engine.render;
+
+import com.jogamp.opengl.GLAutoDrawable;
+
+/**
+ * One draw of a RenderQueue: the queue has applied the RenderState of the item, draw() sets the uniforms of
+ * the item and issues the draw call. It leaves the state as it found it.
+ */
+public interface DrawItem {
+
+	public void draw(GLAutoDrawable drawable);
+
+}
@@ -0,0 +1,182 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.engine.render;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+import com.jogamp.opengl.GL4ES3;
+
+import tk.otanod.engine.camera.Camera;
+import tk.otanod.engine.light.Light;
+import tk.otanod.libMath.M4f;
+
+/**
+ * Uniforms shared by every model in a frame (camera, projection, light and fog) in one std140 uniform buffer,
+ * written once per frame and bound at BINDING. ShaderProgramCache binds the FrameUniforms block of every program
+ * to it, so the models only set their own uniforms (sampler, model matrix, ...).
+ *
+ * std140 layout (bytes), GLSL declares the same members in the same order:
+ *     0  mat4   uPmatrix
+ *    64  mat4   uVmatrix
+ *   128  Light  uLight         position 128, ambientColor 144, diffuseColor 160, specularColor 176
+ *   192  vec3   uEyePosition
+ *   208  vec3   uSkyColor
+ *   224  vec3   uFogColor
+ *   236  float  uFogUpperLimit  (packed after the vec3)
+ *   240  float  uFogLowerLimit
+ *   256         size, rounded up to a vec4
+ */
+public class FrameUniforms {
+
+	public static final int BINDING = 0;
+	public static final String BLOCK_NAME = "FrameUniforms";
+	public static final int SIZE = 256;
+
+	// Offsets in floats
+	static final int P = 0;
+	static final int V = 16;
+	static final int LIGHT_POSITION = 32;
+	static final int LIGHT_AMBIENT_COLOR = 36;
+	static final int LIGHT_DIFFUSE_COLOR = 40;
+	static final int LIGHT_SPECULAR_COLOR = 44;
+	static final int EYE_POSITION = 48;
+	static final int SKY_COLOR = 52;
+	static final int FOG_COLOR = 56;
+	static final int FOG_UPPER_LIMIT = 59;
+	static final int FOG_LOWER_LIMIT = 60;
+
+	// GLSL declaration, vertex and fragment shaders (the same block in both stages)
+	// highp members: GLSL ES 3.00 needs the same precision in both stages, desktop GLSL ignores it
+	public static final String GLSL =
+			  "struct Light { \n"
+			+ "   highp vec3  position; \n"
+			+ "   highp vec3  ambientColor; \n"
+			+ "   highp vec3  diffuseColor; \n"
+			+ "   highp vec3  specularColor; \n"
+			+ "}; \n"
+			+ "layout(std140) uniform " + BLOCK_NAME + " { \n"
+			+ "   highp mat4  uPmatrix; \n"					// P matrix, column major, projection space
+			+ "   highp mat4  uVmatrix; \n"					// V matrix, column major, from world to view (camera lookAt)
+			+ "   Light uLight; \n"
+			+ "   highp vec3  uEyePosition; \n"
+			+ "   highp vec3  uSkyColor; \n"
+			+ "   highp vec3  uFogColor; \n"
+			+ "   highp float uFogUpperLimit; \n"
+			+ "   highp float uFogLowerLimit; \n"
+			+ "}; \n";
+
+	private final float[] aData = new float[SIZE / Float.BYTES];
+	private final FloatBuffer fbData = ByteBuffer.allocateDirect(SIZE).order(ByteOrder.nativeOrder()).asFloatBuffer();
+
+	private Camera camera;
+	private Light light;
+	private M4f m4Projection;
+
+	// OpenGL - internal
+	private int ubo = 0;
+
+	////////////////////////////////////////////////////////
+	/// SINGLETON
+	////////////////////////////////////////////////////////
+	private static FrameUniforms ourInstance = new FrameUniforms();
+
+	public static FrameUniforms getInstance() {
+		return ourInstance;
+	}
+
+	FrameUniforms() {
+	}
+
+	/************************
+	 *	UPDATES
+	 ************************/
+
+	public void update(Camera camera, Light light, M4f projection) {
+		update(camera);
+		update(light);
+		update(projection);
+	}
+
+	public void update(Camera camera) {
+		// View matrix and eye position, read when the frame is uploaded
+		this.camera = camera;
+	}
+
+	public void update(Light light) {
+		this.light = light;
+	}
+
+	public void update(M4f projection) {
+		this.m4Projection = projection;
+	}
+
+	/************************
+	 *	BUFFER
+	 ************************/
+
+	/**
+	 * std140 contents for the current camera, light and projection, no allocation
+	 */
+	FloatBuffer getData() {
+		m4Projection.getElements(aData, P);
+		camera.getLookAtViewMatrix().getElements(aData, V);
+		light.getPosition(aData, LIGHT_POSITION);
+		light.getAmbientColor(aData, LIGHT_AMBIENT_COLOR);
+		light.getDiffuseColor(aData, LIGHT_DIFFUSE_COLOR);
+		light.getSpecularColor(aData, LIGHT_SPECULAR_COLOR);
+		camera.getEye().getFloats(aData, EYE_POSITION);
+		light.getSkyColor(aData, SKY_COLOR);
+		light.getFogColor(aData, FOG_COLOR);
+		aData[FOG_UPPER_LIMIT] = light.getFogUpperLimit();
+		aData[FOG_LOWER_LIMIT] = light.getFogLowerLimit();
+
+		fbData.clear();
+		fbData.put(aData);
+		fbData.flip();
+		return fbData;
+	}
+
+	/**
+	 * Once per frame before the models are drawn (CanvasListener.display), the first call creates the buffer
+	 */
+	public void upload(GL4ES3 gl) {
+		if ( camera == null || light == null || m4Projection == null ) {
+			return;
+		}
+		FloatBuffer data = getData();
+		if ( ubo == 0 ) {
+			int[] ubos = new int[1];
+			gl.glGenBuffers(1, ubos, 0);
+			ubo = ubos[0];
+			gl.glBindBuffer(GL4ES3.GL_UNIFORM_BUFFER, ubo);
+			gl.glBufferData(GL4ES3.GL_UNIFORM_BUFFER, SIZE, data, GL4ES3.GL_DYNAMIC_DRAW);
+			gl.glBindBufferBase(GL4ES3.GL_UNIFORM_BUFFER, BINDING, ubo);			// the binding point keeps the buffer, no bind per draw
+		} else {
+			gl.glBindBuffer(GL4ES3.GL_UNIFORM_BUFFER, ubo);
+			gl.glBufferSubData(GL4ES3.GL_UNIFORM_BUFFER, 0, SIZE, data);
+		}
+		gl.glBindBuffer(GL4ES3.GL_UNIFORM_BUFFER, 0);
+	}
+
+	public void dispose(GL4ES3 gl) {
+		if ( ubo != 0 ) {
+			gl.glDeleteBuffers(1, new int[] { ubo }, 0);
+			ubo = 0;
+		}
+	}
+
+}
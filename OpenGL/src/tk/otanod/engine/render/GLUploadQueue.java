@@ -0,0 +1,122 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.engine.render;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+import com.jogamp.opengl.GLAutoDrawable;
+
+/**
+ * GPU uploads of the models whose assets are loaded in the background (AssetLoader).
+ * The GL thread (CanvasListener.display) runs them within a time budget per frame, so the window opens at once
+ * and the models appear as they are ready.
+ *
+ * Upload = build the model + model.init(drawable): GLSL program, VBOs (addVBOtoVAO) and textures (createTexture).
+ * Then the model is added to the render list.
+ * The models keep the order they were added: a model waits for its assets and for the models queued before it,
+ * so the solid objects are still drawn before the transparent ones.
+ */
+public class GLUploadQueue {
+
+	private final long budgetNanos;
+	private final Queue<Upload<?>> queue = new ConcurrentLinkedQueue<>();
+
+	private static final class Upload<T extends Model> {
+		private final List<Model> models;
+		private final CompletableFuture<?> assets;
+		private final Supplier<T> factory;
+		private final CompletableFuture<T> uploaded = new CompletableFuture<>();
+
+		private Upload(List<Model> models, CompletableFuture<?> assets, Supplier<T> factory) {
+			this.models = models;
+			this.assets = assets;
+			this.factory = factory;
+		}
+
+		private void run(GLAutoDrawable drawable) {
+			T model = factory.get();
+			model.init(drawable);
+			models.add(model);
+			uploaded.complete(model);
+		}
+	}
+
+	/**
+	 * budgetMilliseconds: GL time per frame spent on uploads, Float.POSITIVE_INFINITY uploads everything in the first frame
+	 */
+	public GLUploadQueue(float budgetMilliseconds) {
+		this.budgetNanos = ( budgetMilliseconds == Float.POSITIVE_INFINITY ) ? Long.MAX_VALUE : (long) (budgetMilliseconds * 1E6);
+	}
+
+	/**
+	 * models: render list, it is modified by the GL thread (CopyOnWriteArrayList)
+	 * assets: the model is built when they are loaded
+	 * factory: builds the model on the GL thread, it can join() the asset futures
+	 * returns the model once it is on the GPU and in the render list
+	 */
+	public <T extends Model> CompletableFuture<T> add(List<Model> models, CompletableFuture<?> assets, Supplier<T> factory) {
+		Upload<T> upload = new Upload<>(models, assets, factory);
+		queue.add(upload);
+		return upload.uploaded;
+	}
+
+	public boolean isEmpty() {
+		return queue.isEmpty();
+	}
+
+	/**
+	 * GL thread: uploads the ready models at the head of the queue until the budget is spent.
+	 * At least one model per call, an upload (a 4K texture) can take longer than the budget.
+	 * A model whose assets failed is dropped (stderr) and does not block the queue.
+	 * Returns the number of models uploaded.
+	 */
+	public int upload(GLAutoDrawable drawable) {
+		long start = System.nanoTime();
+		int nUploads = 0;
+		Upload<?> upload;
+		while ( (upload = queue.peek()) != null && upload.assets.isDone() ) {
+			if ( nUploads > 0 && System.nanoTime() - start >= budgetNanos ) {
+				break;
+			}
+			queue.poll();
+			if ( upload.assets.isCompletedExceptionally() ) {
+				Throwable cause = getCause(upload.assets);
+				System.err.println("Model not loaded: " + cause);
+				upload.uploaded.completeExceptionally(cause);
+				continue;
+			}
+			upload.run(drawable);
+			nUploads++;
+		}
+		return nUploads;
+	}
+
+	private static Throwable getCause(CompletableFuture<?> future) {
+		try {
+			future.join();
+			return null;
+		} catch (CompletionException e) {
+			return ( e.getCause() != null ) ? e.getCause() : e;
+		} catch (RuntimeException e) {
+			return e;												// CancellationException
+		}
+	}
+
+}
@@ -0,0 +1,247 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.engine.render;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import tk.otanod.libMath.BatchTransforms;
+import tk.otanod.libMath.Frustum;
+import tk.otanod.libMath.Sphere3f;
+import tk.otanod.libMath.V3f;
+
+/**
+ * Frustum culling of the instances of an instanced model, no GL: the world bounding sphere of each instance
+ * (bounding sphere of the mesh with the instance matrix) is tested against the frustum of the frame and the
+ * matrices of the visible ones are compacted, in instance order, ready for the streaming instance buffer.
+ *
+ * The spheres are computed once, the instances don't move. From PARALLEL_THRESHOLD instances the frustum test
+ * and the compaction run in chunks on the common ForkJoinPool.
+ */
+public class InstanceCuller {
+
+	public static final int PARALLEL_THRESHOLD = 16384;
+	private static final int CHUNK_SIZE = 4096;
+
+	private final int nInstances;
+	private final float[] instancesM4World;
+	private final float[] spheres;								// SoA x[] y[] z[] radius[] (Frustum.cullSpheres)
+
+	// Last cull
+	private final int[] visible;
+	private final float[] visibleMatrices;
+	private int nVisible = -1;
+	private boolean isChanged = true;
+	private final int[] previousVisible;
+	private int nPreviousVisible = -1;
+
+	// Chunks, culled on their own threads
+	private final int nChunks;
+	private final int[] chunkCounts;
+	private final List<Callable<Void>> cullTasks = new ArrayList<>();
+	private final List<Callable<Void>> copyTasks = new ArrayList<>();
+	private final int[] chunkOffsets;
+	private Frustum frustum;
+
+	/**
+	 * meshSphere: bounding sphere of the mesh in model space (RawOBJ.getBoundingSphere)
+	 */
+	public InstanceCuller(int nInstances, float[] instancesM4World, Sphere3f meshSphere) {
+		this.nInstances = nInstances;
+		this.instancesM4World = instancesM4World;
+		this.spheres = getWorldSpheres(nInstances, instancesM4World, meshSphere);
+		this.visible = new int[nInstances];
+		this.previousVisible = new int[nInstances];
+		this.visibleMatrices = new float[nInstances * BatchTransforms.MATRIX_FLOATS];
+
+		this.nChunks = (nInstances + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		this.chunkCounts = new int[nChunks];
+		this.chunkOffsets = new int[nChunks];
+		for (int c = 0; c < nChunks; c++) {
+			final int chunk = c;
+			final int start = c * CHUNK_SIZE;
+			final int end = Math.min(nInstances, start + CHUNK_SIZE);
+			cullTasks.add(() -> {
+				chunkCounts[chunk] = frustum.cullSpheres(nInstances, spheres, start, end, visible, start);
+				return null;
+			});
+			copyTasks.add(() -> {
+				copy(start, chunkCounts[chunk], chunkOffsets[chunk]);
+				return null;
+			});
+		}
+	}
+
+	/************************
+	 *	BOUNDS
+	 ************************/
+
+	/**
+	 * World spheres: the center is transformed by the instance matrix (column major), the radius is scaled by
+	 * the largest scale of the matrix
+	 */
+	static float[] getWorldSpheres(int n, float[] m, Sphere3f meshSphere) {
+		float[] spheres = new float[n * Sphere3f.COMPONENTS];
+		float cx = meshSphere.x(), cy = meshSphere.y(), cz = meshSphere.z(), r = meshSphere.radius();
+		for (int i = 0; i < n; i++) {
+			int o = i * BatchTransforms.MATRIX_FLOATS;
+			spheres[i]         = m[o]     * cx + m[o + 4] * cy + m[o + 8]  * cz + m[o + 12];
+			spheres[n + i]     = m[o + 1] * cx + m[o + 5] * cy + m[o + 9]  * cz + m[o + 13];
+			spheres[2 * n + i] = m[o + 2] * cx + m[o + 6] * cy + m[o + 10] * cz + m[o + 14];
+			float scale2 = Math.max(m[o] * m[o] + m[o + 1] * m[o + 1] + m[o + 2] * m[o + 2],
+					Math.max(m[o + 4] * m[o + 4] + m[o + 5] * m[o + 5] + m[o + 6] * m[o + 6],
+							 m[o + 8] * m[o + 8] + m[o + 9] * m[o + 9] + m[o + 10] * m[o + 10]));
+			spheres[3 * n + i] = r * (float) Math.sqrt(scale2);
+		}
+		return spheres;
+	}
+
+	/************************
+	 *	CULLING
+	 ************************/
+
+	/**
+	 * Visible instances for the frustum of the frame, their matrices are in getVisibleMatrices()
+	 */
+	public int cull(Frustum frustum) {
+		return cull(frustum, ForkJoinPool.commonPool(), PARALLEL_THRESHOLD);
+	}
+
+	int cull(Frustum frustum, ForkJoinPool pool, int parallelThreshold) {
+		// previous visible set, to skip the upload when nothing changed
+		System.arraycopy(visible, 0, previousVisible, 0, Math.max(nVisible, 0));
+		nPreviousVisible = nVisible;
+
+		this.frustum = frustum;
+		if ( nInstances < parallelThreshold || nChunks < 2 || pool.getParallelism() < 2 ) {
+			nVisible = frustum.cullSpheres(nInstances, spheres, visible);
+			copy(0, nVisible, 0);
+		} else {
+			nVisible = cullParallel(pool);
+		}
+		this.frustum = null;
+
+		isChanged = ( nVisible != nPreviousVisible );
+		for (int i = 0; i < nVisible && !isChanged; i++) {
+			isChanged = ( visible[i] != previousVisible[i] );
+		}
+		return nVisible;
+	}
+
+	private int cullParallel(ForkJoinPool pool) {
+		// Step 1 - frustum test of each chunk, the indices stay in the range of the chunk
+		invokeAll(pool, cullTasks);
+
+		// Step 2 - compact the indices, in instance order, and copy the matrices of each chunk
+		int count = 0;
+		for (int c = 0; c < nChunks; c++) {
+			chunkOffsets[c] = count;
+			count += chunkCounts[c];
+		}
+		invokeAll(pool, copyTasks);
+		for (int c = 0; c < nChunks; c++) {
+			System.arraycopy(visible, c * CHUNK_SIZE, visible, chunkOffsets[c], chunkCounts[c]);
+		}
+		return count;
+	}
+
+	private static void invokeAll(ForkJoinPool pool, List<Callable<Void>> tasks) {
+		try {
+			for (Future<Void> result : pool.invokeAll(tasks)) {
+				result.get();
+			}
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private void copy(int start, int count, int offset) {
+		for (int k = 0; k < count; k++) {
+			System.arraycopy(instancesM4World, visible[start + k] * BatchTransforms.MATRIX_FLOATS,
+					visibleMatrices, (offset + k) * BatchTransforms.MATRIX_FLOATS, BatchTransforms.MATRIX_FLOATS);
+		}
+	}
+
+	/************************
+	 *	RESULTS
+	 ************************/
+
+	public int getnInstances() {
+		return nInstances;
+	}
+
+	public int getnVisible() {
+		return nVisible;
+	}
+
+	/**
+	 * Matrices of the visible instances, getnVisible() * 16 floats are valid
+	 */
+	public float[] getVisibleMatrices() {
+		return visibleMatrices;
+	}
+
+	/**
+	 * Indices of the visible instances, getnVisible() are valid
+	 */
+	public int[] getVisible() {
+		return visible;
+	}
+
+	/**
+	 * Sort depth (RenderQueue) of the visible instances: distance from the eye to the nearest visible sphere,
+	 * 0 when the eye is inside one. Opaque items, front to back.
+	 */
+	public float getNearestDepth(V3f eye) {
+		float ex = eye.x(), ey = eye.y(), ez = eye.z();
+		float nearest = Float.MAX_VALUE;
+		for (int k = 0; k < nVisible; k++) {
+			int i = visible[k];
+			float dx = spheres[i] - ex, dy = spheres[nInstances + i] - ey, dz = spheres[2 * nInstances + i] - ez;
+			nearest = Math.min(nearest, (float) Math.sqrt(dx * dx + dy * dy + dz * dz) - spheres[3 * nInstances + i]);
+		}
+		return ( nVisible > 0 ) ? Math.max(nearest, 0f) : 0f;
+	}
+
+	/**
+	 * Sort depth (RenderQueue) of the visible instances: mean distance from the eye to their centers.
+	 * Transparent items, back to front.
+	 */
+	public float getMeanDepth(V3f eye) {
+		float ex = eye.x(), ey = eye.y(), ez = eye.z();
+		double sum = 0.0;
+		for (int k = 0; k < nVisible; k++) {
+			int i = visible[k];
+			float dx = spheres[i] - ex, dy = spheres[nInstances + i] - ey, dz = spheres[2 * nInstances + i] - ez;
+			sum += Math.sqrt(dx * dx + dy * dy + dz * dz);
+		}
+		return ( nVisible > 0 ) ? (float) (sum / nVisible) : 0f;
+	}
+
+	/**
+	 * false: same visible instances as the previous cull, the instance buffer is up to date
+	 */
+	public boolean isChanged() {
+		return isChanged;
+	}
+
+}
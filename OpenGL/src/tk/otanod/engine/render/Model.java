@@ -28,6 +28,13 @@ public interface Model {
 	
 	public void display(GLAutoDrawable drawable);
 	
+	/**
+	 * Draw items of the frame, by default display() is called in the overlay pass in submission order
+	 */
+	public default void submit(RenderQueue queue) {
+		queue.submit(this);
+	}
+	
 	public void reshape(GLAutoDrawable drawable, int x, int y, int width, int height);
 	
 	public void update(float x, float y, float z, Camera camera, Light light, M4f projection);
@@ -47,6 +47,7 @@ public class ModelIndicesTexture implements Model {
 	@Override
 	public void init(GLAutoDrawable drawable) {
 		initialize(drawable);
+		this.isInitialized = true;
 	}
 
 	@Override
@@ -325,7 +326,7 @@ public class ModelIndicesTexture implements Model {
 		gl.glDeleteVertexArrays(this.nVAOs, this.vaos, 0);
 		
 		// 4. Delete Program
-		gl.glDeleteProgram(this.programGLSL);
+		ShaderProgramCache.getInstance().release(gl, this.programGLSL);
 		
 		// 5. Delete textures
 		gl.glDeleteTextures(this.nTextures, this.textureIDs, 0);
@@ -380,116 +381,15 @@ public class ModelIndicesTexture implements Model {
 //				+ "   gl_FragColor.rgb = pow(gl_FragColor.rgb, vec3(1.0/gamma)); \n"				
 				+ "} ";
 						
-		if(gl.isGL3core()){
-            System.out.println("GL3 core detected: explicit add #version 130 to shaders");
-            sVertexShaderCode = "#version 130\n"+sVertexShaderCode;
-            sFragmentShaderCode = "#version 130\n"+sFragmentShaderCode;
-        }
-
-		// STEP 1: Create Shaders
-        // Create GPU shader handles
-        // OpenGL ES returns an index id to be stored for future reference.
-	    int vertexShader = gl.glCreateShader(GL4ES3.GL_VERTEX_SHADER);		// create the Vertex Shader
-	    int fragmentShader = gl.glCreateShader(GL4ES3.GL_FRAGMENT_SHADER);	// create the Fragment Shader
-
-	    // STEP 2: Source and Compile Shaders
-        //Compile the vertexShader String into a program.
-        String[] vlines = new String[] { sVertexShaderCode };
-        int[] vlengths = new int[] { vlines[0].length() };
-        gl.glShaderSource(vertexShader, vlines.length, vlines, vlengths, 0);	// @jogl
-        //GLES31.glShaderSource(vertexShader,sVertexShaderCode);  // @ANDROID
-        gl.glCompileShader(vertexShader);
-
-        //Compile the fragmentShader String into a program.
-        String[] flines = new String[] { sFragmentShaderCode };
-        int[] flengths = new int[] { flines[0].length() };
-        gl.glShaderSource(fragmentShader, flines.length, flines, flengths, 0);		// @jogl
-        //GLES31.glShaderSource(fragmentShader,sFragmentShaderCode);  // @ANDROID
-        gl.glCompileShader(fragmentShader);
-        
-        // STEP 3: Check for compile errors
-        // Vertex check errors
-        int[] compiled = new int[1];
-        gl.glGetShaderiv(vertexShader, GL4ES3.GL_COMPILE_STATUS, compiled,0);
-        if (compiled[0]!=0) {
-        	debug("GLSL", "OK vertex shader compiled");
-        } else {
-            int[] logLength = new int[1];
-            gl.glGetShaderiv(vertexShader, GL4ES3.GL_INFO_LOG_LENGTH, logLength, 0);
-            byte[] log = new byte[logLength[0]];
-            gl.glGetShaderInfoLog(vertexShader, logLength[0], (int[])null, 0, log, 0);
-            // GLES31.glGetShaderInfoLog(vertexShader); 	// @android
-
-            System.err.println("Error compiling the vertex shader: " + new String(log));
-            System.exit(1);
-        }
-
-        // Fragment check errors
-        gl.glGetShaderiv(fragmentShader, GL4ES3.GL_COMPILE_STATUS, compiled,0);
-        if (compiled[0]!=0) { 
-        	debug("GLSL", "OK fragment shader compiled");
-        } else {
-            int[] logLength = new int[1];
-            gl.glGetShaderiv(fragmentShader, GL4ES3.GL_INFO_LOG_LENGTH, logLength, 0);
-
-            byte[] log = new byte[logLength[0]];
-            gl.glGetShaderInfoLog(fragmentShader, logLength[0], (int[])null, 0, log, 0);
-            // GLES31.glGetShaderInfoLog(vertexShader); 	// @android
-
-            System.err.println("Error compiling the fragment shader: " + new String(log));
-            System.exit(1);
-        }
-
-        // STEP 4: Attach shaders to program
-        //Each mShaderProgram must have
-        //one vertex shader and one fragment shader.
-        int mShaderProgram = gl.glCreateProgram();			// Create the Shader Program
-        gl.glAttachShader(mShaderProgram, vertexShader);	// Attach compiled vertex shader
-        gl.glAttachShader(mShaderProgram, fragmentShader);  // Attach compiled fragment shader
-        
-        // STEP 5prev: 
-        // Active attributes that are not explicitly bound will be bound by the linker when glLinkProgram is called.
-        //gl.glBindAttribLocation(mShaderProgram, 0, "av4Position");
-        //gl.glBindAttribLocation(mShaderProgram, 1, "av4Color");
-        //gl.glBindAttribLocation(mShaderProgram, 2, "uSampler");
-        //gl.glBindAttribLocation(mShaderProgram, 3, "uMVPmatrix");
-        
-        // STEP 5: Link the program
-        gl.glLinkProgram(mShaderProgram);
+		// STEP 1-6: Compile and link, or share the program of the renderers with the same sources
+		ShaderProgram program = ShaderProgramCache.getInstance().acquire(gl, sVertexShaderCode, sFragmentShaderCode);
+		int mShaderProgram = program.getId();
 
-        int[] linked = new int[1];
-        gl.glGetProgramiv(mShaderProgram, GL4ES3.GL_LINK_STATUS, linked, 0);
-        
-        int[] validated = new int[1];
-        gl.glGetProgramiv(mShaderProgram, GL4ES3.GL_VALIDATE_STATUS, validated, 0);
-        
-        // STEP 6: Check linking errors
-        if (linked[0]!=0) {
-        	debug("GLSL", "OK program linked " + linked[0] + " validated " + validated[0]);
-        } else {
-            int[] logLength = new int[1];
-            gl.glGetShaderiv(vertexShader, GL4ES3.GL_INFO_LOG_LENGTH, logLength, 0);
-            byte[] log = new byte[logLength[0]];
-            gl.glGetProgramInfoLog(mShaderProgram, logLength[0], (int[])null, 0, log, 0);	// @jogl
-            // GLES31.glGetProgramInfoLog(mShaderProgram);		// @android
-
-            System.err.println("Error compiling the vertex shader: " + new String(log));
-            System.exit(1);
-        }      
-        
-        
-        
         // STEP 7: UNIFORM link to JAVA
         // Link GLSL with java
-        this.aAttribLocation[ATTRIB_POSITION] 	= gl.glGetAttribLocation(mShaderProgram, "av4Position");
-        this.aAttribLocation[ATTRIB_TEXTURE_COORDS] = gl.glGetAttribLocation(mShaderProgram, "av2TextureCoord");        
-        this.aAttribLocation[ATTRIB_SAMPLER]	    = gl.glGetUniformLocation(mShaderProgram, "uSampler");        
-        
-        // STEP 8: Detach and delete the shaders, they are no longer needed after the program is linked and compiled
-        gl.glDetachShader(mShaderProgram, vertexShader);
-        gl.glDeleteShader(vertexShader);
-        gl.glDetachShader(mShaderProgram, fragmentShader);
-        gl.glDeleteShader(fragmentShader);
+        this.aAttribLocation[ATTRIB_POSITION] 	= program.getAttribLocation("av4Position");
+        this.aAttribLocation[ATTRIB_TEXTURE_COORDS] = program.getAttribLocation("av2TextureCoord");        
+        this.aAttribLocation[ATTRIB_SAMPLER]	    = program.getUniformLocation("uSampler");        
         
         // STEP 9: How to use it
         // gl.glUseProgram(mShaderProgram);			// Done during the DRAW, each object can use different program
@@ -0,0 +1,154 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.engine.render;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Linked program binary (.rawprog) from glGetProgramBinary, loaded with glProgramBinary on the next start:
+ * no compile and no link. The binary is only valid for the same sources on the same driver, both are checked.
+ *
+ * Layout, native byte order:
+ *    0  int   MAGIC 'RPRG'
+ *    4  int   VERSION
+ *    8  int   BYTE_ORDER_MARK, read as a different value on a machine with the other endianness
+ *   12  int   binary format (glGetProgramBinary)
+ *   16  long  ShaderProgramCache.hash of the sources
+ *   24  int   driver length (bytes)
+ *   28  int   binary length (bytes)
+ *   32        driver, UTF-8 GL_RENDERER + "\n" + GL_VERSION
+ *    ...      binary
+ */
+class ProgramBinaryFile {
+
+	static final String EXTENSION = ".rawprog";
+
+	private static final int MAGIC = ('R' << 24) | ('P' << 16) | ('R' << 8) | 'G';
+	private static final int VERSION = 1;
+	private static final int BYTE_ORDER_MARK = 0x01020304;
+	private static final int HEADER_SIZE = 32;
+
+	private final int format;
+	private final ByteBuffer binary;
+
+	private ProgramBinaryFile(int format, ByteBuffer binary) {
+		this.format = format;
+		this.binary = binary;
+	}
+
+	/**
+	 * Binary format for glProgramBinary
+	 */
+	int getFormat() {
+		return format;
+	}
+
+	/**
+	 * Direct buffer with the binary, from position to limit
+	 */
+	ByteBuffer getBinary() {
+		return binary.duplicate();
+	}
+
+	/**
+	 * res/shaders + 0123456789abcdef ==> res/shaders/0123456789abcdef.rawprog
+	 */
+	static Path getCachePath(Path directory, long sourceHash) {
+		return directory.resolve(String.format("%016x", sourceHash) + EXTENSION);
+	}
+
+	static String getDriver(String renderer, String version) {
+		return renderer + "\n" + version;
+	}
+
+	static void write(Path target, long sourceHash, String driver, int format, ByteBuffer binary) throws IOException {
+		byte[] bytesDriver = driver.getBytes(StandardCharsets.UTF_8);
+		ByteBuffer data = binary.duplicate();
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + bytesDriver.length + data.remaining()).order(ByteOrder.nativeOrder());
+		buffer.putInt(MAGIC);
+		buffer.putInt(VERSION);
+		buffer.putInt(BYTE_ORDER_MARK);
+		buffer.putInt(format);
+		buffer.putLong(sourceHash);
+		buffer.putInt(bytesDriver.length);
+		buffer.putInt(data.remaining());
+		buffer.put(bytesDriver);
+		buffer.put(data);
+		buffer.flip();
+
+		// write to a temporary file and rename it, a reader never sees a half written cache
+		Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+		try ( FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE) ) {
+			while ( buffer.hasRemaining() ) {
+				channel.write(buffer);
+			}
+		}
+		try {
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Reads the cache file, returns null when it is missing, was linked from other sources or by another driver,
+	 * or was written by another version or on a machine with another byte order.
+	 */
+	static ProgramBinaryFile read(Path cache, long sourceHash, String driver) throws IOException {
+		if ( !Files.isRegularFile(cache) ) {
+			return null;
+		}
+		ByteBuffer buffer;
+		try ( FileChannel channel = FileChannel.open(cache, StandardOpenOption.READ) ) {
+			long size = channel.size();
+			if ( size < HEADER_SIZE || size > Integer.MAX_VALUE ) {
+				return null;
+			}
+			buffer = ByteBuffer.allocateDirect((int) size).order(ByteOrder.nativeOrder());
+			while ( buffer.hasRemaining() && channel.read(buffer) >= 0 ) {
+				// read all
+			}
+			buffer.flip();
+		}
+
+		if ( buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(8) != BYTE_ORDER_MARK ) {
+			return null;
+		}
+		byte[] bytesDriver = driver.getBytes(StandardCharsets.UTF_8);
+		int driverLength = buffer.getInt(24);
+		int binaryLength = buffer.getInt(28);
+		if ( buffer.getLong(16) != sourceHash || driverLength != bytesDriver.length || binaryLength <= 0
+				|| (long) HEADER_SIZE + driverLength + binaryLength != buffer.limit() ) {
+			return null;
+		}
+		for (int i = 0; i < driverLength; i++) {
+			if ( buffer.get(HEADER_SIZE + i) != bytesDriver[i] ) {
+				return null;
+			}
+		}
+		buffer.position(HEADER_SIZE + driverLength);
+		return new ProgramBinaryFile(buffer.getInt(12), buffer.slice());
+	}
+
+}
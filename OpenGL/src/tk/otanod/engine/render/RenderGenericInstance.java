@@ -14,23 +14,29 @@ SOFTWARE.
 
 package tk.otanod.engine.render;
 
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
-import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
 
 import com.jogamp.opengl.GL4ES3;
 import com.jogamp.opengl.GLAutoDrawable;
 import tk.otanod.engine.camera.Camera;
 import tk.otanod.engine.light.Light;
 import tk.otanod.libIO.RawImage;
+import tk.otanod.libMath.Aabb3f;
+import tk.otanod.libMath.Frustum;
 import tk.otanod.libMath.M4f;
+import tk.otanod.libMath.Sphere3f;
 import tk.otanod.libMath.V3f;
+import tk.otanod.libOBJ.ElementBuffers;
+import tk.otanod.libOBJ.QuantizedOBJ;
 import tk.otanod.libOBJ.RawOBJ;
 
 
 
-public class RenderGenericInstance implements Model {
+public class RenderGenericInstance implements Model, DrawItem {
 
 	private boolean isInitialized = false;
 	
@@ -55,16 +61,26 @@ public class RenderGenericInstance implements Model {
 	// World matrix
 	//private M4f m4World;
 	private float[] instancesM4World;
+	// Frustum culling of the instances, the visible matrices are streamed to the instance buffer
+	private InstanceCuller culler;
+	private final Frustum frustum = new Frustum();
+	private FloatBuffer fbVisibleInstances;
+	private int visibleInstances;
 	
 	// Texture
 	RawImage textureImage;
 	
 	// Model
 	private int nElements;
-	private int[] indices;
-	private float[] positions;
-	private float[] textureCoords;
-	private float[] normals;
+	private Buffer indices;
+	private int indexType;								// GL_UNSIGNED_SHORT or GL_UNSIGNED_INT
+	private FloatBuffer positions;
+	private FloatBuffer textureCoords;
+	private FloatBuffer normals;
+	// Model - compressed vertex attributes (null: floats)
+	private QuantizedOBJ quantized;
+	private float[] positionMin;
+	private float[] positionExtent;
 		
 	// OpenGL - internal
 	private int nVAOs;
@@ -75,32 +91,27 @@ public class RenderGenericInstance implements Model {
 	private int[] textureIDs;
 	private int textureUnit;
 	private int programGLSL;
+	private RenderState state;							// program, texture unit, VAO, blend and cull of the draw item
 	
 	// GLSL
-    private int[] aAttribLocation = new int[13];
+    private int[] aAttribLocation = new int[7];
 	private static final int ATTRIB_POSITION = 0;
 	private static final int ATTRIB_TEXTURE_COORDS = 1;
 	private static final int ATTRIB_NORMAL = 2;
 	private static final int ATTRIB_SAMPLER = 3;
-	private static final int ATTRIB_P = 4;
-	private static final int ATTRIB_V = 5;
-	//private static final int ATTRIB_M = 6;
-	private static final int INSTANCE_M = 6;
-	private static final int ATTRIB_LIGHT_POSITION = 7;
-	private static final int ATTRIB_LIGHT_AMBIENT_COLOR = 8;
-	private static final int ATTRIB_LIGHT_DIFFUSE_COLOR = 9;
-	private static final int ATTRIB_LIGHT_SPECULAR_COLOR = 10;
-	private static final int ATTRIB_EYE_POSITION = 11;
-	private static final int ATTRIB_SKYCOLOR = 12;
+	//private static final int ATTRIB_M = 4;
+	private static final int INSTANCE_M = 4;
+	private static final int ATTRIB_POSITION_MIN = 5;
+	private static final int ATTRIB_POSITION_EXTENT = 6;
 	
 	public RenderGenericInstance(int instances, float[] instancesM4View, RawOBJ model, RawImage textureImage, Camera camera, Light light, M4f projection) {
 		
 		// Model
-		this.indices = model.getIndices();
+		this.indices = model.getIndexBuffer();
 		this.nElements = model.getnElements();
-		this.positions = model.getPositions();
-		this.textureCoords = model.getTextureCoords();
-		this.normals = model.getNormals();
+		this.positions = model.getPositionBuffer();
+		this.textureCoords = model.getTextureCoordBuffer();
+		this.normals = model.getNormalBuffer();
 		
 		// Texture
 		this.textureImage = textureImage;
@@ -108,6 +119,37 @@ public class RenderGenericInstance implements Model {
 		// World position
 		this.instances = instances;
 		this.instancesM4World = instancesM4View;
+		this.culler = new InstanceCuller(instances, instancesM4View, model.getBoundingSphere());
+		//updatePosition(instancesPosition.x(), instancesPosition.y(), instancesPosition.z());
+		// World scale
+		//updateScale(instancesScale.x(), instancesScale.y(), instancesScale.z());
+		
+		// View matrix
+		update(camera);
+		// Light
+		update(light);
+		// Projection matrix
+		update(projection);
+		
+	}
+	
+	public RenderGenericInstance(int instances, float[] instancesM4View, QuantizedOBJ model, RawImage textureImage, Camera camera, Light light, M4f projection) {
+		
+		// Model, compressed vertex attributes (16 bytes per vertex), decoded by the vertex shader
+		this.quantized = model;
+		this.indices = model.getIndexBuffer();
+		this.nElements = model.getnElements();
+		this.positionMin = model.getPositionMin();
+		this.positionExtent = model.getPositionExtent();
+		
+		// Texture
+		this.textureImage = textureImage;
+		
+		// World position
+		this.instances = instances;
+		this.instancesM4World = instancesM4View;
+		this.culler = new InstanceCuller(instances, instancesM4View, new Sphere3f().setFromBounds(new Aabb3f(this.positionMin[0], this.positionMin[1], this.positionMin[2],
+				this.positionMin[0] + this.positionExtent[0], this.positionMin[1] + this.positionExtent[1], this.positionMin[2] + this.positionExtent[2])));
 		//updatePosition(instancesPosition.x(), instancesPosition.y(), instancesPosition.z());
 		// World scale
 		//updateScale(instancesScale.x(), instancesScale.y(), instancesScale.z());
@@ -175,6 +217,7 @@ public class RenderGenericInstance implements Model {
 	@Override
 	public void init(GLAutoDrawable drawable) {
 		initialize(drawable);
+		this.isInitialized = true;
 	}
 
 	@Override
@@ -185,7 +228,11 @@ public class RenderGenericInstance implements Model {
 	@Override
 	public void display(GLAutoDrawable drawable) {
 		if ( this.isInitialized ) {
+			GL4ES3 gl = drawable.getGL().getGL4ES3();
+			cull();
+			this.state.bind(gl);
 			draw(drawable);
+			this.state.unbind(gl);
 		} else {
 			initialize(drawable);
 			this.isInitialized = true;
@@ -193,6 +240,32 @@ public class RenderGenericInstance implements Model {
 		
 	}
 
+	@Override
+	public void submit(RenderQueue queue) {
+		if ( !this.isInitialized ) {
+			queue.submit((Model) this);								// display() initializes the model
+			return;
+		}
+		if ( cull() == 0 ) {
+			return;													// no visible instance, no draw item
+		}
+		// depth of the visible instances: the nearest one for front to back, their mean for back to front
+		if ( this.textureImage.isTransparent() ) {
+			queue.submit(RenderQueue.getKey(RenderQueue.PASS_TRANSPARENT, this.state, this.culler.getMeanDepth(this.v3Eye)), this.state, this);
+		} else {
+			queue.submit(RenderQueue.getKey(RenderQueue.PASS_OPAQUE, this.state, this.culler.getNearestDepth(this.v3Eye)), this.state, this);
+		}
+	}
+	
+	/**
+	 * Visible instances for the camera of this frame, draw() streams their matrices
+	 */
+	private int cull() {
+		this.frustum.set(this.m4Projection, this.m4View);
+		this.visibleInstances = this.culler.cull(this.frustum);
+		return this.visibleInstances;
+	}
+	
 	@Override
 	public void reshape(GLAutoDrawable drawable, int x, int y, int width, int height) {
 		//
@@ -221,11 +294,18 @@ public class RenderGenericInstance implements Model {
 		gl.glGenBuffers(this.nVBOs, this.vbos, 0);					// Buffer object names returned by a call to glGenBuffers are not returned by subsequent calls, unless they are first deleted with glDeleteBuffers.
 		
 		addEBOtoVAO(gl, this.indices, this.vbos[0]);
-		addVBOtoVAO(gl, this.positions, this.vbos[1], 3, ATTRIB_POSITION);
-		addVBOtoVAO(gl, this.textureCoords, this.vbos[2], 2, ATTRIB_TEXTURE_COORDS);
-		addVBOtoVAO(gl, this.normals, this.vbos[3], 3, ATTRIB_NORMAL);
+		if ( this.quantized == null ) {
+			addVBOtoVAO(gl, this.positions, this.vbos[1], 3, ATTRIB_POSITION);
+			addVBOtoVAO(gl, this.textureCoords, this.vbos[2], 2, ATTRIB_TEXTURE_COORDS);
+			addVBOtoVAO(gl, this.normals, this.vbos[3], 3, ATTRIB_NORMAL);
+		} else {
+			addVBOtoVAO(gl, this.quantized.getPositionBuffer(), this.vbos[1], 4, GL4ES3.GL_UNSIGNED_SHORT, ATTRIB_POSITION);		// unorm16 inside the AABB
+			addVBOtoVAO(gl, this.quantized.getTextureCoordBuffer(), this.vbos[2], 2, GL4ES3.GL_HALF_FLOAT, ATTRIB_TEXTURE_COORDS);
+			addVBOtoVAO(gl, this.quantized.getNormalBuffer(), this.vbos[3], 2, GL4ES3.GL_SHORT, ATTRIB_NORMAL);				// snorm16 octahedral
+		}
 		
-		addInstanceVBOtoVAO(gl, this.vbos[4], this.instancesM4World, this.aAttribLocation[INSTANCE_M], 16, 4);
+		addInstanceVBOtoVAO(gl, this.vbos[4], this.instancesM4World.length, this.aAttribLocation[INSTANCE_M], 16, 4);
+		this.fbVisibleInstances = ByteBuffer.allocateDirect(this.instancesM4World.length * Float.BYTES).order(ByteOrder.nativeOrder()).asFloatBuffer();	// staging of the visible matrices, draw()
 
 
 		// 4. Unbind the VAO, just binding the default 0 VAO (0=no using VAOs)
@@ -241,21 +321,26 @@ public class RenderGenericInstance implements Model {
 			gl.glGenTextures(this.nTextures, this.textureIDs, 0);
 			this.textureUnit = TextureUnitManager.getInstance().getTextureNumber(textureImage.getName());
 			createTexture(gl, this.textureIDs[0], this.textureUnit, textureImage);			
-		}		
-		        
+		}
+		
+		// 6. State of the draw item
+		boolean isTransparent = this.textureImage.isTransparent();
+		this.state = new RenderState(this.programGLSL, this.aAttribLocation[ATTRIB_SAMPLER], this.textureUnit, this.vaos[0], isTransparent, !isTransparent, GL4ES3.GL_LESS);
+
 	}
 
-	private void addEBOtoVAO(GL4ES3 gl, int[] mData, int ebo) {
-		// 3.1 Prepare the data, we need a IntBuffer instead of a Int Array
-		IntBuffer ibData = getIntBuffer(mData);
+	private void addEBOtoVAO(GL4ES3 gl, Buffer data, int ebo) {
+		// 3.1 The data is already a direct ShortBuffer or IntBuffer (RawOBJ), no copy
+		//     16 bits indices when the model has fewer than 65536 vertices, half the memory and bandwidth
+		int bytesPerIndex = ElementBuffers.getBytesPerIndex(data);
+		this.indexType = ( bytesPerIndex == Short.BYTES ) ? GL4ES3.GL_UNSIGNED_SHORT : GL4ES3.GL_UNSIGNED_INT;
 
 		// 3.3 Transfer the data to the GPU
-		final int BYTES_PER_INT = Integer.SIZE / Byte.SIZE;  				// float has 4 bytes
-		int numBytes = (int) (mData.length * BYTES_PER_INT);
+		int numBytes = (int) (data.remaining() * bytesPerIndex);
 		
 		//fbVertices = null; // It is OK to release CPU vertices memory after transfer to GPU        
 		gl.glBindBuffer(GL4ES3.GL_ELEMENT_ARRAY_BUFFER, ebo);
-		gl.glBufferData(GL4ES3.GL_ELEMENT_ARRAY_BUFFER, numBytes, ibData, GL4ES3.GL_STATIC_DRAW);
+		gl.glBufferData(GL4ES3.GL_ELEMENT_ARRAY_BUFFER, numBytes, data, GL4ES3.GL_STATIC_DRAW);
 		
 		// 3.5 Unbind the EBO
 		// VERY IMPORTANT
@@ -266,13 +351,12 @@ public class RenderGenericInstance implements Model {
 		//gl.glBindBuffer(GL4ES3.GL_ELEMENT_ARRAY_BUFFER, 0);						//	NEVER unbind the ELEMENT_ARRAY_BUFFER inside teh VAO
 	}
 
-	private void addVBOtoVAO(GL4ES3 gl, float[] mData, int vbo, int componentsPerVertex, int attrib) {
-		// 3.1 Prepare the data, we need a FloatBuffer instead of a Float Array
-		FloatBuffer fbData = getFloatBuffer(mData);
+	private void addVBOtoVAO(GL4ES3 gl, FloatBuffer fbData, int vbo, int componentsPerVertex, int attrib) {
+		// 3.1 The data is already a direct FloatBuffer (RawOBJ), no copy
 
 		// 3.2 Transfer the data to the GPU
 		final int BYTES_PER_FLOAT = Float.SIZE / Byte.SIZE;  				// float has 4 bytes
-		int numBytes = (int) (mData.length * BYTES_PER_FLOAT);
+		int numBytes = (int) (fbData.remaining() * BYTES_PER_FLOAT);
 		gl.glBindBuffer(GL4ES3.GL_ARRAY_BUFFER, vbo);						// Enables the VBO, to write there the data and link it later with the VAO slot
 		gl.glBufferData(GL4ES3.GL_ARRAY_BUFFER, numBytes, fbData, GL4ES3.GL_STATIC_DRAW);	// transfers data to the VBO
 		//gl.glBindBuffer(GL4ES3.GL_ARRAY_BUFFER, 0);						
@@ -289,16 +373,36 @@ public class RenderGenericInstance implements Model {
 		// 3.5 Unbind the VBO
 		gl.glBindBuffer(GL4ES3.GL_ARRAY_BUFFER, 0);						//	Unbind buffers
 	}
+
+	private void addVBOtoVAO(GL4ES3 gl, ShortBuffer sbData, int vbo, int componentsPerVertex, int type, int attrib) {
+		// 3.1 The data is already a direct ShortBuffer (QuantizedOBJ), no copy
+
+		// 3.2 Transfer the data to the GPU
+		final int BYTES_PER_SHORT = Short.SIZE / Byte.SIZE;  				// short and half float have 2 bytes
+		int numBytes = (int) (sbData.remaining() * BYTES_PER_SHORT);
+		gl.glBindBuffer(GL4ES3.GL_ARRAY_BUFFER, vbo);
+		gl.glBufferData(GL4ES3.GL_ARRAY_BUFFER, numBytes, sbData, GL4ES3.GL_STATIC_DRAW);
+		
+		// 3.3 Add the VBO to the VAO, integer types are normalized by GL: unsigned [0,65535] => [0,1], signed [-32767,32767] => [-1,1]
+		int shaderPositionGLSL = this.aAttribLocation[attrib];
+		gl.glEnableVertexAttribArray(shaderPositionGLSL);
+		debug("glEnableVertexAttribArray", "" + gl.glGetError());
+		boolean isNormalized = ( type != GL4ES3.GL_HALF_FLOAT );
+		gl.glVertexAttribPointer(shaderPositionGLSL, componentsPerVertex, type, isNormalized, 0, 0);
+		debug("glVertexAttribPointer", "" + gl.glGetError());
+
+		// 3.5 Unbind the VBO
+		gl.glBindBuffer(GL4ES3.GL_ARRAY_BUFFER, 0);
+	}
 	
-	private void addInstanceVBOtoVAO(GL4ES3 gl, int vbo, float[] mData, int attrib_location, int stride, int elements) {
-		// 3.1 Prepare the data, we need a FloatBuffer instead of a Float Array
-		FloatBuffer fbData = getFloatBuffer(mData);
+	private void addInstanceVBOtoVAO(GL4ES3 gl, int vbo, int nFloats, int attrib_location, int stride, int elements) {
+		// 3.1 No data yet, draw() writes the matrices of the visible instances
 		
-		// 3.2 Transfer the data to the GPU
+		// 3.2 Allocate the VBO on the GPU
 		final int BYTES_PER_FLOAT = Float.SIZE / Byte.SIZE;  				// float has 4 bytes
-		int numBytes = (int) (mData.length * BYTES_PER_FLOAT);
+		int numBytes = (int) (nFloats * BYTES_PER_FLOAT);
 		gl.glBindBuffer(GL4ES3.GL_ARRAY_BUFFER, vbo);						// Enables the VBO, to write there the data and link it later with the VAO slot
-		gl.glBufferData(GL4ES3.GL_ARRAY_BUFFER, numBytes, fbData, GL4ES3.GL_STATIC_DRAW);	// transfers data to the VBO
+		gl.glBufferData(GL4ES3.GL_ARRAY_BUFFER, numBytes, null, GL4ES3.GL_STREAM_DRAW);	// rewritten with the visible instances, draw()
 		//gl.glBindBuffer(GL4ES3.GL_ARRAY_BUFFER, 0);						
 		
 		// 3.3 Add the VBO to the VAO 
@@ -318,57 +422,13 @@ public class RenderGenericInstance implements Model {
 		// 3.5 Unbind the VBO
 		gl.glBindBuffer(GL4ES3.GL_ARRAY_BUFFER, 0);						//	Unbind buffers
 	}
-	
-	private IntBuffer getIntBuffer(int[] data) {
-		// Bytes per Int (may vary on each system)
-		final int BYTES_PER_INT = Integer.SIZE / Byte.SIZE;  				
-		// Stride
-		//int vertexStride = COORDS_PER_VERTEX * BYTES_PER_VERTEX; 			  
-		// Total bytes needed for the buffer
-		int numBytes = (int) (data.length * BYTES_PER_INT);
-		
-		// initialize vertex byte buffer for shape coordinates
-		ByteBuffer bb = ByteBuffer.allocateDirect(numBytes);       	
-		// use the device hardware's native byte order
-		bb.order(ByteOrder.nativeOrder());
-		// create a int point buffer from the ByteBuffer
-		IntBuffer ibData = bb.asIntBuffer();
-		// add the coordinates to the IntBuffer
-		ibData.put(data);
-		// set the buffer to read the first coordinate
-		ibData.position(0);         
-
-		return(ibData);
-	}
-	
-	private FloatBuffer getFloatBuffer(float[] data) {
-		// Bytes per Float (may vary on each system)
-		final int BYTES_PER_FLOAT = Float.SIZE / Byte.SIZE;  				// float has 4 bytes
-		// Stride
-		//int vertexStride = COORDS_PER_VERTEX * BYTES_PER_VERTEX; 			// 3 o 4 floats per vertex  
-		// Total bytes needed for the buffer
-		int numBytes = (int) (data.length * BYTES_PER_FLOAT);
-		
-		// initialize vertex byte buffer for shape coordinates
-		ByteBuffer bb = ByteBuffer.allocateDirect(numBytes);       	
-		// use the device hardware's native byte order
-		bb.order(ByteOrder.nativeOrder());
-		// create a floating point buffer from the ByteBuffer
-		FloatBuffer fbData = bb.asFloatBuffer();
-		// add the coordinates to the FloatBuffer
-		fbData.put(data);
-		// set the buffer to read the first coordinate
-		fbData.position(0);         
-		
-		return(fbData);
-	}
 		
-	private void draw(GLAutoDrawable drawable) {
+	@Override
+	public void draw(GLAutoDrawable drawable) {
 		// 1. Get context
 		GL4ES3 gl = drawable.getGL().getGL4ES3();
 
-		// 2: Use Program 
-		gl.glUseProgram(this.programGLSL);
+		// 2: Program, texture unit, VAO, blend and cull: RenderState, applied by the RenderQueue or display()
 		
 		// 4: Update the Uniforms
 		// 4.1 Texture Sampler
@@ -378,49 +438,39 @@ public class RenderGenericInstance implements Model {
 		// int textureID = this.textureIDs[0]; 
 		// gl.glActiveTexture(GL4ES3.GL_TEXTURE0 + textureUnit);  						// you can avoid this call, if you don't reuse the Texture Unit between model
 		// gl.glBindTexture(GL4ES3.GL_TEXTURE_2D, textureID);							// you can avoid this call, if you don't reuse the Texture Unit between model
-		gl.glUniform1i(this.aAttribLocation[ATTRIB_SAMPLER], textureUnit);			// 0 for GL_TEXTURE0, 1 for GL_TEXTURE1, ..., 15 for GL_TEXTURE15
+		// the sampler uniform is part of the RenderState (texture unit)
 		
 		// 4.2 PVM matrix					
-		gl.glUniformMatrix4fv(this.aAttribLocation[ATTRIB_P], 1, false, m4Projection.getElements(),	0);	// glUniformMatrix4fv(int location, int count, boolean transpose, float[] value, int value_offset)
-		gl.glUniformMatrix4fv(this.aAttribLocation[ATTRIB_V], 1, false, m4View.getElements(),	0);	// glUniformMatrix4fv(int location, int count, boolean transpose, float[] value, int value_offset)
 //		gl.glUniformMatrix4fv(this.aAttribLocation[ATTRIB_M], 1, false, m4World.getElements(),	0);	// glUniformMatrix4fv(int location, int count, boolean transpose, float[] value, int value_offset)
 		
-		// 4.3 Light uniforms
-		gl.glUniform3fv(this.aAttribLocation[ATTRIB_LIGHT_POSITION],       1, light.getPosition(),      0);
-		gl.glUniform3fv(this.aAttribLocation[ATTRIB_LIGHT_AMBIENT_COLOR],  1, light.getAmbientColor(),  0);
-		gl.glUniform3fv(this.aAttribLocation[ATTRIB_LIGHT_DIFFUSE_COLOR],  1, light.getDiffuseColor(),  0);
-		gl.glUniform3fv(this.aAttribLocation[ATTRIB_LIGHT_SPECULAR_COLOR], 1, light.getSpecularColor(), 0);
-		gl.glUniform3fv(this.aAttribLocation[ATTRIB_SKYCOLOR], 1, light.getSkyColor(), 0);	
+		// 4.3 P, V, light, eye and fog: FrameUniforms, uploaded once per frame
+
+		// 4.6 AABB to decode the quantized positions
+		if ( this.quantized != null ) {
+			gl.glUniform3fv(this.aAttribLocation[ATTRIB_POSITION_MIN],     1, this.positionMin,    0);
+			gl.glUniform3fv(this.aAttribLocation[ATTRIB_POSITION_EXTENT],  1, this.positionExtent, 0);
+		}
 		
-		// 4.5 Camera/Eye position
-		gl.glUniform3fv(this.aAttribLocation[ATTRIB_EYE_POSITION],  1, v3Eye.getFloats(),   0);
+		// 4.7 Matrices of the visible instances, uploaded when the visible set changes
+		// orphan the buffer (glBufferData null) so the driver doesn't wait for the draws of the previous frame
+		if ( this.culler.isChanged() ) {
+			this.fbVisibleInstances.clear();
+			this.fbVisibleInstances.put(this.culler.getVisibleMatrices(), 0, this.visibleInstances * 16);
+			this.fbVisibleInstances.flip();
+			gl.glBindBuffer(GL4ES3.GL_ARRAY_BUFFER, this.vbos[4]);
+			gl.glBufferData(GL4ES3.GL_ARRAY_BUFFER, (long) this.fbVisibleInstances.capacity() * Float.BYTES, null, GL4ES3.GL_STREAM_DRAW);
+			gl.glBufferSubData(GL4ES3.GL_ARRAY_BUFFER, 0, (long) this.fbVisibleInstances.remaining() * Float.BYTES, this.fbVisibleInstances);
+			gl.glBindBuffer(GL4ES3.GL_ARRAY_BUFFER, 0);
+		}
 		
 		// 5: draw the VAOs
-		gl.glBindVertexArray(this.vaos[0]); 												// Bind our Vertex Array Object  
-		
 
 		// When using glDrawElements we're going to draw using indices provided in the element buffer object currently bound:
 		// Leave the ELEMENT_ARRAY_BUFFER bound inside the VAO, just avoid the unbind after creating it. And you don't need to call it here if it is already bound!!!
 		// gl.glBindBuffer(GL4ES3.GL_ELEMENT_ARRAY_BUFFER, this.vbos[0]);
-		if ( this.textureImage.isTransparent() ) {
-			gl.glDisable(GL4ES3.GL_CULL_FACE); 	// Blending can only show objects behind but not the internal object
-			gl.glEnable(GL4ES3.GL_BLEND);
-			gl.glBlendFunc(GL4ES3.GL_SRC_ALPHA, GL4ES3.GL_ONE_MINUS_SRC_ALPHA);
-		}
-			
-		gl.glDrawElementsInstanced(GL4ES3.GL_TRIANGLES, this.nElements, GL4ES3.GL_UNSIGNED_INT, 0, instances);
-			
-		if ( this.textureImage.isTransparent() ) {
-			gl.glDisable(GL4ES3.GL_BLEND);
-			gl.glEnable(GL4ES3.GL_CULL_FACE); 	// Blending can only show objects behind but not the internal object
-		}
+		gl.glDrawElementsInstanced(GL4ES3.GL_TRIANGLES, this.nElements, this.indexType, 0, this.visibleInstances);	// only the visible instances
 
 		
-		// 6: Unbind
-		gl.glBindVertexArray(0); 					// Unbind our Vertex Array Object or bind to default VAO
-		gl.glUseProgram(0);
-		
-		
 	}
 	
 	private void cleanUP(GLAutoDrawable drawable) {
@@ -434,13 +484,37 @@ public class RenderGenericInstance implements Model {
 		gl.glDeleteVertexArrays(this.nVAOs, this.vaos, 0);
 		
 		// 4. Delete Program
-		gl.glDeleteProgram(this.programGLSL);
+		ShaderProgramCache.getInstance().release(gl, this.programGLSL);
 		
 		// 5. Delete textures
 		gl.glDeleteTextures(this.nTextures, this.textureIDs, 0);
 	}
 	
 	private int getGLSLProgram(GL4ES3 gl) {
+		// Vertex attributes: floats, or compressed (QuantizedOBJ) and decoded here
+		String sVertexAttributes;
+		String sVertexDecode;
+		if ( this.quantized == null ) {
+			sVertexAttributes =
+					  "attribute  vec4  av4Position; \n"
+					+ "attribute  vec2  av2TextureCoord; \n"
+					+ "attribute  vec3  av3Normal; \n";
+			sVertexDecode =
+					  "  vec4 v4Position = av4Position; \n"
+					+ "  vec3 v3Normal = av3Normal; \n";
+		} else {
+			sVertexAttributes =
+					  "attribute  vec4  av4Position; \n"				// unorm16 ==> [0,1] inside the AABB
+					+ "attribute  vec2  av2TextureCoord; \n"			// half float
+					+ "attribute  vec2  av2Normal; \n"				// snorm16 ==> [-1,1] octahedral
+					+ "uniform    vec3  uPositionMin; \n"
+					+ "uniform    vec3  uPositionExtent; \n"
+					+ QuantizedOBJ.OCTAHEDRAL_DECODE_GLSL;
+			sVertexDecode =
+					  "  vec4 v4Position = vec4(uPositionMin + av4Position.xyz * uPositionExtent, 1.0); \n"
+					+ "  vec3 v3Normal = octahedralDecode(av2Normal); \n";
+		}
+		
 		
 		String sVertexShaderCode =
 				  "#if __VERSION__ >= 130\n" 				// GLSL 130+ uses in and out
@@ -453,14 +527,11 @@ public class RenderGenericInstance implements Model {
 				+ "  precision mediump int; \n" 			// GLSL ES section 4.5.2
 				+ "#endif \n" 
 				
-				+ "uniform 	  mat4  uPmatrix; \n"			// PV matrix, column major, pre-multiplied, from world to view and projection space
-				+ "uniform 	  mat4  uVmatrix; \n"			// PV matrix, column major, pre-multiplied, from world to view and projection space
+				+ FrameUniforms.GLSL								// uPmatrix, uVmatrix, uLight, uEyePosition, uSkyColor, fog (FrameUniforms.BINDING)
 				//+ "uniform    mat4  uMmatrix; \n"			// Model matrix, from model to world
 				+ "attribute  mat4  am4InstanceMmatrix; \n"
 
-				+ "attribute  vec4  av4Position; \n" 		// the vertex shader
-				+ "attribute  vec2  av2TextureCoord; \n"	// Texture coords
-				+ "attribute  vec3  av3Normal; \n"
+				+ sVertexAttributes
 				
 				+ "varying    vec2  vTextureCoord; \n"
 				+ "varying    vec3  vWorldNormal; \n"
@@ -471,17 +542,18 @@ public class RenderGenericInstance implements Model {
 				+ "const      float fogGradient = 10.5; \n"				// start of the fog (8.5 for 60) (20.5 for 80)
 				
 				+ "void main(void) {\n" 
+				+ sVertexDecode
 				+ "  vTextureCoord = av2TextureCoord; \n"										// Pass-through
 				
 				
 //				+ "  vv4WorldPosition = uMmatrix * av4Position; \n"								// Vertex World position
-				+ "  vv4WorldPosition = am4InstanceMmatrix * av4Position; \n"								// Vertex World position
+				+ "  vv4WorldPosition = am4InstanceMmatrix * v4Position; \n"								// Vertex World position
 				
 				+ "  vec4 v4ViewPosition = uVmatrix * vv4WorldPosition; \n"								// Vertex World position				
 				+ "  gl_Position = uPmatrix * v4ViewPosition; \n"							// Vertex position in Projection/View/World
 				 
 //				+ "  vWorldNormal = normalize((uMmatrix * vec4(av3Normal, 0.0)).xyz); \n"		// Normal vector in the world (from model to world) w=0.0 to ignore translations, normalize to ignore scales, only rotations affect the normal vector
-				+ "  vWorldNormal = normalize((am4InstanceMmatrix * vec4(av3Normal, 0.0)).xyz); \n"		// Normal vector in the world (from model to world) w=0.0 to ignore translations, normalize to ignore scales, only rotations affect the normal vector
+				+ "  vWorldNormal = normalize((am4InstanceMmatrix * vec4(v3Normal, 0.0)).xyz); \n"		// Normal vector in the world (from model to world) w=0.0 to ignore translations, normalize to ignore scales, only rotations affect the normal vector
 				
 				+ "  float distanceToCamera = length(v4ViewPosition.xyz); \n"
 				+ "  fogVisibility = exp(-pow(distanceToCamera*fogDensity, fogGradient)); \n"
@@ -507,16 +579,9 @@ public class RenderGenericInstance implements Model {
 				+ "varying   vec4  vv4WorldPosition; \n"
 
 				+ "varying   float   fogVisibility; \n"				
-				+ "uniform	 vec3    uSkyColor; \n"
+				+ FrameUniforms.GLSL								// uPmatrix, uVmatrix, uLight, uEyePosition, uSkyColor, fog (FrameUniforms.BINDING)
 				
-				+ "uniform struct Light {\n"
-				+ "   vec3  position; \n"				
-				+ "   vec3  ambientColor; \n"
-				+ "   vec3  diffuseColor; \n"
-				+ "   vec3  specularColor; \n"
-				+ "} uLight; \n"
 				
-				+ "uniform   vec3  uEyePosition; \n"
 	            
 				+ "void main (void) { \n"
 
@@ -555,129 +620,22 @@ public class RenderGenericInstance implements Model {
 			
 				+ "} ";
 						
-		if(gl.isGL3core()){
-            debug("GLSL", "GL3 core detected: explicit add #version 130 to shaders");
-            sVertexShaderCode = "#version 130\n"+sVertexShaderCode;
-            sFragmentShaderCode = "#version 130\n"+sFragmentShaderCode;
-        }
-
-		// STEP 1: Create Shaders
-        // Create GPU shader handles
-        // OpenGL ES returns an index id to be stored for future reference.
-	    int vertexShader = gl.glCreateShader(GL4ES3.GL_VERTEX_SHADER);		// create the Vertex Shader
-	    int fragmentShader = gl.glCreateShader(GL4ES3.GL_FRAGMENT_SHADER);	// create the Fragment Shader
-
-	    // STEP 2: Source and Compile Shaders
-        //Compile the vertexShader String into a program.
-        String[] vlines = new String[] { sVertexShaderCode };
-        int[] vlengths = new int[] { vlines[0].length() };
-        gl.glShaderSource(vertexShader, vlines.length, vlines, vlengths, 0);	// @jogl
-        //GLES31.glShaderSource(vertexShader,sVertexShaderCode);  // @ANDROID
-        gl.glCompileShader(vertexShader);
-
-        //Compile the fragmentShader String into a program.
-        String[] flines = new String[] { sFragmentShaderCode };
-        int[] flengths = new int[] { flines[0].length() };
-        gl.glShaderSource(fragmentShader, flines.length, flines, flengths, 0);		// @jogl
-        //GLES31.glShaderSource(fragmentShader,sFragmentShaderCode);  // @ANDROID
-        gl.glCompileShader(fragmentShader);
-        
-        // STEP 3: Check for compile errors
-        // Vertex check errors
-        int[] compiled = new int[1];
-        gl.glGetShaderiv(vertexShader, GL4ES3.GL_COMPILE_STATUS, compiled,0);
-        if (compiled[0]!=0) {
-        	debug("GLSL", "OK vertex shader compiled");
-        } else {
-            int[] logLength = new int[1];
-            gl.glGetShaderiv(vertexShader, GL4ES3.GL_INFO_LOG_LENGTH, logLength, 0);
-            byte[] log = new byte[logLength[0]];
-            gl.glGetShaderInfoLog(vertexShader, logLength[0], (int[])null, 0, log, 0);
-            // GLES31.glGetShaderInfoLog(vertexShader); 	// @android
-
-            System.err.println("Error compiling the vertex shader: " + new String(log));
-            System.exit(1);
-        }
-
-        // Fragment check errors
-        gl.glGetShaderiv(fragmentShader, GL4ES3.GL_COMPILE_STATUS, compiled,0);
-        if (compiled[0]!=0) { 
-        	debug("GLSL", "OK fragment shader compiled");
-        } else {
-            int[] logLength = new int[1];
-            gl.glGetShaderiv(fragmentShader, GL4ES3.GL_INFO_LOG_LENGTH, logLength, 0);
-
-            byte[] log = new byte[logLength[0]];
-            gl.glGetShaderInfoLog(fragmentShader, logLength[0], (int[])null, 0, log, 0);
-            // GLES31.glGetShaderInfoLog(vertexShader); 	// @android
-
-            System.err.println("Error compiling the fragment shader: " + new String(log));
-            System.exit(1);
-        }
-
-        // STEP 4: Attach shaders to program
-        //Each mShaderProgram must have
-        //one vertex shader and one fragment shader.
-        int mShaderProgram = gl.glCreateProgram();			// Create the Shader Program
-        gl.glAttachShader(mShaderProgram, vertexShader);	// Attach compiled vertex shader
-        gl.glAttachShader(mShaderProgram, fragmentShader);  // Attach compiled fragment shader
-        
-        // STEP 5prev: 
-        // Active attributes that are not explicitly bound will be bound by the linker when glLinkProgram is called.
-        //gl.glBindAttribLocation(mShaderProgram, 0, "av4Position");
-        //gl.glBindAttribLocation(mShaderProgram, 1, "av4Color");
-        //gl.glBindAttribLocation(mShaderProgram, 2, "uSampler");
-        //gl.glBindAttribLocation(mShaderProgram, 3, "uMVPmatrix");
-        
-        // STEP 5: Link the program
-        gl.glLinkProgram(mShaderProgram);
+		// STEP 1-6: Compile and link, or share the program of the renderers with the same sources
+		ShaderProgram program = ShaderProgramCache.getInstance().acquire(gl, sVertexShaderCode, sFragmentShaderCode);
+		int mShaderProgram = program.getId();
 
-        int[] linked = new int[1];
-        gl.glGetProgramiv(mShaderProgram, GL4ES3.GL_LINK_STATUS, linked, 0);
-        
-        int[] validated = new int[1];
-        gl.glGetProgramiv(mShaderProgram, GL4ES3.GL_VALIDATE_STATUS, validated, 0);
-        
-        // STEP 6: Check linking errors
-        if (linked[0]!=0) {
-        	debug("GLSL", "OK program linked " + linked[0] + " validated " + validated[0]);
-        } else {
-            int[] logLength = new int[1];
-            gl.glGetShaderiv(vertexShader, GL4ES3.GL_INFO_LOG_LENGTH, logLength, 0);
-            byte[] log = new byte[logLength[0]];
-            gl.glGetProgramInfoLog(mShaderProgram, logLength[0], (int[])null, 0, log, 0);	// @jogl
-            // GLES31.glGetProgramInfoLog(mShaderProgram);		// @android
-
-            System.err.println("Error compiling the vertex shader: " + new String(log));
-            System.exit(1);
-        }      
-        
-        
-        
         // STEP 7: UNIFORM link to JAVA
         // Link GLSL with java
-        this.aAttribLocation[ATTRIB_POSITION] 			= gl.glGetAttribLocation(mShaderProgram, "av4Position");
-        this.aAttribLocation[ATTRIB_TEXTURE_COORDS] 	= gl.glGetAttribLocation(mShaderProgram, "av2TextureCoord");        
-        this.aAttribLocation[ATTRIB_NORMAL] 			= gl.glGetAttribLocation(mShaderProgram, "av3Normal");
+        this.aAttribLocation[ATTRIB_POSITION] 			= program.getAttribLocation("av4Position");
+        this.aAttribLocation[ATTRIB_TEXTURE_COORDS] 	= program.getAttribLocation("av2TextureCoord");        
+        this.aAttribLocation[ATTRIB_NORMAL] 			= program.getAttribLocation(( this.quantized == null ) ? "av3Normal" : "av2Normal");
         
-        this.aAttribLocation[ATTRIB_SAMPLER]	    	= gl.glGetUniformLocation(mShaderProgram, "uSampler");      
-        this.aAttribLocation[ATTRIB_P]					= gl.glGetUniformLocation(mShaderProgram, "uPmatrix");  
-        this.aAttribLocation[ATTRIB_V]					= gl.glGetUniformLocation(mShaderProgram, "uVmatrix");  
-        //this.aAttribLocation[ATTRIB_M]				= gl.glGetUniformLocation(mShaderProgram, "uMmatrix");
-        this.aAttribLocation[INSTANCE_M]  				= gl.glGetAttribLocation(mShaderProgram, "am4InstanceMmatrix");
+        this.aAttribLocation[ATTRIB_SAMPLER]	    	= program.getUniformLocation("uSampler");      
+        //this.aAttribLocation[ATTRIB_M]				= program.getUniformLocation("uMmatrix");
+        this.aAttribLocation[INSTANCE_M]  				= program.getAttribLocation("am4InstanceMmatrix");
         
-        this.aAttribLocation[ATTRIB_LIGHT_POSITION]			= gl.glGetUniformLocation(mShaderProgram, "uLight.position");
-        this.aAttribLocation[ATTRIB_LIGHT_AMBIENT_COLOR]	= gl.glGetUniformLocation(mShaderProgram, "uLight.ambientColor");
-        this.aAttribLocation[ATTRIB_LIGHT_DIFFUSE_COLOR]	= gl.glGetUniformLocation(mShaderProgram, "uLight.diffuseColor");
-        this.aAttribLocation[ATTRIB_LIGHT_SPECULAR_COLOR]	= gl.glGetUniformLocation(mShaderProgram, "uLight.specularColor");
-        this.aAttribLocation[ATTRIB_EYE_POSITION]  			= gl.glGetUniformLocation(mShaderProgram, "uEyePosition");
-        this.aAttribLocation[ATTRIB_SKYCOLOR]  				= gl.glGetUniformLocation(mShaderProgram, "uSkyColor");
-        
-        // STEP 8: Detach and delete the shaders, they are no longer needed after the program is linked and compiled
-        gl.glDetachShader(mShaderProgram, vertexShader);
-        gl.glDeleteShader(vertexShader);
-        gl.glDetachShader(mShaderProgram, fragmentShader);
-        gl.glDeleteShader(fragmentShader);
+        this.aAttribLocation[ATTRIB_POSITION_MIN]  		= program.getUniformLocation("uPositionMin");
+        this.aAttribLocation[ATTRIB_POSITION_EXTENT]  	= program.getUniformLocation("uPositionExtent");
         
         // STEP 9: How to use it
         // gl.glUseProgram(mShaderProgram);			// Done during the DRAW, each object can use different program
@@ -717,10 +675,7 @@ public class RenderGenericInstance implements Model {
 //        gl.glTexParameterf(GL4ES3.GL_TEXTURE_2D, GL4ES3.GL_TEXTURE_WRAP_T, GL4ES3.GL_REPEAT);				// to repeat the exture n times inside the quad
         
        	//System.out.println(">> TEXTURE 4 channels");
-       	gl.glTexImage2D(GL4ES3.GL_TEXTURE_2D, 0, GL4ES3.GL_SRGB_ALPHA, tex.width, tex.height, 0, GL4ES3.GL_RGBA, GL4ES3.GL_UNSIGNED_BYTE, tex.byteDataBuffer);       	       	      	       	
-
-       	// Generate MIPMAPs
-        gl.glGenerateMipmap(GL4ES3.GL_TEXTURE_2D);
+       	TextureUpload.texImage2D(gl, tex);
 
         //Sets the object texture to the new created texture
        	//gl.glBindTexture(GL4ES3.GL_TEXTURE_2D, 0);
@@ -14,10 +14,10 @@ SOFTWARE.
 
 package tk.otanod.engine.render;
 
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
-import java.nio.IntBuffer;
 
 import com.jogamp.opengl.GL4ES3;
 import com.jogamp.opengl.GLAutoDrawable;
@@ -26,11 +26,12 @@ import tk.otanod.engine.light.Light;
 import tk.otanod.libIO.RawImage;
 import tk.otanod.libMath.M4f;
 import tk.otanod.libMath.V3f;
+import tk.otanod.libOBJ.ElementBuffers;
 import tk.otanod.libOBJ.RawOBJ;
 
 
 
-public class RenderGenericInstanceAtlas implements Model {
+public class RenderGenericInstanceAtlas implements Model, DrawItem {
 
 	private boolean isInitialized = false;
 	
@@ -62,10 +63,11 @@ public class RenderGenericInstanceAtlas implements Model {
 	
 	// Model
 	private int nElements;
-	private int[] indices;
-	private float[] positions;
-	private float[] textureCoords;
-	private float[] normals;
+	private Buffer indices;
+	private int indexType;								// GL_UNSIGNED_SHORT or GL_UNSIGNED_INT
+	private FloatBuffer positions;
+	private FloatBuffer textureCoords;
+	private FloatBuffer normals;
 		
 	// OpenGL - internal
 	private int nVAOs;
@@ -76,34 +78,27 @@ public class RenderGenericInstanceAtlas implements Model {
 	private int[] textureIDs;
 	private int textureUnit;
 	private int programGLSL;
+	private RenderState state;							// program, texture unit, VAO, blend and cull of the draw item
 	
 	// GLSL
-    private int[] aAttribLocation = new int[14];
+    private int[] aAttribLocation = new int[6];
 
 	private static final int ATTRIB_POSITION = 0;
 	private static final int ATTRIB_TEXTURE_COORDS = 1;
 	private static final int ATTRIB_NORMAL = 2;
 	private static final int ATTRIB_SAMPLER = 3;
-	private static final int ATTRIB_P = 4;
-	private static final int ATTRIB_V = 5;
-	//private static final int ATTRIB_M = 6;
-	private static final int INSTANCE_M = 6;	
-	private static final int ATTRIB_LIGHT_POSITION = 7;
-	private static final int ATTRIB_LIGHT_AMBIENT_COLOR = 8;
-	private static final int ATTRIB_LIGHT_DIFFUSE_COLOR = 9;
-	private static final int ATTRIB_LIGHT_SPECULAR_COLOR = 10;
-	private static final int ATTRIB_EYE_POSITION = 11;
-	private static final int ATTRIB_SKYCOLOR = 12;
-	private static final int INSTANCE_ATLAS = 13;	
+	//private static final int ATTRIB_M = 4;
+	private static final int INSTANCE_M = 4;	
+	private static final int INSTANCE_ATLAS = 5;	
 	
 	public RenderGenericInstanceAtlas(int instances, float[] instancesM4View, float[] instancesAtlasArea, RawOBJ model, RawImage textureImage, Camera camera, Light light, M4f projection) {
 		
 		// Model
-		this.indices = model.getIndices();
+		this.indices = model.getIndexBuffer();
 		this.nElements = model.getnElements();
-		this.positions = model.getPositions();
-		this.textureCoords = model.getTextureCoords();
-		this.normals = model.getNormals();
+		this.positions = model.getPositionBuffer();
+		this.textureCoords = model.getTextureCoordBuffer();
+		this.normals = model.getNormalBuffer();
 		
 		// Texture
 		this.textureImage = textureImage;
@@ -176,6 +171,7 @@ public class RenderGenericInstanceAtlas implements Model {
 	@Override
 	public void init(GLAutoDrawable drawable) {
 		initialize(drawable);
+		this.isInitialized = true;
 	}
 
 	@Override
@@ -186,7 +182,10 @@ public class RenderGenericInstanceAtlas implements Model {
 	@Override
 	public void display(GLAutoDrawable drawable) {
 		if ( this.isInitialized ) {
+			GL4ES3 gl = drawable.getGL().getGL4ES3();
+			this.state.bind(gl);
 			draw(drawable);
+			this.state.unbind(gl);
 		} else {
 			initialize(drawable);
 			this.isInitialized = true;
@@ -194,6 +193,16 @@ public class RenderGenericInstanceAtlas implements Model {
 		
 	}
 
+	@Override
+	public void submit(RenderQueue queue) {
+		if ( !this.isInitialized ) {
+			queue.submit((Model) this);								// display() initializes the model
+			return;
+		}
+		float depth = RenderQueue.getDepth(this.v3Eye, this.xWorld, this.yWorld, this.zWorld);			// centroid of the instances
+		queue.submit(RenderQueue.getKey(this.textureImage.isTransparent() ? RenderQueue.PASS_TRANSPARENT : RenderQueue.PASS_OPAQUE, this.state, depth), this.state, this);
+	}
+	
 	@Override
 	public void reshape(GLAutoDrawable drawable, int x, int y, int width, int height) {
 		//
@@ -243,21 +252,31 @@ public class RenderGenericInstanceAtlas implements Model {
 			gl.glGenTextures(this.nTextures, this.textureIDs, 0);
 			this.textureUnit = TextureUnitManager.getInstance().getTextureNumber(textureImage.getName());
 			createTexture(gl, this.textureIDs[0], this.textureUnit, textureImage);			
-		}		
-		        
+		}
+		
+		// 6. State of the draw item
+		for (int i = 0; i < this.instances; i++) {
+			this.xWorld += this.instancesM4World[i * 16 + 12] / this.instances;			// centroid of the instances, depth of the item
+			this.yWorld += this.instancesM4World[i * 16 + 13] / this.instances;
+			this.zWorld += this.instancesM4World[i * 16 + 14] / this.instances;
+		}
+		boolean isTransparent = this.textureImage.isTransparent();
+		this.state = new RenderState(this.programGLSL, this.aAttribLocation[ATTRIB_SAMPLER], this.textureUnit, this.vaos[0], isTransparent, !isTransparent, GL4ES3.GL_LESS);
+
 	}
 
-	private void addEBOtoVAO(GL4ES3 gl, int[] mData, int ebo) {
-		// 3.1 Prepare the data, we need a IntBuffer instead of a Int Array
-		IntBuffer ibData = getIntBuffer(mData);
+	private void addEBOtoVAO(GL4ES3 gl, Buffer data, int ebo) {
+		// 3.1 The data is already a direct ShortBuffer or IntBuffer (RawOBJ), no copy
+		//     16 bits indices when the model has fewer than 65536 vertices, half the memory and bandwidth
+		int bytesPerIndex = ElementBuffers.getBytesPerIndex(data);
+		this.indexType = ( bytesPerIndex == Short.BYTES ) ? GL4ES3.GL_UNSIGNED_SHORT : GL4ES3.GL_UNSIGNED_INT;
 
 		// 3.3 Transfer the data to the GPU
-		final int BYTES_PER_INT = Integer.SIZE / Byte.SIZE;  				// float has 4 bytes
-		int numBytes = (int) (mData.length * BYTES_PER_INT);
+		int numBytes = (int) (data.remaining() * bytesPerIndex);
 		
 		//fbVertices = null; // It is OK to release CPU vertices memory after transfer to GPU        
 		gl.glBindBuffer(GL4ES3.GL_ELEMENT_ARRAY_BUFFER, ebo);
-		gl.glBufferData(GL4ES3.GL_ELEMENT_ARRAY_BUFFER, numBytes, ibData, GL4ES3.GL_STATIC_DRAW);
+		gl.glBufferData(GL4ES3.GL_ELEMENT_ARRAY_BUFFER, numBytes, data, GL4ES3.GL_STATIC_DRAW);
 		
 		// 3.5 Unbind the EBO
 		// VERY IMPORTANT
@@ -268,13 +287,12 @@ public class RenderGenericInstanceAtlas implements Model {
 		//gl.glBindBuffer(GL4ES3.GL_ELEMENT_ARRAY_BUFFER, 0);						//	NEVER unbind the ELEMENT_ARRAY_BUFFER inside teh VAO
 	}
 
-	private void addVBOtoVAO(GL4ES3 gl, float[] mData, int vbo, int componentsPerVertex, int attrib) {
-		// 3.1 Prepare the data, we need a FloatBuffer instead of a Float Array
-		FloatBuffer fbData = getFloatBuffer(mData);
+	private void addVBOtoVAO(GL4ES3 gl, FloatBuffer fbData, int vbo, int componentsPerVertex, int attrib) {
+		// 3.1 The data is already a direct FloatBuffer (RawOBJ), no copy
 
 		// 3.2 Transfer the data to the GPU
 		final int BYTES_PER_FLOAT = Float.SIZE / Byte.SIZE;  				// float has 4 bytes
-		int numBytes = (int) (mData.length * BYTES_PER_FLOAT);
+		int numBytes = (int) (fbData.remaining() * BYTES_PER_FLOAT);
 		gl.glBindBuffer(GL4ES3.GL_ARRAY_BUFFER, vbo);						// Enables the VBO, to write there the data and link it later with the VAO slot
 		gl.glBufferData(GL4ES3.GL_ARRAY_BUFFER, numBytes, fbData, GL4ES3.GL_STATIC_DRAW);	// transfers data to the VBO
 		//gl.glBindBuffer(GL4ES3.GL_ARRAY_BUFFER, 0);						
@@ -321,28 +339,6 @@ public class RenderGenericInstanceAtlas implements Model {
 		gl.glBindBuffer(GL4ES3.GL_ARRAY_BUFFER, 0);						//	Unbind buffers
 	}
 	
-	private IntBuffer getIntBuffer(int[] data) {
-		// Bytes per Int (may vary on each system)
-		final int BYTES_PER_INT = Integer.SIZE / Byte.SIZE;  				
-		// Stride
-		//int vertexStride = COORDS_PER_VERTEX * BYTES_PER_VERTEX; 			  
-		// Total bytes needed for the buffer
-		int numBytes = (int) (data.length * BYTES_PER_INT);
-		
-		// initialize vertex byte buffer for shape coordinates
-		ByteBuffer bb = ByteBuffer.allocateDirect(numBytes);       	
-		// use the device hardware's native byte order
-		bb.order(ByteOrder.nativeOrder());
-		// create a int point buffer from the ByteBuffer
-		IntBuffer ibData = bb.asIntBuffer();
-		// add the coordinates to the IntBuffer
-		ibData.put(data);
-		// set the buffer to read the first coordinate
-		ibData.position(0);         
-
-		return(ibData);
-	}
-	
 	private FloatBuffer getFloatBuffer(float[] data) {
 		// Bytes per Float (may vary on each system)
 		final int BYTES_PER_FLOAT = Float.SIZE / Byte.SIZE;  				// float has 4 bytes
@@ -365,12 +361,12 @@ public class RenderGenericInstanceAtlas implements Model {
 		return(fbData);
 	}
 		
-	private void draw(GLAutoDrawable drawable) {
+	@Override
+	public void draw(GLAutoDrawable drawable) {
 		// 1. Get context
 		GL4ES3 gl = drawable.getGL().getGL4ES3();
 
-		// 2: Use Program 
-		gl.glUseProgram(this.programGLSL);
+		// 2: Program, texture unit, VAO, blend and cull: RenderState, applied by the RenderQueue or display()
 		
 		// 4: Update the Uniforms
 		// 4.1 Texture Sampler
@@ -380,52 +376,23 @@ public class RenderGenericInstanceAtlas implements Model {
 		// int textureID = this.textureIDs[0]; 
 		// gl.glActiveTexture(GL4ES3.GL_TEXTURE0 + textureUnit);  						// you can avoid this call, if you don't reuse the Texture Unit between model
 		// gl.glBindTexture(GL4ES3.GL_TEXTURE_2D, textureID);							// you can avoid this call, if you don't reuse the Texture Unit between model
-		gl.glUniform1i(this.aAttribLocation[ATTRIB_SAMPLER], textureUnit);			// 0 for GL_TEXTURE0, 1 for GL_TEXTURE1, ..., 15 for GL_TEXTURE15
+		// the sampler uniform is part of the RenderState (texture unit)
 		
 		// 4.2 PVM matrix					
-		gl.glUniformMatrix4fv(this.aAttribLocation[ATTRIB_P], 1, false, m4Projection.getElements(),	0);	// glUniformMatrix4fv(int location, int count, boolean transpose, float[] value, int value_offset)
-		gl.glUniformMatrix4fv(this.aAttribLocation[ATTRIB_V], 1, false, m4View.getElements(),	0);	// glUniformMatrix4fv(int location, int count, boolean transpose, float[] value, int value_offset)
 //		gl.glUniformMatrix4fv(this.aAttribLocation[ATTRIB_M], 1, false, m4World.getElements(),	0);	// glUniformMatrix4fv(int location, int count, boolean transpose, float[] value, int value_offset)
 		
-		// 4.3 Light uniforms
-		gl.glUniform3fv(this.aAttribLocation[ATTRIB_LIGHT_POSITION],       1, light.getPosition(),      0);
-		gl.glUniform3fv(this.aAttribLocation[ATTRIB_LIGHT_AMBIENT_COLOR],  1, light.getAmbientColor(),  0);
-		gl.glUniform3fv(this.aAttribLocation[ATTRIB_LIGHT_DIFFUSE_COLOR],  1, light.getDiffuseColor(),  0);
-		gl.glUniform3fv(this.aAttribLocation[ATTRIB_LIGHT_SPECULAR_COLOR], 1, light.getSpecularColor(), 0);
-		gl.glUniform3fv(this.aAttribLocation[ATTRIB_SKYCOLOR], 1, light.getSkyColor(), 0);	
-		
-		// 4.5 Camera/Eye position
-		gl.glUniform3fv(this.aAttribLocation[ATTRIB_EYE_POSITION],  1, v3Eye.getFloats(),   0);
+		// 4.3 P, V, light, eye and fog: FrameUniforms, uploaded once per frame
 
 		// 4.6 Per instance
-
 		
 		// 5: draw the VAOs
-		gl.glBindVertexArray(this.vaos[0]); 												// Bind our Vertex Array Object  
-		
 
 		// When using glDrawElements we're going to draw using indices provided in the element buffer object currently bound:
 		// Leave the ELEMENT_ARRAY_BUFFER bound inside the VAO, just avoid the unbind after creating it. And you don't need to call it here if it is already bound!!!
 		// gl.glBindBuffer(GL4ES3.GL_ELEMENT_ARRAY_BUFFER, this.vbos[0]);
-		if ( this.textureImage.isTransparent() ) {
-			gl.glDisable(GL4ES3.GL_CULL_FACE); 	// Blending can only show objects behind but not the internal object
-			gl.glEnable(GL4ES3.GL_BLEND);
-			gl.glBlendFunc(GL4ES3.GL_SRC_ALPHA, GL4ES3.GL_ONE_MINUS_SRC_ALPHA);
-		}
-			
-		gl.glDrawElementsInstanced(GL4ES3.GL_TRIANGLES, this.nElements, GL4ES3.GL_UNSIGNED_INT, 0, instances);
-			
-		if ( this.textureImage.isTransparent() ) {
-			gl.glDisable(GL4ES3.GL_BLEND);
-			gl.glEnable(GL4ES3.GL_CULL_FACE); 	// Blending can only show objects behind but not the internal object
-		}
+		gl.glDrawElementsInstanced(GL4ES3.GL_TRIANGLES, this.nElements, this.indexType, 0, instances);
 
 		
-		// 6: Unbind
-		gl.glBindVertexArray(0); 					// Unbind our Vertex Array Object or bind to default VAO
-		gl.glUseProgram(0);
-		
-		
 	}
 	
 	private void cleanUP(GLAutoDrawable drawable) {
@@ -439,7 +406,7 @@ public class RenderGenericInstanceAtlas implements Model {
 		gl.glDeleteVertexArrays(this.nVAOs, this.vaos, 0);
 		
 		// 4. Delete Program
-		gl.glDeleteProgram(this.programGLSL);
+		ShaderProgramCache.getInstance().release(gl, this.programGLSL);
 		
 		// 5. Delete textures
 		gl.glDeleteTextures(this.nTextures, this.textureIDs, 0);
@@ -458,8 +425,7 @@ public class RenderGenericInstanceAtlas implements Model {
 				+ "  precision mediump int; \n" 			// GLSL ES section 4.5.2
 				+ "#endif \n" 
 				
-				+ "uniform 	  mat4  uPmatrix; \n"			// PV matrix, column major, pre-multiplied, from world to view and projection space
-				+ "uniform 	  mat4  uVmatrix; \n"			// PV matrix, column major, pre-multiplied, from world to view and projection space
+				+ FrameUniforms.GLSL								// uPmatrix, uVmatrix, uLight, uEyePosition, uSkyColor, fog (FrameUniforms.BINDING)
 				//+ "uniform    mat4  uMmatrix; \n"			// Model matrix, from model to world
 				+ "attribute  mat4  am4InstanceMmatrix; \n"
 
@@ -518,18 +484,11 @@ public class RenderGenericInstanceAtlas implements Model {
 				+ "varying   vec4  vv4WorldPosition; \n"
 
 				+ "varying   float   fogVisibility; \n"				
-				+ "uniform	 vec3    uSkyColor; \n"
+				+ FrameUniforms.GLSL								// uPmatrix, uVmatrix, uLight, uEyePosition, uSkyColor, fog (FrameUniforms.BINDING)
 				
 				+ "varying    vec4  v4fInstanceAtlas; \n"				
 				
-				+ "uniform struct Light {\n"
-				+ "   vec3  position; \n"				
-				+ "   vec3  ambientColor; \n"
-				+ "   vec3  diffuseColor; \n"
-				+ "   vec3  specularColor; \n"
-				+ "} uLight; \n"
 				
-				+ "uniform   vec3  uEyePosition; \n"
 	            
 				+ "void main (void) { \n"
 
@@ -572,130 +531,21 @@ public class RenderGenericInstanceAtlas implements Model {
 			
 				+ "} ";
 						
-		if(gl.isGL3core()){
-            debug("GLSL", "GL3 core detected: explicit add #version 130 to shaders");
-            sVertexShaderCode = "#version 130\n"+sVertexShaderCode;
-            sFragmentShaderCode = "#version 130\n"+sFragmentShaderCode;
-        }
-
-		// STEP 1: Create Shaders
-        // Create GPU shader handles
-        // OpenGL ES returns an index id to be stored for future reference.
-	    int vertexShader = gl.glCreateShader(GL4ES3.GL_VERTEX_SHADER);		// create the Vertex Shader
-	    int fragmentShader = gl.glCreateShader(GL4ES3.GL_FRAGMENT_SHADER);	// create the Fragment Shader
-
-	    // STEP 2: Source and Compile Shaders
-        //Compile the vertexShader String into a program.
-        String[] vlines = new String[] { sVertexShaderCode };
-        int[] vlengths = new int[] { vlines[0].length() };
-        gl.glShaderSource(vertexShader, vlines.length, vlines, vlengths, 0);	// @jogl
-        //GLES31.glShaderSource(vertexShader,sVertexShaderCode);  // @ANDROID
-        gl.glCompileShader(vertexShader);
-
-        //Compile the fragmentShader String into a program.
-        String[] flines = new String[] { sFragmentShaderCode };
-        int[] flengths = new int[] { flines[0].length() };
-        gl.glShaderSource(fragmentShader, flines.length, flines, flengths, 0);		// @jogl
-        //GLES31.glShaderSource(fragmentShader,sFragmentShaderCode);  // @ANDROID
-        gl.glCompileShader(fragmentShader);
-        
-        // STEP 3: Check for compile errors
-        // Vertex check errors
-        int[] compiled = new int[1];
-        gl.glGetShaderiv(vertexShader, GL4ES3.GL_COMPILE_STATUS, compiled,0);
-        if (compiled[0]!=0) {
-        	debug("GLSL", "OK vertex shader compiled");
-        } else {
-            int[] logLength = new int[1];
-            gl.glGetShaderiv(vertexShader, GL4ES3.GL_INFO_LOG_LENGTH, logLength, 0);
-            byte[] log = new byte[logLength[0]];
-            gl.glGetShaderInfoLog(vertexShader, logLength[0], (int[])null, 0, log, 0);
-            // GLES31.glGetShaderInfoLog(vertexShader); 	// @android
-
-            System.err.println("Error compiling the vertex shader: " + new String(log));
-            System.exit(1);
-        }
-
-        // Fragment check errors
-        gl.glGetShaderiv(fragmentShader, GL4ES3.GL_COMPILE_STATUS, compiled,0);
-        if (compiled[0]!=0) { 
-        	debug("GLSL", "OK fragment shader compiled");
-        } else {
-            int[] logLength = new int[1];
-            gl.glGetShaderiv(fragmentShader, GL4ES3.GL_INFO_LOG_LENGTH, logLength, 0);
-
-            byte[] log = new byte[logLength[0]];
-            gl.glGetShaderInfoLog(fragmentShader, logLength[0], (int[])null, 0, log, 0);
-            // GLES31.glGetShaderInfoLog(vertexShader); 	// @android
-
-            System.err.println("Error compiling the fragment shader: " + new String(log));
-            System.exit(1);
-        }
-
-        // STEP 4: Attach shaders to program
-        //Each mShaderProgram must have
-        //one vertex shader and one fragment shader.
-        int mShaderProgram = gl.glCreateProgram();			// Create the Shader Program
-        gl.glAttachShader(mShaderProgram, vertexShader);	// Attach compiled vertex shader
-        gl.glAttachShader(mShaderProgram, fragmentShader);  // Attach compiled fragment shader
-        
-        // STEP 5prev: 
-        // Active attributes that are not explicitly bound will be bound by the linker when glLinkProgram is called.
-        //gl.glBindAttribLocation(mShaderProgram, 0, "av4Position");
-        //gl.glBindAttribLocation(mShaderProgram, 1, "av4Color");
-        //gl.glBindAttribLocation(mShaderProgram, 2, "uSampler");
-        //gl.glBindAttribLocation(mShaderProgram, 3, "uMVPmatrix");
-        
-        // STEP 5: Link the program
-        gl.glLinkProgram(mShaderProgram);
+		// STEP 1-6: Compile and link, or share the program of the renderers with the same sources
+		ShaderProgram program = ShaderProgramCache.getInstance().acquire(gl, sVertexShaderCode, sFragmentShaderCode);
+		int mShaderProgram = program.getId();
 
-        int[] linked = new int[1];
-        gl.glGetProgramiv(mShaderProgram, GL4ES3.GL_LINK_STATUS, linked, 0);
-        
-        int[] validated = new int[1];
-        gl.glGetProgramiv(mShaderProgram, GL4ES3.GL_VALIDATE_STATUS, validated, 0);
-        
-        // STEP 6: Check linking errors
-        if (linked[0]!=0) {
-        	debug("GLSL", "OK program linked " + linked[0] + " validated " + validated[0]);
-        } else {
-            int[] logLength = new int[1];
-            gl.glGetShaderiv(vertexShader, GL4ES3.GL_INFO_LOG_LENGTH, logLength, 0);
-            byte[] log = new byte[logLength[0]];
-            gl.glGetProgramInfoLog(mShaderProgram, logLength[0], (int[])null, 0, log, 0);	// @jogl
-            // GLES31.glGetProgramInfoLog(mShaderProgram);		// @android
-
-            System.err.println("Error compiling the vertex shader: " + new String(log));
-            System.exit(1);
-        }      
-        
-        
-        
         // STEP 7: UNIFORM link to JAVA
         // Link GLSL with java
-        this.aAttribLocation[ATTRIB_POSITION] 			= gl.glGetAttribLocation(mShaderProgram, "av4Position");
-        this.aAttribLocation[ATTRIB_TEXTURE_COORDS] 	= gl.glGetAttribLocation(mShaderProgram, "av2TextureCoord");        
-        this.aAttribLocation[ATTRIB_NORMAL] 			= gl.glGetAttribLocation(mShaderProgram, "av3Normal");
+        this.aAttribLocation[ATTRIB_POSITION] 			= program.getAttribLocation("av4Position");
+        this.aAttribLocation[ATTRIB_TEXTURE_COORDS] 	= program.getAttribLocation("av2TextureCoord");        
+        this.aAttribLocation[ATTRIB_NORMAL] 			= program.getAttribLocation("av3Normal");
         
-        this.aAttribLocation[ATTRIB_SAMPLER]	    	= gl.glGetUniformLocation(mShaderProgram, "uSampler");      
-        this.aAttribLocation[ATTRIB_P]					= gl.glGetUniformLocation(mShaderProgram, "uPmatrix");  
-        this.aAttribLocation[ATTRIB_V]					= gl.glGetUniformLocation(mShaderProgram, "uVmatrix");  
-        //this.aAttribLocation[ATTRIB_M]				= gl.glGetUniformLocation(mShaderProgram, "uMmatrix");
-        this.aAttribLocation[INSTANCE_M]  				= gl.glGetAttribLocation(mShaderProgram, "am4InstanceMmatrix");
-        this.aAttribLocation[INSTANCE_ATLAS]  			= gl.glGetAttribLocation(mShaderProgram, "a4fInstanceAtlas");
+        this.aAttribLocation[ATTRIB_SAMPLER]	    	= program.getUniformLocation("uSampler");      
+        //this.aAttribLocation[ATTRIB_M]				= program.getUniformLocation("uMmatrix");
+        this.aAttribLocation[INSTANCE_M]  				= program.getAttribLocation("am4InstanceMmatrix");
+        this.aAttribLocation[INSTANCE_ATLAS]  			= program.getAttribLocation("a4fInstanceAtlas");
         
-        this.aAttribLocation[ATTRIB_LIGHT_POSITION]			= gl.glGetUniformLocation(mShaderProgram, "uLight.position");
-        this.aAttribLocation[ATTRIB_LIGHT_AMBIENT_COLOR]	= gl.glGetUniformLocation(mShaderProgram, "uLight.ambientColor");
-        this.aAttribLocation[ATTRIB_LIGHT_DIFFUSE_COLOR]	= gl.glGetUniformLocation(mShaderProgram, "uLight.diffuseColor");
-        this.aAttribLocation[ATTRIB_LIGHT_SPECULAR_COLOR]	= gl.glGetUniformLocation(mShaderProgram, "uLight.specularColor");
-        this.aAttribLocation[ATTRIB_EYE_POSITION]  			= gl.glGetUniformLocation(mShaderProgram, "uEyePosition");
-        this.aAttribLocation[ATTRIB_SKYCOLOR]  				= gl.glGetUniformLocation(mShaderProgram, "uSkyColor");
-        
-        // STEP 8: Detach and delete the shaders, they are no longer needed after the program is linked and compiled
-        gl.glDetachShader(mShaderProgram, vertexShader);
-        gl.glDeleteShader(vertexShader);
-        gl.glDetachShader(mShaderProgram, fragmentShader);
-        gl.glDeleteShader(fragmentShader);
         
         // STEP 9: How to use it
         // gl.glUseProgram(mShaderProgram);			// Done during the DRAW, each object can use different program
@@ -735,10 +585,7 @@ public class RenderGenericInstanceAtlas implements Model {
 //        gl.glTexParameterf(GL4ES3.GL_TEXTURE_2D, GL4ES3.GL_TEXTURE_WRAP_T, GL4ES3.GL_REPEAT);				// to repeat the exture n times inside the quad
         
        	//System.out.println(">> TEXTURE 4 channels");
-       	gl.glTexImage2D(GL4ES3.GL_TEXTURE_2D, 0, GL4ES3.GL_SRGB_ALPHA, tex.width, tex.height, 0, GL4ES3.GL_RGBA, GL4ES3.GL_UNSIGNED_BYTE, tex.byteDataBuffer);       	       	      	       	
-
-       	// Generate MIPMAPs
-        gl.glGenerateMipmap(GL4ES3.GL_TEXTURE_2D);
+       	TextureUpload.texImage2D(gl, tex);
 
         //Sets the object texture to the new created texture
        	//gl.glBindTexture(GL4ES3.GL_TEXTURE_2D, 0);
@@ -14,11 +14,10 @@ SOFTWARE.
 
 package tk.otanod.engine.render;
 
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
-import java.nio.IntBuffer;
-import java.util.Arrays;
 
 import com.jogamp.opengl.GL4ES3;
 import com.jogamp.opengl.GLAutoDrawable;
@@ -28,6 +27,7 @@ import tk.otanod.engine.light.Light;
 import tk.otanod.libIO.RawImage;
 import tk.otanod.libMath.M4f;
 import tk.otanod.libMath.V3f;
+import tk.otanod.libOBJ.ElementBuffers;
 import tk.otanod.libOBJ.RawOBJ;
 
 
@@ -54,6 +54,8 @@ public class RenderGenericInstanceAtlasTextGUI implements Model {
 		
 	// World matrix
 	private M4f m4World;
+	// Scratch array for the glUniform* calls, draw() doesn't allocate (16 floats = mat4)
+	private final float[] aUniformData = new float[16];
 	private float[] instancesM4World;
 	
 	// Texture
@@ -65,10 +67,11 @@ public class RenderGenericInstanceAtlasTextGUI implements Model {
 	
 	// Model
 	private int nElements;
-	private int[] indices;
-	private float[] positions;
-	private float[] textureCoords;
-	private float[] normals;
+	private Buffer indices;
+	private int indexType;								// GL_UNSIGNED_SHORT or GL_UNSIGNED_INT
+	private FloatBuffer positions;
+	private FloatBuffer textureCoords;
+	private FloatBuffer normals;
 		
 	// OpenGL - internal
 	private int nVAOs;
@@ -98,11 +101,11 @@ public class RenderGenericInstanceAtlasTextGUI implements Model {
 	public RenderGenericInstanceAtlasTextGUI(int instances, M4f m4World, float[] instancesM4View, float[] instancesAtlasArea, RawOBJ model, RawImage textureImage, FontEffect fontEffect) {
 		
 		// Model
-		this.indices = model.getIndices();
+		this.indices = model.getIndexBuffer();
 		this.nElements = model.getnElements();
-		this.positions = model.getPositions();
-		this.textureCoords = model.getTextureCoords();
-		this.normals = model.getNormals();
+		this.positions = model.getPositionBuffer();
+		this.textureCoords = model.getTextureCoordBuffer();
+		this.normals = model.getNormalBuffer();
 		
 		// Texture
 		this.textureImage = textureImage;
@@ -184,6 +187,7 @@ public class RenderGenericInstanceAtlasTextGUI implements Model {
 	@Override
 	public void init(GLAutoDrawable drawable) {
 		initialize(drawable);
+		this.action = Action.DRAW;
 	}
 
 	@Override
@@ -274,17 +278,18 @@ public class RenderGenericInstanceAtlasTextGUI implements Model {
 		updateInstanceVBOtoVAO(gl, this.vbos[5], this.instancesAtlasArea, this.aAttribLocation[INSTANCE_ATLAS], 4, 4);
 	}
 
-	private void addEBOtoVAO(GL4ES3 gl, int[] mData, int ebo) {
-		// 3.1 Prepare the data, we need a IntBuffer instead of a Int Array
-		IntBuffer ibData = getIntBuffer(mData);
+	private void addEBOtoVAO(GL4ES3 gl, Buffer data, int ebo) {
+		// 3.1 The data is already a direct ShortBuffer or IntBuffer (RawOBJ), no copy
+		//     16 bits indices when the model has fewer than 65536 vertices, half the memory and bandwidth
+		int bytesPerIndex = ElementBuffers.getBytesPerIndex(data);
+		this.indexType = ( bytesPerIndex == Short.BYTES ) ? GL4ES3.GL_UNSIGNED_SHORT : GL4ES3.GL_UNSIGNED_INT;
 
 		// 3.3 Transfer the data to the GPU
-		final int BYTES_PER_INT = Integer.SIZE / Byte.SIZE;  				// float has 4 bytes
-		int numBytes = (int) (mData.length * BYTES_PER_INT);
+		int numBytes = (int) (data.remaining() * bytesPerIndex);
 		
 		//fbVertices = null; // It is OK to release CPU vertices memory after transfer to GPU        
 		gl.glBindBuffer(GL4ES3.GL_ELEMENT_ARRAY_BUFFER, ebo);
-		gl.glBufferData(GL4ES3.GL_ELEMENT_ARRAY_BUFFER, numBytes, ibData, GL4ES3.GL_STATIC_DRAW);
+		gl.glBufferData(GL4ES3.GL_ELEMENT_ARRAY_BUFFER, numBytes, data, GL4ES3.GL_STATIC_DRAW);
 		
 		// 3.5 Unbind the EBO
 		// VERY IMPORTANT
@@ -295,13 +300,12 @@ public class RenderGenericInstanceAtlasTextGUI implements Model {
 		//gl.glBindBuffer(GL4ES3.GL_ELEMENT_ARRAY_BUFFER, 0);						//	NEVER unbind the ELEMENT_ARRAY_BUFFER inside teh VAO
 	}
 
-	private void addVBOtoVAO(GL4ES3 gl, float[] mData, int vbo, int componentsPerVertex, int attrib) {
-		// 3.1 Prepare the data, we need a FloatBuffer instead of a Float Array
-		FloatBuffer fbData = getFloatBuffer(mData);
+	private void addVBOtoVAO(GL4ES3 gl, FloatBuffer fbData, int vbo, int componentsPerVertex, int attrib) {
+		// 3.1 The data is already a direct FloatBuffer (RawOBJ), no copy
 
 		// 3.2 Transfer the data to the GPU
 		final int BYTES_PER_FLOAT = Float.SIZE / Byte.SIZE;  				// float has 4 bytes
-		int numBytes = (int) (mData.length * BYTES_PER_FLOAT);
+		int numBytes = (int) (fbData.remaining() * BYTES_PER_FLOAT);
 		gl.glBindBuffer(GL4ES3.GL_ARRAY_BUFFER, vbo);						// Enables the VBO, to write there the data and link it later with the VAO slot
 		gl.glBufferData(GL4ES3.GL_ARRAY_BUFFER, numBytes, fbData, GL4ES3.GL_STATIC_DRAW);	// transfers data to the VBO
 		//gl.glBindBuffer(GL4ES3.GL_ARRAY_BUFFER, 0);						
@@ -375,28 +379,6 @@ public class RenderGenericInstanceAtlasTextGUI implements Model {
 		gl.glBindBuffer(GL4ES3.GL_ARRAY_BUFFER, 0);							//	Unbind buffers
 	}	
 	
-	private IntBuffer getIntBuffer(int[] data) {
-		// Bytes per Int (may vary on each system)
-		final int BYTES_PER_INT = Integer.SIZE / Byte.SIZE;  				
-		// Stride
-		//int vertexStride = COORDS_PER_VERTEX * BYTES_PER_VERTEX; 			  
-		// Total bytes needed for the buffer
-		int numBytes = (int) (data.length * BYTES_PER_INT);
-		
-		// initialize vertex byte buffer for shape coordinates
-		ByteBuffer bb = ByteBuffer.allocateDirect(numBytes);       	
-		// use the device hardware's native byte order
-		bb.order(ByteOrder.nativeOrder());
-		// create a int point buffer from the ByteBuffer
-		IntBuffer ibData = bb.asIntBuffer();
-		// add the coordinates to the IntBuffer
-		ibData.put(data);
-		// set the buffer to read the first coordinate
-		ibData.position(0);         
-
-		return(ibData);
-	}
-	
 	private FloatBuffer getFloatBuffer(float[] data) {
 		// Bytes per Float (may vary on each system)
 		final int BYTES_PER_FLOAT = Float.SIZE / Byte.SIZE;  				// float has 4 bytes
@@ -437,7 +419,7 @@ public class RenderGenericInstanceAtlasTextGUI implements Model {
 		gl.glUniform1i(this.aAttribLocation[ATTRIB_SAMPLER], textureUnit);			// 0 for GL_TEXTURE0, 1 for GL_TEXTURE1, ..., 15 for GL_TEXTURE15
 		
 		// 4.2 PVM matrix					
-		gl.glUniformMatrix4fv(this.aAttribLocation[ATTRIB_M], 1, false, m4World.getElements(),	0);	// glUniformMatrix4fv(int location, int count, boolean transpose, float[] value, int value_offset)
+		gl.glUniformMatrix4fv(this.aAttribLocation[ATTRIB_M], 1, false, m4World.getElements(this.aUniformData, 0),	0);	// glUniformMatrix4fv(int location, int count, boolean transpose, float[] value, int value_offset)
 		
 		// 4.3 Light uniforms
 		
@@ -465,7 +447,7 @@ public class RenderGenericInstanceAtlasTextGUI implements Model {
 		// When using glDrawElements we're going to draw using indices provided in the element buffer object currently bound:
 		// Leave the ELEMENT_ARRAY_BUFFER bound inside the VAO, just avoid the unbind after creating it. And you don't need to call it here if it is already bound!!!
 		// gl.glBindBuffer(GL4ES3.GL_ELEMENT_ARRAY_BUFFER, this.vbos[0]);
-		gl.glDrawElementsInstanced(GL4ES3.GL_TRIANGLES, this.nElements, GL4ES3.GL_UNSIGNED_INT, 0, instances);
+		gl.glDrawElementsInstanced(GL4ES3.GL_TRIANGLES, this.nElements, this.indexType, 0, instances);
 		//debug("glDrawElementsInstanced", getGLErrorDesc(gl.glGetError()));
 
 		if ( this.textureImage.isTransparent() ) {
@@ -490,7 +472,7 @@ public class RenderGenericInstanceAtlasTextGUI implements Model {
 		gl.glDeleteVertexArrays(this.nVAOs, this.vaos, 0);
 		
 		// 4. Delete Program
-		gl.glDeleteProgram(this.programGLSL);
+		ShaderProgramCache.getInstance().release(gl, this.programGLSL);
 		
 		// 5. Delete textures
 		gl.glDeleteTextures(this.nTextures, this.textureIDs, 0);
@@ -588,160 +570,25 @@ public class RenderGenericInstanceAtlasTextGUI implements Model {
 			
 				+ "} ";
 						
-		if(gl.isGL3core()){
-            debug("GLSL", "GL3 core detected: explicit add #version 130 to shaders");
-            sVertexShaderCode = "#version 130\n"+sVertexShaderCode;
-            sFragmentShaderCode = "#version 130\n"+sFragmentShaderCode;
-        }
-
-		// STEP 1: Create Shaders
-        // Create GPU shader handles
-        // OpenGL ES returns an index id to be stored for future reference.
-	    int vertexShader = gl.glCreateShader(GL4ES3.GL_VERTEX_SHADER);		// create the Vertex Shader
-	    int fragmentShader = gl.glCreateShader(GL4ES3.GL_FRAGMENT_SHADER);	// create the Fragment Shader
-
-	    // STEP 2: Source and Compile Shaders
-        //Compile the vertexShader String into a program.
-        String[] vlines = new String[] { sVertexShaderCode };
-        int[] vlengths = new int[] { vlines[0].length() };
-        gl.glShaderSource(vertexShader, vlines.length, vlines, vlengths, 0);	// @jogl
-        //GLES31.glShaderSource(vertexShader,sVertexShaderCode);  // @ANDROID
-        gl.glCompileShader(vertexShader);
-
-        //Compile the fragmentShader String into a program.
-        String[] flines = new String[] { sFragmentShaderCode };
-        int[] flengths = new int[] { flines[0].length() };
-        gl.glShaderSource(fragmentShader, flines.length, flines, flengths, 0);		// @jogl
-        //GLES31.glShaderSource(fragmentShader,sFragmentShaderCode);  // @ANDROID
-        gl.glCompileShader(fragmentShader);
-        
-        // STEP 3: Check for compile errors
-        // Vertex check errors
-        int[] compiled = new int[1];
-        gl.glGetShaderiv(vertexShader, GL4ES3.GL_COMPILE_STATUS, compiled,0);
-        if (compiled[0]!=0) {
-        	debug("GLSL", "OK vertex shader compiled");
-        } else {
-            int[] logLength = new int[1];
-            gl.glGetShaderiv(vertexShader, GL4ES3.GL_INFO_LOG_LENGTH, logLength, 0);
-            byte[] log = new byte[logLength[0]];
-            gl.glGetShaderInfoLog(vertexShader, logLength[0], (int[])null, 0, log, 0);
-            // GLES31.glGetShaderInfoLog(vertexShader); 	// @android
-
-            System.err.println("Error compiling the vertex shader: " + new String(log));
-            System.exit(1);
-        }
-
-        // Fragment check errors
-        gl.glGetShaderiv(fragmentShader, GL4ES3.GL_COMPILE_STATUS, compiled,0);
-        if (compiled[0]!=0) { 
-        	debug("GLSL", "OK fragment shader compiled");
-        } else {
-            int[] logLength = new int[1];
-            gl.glGetShaderiv(fragmentShader, GL4ES3.GL_INFO_LOG_LENGTH, logLength, 0);
-
-            byte[] log = new byte[logLength[0]];
-            gl.glGetShaderInfoLog(fragmentShader, logLength[0], (int[])null, 0, log, 0);
-            // GLES31.glGetShaderInfoLog(vertexShader); 	// @android
-
-            System.err.println("Error compiling the fragment shader: " + new String(log));
-            System.exit(1);
-        }
-
-        // STEP 4: Attach shaders to program
-        //Each mShaderProgram must have
-        //one vertex shader and one fragment shader.
-        int mShaderProgram = gl.glCreateProgram();			// Create the Shader Program
-        gl.glAttachShader(mShaderProgram, vertexShader);	// Attach compiled vertex shader
-        gl.glAttachShader(mShaderProgram, fragmentShader);  // Attach compiled fragment shader
-        
-        // STEP 5prev: 
-        // Active attributes that are not explicitly bound will be bound by the linker when glLinkProgram is called.
-        //gl.glBindAttribLocation(mShaderProgram, 0, "av4Position");
-        //gl.glBindAttribLocation(mShaderProgram, 1, "av4Color");
-        //gl.glBindAttribLocation(mShaderProgram, 2, "uSampler");
-        //gl.glBindAttribLocation(mShaderProgram, 3, "uMVPmatrix");
-        
-        // STEP 5: Link the program
-        gl.glLinkProgram(mShaderProgram);
+		// STEP 1-6: Compile and link, or share the program of the renderers with the same sources
+		ShaderProgram program = ShaderProgramCache.getInstance().acquire(gl, sVertexShaderCode, sFragmentShaderCode);
+		int mShaderProgram = program.getId();
 
-        int[] linked = new int[1];
-        gl.glGetProgramiv(mShaderProgram, GL4ES3.GL_LINK_STATUS, linked, 0);
-        
-        int[] validated = new int[1];
-        gl.glGetProgramiv(mShaderProgram, GL4ES3.GL_VALIDATE_STATUS, validated, 0);
-        
-        // STEP 6: Check linking errors
-        if (linked[0]!=0) {
-        	debug("GLSL", "OK program linked " + linked[0] + " validated " + validated[0]);
-        } else {
-            int[] logLength = new int[1];
-            gl.glGetShaderiv(vertexShader, GL4ES3.GL_INFO_LOG_LENGTH, logLength, 0);
-            byte[] log = new byte[logLength[0]];
-            gl.glGetProgramInfoLog(mShaderProgram, logLength[0], (int[])null, 0, log, 0);	// @jogl
-            // GLES31.glGetProgramInfoLog(mShaderProgram);		// @android
-
-            System.err.println("Error compiling the vertex shader: " + new String(log));
-            System.exit(1);
-        }      
-        
-        
-        
         // STEP 7: UNIFORM link to JAVA
         // Link GLSL with java
-        int[] nAttribs = new int[1];
-        gl.glGetProgramiv(mShaderProgram, GL4ES3.GL_ACTIVE_ATTRIBUTES, nAttribs, 0);
-        System.out.println("ATTRIBS ==> " + nAttribs[0]);
-        int[] attribLength = new int[nAttribs[0]];
-        int[] attribSize = new int[nAttribs[0]];
-        int[] attribType = new int[nAttribs[0]];
-        int maxAttribNameLength = 24;
-        byte[] attribName = new byte[nAttribs[0] * maxAttribNameLength];
-        
-        for (int i=0; i< nAttribs[0]; i++) {
-        	// glGetActiveAttrib(int program, int index, int bufSize, int[] length, int length_offset, int[] size, int size_offset, int[] type, int type_offset, byte[] name, int name_offset)
-        	gl.glGetActiveAttrib(mShaderProgram, i, maxAttribNameLength, attribLength, i, attribSize, i, attribType, i, attribName, i * maxAttribNameLength);
-        	// Type
-        	// https://www.khronos.org/registry/OpenGL/api/GL/glext.h
-        	String strAttrib = new String(Arrays.copyOfRange(attribName, i*maxAttribNameLength, i*maxAttribNameLength + attribLength[i]));
-        	System.out.println(i + " ==> " + strAttrib + ", " + gl.glGetAttribLocation(mShaderProgram, strAttrib) +  ", " + attribLength[i] + ", " + attribSize[i] + ", " + attribType[i]);
-        }
-        
-//        int[] nUniforms = new int[1];
-//        gl.glGetProgramiv(mShaderProgram, GL4ES3.GL_ACTIVE_UNIFORMS, nUniforms, 0);
-//        System.out.println("UNIFORMS ==> " + nUniforms[0]);
-//        int[] uniformLength = new int[nUniforms[0]];
-//        int[] uniformSize = new int[nUniforms[0]];
-//        int[] uniformType = new int[nUniforms[0]];
-//        int maxUniformNameLength = 24;
-//        byte[] uniformName = new byte[nUniforms[0] * maxUniformNameLength];
-//        for (int i=0; i< nUniforms[0]; i++) {
-//        	gl.glGetActiveUniform(mShaderProgram, i, maxUniformNameLength, uniformLength, i, uniformSize, i, uniformType, i, uniformName, i * maxUniformNameLength);
-//        	// Type
-//        	// https://www.khronos.org/registry/OpenGL/api/GL/glext.h
-//        	String strUniform = new String(Arrays.copyOfRange(uniformName, i*maxUniformNameLength, i*maxUniformNameLength + uniformLength[i]));
-//        	System.out.println(i + " ==> " + strUniform + ", " + gl.glGetUniformLocation(mShaderProgram, strUniform) +  ", " + uniformLength[i] + ", " + uniformSize[i] + ", " + uniformType[i]);
-//        }
-        
-        this.aAttribLocation[ATTRIB_POSITION] 			= gl.glGetAttribLocation(mShaderProgram, "av4Position");
-        this.aAttribLocation[ATTRIB_TEXTURE_COORDS] 	= gl.glGetAttribLocation(mShaderProgram, "av2TextureCoord");        
+        this.aAttribLocation[ATTRIB_POSITION] 			= program.getAttribLocation("av4Position");
+        this.aAttribLocation[ATTRIB_TEXTURE_COORDS] 	= program.getAttribLocation("av2TextureCoord");        
         
-        this.aAttribLocation[ATTRIB_SAMPLER]	    	= gl.glGetUniformLocation(mShaderProgram, "uSampler");      
-        this.aAttribLocation[ATTRIB_M]					= gl.glGetUniformLocation(mShaderProgram, "uMmatrix");
-        this.aAttribLocation[INSTANCE_M]  				= gl.glGetAttribLocation(mShaderProgram, "am4InstanceMmatrix");
-        this.aAttribLocation[INSTANCE_ATLAS]  			= gl.glGetAttribLocation(mShaderProgram, "a4fInstanceAtlas");
+        this.aAttribLocation[ATTRIB_SAMPLER]	    	= program.getUniformLocation("uSampler");      
+        this.aAttribLocation[ATTRIB_M]					= program.getUniformLocation("uMmatrix");
+        this.aAttribLocation[INSTANCE_M]  				= program.getAttribLocation("am4InstanceMmatrix");
+        this.aAttribLocation[INSTANCE_ATLAS]  			= program.getAttribLocation("a4fInstanceAtlas");
                 
-        this.aAttribLocation[ATTRIB_TEXT_WIDTH]  			= gl.glGetUniformLocation(mShaderProgram, "textWidthEffect");
-        this.aAttribLocation[ATTRIB_TEXT_SHADOW_OFFSET]		= gl.glGetUniformLocation(mShaderProgram, "v2TextOffset");
-        this.aAttribLocation[ATTRIB_TEXT_COLOR]  			= gl.glGetUniformLocation(mShaderProgram, "v3TextColor");
-        this.aAttribLocation[ATTRIB_TEXT_BORDER_COLOR] 		= gl.glGetUniformLocation(mShaderProgram, "v3TextBorderColor");
-		
-        // STEP 8: Detach and delete the shaders, they are no longer needed after the program is linked and compiled
-        gl.glDetachShader(mShaderProgram, vertexShader);
-        gl.glDeleteShader(vertexShader);
-        gl.glDetachShader(mShaderProgram, fragmentShader);
-        gl.glDeleteShader(fragmentShader);
-        
+        this.aAttribLocation[ATTRIB_TEXT_WIDTH]  			= program.getUniformLocation("textWidthEffect");
+        this.aAttribLocation[ATTRIB_TEXT_SHADOW_OFFSET]		= program.getUniformLocation("v2TextOffset");
+        this.aAttribLocation[ATTRIB_TEXT_COLOR]  			= program.getUniformLocation("v3TextColor");
+        this.aAttribLocation[ATTRIB_TEXT_BORDER_COLOR] 		= program.getUniformLocation("v3TextBorderColor");
+		
         // STEP 9: How to use it
         // gl.glUseProgram(mShaderProgram);			// Done during the DRAW, each object can use different program
         // DRAW
@@ -780,10 +627,7 @@ public class RenderGenericInstanceAtlasTextGUI implements Model {
 //        gl.glTexParameterf(GL4ES3.GL_TEXTURE_2D, GL4ES3.GL_TEXTURE_WRAP_T, GL4ES3.GL_REPEAT);				// to repeat the exture n times inside the quad
         
        	//System.out.println(">> TEXTURE 4 channels");
-       	gl.glTexImage2D(GL4ES3.GL_TEXTURE_2D, 0, GL4ES3.GL_SRGB_ALPHA, tex.width, tex.height, 0, GL4ES3.GL_RGBA, GL4ES3.GL_UNSIGNED_BYTE, tex.byteDataBuffer);       	       	      	       	
-
-       	// Generate MIPMAPs
-        gl.glGenerateMipmap(GL4ES3.GL_TEXTURE_2D);
+       	TextureUpload.texImage2D(gl, tex);
 
         //Sets the object texture to the new created texture
        	//gl.glBindTexture(GL4ES3.GL_TEXTURE_2D, 0);
@@ -0,0 +1,283 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.engine.render;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+import com.jogamp.opengl.GL4ES3;
+import com.jogamp.opengl.GLAutoDrawable;
+
+import tk.otanod.libMath.V3f;
+
+/**
+ * Draw items of a frame sorted by a 64 bits key, the state changes are only issued when they differ
+ * from the previous item (RenderState.apply).
+ *
+ * Key, compared as unsigned:
+ *   63-62  pass           OPAQUE, SKY, TRANSPARENT, OVERLAY
+ *   opaque, sky           61-50 program, 49-38 texture unit, 37-12 depth (front to back), 11-0 VAO
+ *   transparent           61-36 depth inverted (back to front), 35-24 program, 23-12 texture unit, 11-0 VAO
+ *   overlay               61-0 submission order (GUI, models without draw items)
+ * Every model has its own VAOs, so the depth goes before the VAO: same program and texture, nearest first.
+ * The ids keep their 12 low bits, two ids with the same bits are only grouped together, the state is still
+ * compared with the real ids.
+ *
+ * Once per frame on the GL thread (CanvasListener.display): clear, the models submit their items, execute.
+ */
+public class RenderQueue {
+
+	public static final int PASS_OPAQUE = 0;
+	public static final int PASS_SKY = 1;
+	public static final int PASS_TRANSPARENT = 2;
+	public static final int PASS_OVERLAY = 3;
+
+	// Distance from the eye covered by the depth bits, farther items share the last value
+	public static final float DEPTH_RANGE = 1024f;
+
+	private static final int PASS_SHIFT = 62;
+	private static final int ID_BITS = 12;
+	private static final long ID_MASK = (1L << ID_BITS) - 1;
+	private static final int DEPTH_BITS = 26;
+	private static final long DEPTH_MASK = (1L << DEPTH_BITS) - 1;
+
+	// Radix sort, 8 passes of 8 bits
+	private static final int RADIX_BITS = 8;
+	private static final int RADIX = 1 << RADIX_BITS;
+
+	private int nItems = 0;
+	private long[] keys = new long[64];
+	private int[] order = new int[64];
+	private DrawItem[] items = new DrawItem[64];
+	private RenderState[] states = new RenderState[64];
+	private long[] scratchKeys = new long[64];
+	private int[] scratchOrder = new int[64];
+	private final int[] counts = new int[RADIX];
+
+	// Models without draw items, display() in the overlay pass. Only the models of this frame and the last
+	// one are kept, a model that is not submitted any more can be collected
+	private IdentityHashMap<Model, DrawItem> modelItems = new IdentityHashMap<>();
+	private IdentityHashMap<Model, DrawItem> lastModelItems = new IdentityHashMap<>();
+	private long nOverlay = 0;
+
+	// Statistics of the last frame
+	private int nStateChanges = 0;
+	private int nStateChangesUnsorted = 0;
+
+	/************************
+	 *	KEYS
+	 ************************/
+
+	public static long getKey(int pass, RenderState state, float depth) {
+		return getKey(pass, state.getProgram(), state.getTextureUnit(), state.getVao(), depth);
+	}
+
+	public static long getKey(int pass, int program, int textureUnit, int vao, float depth) {
+		long state = ((program & ID_MASK) << ID_BITS) | (textureUnit & ID_MASK);
+		long quantized = getQuantizedDepth(depth);
+		long key;
+		if ( pass == PASS_TRANSPARENT ) {
+			key = ((DEPTH_MASK - quantized) << (3 * ID_BITS)) | (state << ID_BITS) | (vao & ID_MASK);
+		} else {
+			key = (state << (DEPTH_BITS + ID_BITS)) | (quantized << ID_BITS) | (vao & ID_MASK);
+		}
+		return ((long) pass << PASS_SHIFT) | key;
+	}
+
+	static long getQuantizedDepth(float depth) {
+		if ( !(depth > 0f) ) {
+			return 0;																// 0, negative, NaN
+		}
+		if ( depth >= DEPTH_RANGE ) {
+			return DEPTH_MASK;
+		}
+		return (long) (depth / DEPTH_RANGE * DEPTH_MASK);
+	}
+
+	/**
+	 * Distance from the eye to a point of the model (its position, the centroid of the instances, ...)
+	 */
+	public static float getDepth(V3f eye, float x, float y, float z) {
+		float dx = x - eye.x();
+		float dy = y - eye.y();
+		float dz = z - eye.z();
+		return (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+	}
+
+	/************************
+	 *	ITEMS
+	 ************************/
+
+	public void clear() {
+		Arrays.fill(items, 0, nItems, null);
+		Arrays.fill(states, 0, nItems, null);
+		nItems = 0;
+		nOverlay = 0;
+		
+		// the models of the last frame that were not submitted again are dropped
+		IdentityHashMap<Model, DrawItem> dropped = lastModelItems;
+		dropped.clear();
+		lastModelItems = modelItems;
+		modelItems = dropped;
+	}
+
+	public void submit(long key, RenderState state, DrawItem item) {
+		if ( nItems == keys.length ) {
+			int capacity = nItems * 2;
+			keys = Arrays.copyOf(keys, capacity);
+			order = Arrays.copyOf(order, capacity);
+			items = Arrays.copyOf(items, capacity);
+			states = Arrays.copyOf(states, capacity);
+			scratchKeys = new long[capacity];
+			scratchOrder = new int[capacity];
+		}
+		keys[nItems] = key;
+		order[nItems] = nItems;
+		items[nItems] = item;
+		states[nItems] = state;
+		nItems++;
+	}
+
+	/**
+	 * Model without draw items (Model.submit default): display() from the DEFAULT state, in the overlay pass
+	 * in submission order
+	 */
+	public void submit(Model model) {
+		DrawItem item = modelItems.get(model);
+		if ( item == null ) {
+			item = lastModelItems.remove(model);
+			if ( item == null ) {
+				item = model::display;
+			}
+			modelItems.put(model, item);
+		}
+		submit(((long) PASS_OVERLAY << PASS_SHIFT) | nOverlay++, RenderState.DEFAULT, item);
+	}
+
+	/************************
+	 *	FRAME
+	 ************************/
+
+	/**
+	 * Sorts the items, applies the state changes and draws them, then goes back to RenderState.DEFAULT
+	 */
+	public void execute(GLAutoDrawable drawable) {
+		execute(drawable.getGL().getGL4ES3(), drawable);
+	}
+
+	void execute(GL4ES3 gl, GLAutoDrawable drawable) {
+		sort();
+
+		RenderState current = RenderState.DEFAULT;
+		int nChanges = 0;
+		int nChangesUnsorted = 0;
+		for (int i = 0; i < nItems; i++) {
+			int item = order[i];
+			RenderState next = states[item];
+			nChanges += RenderState.apply(gl, current, next);
+			items[item].draw(drawable);
+			current = next;
+			// each model on its own: bind, draw, unbind
+			nChangesUnsorted += RenderState.getnChanges(RenderState.DEFAULT, next) + RenderState.getnChanges(next, RenderState.DEFAULT);
+		}
+		nChanges += RenderState.apply(gl, current, RenderState.DEFAULT);
+
+		this.nStateChanges = nChanges;
+		this.nStateChangesUnsorted = nChangesUnsorted;
+	}
+
+	/**
+	 * Sorts the order of the items by key, stable
+	 */
+	void sort() {
+		if ( radixSort(keys, order, nItems, scratchKeys, scratchOrder, counts) ) {
+			System.arraycopy(scratchKeys, 0, keys, 0, nItems);
+			System.arraycopy(scratchOrder, 0, order, 0, nItems);
+		}
+	}
+
+	/**
+	 * LSD radix sort of the unsigned keys and their values, 8 bits per pass, the passes with the same digit in
+	 * all the keys are skipped. Returns true when the result is in the scratch arrays.
+	 */
+	static boolean radixSort(long[] keys, int[] values, int n, long[] scratchKeys, int[] scratchValues, int[] counts) {
+		long[] srcKeys = keys;
+		int[] srcValues = values;
+		long[] dstKeys = scratchKeys;
+		int[] dstValues = scratchValues;
+		for (int shift = 0; shift < Long.SIZE; shift += RADIX_BITS) {
+			Arrays.fill(counts, 0);
+			for (int i = 0; i < n; i++) {
+				counts[(int) (srcKeys[i] >>> shift) & (RADIX - 1)]++;
+			}
+			if ( n == 0 || counts[(int) (srcKeys[0] >>> shift) & (RADIX - 1)] == n ) {
+				continue;															// same digit everywhere
+			}
+			int sum = 0;
+			for (int digit = 0; digit < RADIX; digit++) {
+				int count = counts[digit];
+				counts[digit] = sum;
+				sum += count;
+			}
+			for (int i = 0; i < n; i++) {
+				int digit = (int) (srcKeys[i] >>> shift) & (RADIX - 1);
+				int position = counts[digit]++;
+				dstKeys[position] = srcKeys[i];
+				dstValues[position] = srcValues[i];
+			}
+			long[] swapKeys = srcKeys;
+			srcKeys = dstKeys;
+			dstKeys = swapKeys;
+			int[] swapValues = srcValues;
+			srcValues = dstValues;
+			dstValues = swapValues;
+		}
+		return srcKeys != keys;
+	}
+
+	/************************
+	 *	STATISTICS
+	 ************************/
+
+	public int getnItems() {
+		return nItems;
+	}
+
+	/**
+	 * Models with a cached overlay item, submitted in this frame or in the last one
+	 */
+	int getnModelItems() {
+		return modelItems.size() + lastModelItems.size();
+	}
+
+	/**
+	 * State changes issued by the queue in the last frame
+	 */
+	public int getnStateChanges() {
+		return nStateChanges;
+	}
+
+	/**
+	 * State changes of the same items drawn one by one, each model binding its state and unbinding it
+	 */
+	public int getnStateChangesUnsorted() {
+		return nStateChangesUnsorted;
+	}
+
+	public String getStatistics() {
+		return String.format("%d draw items, %d state changes (%d drawn one by one)", nItems, nStateChanges, nStateChangesUnsorted);
+	}
+
+}
@@ -14,10 +14,8 @@ SOFTWARE.
 
 package tk.otanod.engine.render;
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
+import java.nio.Buffer;
 import java.nio.FloatBuffer;
-import java.nio.IntBuffer;
 
 import com.jogamp.opengl.GL4ES3;
 import com.jogamp.opengl.GLAutoDrawable;
@@ -27,11 +25,12 @@ import tk.otanod.libIO.RawImage;
 import tk.otanod.libIO.RawImagePack;
 import tk.otanod.libMath.M4f;
 import tk.otanod.libMath.V3f;
+import tk.otanod.libOBJ.ElementBuffers;
 import tk.otanod.libOBJ.RawOBJ;
 
 
 
-public class RenderSkyBox implements Model {
+public class RenderSkyBox implements Model, DrawItem {
 
 	private boolean isInitialized = false;
 	
@@ -46,6 +45,8 @@ public class RenderSkyBox implements Model {
 	// Light
 	private Light light;
 	
+	// Scratch array for the glUniform* calls, draw() doesn't allocate (16 floats = mat4)
+	private final float[] aUniformData = new float[16];
 	// Projection matrix
 	private M4f m4Projection;
 	// View Matrix
@@ -59,10 +60,11 @@ public class RenderSkyBox implements Model {
 	
 	// Model
 	private int nElements;
-	private int[] indices;
-	private float[] positions;
-	private float[] textureCoords;
-	private float[] normals;
+	private Buffer indices;
+	private int indexType;								// GL_UNSIGNED_SHORT or GL_UNSIGNED_INT
+	private FloatBuffer positions;
+	private FloatBuffer textureCoords;
+	private FloatBuffer normals;
 		
 	// OpenGL - internal
 	private int nVAOs;
@@ -73,6 +75,7 @@ public class RenderSkyBox implements Model {
 	private int[] textureIDs;
 	private int textureUnit;
 	private int programGLSL;
+	private RenderState state;							// program, texture unit, VAO, blend and cull of the draw item
 	
 	// GLSL
     private int[] aAttribLocation = new int[9];
@@ -92,11 +95,11 @@ public class RenderSkyBox implements Model {
 	public RenderSkyBox(V3f position, V3f scale, RawOBJ model, RawImagePack textureSkyBoxPack, Camera camera, Light light, M4f projection) {
 		
 		// Model
-		this.indices = model.getIndices();
+		this.indices = model.getIndexBuffer();
 		this.nElements = model.getnElements();
-		this.positions = model.getPositions();
-		this.textureCoords = model.getTextureCoords();
-		this.normals = model.getNormals();
+		this.positions = model.getPositionBuffer();
+		this.textureCoords = model.getTextureCoordBuffer();
+		this.normals = model.getNormalBuffer();
 		
 		// Texture
 		this.textureImagePack = textureSkyBoxPack; 
@@ -168,6 +171,7 @@ public class RenderSkyBox implements Model {
 	@Override
 	public void init(GLAutoDrawable drawable) {
 		initialize(drawable);
+		this.isInitialized = true;
 	}
 
 	@Override
@@ -178,7 +182,10 @@ public class RenderSkyBox implements Model {
 	@Override
 	public void display(GLAutoDrawable drawable) {
 		if ( this.isInitialized ) {
+			GL4ES3 gl = drawable.getGL().getGL4ES3();
+			this.state.bind(gl);
 			draw(drawable);
+			this.state.unbind(gl);
 		} else {
 			initialize(drawable);
 			this.isInitialized = true;
@@ -186,6 +193,16 @@ public class RenderSkyBox implements Model {
 		
 	}
 
+	@Override
+	public void submit(RenderQueue queue) {
+		if ( !this.isInitialized ) {
+			queue.submit((Model) this);								// display() initializes the model
+			return;
+		}
+		float depth = 0f;														// around the eye, drawn after the opaque models
+		queue.submit(RenderQueue.getKey(RenderQueue.PASS_SKY, this.state, depth), this.state, this);
+	}
+	
 	@Override
 	public void reshape(GLAutoDrawable drawable, int x, int y, int width, int height) {
 		//
@@ -225,8 +242,11 @@ public class RenderSkyBox implements Model {
 		this.textureIDs = new int[this.nTextures];
 		gl.glGenTextures(this.nTextures, this.textureIDs, 0);
 		this.textureUnit = TextureUnitManager.getInstance().getTextureNumber("skyBox");				// Get texture unit form centralized class to avoid conflict with other classes using also TEXTURE units
-		createCubeTexture(gl, this.textureIDs[0], this.textureUnit);  
-	      
+		createCubeTexture(gl, this.textureIDs[0], this.textureUnit);
+		
+		// 6. State of the draw item
+		this.state = new RenderState(this.programGLSL, this.aAttribLocation[ATTRIB_SAMPLER], this.textureUnit, this.vaos[0], false, true, GL4ES3.GL_LEQUAL);	// GL_LEQUAL required for SkyBox trick pos.xyww
+
 	}
 
 	private void createCubeTexture(GL4ES3 gl, int textureID, int textureUnit) {
@@ -237,9 +257,16 @@ public class RenderSkyBox implements Model {
 		int sides = this.textureImagePack.getSize();
 		for(int i=0; i<sides; i++) {
 			RawImage textureImage = this.textureImagePack.getRawImage(i);
+			// a face cut from the cross image is read straight from the buffer of that image (RawImage.isSubImage)
+			gl.glPixelStorei(GL4ES3.GL_UNPACK_ROW_LENGTH, textureImage.getRowLength());
+			gl.glPixelStorei(GL4ES3.GL_UNPACK_SKIP_PIXELS, textureImage.getSkipPixels());
+			gl.glPixelStorei(GL4ES3.GL_UNPACK_SKIP_ROWS, textureImage.getSkipRows());
 			gl.glTexImage2D(GL4ES3.GL_TEXTURE_CUBE_MAP_POSITIVE_X + i, 0, GL4ES3.GL_SRGB_ALPHA, textureImage.width, textureImage.height, 0, GL4ES3.GL_RGBA, GL4ES3.GL_UNSIGNED_BYTE, textureImage.byteDataBuffer);
 			debug("GL TEXTURE", textureImage.name + ", " + textureID + ", " + textureUnit); 
 		}
+		gl.glPixelStorei(GL4ES3.GL_UNPACK_ROW_LENGTH, 0);										// back to the defaults, the other uploads are packed
+		gl.glPixelStorei(GL4ES3.GL_UNPACK_SKIP_PIXELS, 0);
+		gl.glPixelStorei(GL4ES3.GL_UNPACK_SKIP_ROWS, 0);
 
 		gl.glTexParameteri(GL4ES3.GL_TEXTURE_CUBE_MAP, GL4ES3.GL_TEXTURE_MAG_FILTER, GL4ES3.GL_LINEAR);
 		gl.glTexParameteri(GL4ES3.GL_TEXTURE_CUBE_MAP, GL4ES3.GL_TEXTURE_MIN_FILTER, GL4ES3.GL_LINEAR);
@@ -248,17 +275,18 @@ public class RenderSkyBox implements Model {
 		gl.glTexParameteri(GL4ES3.GL_TEXTURE_CUBE_MAP, GL4ES3.GL_TEXTURE_WRAP_R, GL4ES3.GL_CLAMP_TO_EDGE);
 	}
 
-	private void addEBOtoVAO(GL4ES3 gl, int[] mData, int ebo) {
-		// 3.1 Prepare the data, we need a IntBuffer instead of a Int Array
-		IntBuffer ibData = getIntBuffer(mData);
+	private void addEBOtoVAO(GL4ES3 gl, Buffer data, int ebo) {
+		// 3.1 The data is already a direct ShortBuffer or IntBuffer (RawOBJ), no copy
+		//     16 bits indices when the model has fewer than 65536 vertices, half the memory and bandwidth
+		int bytesPerIndex = ElementBuffers.getBytesPerIndex(data);
+		this.indexType = ( bytesPerIndex == Short.BYTES ) ? GL4ES3.GL_UNSIGNED_SHORT : GL4ES3.GL_UNSIGNED_INT;
 
 		// 3.3 Transfer the data to the GPU
-		final int BYTES_PER_INT = Integer.SIZE / Byte.SIZE;  				// float has 4 bytes
-		int numBytes = (int) (mData.length * BYTES_PER_INT);
+		int numBytes = (int) (data.remaining() * bytesPerIndex);
 		
 		//fbVertices = null; // It is OK to release CPU vertices memory after transfer to GPU        
 		gl.glBindBuffer(GL4ES3.GL_ELEMENT_ARRAY_BUFFER, ebo);
-		gl.glBufferData(GL4ES3.GL_ELEMENT_ARRAY_BUFFER, numBytes, ibData, GL4ES3.GL_STATIC_DRAW);
+		gl.glBufferData(GL4ES3.GL_ELEMENT_ARRAY_BUFFER, numBytes, data, GL4ES3.GL_STATIC_DRAW);
 		
 		// 3.5 Unbind the EBO
 		// VERY IMPORTANT
@@ -269,13 +297,12 @@ public class RenderSkyBox implements Model {
 		//gl.glBindBuffer(GL4ES3.GL_ELEMENT_ARRAY_BUFFER, 0);						//	NEVER unbind the ELEMENT_ARRAY_BUFFER inside teh VAO
 	}
 
-	private void addVBOtoVAO(GL4ES3 gl, float[] mData, int vbo, int componentsPerVertex, int attrib) {
-		// 3.1 Prepare the data, we need a FloatBuffer instead of a Float Array
-		FloatBuffer fbData = getFloatBuffer(mData);
+	private void addVBOtoVAO(GL4ES3 gl, FloatBuffer fbData, int vbo, int componentsPerVertex, int attrib) {
+		// 3.1 The data is already a direct FloatBuffer (RawOBJ), no copy
 
 		// 3.2 Transfer the data to the GPU
 		final int BYTES_PER_FLOAT = Float.SIZE / Byte.SIZE;  				// float has 4 bytes
-		int numBytes = (int) (mData.length * BYTES_PER_FLOAT);
+		int numBytes = (int) (fbData.remaining() * BYTES_PER_FLOAT);
 		gl.glBindBuffer(GL4ES3.GL_ARRAY_BUFFER, vbo);						// Enables the VBO, to write there the data and link it later with the VAO slot
 		gl.glBufferData(GL4ES3.GL_ARRAY_BUFFER, numBytes, fbData, GL4ES3.GL_STATIC_DRAW);	// transfers data to the VBO
 		//gl.glBindBuffer(GL4ES3.GL_ARRAY_BUFFER, 0);						
@@ -293,95 +320,32 @@ public class RenderSkyBox implements Model {
 		gl.glBindBuffer(GL4ES3.GL_ARRAY_BUFFER, 0);						//	Unbind buffers
 	}
 	
-	private IntBuffer getIntBuffer(int[] data) {
-		// Bytes per Int (may vary on each system)
-		final int BYTES_PER_INT = Integer.SIZE / Byte.SIZE;  				
-		// Stride
-		//int vertexStride = COORDS_PER_VERTEX * BYTES_PER_VERTEX; 			  
-		// Total bytes needed for the buffer
-		int numBytes = (int) (data.length * BYTES_PER_INT);
-		
-		// initialize vertex byte buffer for shape coordinates
-		ByteBuffer bb = ByteBuffer.allocateDirect(numBytes);       	
-		// use the device hardware's native byte order
-		bb.order(ByteOrder.nativeOrder());
-		// create a int point buffer from the ByteBuffer
-		IntBuffer ibData = bb.asIntBuffer();
-		// add the coordinates to the IntBuffer
-		ibData.put(data);
-		// set the buffer to read the first coordinate
-		ibData.position(0);         
-
-		return(ibData);
-	}
-	
-	private FloatBuffer getFloatBuffer(float[] data) {
-		// Bytes per Float (may vary on each system)
-		final int BYTES_PER_FLOAT = Float.SIZE / Byte.SIZE;  				// float has 4 bytes
-		// Stride
-		//int vertexStride = COORDS_PER_VERTEX * BYTES_PER_VERTEX; 			// 3 o 4 floats per vertex  
-		// Total bytes needed for the buffer
-		int numBytes = (int) (data.length * BYTES_PER_FLOAT);
-		
-		// initialize vertex byte buffer for shape coordinates
-		ByteBuffer bb = ByteBuffer.allocateDirect(numBytes);       	
-		// use the device hardware's native byte order
-		bb.order(ByteOrder.nativeOrder());
-		// create a floating point buffer from the ByteBuffer
-		FloatBuffer fbData = bb.asFloatBuffer();
-		// add the coordinates to the FloatBuffer
-		fbData.put(data);
-		// set the buffer to read the first coordinate
-		fbData.position(0);         
-		
-		return(fbData);
-	}
-		
 	M4f m4Model = new M4f();
 	
-	private void draw(GLAutoDrawable drawable) {
+	@Override
+	public void draw(GLAutoDrawable drawable) {
 		// 1. Get context
 		GL4ES3 gl = drawable.getGL().getGL4ES3();
 
-		// 2: Use Program 
-		gl.glUseProgram(this.programGLSL);
+		// 2: Program, texture unit, VAO, blend and cull: RenderState, applied by the RenderQueue or display()
 		
 		// 4: Update the Uniforms
 		// 4.1 Texture Sampler
 		// gl.glActiveTexture(GL4ES3.GL_TEXTURE0 + textureUnit);  						// you can avoid this call, if you don't reuse the Texture Unit between model
 		// gl.glBindTexture(GL4ES3.GL_TEXTURE_2D, textureID);							// you can avoid this call, if you don't reuse the Texture Unit between model
-		gl.glUniform1i(this.aAttribLocation[ATTRIB_SAMPLER], this.textureUnit);			// 0 for GL_TEXTURE0, 1 for GL_TEXTURE1, ..., 15 for GL_TEXTURE15
+		// the sampler uniform is part of the RenderState (texture unit)
 		
 		// 4.2 PVM matrix					
-		gl.glUniformMatrix4fv(this.aAttribLocation[ATTRIB_P], 1, false, m4Projection.getElements(),	0);	// glUniformMatrix4fv(int location, int count, boolean transpose, float[] value, int value_offset)
-		gl.glUniformMatrix4fv(this.aAttribLocation[ATTRIB_V], 1, false, m4View.getElements(),	0);	// glUniformMatrix4fv(int location, int count, boolean transpose, float[] value, int value_offset)
-		
 		m4Model.rotateZaxisCW(ROTATION_SPEED);
-		gl.glUniformMatrix3fv(this.aAttribLocation[ATTRIB_M], 1, false, m4Model.getM3Elements(),	0);	// glUniformMatrix4fv(int location, int count, boolean transpose, float[] value, int value_offset)
+		gl.glUniformMatrix3fv(this.aAttribLocation[ATTRIB_M], 1, false, m4Model.getM3Elements(this.aUniformData, 0),	0);	// glUniformMatrix4fv(int location, int count, boolean transpose, float[] value, int value_offset)
 		
-		// 4.3 Fog
-		gl.glUniform1f(this.aAttribLocation[ATTRIB_FOG_UPPER_LIMIT], this.light.getFogUpperLimit());
-		gl.glUniform1f(this.aAttribLocation[ATTRIB_FOG_LOWER_LIMIT], this.light.getFogLowerLimit());
-		gl.glUniform3fv(this.aAttribLocation[ATTRIB_FOG_COLOR], 1, this.light.getFogColor(), 0);
-		
-		// 4.5 Camera/Eye position
-		gl.glUniform3fv(this.aAttribLocation[ATTRIB_EYE_POSITION],  1, v3Eye.getFloats(),   0);
-	
-				
+		// 4.3 P, V, light, eye and fog: FrameUniforms, uploaded once per frame
+
 		// 5: draw the VAOs
-		gl.glBindVertexArray(this.vaos[0]); 												// Bind our Vertex Array Object  
-		
 		// When using glDrawElements we're going to draw using indices provided in the element buffer object currently bound:
 		// Leave the ELEMENT_ARRAY_BUFFER bound inside the VAO, just avoid the unbind after creating it. And you don't need to call it here if it is already bound!!!
 		// gl.glBindBuffer(GL4ES3.GL_ELEMENT_ARRAY_BUFFER, this.vbos[0]); 
-		gl.glDepthFunc(GL4ES3.GL_LEQUAL); 													// required for SkyBox trick pos.xyww
-		gl.glDrawElements(GL4ES3.GL_TRIANGLES, this.nElements, GL4ES3.GL_UNSIGNED_INT, 0); 	// DrawElements triangles, count, type,  OFFSET
-		gl.glDepthFunc(GL4ES3.GL_LESS);
-		
-		// 6: Unbind
-		gl.glBindVertexArray(0); 					// Unbind our Vertex Array Object or bind to default VAO
-		gl.glUseProgram(0);
-		
+		gl.glDrawElements(GL4ES3.GL_TRIANGLES, this.nElements, this.indexType, 0); 	// DrawElements triangles, count, type,  OFFSET
 		
 	}
 	
@@ -396,7 +360,7 @@ public class RenderSkyBox implements Model {
 		gl.glDeleteVertexArrays(this.nVAOs, this.vaos, 0);
 		
 		// 4. Delete Program
-		gl.glDeleteProgram(this.programGLSL);
+		ShaderProgramCache.getInstance().release(gl, this.programGLSL);
 		
 		// 5. Delete textures
 		gl.glDeleteTextures(this.nTextures, this.textureIDs, 0);
@@ -415,8 +379,7 @@ public class RenderSkyBox implements Model {
 				+ "  precision mediump int; \n" 			// GLSL ES section 4.5.2
 				+ "#endif \n" 
 				
-				+ "uniform 	  mat4  uPmatrix; \n"			// P matrix, column major, pre-multiplied, projection space
-				+ "uniform 	  mat4  uVmatrix; \n"			// V matrix, column major, pre-multiplied, from view matrix from camera position/angle,lookAt
+				+ FrameUniforms.GLSL								// uPmatrix, uVmatrix, uLight, uEyePosition, uSkyColor, fog (FrameUniforms.BINDING)
 				+ "uniform 	  mat3  uMmatrix; \n"			// M matrix, column major, pre-multiplied, from model rotation/scale/translation in the world
 				+ "attribute  vec3  av3Position; \n" 		// the vertex shader
 				
@@ -455,10 +418,7 @@ public class RenderSkyBox implements Model {
 				+ "varying    vec3  v3Position; \n"
 				
 	            + "uniform   samplerCube uSampler; \n"											// it will receive 0 for GL_TEXTURE0, 1 for GL_TEXTURE1, 2 for GL_TEXTURE2, ... GL_TEXTURE15
-				+ "uniform   float 		uFogUpperLimit; \n"
-				+ "uniform   float 		uFogLowerLimit; \n"
-				+ "uniform   vec3    	uFogColor; \n"	
-				+ "uniform   vec3  		uEyePosition; \n"
+				+ FrameUniforms.GLSL								// uPmatrix, uVmatrix, uLight, uEyePosition, uSkyColor, fog (FrameUniforms.BINDING)
 
 
 //				// http://fooplot.com/#W3sidHlwZSI6MCwiZXEiOiJlXigtKCgwLjAxNSp4KV4yLjUpKSIsImNvbG9yIjoiIzAwMDAwMCJ9LHsidHlwZSI6MTAwMCwid2luZG93IjpbIi0xODQuNzQxMTExMjk3NjI1NzQiLCIxODQuNzQxMTExMjk3NjI1NzQiLCItMS4yNDk5OTk5OTk5OTk5OTk4IiwiMS4yNDk5OTk5OTk5OTk5OTk4Il19XQ--
@@ -496,124 +456,17 @@ public class RenderSkyBox implements Model {
 				+ "} ";
 		
 						
-		if(gl.isGL3core()){
-            debug("GLSL", "GL3 core detected: explicit add #version 130 to shaders");
-            sVertexShaderCode = "#version 130\n"+sVertexShaderCode;
-            sFragmentShaderCode = "#version 130\n"+sFragmentShaderCode;
-        }
-
-		// STEP 1: Create Shaders
-        // Create GPU shader handles
-        // OpenGL ES returns an index id to be stored for future reference.
-	    int vertexShader = gl.glCreateShader(GL4ES3.GL_VERTEX_SHADER);		// create the Vertex Shader
-	    int fragmentShader = gl.glCreateShader(GL4ES3.GL_FRAGMENT_SHADER);	// create the Fragment Shader
-
-	    // STEP 2: Source and Compile Shaders
-        //Compile the vertexShader String into a program.
-        String[] vlines = new String[] { sVertexShaderCode };
-        int[] vlengths = new int[] { vlines[0].length() };
-        gl.glShaderSource(vertexShader, vlines.length, vlines, vlengths, 0);	// @jogl
-        //GLES31.glShaderSource(vertexShader,sVertexShaderCode);  // @ANDROID
-        gl.glCompileShader(vertexShader);
-
-        //Compile the fragmentShader String into a program.
-        String[] flines = new String[] { sFragmentShaderCode };
-        int[] flengths = new int[] { flines[0].length() };
-        gl.glShaderSource(fragmentShader, flines.length, flines, flengths, 0);		// @jogl
-        //GLES31.glShaderSource(fragmentShader,sFragmentShaderCode);  // @ANDROID
-        gl.glCompileShader(fragmentShader);
-        
-        // STEP 3: Check for compile errors
-        // Vertex check errors
-        int[] compiled = new int[1];
-        gl.glGetShaderiv(vertexShader, GL4ES3.GL_COMPILE_STATUS, compiled,0);
-        if (compiled[0]!=0) {
-        	debug("GLSL", "OK vertex shader compiled");
-        } else {
-            int[] logLength = new int[1];
-            gl.glGetShaderiv(vertexShader, GL4ES3.GL_INFO_LOG_LENGTH, logLength, 0);
-            byte[] log = new byte[logLength[0]];
-            gl.glGetShaderInfoLog(vertexShader, logLength[0], (int[])null, 0, log, 0);
-            // GLES31.glGetShaderInfoLog(vertexShader); 	// @android
-
-            System.err.println("Error compiling the vertex shader: " + new String(log));
-            System.exit(1);
-        }
-
-        // Fragment check errors
-        gl.glGetShaderiv(fragmentShader, GL4ES3.GL_COMPILE_STATUS, compiled,0);
-        if (compiled[0]!=0) { 
-        	debug("GLSL", "OK fragment shader compiled");
-        } else {
-            int[] logLength = new int[1];
-            gl.glGetShaderiv(fragmentShader, GL4ES3.GL_INFO_LOG_LENGTH, logLength, 0);
-
-            byte[] log = new byte[logLength[0]];
-            gl.glGetShaderInfoLog(fragmentShader, logLength[0], (int[])null, 0, log, 0);
-            // GLES31.glGetShaderInfoLog(vertexShader); 	// @android
-
-            System.err.println("Error compiling the fragment shader: " + new String(log));
-            System.exit(1);
-        }
-
-        // STEP 4: Attach shaders to program
-        //Each mShaderProgram must have
-        //one vertex shader and one fragment shader.
-        int mShaderProgram = gl.glCreateProgram();			// Create the Shader Program
-        gl.glAttachShader(mShaderProgram, vertexShader);	// Attach compiled vertex shader
-        gl.glAttachShader(mShaderProgram, fragmentShader);  // Attach compiled fragment shader
-        
-        // STEP 5prev: 
-        // Active attributes that are not explicitly bound will be bound by the linker when glLinkProgram is called.
-        //gl.glBindAttribLocation(mShaderProgram, 0, "av4Position");
-        //gl.glBindAttribLocation(mShaderProgram, 1, "av4Color");
-        //gl.glBindAttribLocation(mShaderProgram, 2, "uSampler");
-        //gl.glBindAttribLocation(mShaderProgram, 3, "uMVPmatrix");
-        
-        // STEP 5: Link the program
-        gl.glLinkProgram(mShaderProgram);
+		// STEP 1-6: Compile and link, or share the program of the renderers with the same sources
+		ShaderProgram program = ShaderProgramCache.getInstance().acquire(gl, sVertexShaderCode, sFragmentShaderCode);
+		int mShaderProgram = program.getId();
 
-        int[] linked = new int[1];
-        gl.glGetProgramiv(mShaderProgram, GL4ES3.GL_LINK_STATUS, linked, 0);
-        
-        int[] validated = new int[1];
-        gl.glGetProgramiv(mShaderProgram, GL4ES3.GL_VALIDATE_STATUS, validated, 0);
-        
-        // STEP 6: Check linking errors
-        if (linked[0]!=0) {
-        	debug("GLSL", "OK program linked " + linked[0] + " validated " + validated[0]);
-        } else {
-            int[] logLength = new int[1];
-            gl.glGetShaderiv(vertexShader, GL4ES3.GL_INFO_LOG_LENGTH, logLength, 0);
-            byte[] log = new byte[logLength[0]];
-            gl.glGetProgramInfoLog(mShaderProgram, logLength[0], (int[])null, 0, log, 0);	// @jogl
-            // GLES31.glGetProgramInfoLog(mShaderProgram);		// @android
-
-            System.err.println("Error compiling the vertex shader: " + new String(log));
-            System.exit(1);
-        }      
-        
-        
-        
         // STEP 7: UNIFORM link to JAVA
         // Link GLSL with java
-        this.aAttribLocation[ATTRIB_POSITION] 		= gl.glGetAttribLocation(mShaderProgram, "av3Position");
-        this.aAttribLocation[ATTRIB_SAMPLER]	    = gl.glGetUniformLocation(mShaderProgram, "uSampler");      
-        this.aAttribLocation[ATTRIB_P]				= gl.glGetUniformLocation(mShaderProgram, "uPmatrix");  
-        this.aAttribLocation[ATTRIB_V]				= gl.glGetUniformLocation(mShaderProgram, "uVmatrix");  
-        this.aAttribLocation[ATTRIB_M]				= gl.glGetUniformLocation(mShaderProgram, "uMmatrix");  
-        this.aAttribLocation[ATTRIB_FOG_UPPER_LIMIT]= gl.glGetUniformLocation(mShaderProgram, "uFogUpperLimit");  
-        this.aAttribLocation[ATTRIB_FOG_LOWER_LIMIT]= gl.glGetUniformLocation(mShaderProgram, "uFogLowerLimit");  
-        this.aAttribLocation[ATTRIB_FOG_COLOR]		= gl.glGetUniformLocation(mShaderProgram, "uFogColor");  
-        this.aAttribLocation[ATTRIB_EYE_POSITION]  	= gl.glGetUniformLocation(mShaderProgram, "uEyePosition");
+        this.aAttribLocation[ATTRIB_POSITION] 		= program.getAttribLocation("av3Position");
+        this.aAttribLocation[ATTRIB_SAMPLER]	    = program.getUniformLocation("uSampler");      
+        this.aAttribLocation[ATTRIB_M]				= program.getUniformLocation("uMmatrix");  
 
         
-        // STEP 8: Detach and delete the shaders, they are no longer needed after the program is linked and compiled
-        gl.glDetachShader(mShaderProgram, vertexShader);
-        gl.glDeleteShader(vertexShader);
-        gl.glDetachShader(mShaderProgram, fragmentShader);
-        gl.glDeleteShader(fragmentShader);
-        
         // STEP 9: How to use it
         // gl.glUseProgram(mShaderProgram);			// Done during the DRAW, each object can use different program
         // DRAW
@@ -0,0 +1,161 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.engine.render;
+
+import com.jogamp.opengl.GL4ES3;
+
+/**
+ * GL state of a draw item: program, texture unit of the sampler, VAO, blend, cull and depth function.
+ * The textures stay bound on their own units (TextureUnitManager), the texture state is the unit the sampler reads.
+ *
+ * The RenderQueue only issues the calls that differ from the previous item (apply), a model drawn on its own
+ * binds its state and goes back to DEFAULT (bind, unbind), as the models did before the queue.
+ *
+ *   samplerLocation  -1: the item sets its samplers (several units), or it has none
+ *   vao               0: the item binds its VAOs and leaves 0 bound
+ */
+public final class RenderState {
+
+	// State after CanvasListener.init: no program, no VAO, no blend, back faces culled, GL_LESS
+	public static final RenderState DEFAULT = new RenderState(0, -1, -1, 0, false, true, GL4ES3.GL_LESS);
+
+	private final int program;
+	private final int samplerLocation;
+	private final int textureUnit;
+	private final int vao;
+	private final boolean isBlend;
+	private final boolean isCullFace;
+	private final int depthFunc;
+
+	public RenderState(int program, int samplerLocation, int textureUnit, int vao, boolean isBlend, boolean isCullFace, int depthFunc) {
+		this.program = program;
+		this.samplerLocation = samplerLocation;
+		this.textureUnit = textureUnit;
+		this.vao = vao;
+		this.isBlend = isBlend;
+		this.isCullFace = isCullFace;
+		this.depthFunc = depthFunc;
+	}
+
+	/************************
+	 *	GETTERS
+	 ************************/
+
+	public int getProgram() {
+		return program;
+	}
+
+	public int getSamplerLocation() {
+		return samplerLocation;
+	}
+
+	public int getTextureUnit() {
+		return textureUnit;
+	}
+
+	public int getVao() {
+		return vao;
+	}
+
+	public boolean isBlend() {
+		return isBlend;
+	}
+
+	public boolean isCullFace() {
+		return isCullFace;
+	}
+
+	public int getDepthFunc() {
+		return depthFunc;
+	}
+
+	/************************
+	 *	STATE CHANGES
+	 ************************/
+
+	/**
+	 * Model drawn without the queue: from DEFAULT to this state
+	 */
+	public int bind(GL4ES3 gl) {
+		return apply(gl, DEFAULT, this);
+	}
+
+	/**
+	 * Back to DEFAULT after a model drawn without the queue
+	 */
+	public int unbind(GL4ES3 gl) {
+		return apply(gl, this, DEFAULT);
+	}
+
+	/**
+	 * Issues the GL calls from one state to the other, returns the number of calls
+	 */
+	public static int apply(GL4ES3 gl, RenderState from, RenderState to) {
+		return change(gl, from, to);
+	}
+
+	/**
+	 * Number of GL calls from one state to the other, nothing is issued
+	 */
+	public static int getnChanges(RenderState from, RenderState to) {
+		return change(null, from, to);
+	}
+
+	private static int change(GL4ES3 gl, RenderState from, RenderState to) {
+		int nChanges = 0;
+		boolean isProgramChanged = ( to.program != from.program );
+		if ( isProgramChanged ) {
+			if ( gl != null ) gl.glUseProgram(to.program);
+			nChanges++;
+		}
+		// uniforms belong to the program, a new program needs the sampler again
+		if ( to.samplerLocation >= 0 && (isProgramChanged || to.textureUnit != from.textureUnit || from.samplerLocation < 0) ) {
+			if ( gl != null ) gl.glUniform1i(to.samplerLocation, to.textureUnit);			// 0 for GL_TEXTURE0, 1 for GL_TEXTURE1, ..., 15 for GL_TEXTURE15
+			nChanges++;
+		}
+		if ( to.vao != from.vao ) {
+			if ( gl != null ) gl.glBindVertexArray(to.vao);
+			nChanges++;
+		}
+		if ( to.isBlend != from.isBlend ) {
+			if ( to.isBlend ) {
+				if ( gl != null ) {
+					gl.glEnable(GL4ES3.GL_BLEND);
+					gl.glBlendFunc(GL4ES3.GL_SRC_ALPHA, GL4ES3.GL_ONE_MINUS_SRC_ALPHA);
+				}
+				nChanges += 2;
+			} else {
+				if ( gl != null ) gl.glDisable(GL4ES3.GL_BLEND);
+				nChanges++;
+			}
+		}
+		if ( to.isCullFace != from.isCullFace ) {
+			if ( gl != null ) {
+				if ( to.isCullFace ) {
+					gl.glEnable(GL4ES3.GL_CULL_FACE);
+				} else {
+					gl.glDisable(GL4ES3.GL_CULL_FACE); 	// Blending can only show objects behind but not the internal object
+				}
+			}
+			nChanges++;
+		}
+		if ( to.depthFunc != from.depthFunc ) {
+			if ( gl != null ) gl.glDepthFunc(to.depthFunc);
+			nChanges++;
+		}
+		return nChanges;
+	}
+
+}
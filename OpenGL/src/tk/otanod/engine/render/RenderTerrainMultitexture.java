@@ -14,10 +14,12 @@ SOFTWARE.
 
 package tk.otanod.engine.render;
 
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
-import java.nio.IntBuffer;
+import java.util.Collections;
+import java.util.List;
 
 import com.jogamp.opengl.GL4ES3;
 import com.jogamp.opengl.GLAutoDrawable;
@@ -29,10 +31,11 @@ import tk.otanod.libIO.RawImage;
 import tk.otanod.libIO.RawImagePack;
 import tk.otanod.libMath.M4f;
 import tk.otanod.libMath.V3f;
+import tk.otanod.libOBJ.ElementBuffers;
 
 
 
-public class RenderTerrainMultitexture implements Model {
+public class RenderTerrainMultitexture implements Model, DrawItem {
 
 	private boolean isInitialized = false;
 	
@@ -47,6 +50,8 @@ public class RenderTerrainMultitexture implements Model {
 	// Light
 	private Light light;
 	
+	// Scratch array for the glUniform* calls, draw() doesn't allocate (16 floats = mat4)
+	private final float[] aUniformData = new float[16];
 	// Projection matrix
 	private M4f m4Projection;
 	// View Matrix
@@ -58,12 +63,14 @@ public class RenderTerrainMultitexture implements Model {
 	// Texture
 	RawImagePack textureImagePack;
 	
-	// Model
-	private int nElements;
-	private int[] indices;
-	private float[] positions;
-	private float[] textureCoords;
-	private float[] normals;
+	// Model, one VAO for each chunk of the terrain
+	private int nChunks;
+	private int[] nElements;
+	private Buffer[] indices;
+	private int[] indexTypes;								// GL_UNSIGNED_SHORT or GL_UNSIGNED_INT
+	private float[][] positions;
+	private float[][] textureCoords;
+	private float[][] normals;
 		
 	// OpenGL - internal
 	private int nVAOs;
@@ -74,6 +81,7 @@ public class RenderTerrainMultitexture implements Model {
 	private int[] textureIDs;
 	private int[] textureUnits;
 	private int programGLSL;
+	private RenderState state;							// program, texture unit, VAO, blend and cull of the draw item
 	
 	// GLSL
     private int[] aAttribLocation = new int[17];
@@ -97,12 +105,29 @@ public class RenderTerrainMultitexture implements Model {
 
 	
 	public RenderTerrainMultitexture(V3f position, V3f scale, RawTerrain model, RawImagePack textureImageGroundPack, Camera camera, Light light, M4f projection) {	
+		this(position, scale, Collections.singletonList(model), textureImageGroundPack, camera, light, projection);
+	}
+	
+	/**
+	 * Terrain split in chunks (TerrainFlat.createChunks), same program and textures, one draw call for each chunk
+	 */
+	public RenderTerrainMultitexture(V3f position, V3f scale, List<RawTerrain> chunks, RawImagePack textureImageGroundPack, Camera camera, Light light, M4f projection) {	
 		// Model
-		this.indices = model.getIndices();
-		this.nElements = model.getnElements();
-		this.positions = model.getPositions();
-		this.textureCoords = model.getTextureCoords();
-		this.normals = model.getNormals();
+		this.nChunks = chunks.size();
+		this.nElements = new int[this.nChunks];
+		this.indices = new Buffer[this.nChunks];
+		this.indexTypes = new int[this.nChunks];
+		this.positions = new float[this.nChunks][];
+		this.textureCoords = new float[this.nChunks][];
+		this.normals = new float[this.nChunks][];
+		for (int i = 0; i < this.nChunks; i++) {
+			RawTerrain chunk = chunks.get(i);
+			this.indices[i] = chunk.getIndexBuffer();
+			this.nElements[i] = chunk.getnElements();
+			this.positions[i] = chunk.getPositions();
+			this.textureCoords[i] = chunk.getTextureCoords();
+			this.normals[i] = chunk.getNormals();
+		}
 		
 		// Texture
 		this.textureImagePack = textureImageGroundPack; 
@@ -175,6 +200,7 @@ public class RenderTerrainMultitexture implements Model {
 	@Override
 	public void init(GLAutoDrawable drawable) {
 		initialize(drawable);
+		this.isInitialized = true;
 	}
 
 	@Override
@@ -185,7 +211,10 @@ public class RenderTerrainMultitexture implements Model {
 	@Override
 	public void display(GLAutoDrawable drawable) {
 		if ( this.isInitialized ) {
+			GL4ES3 gl = drawable.getGL().getGL4ES3();
+			this.state.bind(gl);
 			draw(drawable);
+			this.state.unbind(gl);
 		} else {
 			initialize(drawable);
 			this.isInitialized = true;
@@ -193,6 +222,16 @@ public class RenderTerrainMultitexture implements Model {
 		
 	}
 
+	@Override
+	public void submit(RenderQueue queue) {
+		if ( !this.isInitialized ) {
+			queue.submit((Model) this);								// display() initializes the model
+			return;
+		}
+		float depth = 0f;														// under the eye, the biggest occluder first
+		queue.submit(RenderQueue.getKey(RenderQueue.PASS_OPAQUE, this.state, depth), this.state, this);
+	}
+	
 	@Override
 	public void reshape(GLAutoDrawable drawable, int x, int y, int width, int height) {
 		//
@@ -203,27 +242,29 @@ public class RenderTerrainMultitexture implements Model {
 		GL4ES3 gl = drawable.getGL().getGL4ES3();
 
 		
-		// 2. Generate Vertex Array Object (VAO)
-		this.nVAOs = 1;
+		// 2. Generate Vertex Array Object (VAO), one for each chunk
+		this.nVAOs = this.nChunks;
 		this.vaos = new int[nVAOs]; 							// Our Vertex Array Object ID, gl functions need pointers, that's why we use an object (=pointer). An array pointer
 		
-		gl.glGenVertexArrays(1, vaos, 0); 				// Create our Vertex Array Object  // Vertex array object names returned by a call to glGenVertexArrays are not returned by subsequent calls, unless they are first deleted with glDeleteVertexArrays.
-		int vao = this.vaos[0];
-		gl.glBindVertexArray(vao); 						//	2.  Bind our Vertex Array Object so we can use it   
+		gl.glGenVertexArrays(this.nVAOs, vaos, 0); 				// Create our Vertex Array Object  // Vertex array object names returned by a call to glGenVertexArrays are not returned by subsequent calls, unless they are first deleted with glDeleteVertexArrays.
+		gl.glBindVertexArray(this.vaos[0]); 						//	2.  Bind our Vertex Array Object so we can use it   
 		
 		// 3. Create a GLSL program
 		this.programGLSL = getGLSLProgram(gl);
 		
 		// 3. Add data to the VAO	
-		// 3.2 Create a VBO
-		this.nVBOs = 4;
+		// 3.2 Create a VBO, 4 for each chunk
+		this.nVBOs = 4 * this.nChunks;
 		this.vbos = new int[this.nVBOs];
 		gl.glGenBuffers(this.nVBOs, this.vbos, 0);					// Buffer object names returned by a call to glGenBuffers are not returned by subsequent calls, unless they are first deleted with glDeleteBuffers.
 		
-		addEBOtoVAO(gl, this.indices, this.vbos[0]);
-		addVBOtoVAO(gl, this.positions, this.vbos[1], 3, ATTRIB_POSITION);
-		addVBOtoVAO(gl, this.textureCoords, this.vbos[2], 2, ATTRIB_TEXTURE_COORDS);
-		addVBOtoVAO(gl, this.normals, this.vbos[3], 3, ATTRIB_NORMAL);
+		for (int i = 0; i < this.nChunks; i++) {
+			gl.glBindVertexArray(this.vaos[i]);
+			this.indexTypes[i] = addEBOtoVAO(gl, this.indices[i], this.vbos[i * 4]);
+			addVBOtoVAO(gl, this.positions[i], this.vbos[i * 4 + 1], 3, ATTRIB_POSITION);
+			addVBOtoVAO(gl, this.textureCoords[i], this.vbos[i * 4 + 2], 2, ATTRIB_TEXTURE_COORDS);
+			addVBOtoVAO(gl, this.normals[i], this.vbos[i * 4 + 3], 3, ATTRIB_NORMAL);
+		}
 
 		// 4. Unbind the VAO, just binding the default 0 VAO (0=no using VAOs)
 		gl.glBindVertexArray(0); 							// Disable our Vertex Array Object
@@ -242,20 +283,24 @@ public class RenderTerrainMultitexture implements Model {
 			createTextureBitmapRGBAAnisotropic(gl, this.textureIDs[i], textureImage);
 			debug("GL TEXTURE", textureImage.name + ", " + this.textureIDs[i] + ", " + textureUnits[i]); 
 		}
-        
+		
+		// 6. State of the draw item
+		this.state = new RenderState(this.programGLSL, -1, this.textureUnits[0], 0, false, true, GL4ES3.GL_LESS);	// 5 samplers and one VAO per chunk, set by draw()
+
 	}
 
-	private void addEBOtoVAO(GL4ES3 gl, int[] mData, int ebo) {
-		// 3.1 Prepare the data, we need a IntBuffer instead of a Int Array
-		IntBuffer ibData = getIntBuffer(mData);
+	private int addEBOtoVAO(GL4ES3 gl, Buffer data, int ebo) {
+		// 3.1 The data is already a direct ShortBuffer or IntBuffer (RawTerrain), no copy
+		//     16 bits indices when the chunk has fewer than 65536 vertices, half the memory and bandwidth
+		int bytesPerIndex = ElementBuffers.getBytesPerIndex(data);
+		int indexType = ( bytesPerIndex == Short.BYTES ) ? GL4ES3.GL_UNSIGNED_SHORT : GL4ES3.GL_UNSIGNED_INT;
 
 		// 3.3 Transfer the data to the GPU
-		final int BYTES_PER_INT = Integer.SIZE / Byte.SIZE;  				// float has 4 bytes
-		int numBytes = (int) (mData.length * BYTES_PER_INT);
+		int numBytes = (int) (data.remaining() * bytesPerIndex);
 		
 		//fbVertices = null; // It is OK to release CPU vertices memory after transfer to GPU        
 		gl.glBindBuffer(GL4ES3.GL_ELEMENT_ARRAY_BUFFER, ebo);
-		gl.glBufferData(GL4ES3.GL_ELEMENT_ARRAY_BUFFER, numBytes, ibData, GL4ES3.GL_STATIC_DRAW);
+		gl.glBufferData(GL4ES3.GL_ELEMENT_ARRAY_BUFFER, numBytes, data, GL4ES3.GL_STATIC_DRAW);
 		
 		// 3.5 Unbind the EBO
 		// VERY IMPORTANT
@@ -264,6 +309,8 @@ public class RenderTerrainMultitexture implements Model {
 		// so make sure you don't unbind the element array buffer before unbinding your VAO, 
 		// otherwise it doesn't have an EBO configured. 
 		//gl.glBindBuffer(GL4ES3.GL_ELEMENT_ARRAY_BUFFER, 0);						//	NEVER unbind the ELEMENT_ARRAY_BUFFER inside teh VAO
+		
+		return indexType;
 	}
 
 	private void addVBOtoVAO(GL4ES3 gl, float[] mData, int vbo, int componentsPerVertex, int attrib) {
@@ -290,28 +337,6 @@ public class RenderTerrainMultitexture implements Model {
 		gl.glBindBuffer(GL4ES3.GL_ARRAY_BUFFER, 0);						//	Unbind buffers
 	}
 	
-	private IntBuffer getIntBuffer(int[] data) {
-		// Bytes per Int (may vary on each system)
-		final int BYTES_PER_INT = Integer.SIZE / Byte.SIZE;  				
-		// Stride
-		//int vertexStride = COORDS_PER_VERTEX * BYTES_PER_VERTEX; 			  
-		// Total bytes needed for the buffer
-		int numBytes = (int) (data.length * BYTES_PER_INT);
-		
-		// initialize vertex byte buffer for shape coordinates
-		ByteBuffer bb = ByteBuffer.allocateDirect(numBytes);       	
-		// use the device hardware's native byte order
-		bb.order(ByteOrder.nativeOrder());
-		// create a int point buffer from the ByteBuffer
-		IntBuffer ibData = bb.asIntBuffer();
-		// add the coordinates to the IntBuffer
-		ibData.put(data);
-		// set the buffer to read the first coordinate
-		ibData.position(0);         
-
-		return(ibData);
-	}
-	
 	private FloatBuffer getFloatBuffer(float[] data) {
 		// Bytes per Float (may vary on each system)
 		final int BYTES_PER_FLOAT = Float.SIZE / Byte.SIZE;  				// float has 4 bytes
@@ -334,12 +359,12 @@ public class RenderTerrainMultitexture implements Model {
 		return(fbData);
 	}
 		
-	private void draw(GLAutoDrawable drawable) {
+	@Override
+	public void draw(GLAutoDrawable drawable) {
 		// 1. Get context
 		GL4ES3 gl = drawable.getGL().getGL4ES3();
 
-		// 2: Use Program 
-		gl.glUseProgram(this.programGLSL);
+		// 2: Program, texture unit, VAO, blend and cull: RenderState, applied by the RenderQueue or display()
 		
 		// 4: Update the Uniforms
 		// 4.1 Texture Sampler
@@ -355,34 +380,21 @@ public class RenderTerrainMultitexture implements Model {
 		gl.glUniform1i(this.aAttribLocation[ATTRIB_SAMPLER_B], textureUnits[3]);			// 0 for GL_TEXTURE0, 1 for GL_TEXTURE1, ..., 15 for GL_TEXTURE15
 		gl.glUniform1i(this.aAttribLocation[ATTRIB_SAMPLER_BLENDMAP], textureUnits[4]);			// 0 for GL_TEXTURE0, 1 for GL_TEXTURE1, ..., 15 for GL_TEXTURE15
 		
-		
 		// 4.2 PVM matrix			
-		gl.glUniformMatrix4fv(this.aAttribLocation[ATTRIB_P], 1, false, m4Projection.getElements(),	0);	// glUniformMatrix4fv(int location, int count, boolean transpose, float[] value, int value_offset)
-		gl.glUniformMatrix4fv(this.aAttribLocation[ATTRIB_V], 1, false, m4View.getElements(),	0);	// glUniformMatrix4fv(int location, int count, boolean transpose, float[] value, int value_offset)
-		gl.glUniformMatrix4fv(this.aAttribLocation[ATTRIB_M], 1, false, m4World.getElements(),	0);	// glUniformMatrix4fv(int location, int count, boolean transpose, float[] value, int value_offset)
-		
-		// 4.3 Light uniforms
-		gl.glUniform3fv(this.aAttribLocation[ATTRIB_LIGHT_POSITION],       1, light.getPosition(),      0);
-		gl.glUniform3fv(this.aAttribLocation[ATTRIB_LIGHT_AMBIENT_COLOR],  1, light.getAmbientColor(),  0);
-		gl.glUniform3fv(this.aAttribLocation[ATTRIB_LIGHT_DIFFUSE_COLOR],  1, light.getDiffuseColor(),  0);
-		gl.glUniform3fv(this.aAttribLocation[ATTRIB_LIGHT_SPECULAR_COLOR], 1, light.getSpecularColor(), 0);
-		gl.glUniform3fv(this.aAttribLocation[ATTRIB_SKYCOLOR], 1, light.getSkyColor(), 0);
-		
-		// 4.5 Camera/Eye position
-		gl.glUniform3fv(this.aAttribLocation[ATTRIB_EYE_POSITION],  1, v3Eye.getFloats(),   0);
-		
-		// 5: draw the VAOs
-		gl.glBindVertexArray(this.vaos[0]); 												// Bind our Vertex Array Object  
-		
-		// When using glDrawElements we're going to draw using indices provided in the element buffer object currently bound:
-		// Leave the ELEMENT_ARRAY_BUFFER bound inside the VAO, just avoid the unbind after creating it. And you don't need to call it here if it is already bound!!!
-		// gl.glBindBuffer(GL4ES3.GL_ELEMENT_ARRAY_BUFFER, this.vbos[0]);						
-		gl.glDrawElements(GL4ES3.GL_TRIANGLES, this.nElements, GL4ES3.GL_UNSIGNED_INT, 0); 	// DrawElements triangles, count, type,  OFFSET
-		
-		// 6: Unbind
-		gl.glBindVertexArray(0); 					// Unbind our Vertex Array Object or bind to default VAO
-		gl.glUseProgram(0);
-		
+		gl.glUniformMatrix4fv(this.aAttribLocation[ATTRIB_M], 1, false, m4World.getElements(this.aUniformData, 0),	0);	// glUniformMatrix4fv(int location, int count, boolean transpose, float[] value, int value_offset)
+		
+		// 4.3 P, V, light, eye and fog: FrameUniforms, uploaded once per frame
+
+		// 5: draw the VAOs, one for each chunk
+		for (int i = 0; i < this.nChunks; i++) {
+			gl.glBindVertexArray(this.vaos[i]); 												// Bind our Vertex Array Object  
+			
+			// When using glDrawElements we're going to draw using indices provided in the element buffer object currently bound:
+			// Leave the ELEMENT_ARRAY_BUFFER bound inside the VAO, just avoid the unbind after creating it. And you don't need to call it here if it is already bound!!!
+			// gl.glBindBuffer(GL4ES3.GL_ELEMENT_ARRAY_BUFFER, this.vbos[0]);						
+			gl.glDrawElements(GL4ES3.GL_TRIANGLES, this.nElements[i], this.indexTypes[i], 0); 	// DrawElements triangles, count, type,  OFFSET
+		}
+		gl.glBindVertexArray(0); 					// RenderState: the item leaves VAO 0 bound
 		
 	}
 	
@@ -397,7 +409,7 @@ public class RenderTerrainMultitexture implements Model {
 		gl.glDeleteVertexArrays(this.nVAOs, this.vaos, 0);
 		
 		// 4. Delete Program
-		gl.glDeleteProgram(this.programGLSL);
+		ShaderProgramCache.getInstance().release(gl, this.programGLSL);
 		
 		// 5. Delete textures
 		gl.glDeleteTextures(this.nTextures, this.textureIDs, 0);
@@ -416,8 +428,7 @@ public class RenderTerrainMultitexture implements Model {
 				+ "  precision mediump int; \n" 			// GLSL ES section 4.5.2
 				+ "#endif \n" 
 				
-				+ "uniform 	  mat4  uPmatrix; \n"			// PV matrix, column major, pre-multiplied, from world to view and projection space
-				+ "uniform 	  mat4  uVmatrix; \n"			// PV matrix, column major, pre-multiplied, from world to view and projection space
+				+ FrameUniforms.GLSL								// uPmatrix, uVmatrix, uLight, uEyePosition, uSkyColor, fog (FrameUniforms.BINDING)
 				+ "uniform    mat4  uMmatrix; \n"			// Model matrix, from model to world
 				+ "attribute  vec4  av4Position; \n" 		// the vertex shader
 				+ "attribute  vec2  av2TextureCoord; \n"	// Texture coords
@@ -469,16 +480,9 @@ public class RenderTerrainMultitexture implements Model {
 				+ "varying   vec4    vv4WorldPosition; \n"
 				
 				+ "varying   float   fogVisibility; \n"				
-				+ "uniform	 vec3    uSkyColor; \n"
+				+ FrameUniforms.GLSL								// uPmatrix, uVmatrix, uLight, uEyePosition, uSkyColor, fog (FrameUniforms.BINDING)
 				
-				+ "uniform struct Light {\n"
-				+ "   vec3  position; \n"				
-				+ "   vec3  ambientColor; \n"
-				+ "   vec3  diffuseColor; \n"
-				+ "   vec3  specularColor; \n"
-				+ "} uLight; \n"
 				
-				+ "uniform   vec3  uEyePosition; \n"
 	            
 				+ "void main (void) { \n"
 				
@@ -522,132 +526,23 @@ public class RenderTerrainMultitexture implements Model {
 				// + "   gl_FragColor.rgb = pow(gl_FragColor.rgb, vec3(1.0/gamma)); \n"				
 				+ "} ";
 						
-		if(gl.isGL3core()){
-            debug("GLSL", "GL3 core detected: explicit add #version 130 to shaders");
-            sVertexShaderCode = "#version 130\n"+sVertexShaderCode;
-            sFragmentShaderCode = "#version 130\n"+sFragmentShaderCode;
-        }
-
-		// STEP 1: Create Shaders
-        // Create GPU shader handles
-        // OpenGL ES returns an index id to be stored for future reference.
-	    int vertexShader = gl.glCreateShader(GL4ES3.GL_VERTEX_SHADER);		// create the Vertex Shader
-	    int fragmentShader = gl.glCreateShader(GL4ES3.GL_FRAGMENT_SHADER);	// create the Fragment Shader
-
-	    // STEP 2: Source and Compile Shaders
-        //Compile the vertexShader String into a program.
-        String[] vlines = new String[] { sVertexShaderCode };
-        int[] vlengths = new int[] { vlines[0].length() };
-        gl.glShaderSource(vertexShader, vlines.length, vlines, vlengths, 0);	// @jogl
-        //GLES31.glShaderSource(vertexShader,sVertexShaderCode);  // @ANDROID
-        gl.glCompileShader(vertexShader);
-
-        //Compile the fragmentShader String into a program.
-        String[] flines = new String[] { sFragmentShaderCode };
-        int[] flengths = new int[] { flines[0].length() };
-        gl.glShaderSource(fragmentShader, flines.length, flines, flengths, 0);		// @jogl
-        //GLES31.glShaderSource(fragmentShader,sFragmentShaderCode);  // @ANDROID
-        gl.glCompileShader(fragmentShader);
-        
-        // STEP 3: Check for compile errors
-        // Vertex check errors
-        int[] compiled = new int[1];
-        gl.glGetShaderiv(vertexShader, GL4ES3.GL_COMPILE_STATUS, compiled,0);
-        if (compiled[0]!=0) {
-        	debug("GLSL", "OK vertex shader compiled");
-        } else {
-            int[] logLength = new int[1];
-            gl.glGetShaderiv(vertexShader, GL4ES3.GL_INFO_LOG_LENGTH, logLength, 0);
-            byte[] log = new byte[logLength[0]];
-            gl.glGetShaderInfoLog(vertexShader, logLength[0], (int[])null, 0, log, 0);
-            // GLES31.glGetShaderInfoLog(vertexShader); 	// @android
-
-            System.err.println("Error compiling the vertex shader: " + new String(log));
-            System.exit(1);
-        }
-
-        // Fragment check errors
-        gl.glGetShaderiv(fragmentShader, GL4ES3.GL_COMPILE_STATUS, compiled,0);
-        if (compiled[0]!=0) { 
-        	debug("GLSL", "OK fragment shader compiled");
-        } else {
-            int[] logLength = new int[1];
-            gl.glGetShaderiv(fragmentShader, GL4ES3.GL_INFO_LOG_LENGTH, logLength, 0);
-
-            byte[] log = new byte[logLength[0]];
-            gl.glGetShaderInfoLog(fragmentShader, logLength[0], (int[])null, 0, log, 0);
-            // GLES31.glGetShaderInfoLog(vertexShader); 	// @android
-
-            System.err.println("Error compiling the fragment shader: " + new String(log));
-            System.exit(1);
-        }
-
-        // STEP 4: Attach shaders to program
-        //Each mShaderProgram must have
-        //one vertex shader and one fragment shader.
-        int mShaderProgram = gl.glCreateProgram();			// Create the Shader Program
-        gl.glAttachShader(mShaderProgram, vertexShader);	// Attach compiled vertex shader
-        gl.glAttachShader(mShaderProgram, fragmentShader);  // Attach compiled fragment shader
-        
-        // STEP 5prev: 
-        // Active attributes that are not explicitly bound will be bound by the linker when glLinkProgram is called.
-        //gl.glBindAttribLocation(mShaderProgram, 0, "av4Position");
-        //gl.glBindAttribLocation(mShaderProgram, 1, "av4Color");
-        //gl.glBindAttribLocation(mShaderProgram, 2, "uSampler");
-        //gl.glBindAttribLocation(mShaderProgram, 3, "uMVPmatrix");
-        
-        // STEP 5: Link the program
-        gl.glLinkProgram(mShaderProgram);
+		// STEP 1-6: Compile and link, or share the program of the renderers with the same sources
+		ShaderProgram program = ShaderProgramCache.getInstance().acquire(gl, sVertexShaderCode, sFragmentShaderCode);
+		int mShaderProgram = program.getId();
 
-        int[] linked = new int[1];
-        gl.glGetProgramiv(mShaderProgram, GL4ES3.GL_LINK_STATUS, linked, 0);
-        
-        int[] validated = new int[1];
-        gl.glGetProgramiv(mShaderProgram, GL4ES3.GL_VALIDATE_STATUS, validated, 0);
-        
-        // STEP 6: Check linking errors
-        if (linked[0]!=0) {
-        	debug("GLSL", "OK program linked " + linked[0] + " validated " + validated[0]);
-        } else {
-            int[] logLength = new int[1];
-            gl.glGetShaderiv(vertexShader, GL4ES3.GL_INFO_LOG_LENGTH, logLength, 0);
-            byte[] log = new byte[logLength[0]];
-            gl.glGetProgramInfoLog(mShaderProgram, logLength[0], (int[])null, 0, log, 0);	// @jogl
-            // GLES31.glGetProgramInfoLog(mShaderProgram);		// @android
-
-            System.err.println("Error compiling the vertex shader: " + new String(log));
-            System.exit(1);
-        }      
-        
-        
-        
         // STEP 7: UNIFORM link to JAVA
         // Link GLSL with java
-        this.aAttribLocation[ATTRIB_POSITION] 		= gl.glGetAttribLocation(mShaderProgram, "av4Position");
-        this.aAttribLocation[ATTRIB_TEXTURE_COORDS] = gl.glGetAttribLocation(mShaderProgram, "av2TextureCoord");        
-        this.aAttribLocation[ATTRIB_NORMAL] 		= gl.glGetAttribLocation(mShaderProgram, "av3Normal");        
-        this.aAttribLocation[ATTRIB_SAMPLER_BACK]	    = gl.glGetUniformLocation(mShaderProgram, "uSamplerBack");      
-        this.aAttribLocation[ATTRIB_SAMPLER_R]	    = gl.glGetUniformLocation(mShaderProgram, "uSamplerR");      
-        this.aAttribLocation[ATTRIB_SAMPLER_G]	    = gl.glGetUniformLocation(mShaderProgram, "uSamplerG");      
-        this.aAttribLocation[ATTRIB_SAMPLER_B]	    = gl.glGetUniformLocation(mShaderProgram, "uSamplerB");      
-        this.aAttribLocation[ATTRIB_SAMPLER_BLENDMAP]	    = gl.glGetUniformLocation(mShaderProgram, "uSamplerBlendMap");      
-        this.aAttribLocation[ATTRIB_P]				= gl.glGetUniformLocation(mShaderProgram, "uPmatrix");  
-        this.aAttribLocation[ATTRIB_V]				= gl.glGetUniformLocation(mShaderProgram, "uVmatrix");  
-        this.aAttribLocation[ATTRIB_M]				= gl.glGetUniformLocation(mShaderProgram, "uMmatrix");
-        this.aAttribLocation[ATTRIB_LIGHT_POSITION]			= gl.glGetUniformLocation(mShaderProgram, "uLight.position");
-        this.aAttribLocation[ATTRIB_LIGHT_AMBIENT_COLOR]	= gl.glGetUniformLocation(mShaderProgram, "uLight.ambientColor");
-        this.aAttribLocation[ATTRIB_LIGHT_DIFFUSE_COLOR]	= gl.glGetUniformLocation(mShaderProgram, "uLight.diffuseColor");
-        this.aAttribLocation[ATTRIB_LIGHT_SPECULAR_COLOR]	= gl.glGetUniformLocation(mShaderProgram, "uLight.specularColor");
-        this.aAttribLocation[ATTRIB_EYE_POSITION]  	= gl.glGetUniformLocation(mShaderProgram, "uEyePosition");
-        this.aAttribLocation[ATTRIB_SKYCOLOR]  		= gl.glGetUniformLocation(mShaderProgram, "uSkyColor");
+        this.aAttribLocation[ATTRIB_POSITION] 		= program.getAttribLocation("av4Position");
+        this.aAttribLocation[ATTRIB_TEXTURE_COORDS] = program.getAttribLocation("av2TextureCoord");        
+        this.aAttribLocation[ATTRIB_NORMAL] 		= program.getAttribLocation("av3Normal");        
+        this.aAttribLocation[ATTRIB_SAMPLER_BACK]	    = program.getUniformLocation("uSamplerBack");      
+        this.aAttribLocation[ATTRIB_SAMPLER_R]	    = program.getUniformLocation("uSamplerR");      
+        this.aAttribLocation[ATTRIB_SAMPLER_G]	    = program.getUniformLocation("uSamplerG");      
+        this.aAttribLocation[ATTRIB_SAMPLER_B]	    = program.getUniformLocation("uSamplerB");      
+        this.aAttribLocation[ATTRIB_SAMPLER_BLENDMAP]	    = program.getUniformLocation("uSamplerBlendMap");      
+        this.aAttribLocation[ATTRIB_M]				= program.getUniformLocation("uMmatrix");
 
         
-        // STEP 8: Detach and delete the shaders, they are no longer needed after the program is linked and compiled
-        gl.glDetachShader(mShaderProgram, vertexShader);
-        gl.glDeleteShader(vertexShader);
-        gl.glDetachShader(mShaderProgram, fragmentShader);
-        gl.glDeleteShader(fragmentShader);
-        
         // STEP 9: How to use it
         // gl.glUseProgram(mShaderProgram);			// Done during the DRAW, each object can use different program
         // DRAW
@@ -722,10 +617,7 @@ public class RenderTerrainMultitexture implements Model {
         
        	//System.out.println(">> TEXTURE 4 channels");
        	//GL2ES2.texImage2D(GL2ES2.GL_TEXTURE_2D, 0, GL2ES2.GL_RGBA, GL2ES2.GL_RGBA, GL2ES2.GL_UNSIGNED_BYTE, bitmap);  
-       	gl.glTexImage2D(GL4ES3.GL_TEXTURE_2D, 0, GL4ES3.GL_SRGB_ALPHA, tex.width, tex.height, 0, GL4ES3.GL_RGBA, GL4ES3.GL_UNSIGNED_BYTE, tex.byteDataBuffer);       	       	      	       	
-
-       	// Generate MIPMAPs
-        gl.glGenerateMipmap(GL4ES3.GL_TEXTURE_2D);
+       	TextureUpload.texImage2D(gl, tex);
 
         //Sets the object texture to the new created texture
        	//gl.glBindTexture(GL4ES3.GL_TEXTURE_2D, 0);
@@ -775,10 +667,7 @@ public class RenderTerrainMultitexture implements Model {
 		
 		//System.out.println(">> TEXTURE 4 channels");
 		//GL2ES2.texImage2D(GL2ES2.GL_TEXTURE_2D, 0, GL2ES2.GL_RGBA, GL2ES2.GL_RGBA, GL2ES2.GL_UNSIGNED_BYTE, bitmap);  
-		gl.glTexImage2D(GL4ES3.GL_TEXTURE_2D, 0, GL4ES3.GL_SRGB_ALPHA, tex.width, tex.height, 0, GL4ES3.GL_RGBA, GL4ES3.GL_UNSIGNED_BYTE, tex.byteDataBuffer);       	       	      	       	
-		
-		// Generate MIPMAPs
-		gl.glGenerateMipmap(GL4ES3.GL_TEXTURE_2D);
+		TextureUpload.texImage2D(gl, tex);
 		
 		//Sets the object texture to the new created texture
 		//gl.glBindTexture(GL4ES3.GL_TEXTURE_2D, 0);
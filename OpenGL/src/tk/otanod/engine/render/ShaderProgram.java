@@ -0,0 +1,101 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.engine.render;
+
+import java.util.Map;
+
+/**
+ * GLSL program linked once and shared by every renderer with the same sources (ShaderProgramCache).
+ * The locations of the active attributes and uniforms are read after the link, the renderers look them up
+ * by name instead of calling glGetAttribLocation/glGetUniformLocation on their own copy of the program.
+ * Array uniforms are found by their name with and without "[0]", structs by "uLight.position".
+ */
+public final class ShaderProgram {
+
+	private final int id;
+	private final long hash;
+	private final String vertexSource;
+	private final String fragmentSource;
+	private final Map<String, Integer> attribLocations;
+	private final Map<String, Integer> uniformLocations;
+	private int references;
+
+	ShaderProgram(int id, long hash, String vertexSource, String fragmentSource, Map<String, Integer> attribLocations, Map<String, Integer> uniformLocations) {
+		this.id = id;
+		this.hash = hash;
+		this.vertexSource = vertexSource;
+		this.fragmentSource = fragmentSource;
+		this.attribLocations = attribLocations;
+		this.uniformLocations = uniformLocations;
+	}
+
+	/**
+	 * GL program name for glUseProgram
+	 */
+	public int getId() {
+		return id;
+	}
+
+	/**
+	 * ShaderProgramCache.hash of the sources, with the #version and #define lines
+	 */
+	public long getHash() {
+		return hash;
+	}
+
+	/**
+	 * -1 when the attribute is not active, as glGetAttribLocation
+	 */
+	public int getAttribLocation(String name) {
+		Integer location = attribLocations.get(name);
+		return ( location == null ) ? -1 : location;
+	}
+
+	/**
+	 * -1 when the uniform is not active (glUniform* ignores it), as glGetUniformLocation
+	 */
+	public int getUniformLocation(String name) {
+		Integer location = uniformLocations.get(name);
+		return ( location == null ) ? -1 : location;
+	}
+
+	public int getnAttribs() {
+		return attribLocations.size();
+	}
+
+	public int getnUniforms() {
+		return uniformLocations.size();
+	}
+
+	/**
+	 * Renderers holding the program, it is deleted when the last one releases it
+	 */
+	public int getReferences() {
+		return references;
+	}
+
+	int addReference() {
+		return ++references;
+	}
+
+	int removeReference() {
+		return --references;
+	}
+
+	boolean isSource(String vertexSource, String fragmentSource) {
+		return this.vertexSource.equals(vertexSource) && this.fragmentSource.equals(fragmentSource);
+	}
+
+}
@@ -0,0 +1,438 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.engine.render;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.function.IntConsumer;
+
+import com.jogamp.opengl.GL4ES3;
+
+/**
+ * Linked GLSL programs shared by the renderers, keyed by a 64 bits hash of the sources plus the defines.
+ * The renderers still build their own sources, the ones with the same shaders (the five RenderGenericInstance
+ * of the demo) get the same program: compiled and linked once, glGetActive* once.
+ *
+ *   acquire      compiles and links the program or adds a reference to the cached one
+ *   release      removes a reference, the program is deleted with the last one
+ *
+ * With a binary cache directory the linked programs are saved with glGetProgramBinary (ProgramBinaryFile) and
+ * loaded with glProgramBinary on the next start, keyed by the hash of the sources, GL_RENDERER and GL_VERSION.
+ * A binary rejected by the driver (updated, other GPU) is deleted and the program is compiled from the sources.
+ *
+ * The FrameUniforms block of every program is bound to FrameUniforms.BINDING when the program is created.
+ *
+ * Programs belong to the GL context, the cache is used from the GL thread of the only window.
+ */
+public class ShaderProgramCache {
+
+	// FNV-1a 64 bits
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	/**
+	 * Compiles and links the sources, tests replace it to count the links without GL
+	 */
+	interface Linker {
+		ShaderProgram link(long hash, String vertexSource, String fragmentSource);
+	}
+
+	private final HashMap<Long, ShaderProgram> programsByHash = new HashMap<>();
+	private final HashMap<Integer, ShaderProgram> programsById = new HashMap<>();
+
+	// Program binaries, null: compiled from the sources every time
+	private Path binaryDirectory;
+	private String driver;
+
+	// Statistics
+	private int nLinked = 0;
+	private int nAcquired = 0;
+	private int nFromBinary = 0;
+	private int nBinaryRejected = 0;
+	private long linkNanos = 0;
+
+	////////////////////////////////////////////////////////
+	/// SINGLETON
+	////////////////////////////////////////////////////////
+	private static ShaderProgramCache ourInstance = new ShaderProgramCache();
+
+	public static ShaderProgramCache getInstance() {
+		return ourInstance;
+	}
+
+	ShaderProgramCache() {
+	}
+
+	/************************
+	 *	BINARY CACHE
+	 ************************/
+
+	/**
+	 * Directory of the .rawprog files, null disables the binary cache
+	 */
+	public synchronized void setBinaryDirectory(Path binaryDirectory) {
+		this.binaryDirectory = binaryDirectory;
+	}
+
+	/**
+	 * GL_RENDERER and GL_VERSION of the context (CanvasListener.init), a binary is only loaded by the same driver.
+	 * Without binary formats (GL_NUM_PROGRAM_BINARY_FORMATS 0) the binary cache is not used.
+	 */
+	public synchronized void setDriver(String renderer, String version, boolean isBinarySupported) {
+		this.driver = isBinarySupported ? ProgramBinaryFile.getDriver(renderer, version) : null;
+	}
+
+	private Path getBinaryPath(long hash) {
+		if ( binaryDirectory == null || driver == null ) {
+			return null;
+		}
+		return ProgramBinaryFile.getCachePath(binaryDirectory, hash);
+	}
+
+	/************************
+	 *	PROGRAMS
+	 ************************/
+
+	/**
+	 * Program for the sources with getHeader before them: the GLSL version of the context and the defines.
+	 */
+	public ShaderProgram acquire(GL4ES3 gl, String vertexSource, String fragmentSource, String... defines) {
+		boolean isES = gl.isGLES();
+		return acquire(getHeader(isES, false, defines) + vertexSource, getHeader(isES, true, defines) + fragmentSource,
+				(hash, vertex, fragment) -> link(gl, hash, vertex, fragment));
+	}
+
+	/**
+	 * "#version" line and "#define NAME" lines ("NAME VALUE" for a value) of a shader. Every renderer declares the
+	 * FrameUniforms block, the version is the first one with uniform blocks (both use the __VERSION__ >= 130 in/out path):
+	 *   GLES3                 #version 300 es, plus a default float precision in the fragment shaders, they declare
+	 *                         their "out vec4" before their own GL_ES precision lines
+	 *   desktop (any profile) #version 140, without it a compatibility context compiles GLSL 1.10
+	 */
+	static String getHeader(boolean isES, boolean isFragment, String... defines) {
+		StringBuilder header = new StringBuilder();
+		if ( isES ) {
+			header.append("#version 300 es\n");
+			if ( isFragment ) {
+				header.append("precision mediump float;\n");
+			}
+		} else {
+			header.append("#version 140\n");
+		}
+		for (String define : defines) {
+			header.append("#define ").append(define).append('\n');
+		}
+		return header.toString();
+	}
+
+	synchronized ShaderProgram acquire(String vertexSource, String fragmentSource, Linker linker) {
+		long hash = hash(vertexSource, fragmentSource);
+		ShaderProgram program = programsByHash.get(hash);
+		if ( program == null || !program.isSource(vertexSource, fragmentSource) ) {
+			long start = System.nanoTime();
+			ShaderProgram linked = linker.link(hash, vertexSource, fragmentSource);
+			linkNanos += System.nanoTime() - start;
+			nLinked++;
+			if ( program == null ) {
+				programsByHash.put(hash, linked);
+			}																				// else hash collision, the new program is not shared
+			programsById.put(linked.getId(), linked);
+			program = linked;
+		}
+		program.addReference();
+		nAcquired++;
+		return program;
+	}
+
+	/**
+	 * Removes the reference of a renderer (dispose), the last one deletes the program
+	 */
+	public void release(GL4ES3 gl, int programId) {
+		release(programId, gl::glDeleteProgram);
+	}
+
+	synchronized void release(int programId, IntConsumer deleter) {
+		ShaderProgram program = programsById.get(programId);
+		if ( program == null ) {
+			return;																			// not created by the cache or already deleted
+		}
+		if ( program.removeReference() == 0 ) {
+			programsById.remove(programId);
+			programsByHash.remove(program.getHash(), program);
+			deleter.accept(programId);
+		}
+	}
+
+	/************************
+	 *	STATISTICS
+	 ************************/
+
+	/**
+	 * Programs alive now
+	 */
+	public synchronized int getnPrograms() {
+		return programsById.size();
+	}
+
+	/**
+	 * Programs compiled and linked since the start
+	 */
+	public synchronized int getnLinked() {
+		return nLinked;
+	}
+
+	/**
+	 * Calls to acquire since the start, one per renderer
+	 */
+	public synchronized int getnAcquired() {
+		return nAcquired;
+	}
+
+	/**
+	 * Programs loaded from the binary cache, and binaries rejected by the driver (compiled again)
+	 */
+	public synchronized int getnFromBinary() {
+		return nFromBinary;
+	}
+
+	public synchronized int getnBinaryRejected() {
+		return nBinaryRejected;
+	}
+
+	public synchronized long getLinkNanos() {
+		return linkNanos;
+	}
+
+	public synchronized String getStatistics() {
+		return String.format("%d GLSL programs linked in %.1f ms for %d renderers, %d from the binary cache%s",
+				nLinked, linkNanos / 1e6, nAcquired, nFromBinary, ( nBinaryRejected > 0 ) ? ", " + nBinaryRejected + " binaries rejected" : "");
+	}
+
+	/************************
+	 *	HASH
+	 ************************/
+
+	/**
+	 * FNV-1a 64 bits of the vertex and fragment sources
+	 */
+	public static long hash(String vertexSource, String fragmentSource) {
+		long hash = FNV_OFFSET_BASIS;
+		hash = hash(hash, vertexSource);
+		hash = (hash ^ 0xffff) * FNV_PRIME;													// separator, "ab"+"c" != "a"+"bc"
+		return hash(hash, fragmentSource);
+	}
+
+	private static long hash(long hash, String s) {
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			hash = (hash ^ (c & 0xff)) * FNV_PRIME;
+			hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+		}
+		return hash;
+	}
+
+	/************************
+	 *	COMPILE AND LINK
+	 ************************/
+
+	private ShaderProgram link(GL4ES3 gl, long hash, String sVertexShaderCode, String sFragmentShaderCode) {
+		// STEP 0: Linked program from the binary cache
+		Path binaryPath = getBinaryPath(hash);
+		if ( binaryPath != null ) {
+			int mShaderProgram = loadBinary(gl, hash, binaryPath);
+			if ( mShaderProgram != 0 ) {
+				return createProgram(gl, mShaderProgram, hash, sVertexShaderCode, sFragmentShaderCode);
+			}
+		}
+
+		// STEP 1: Create Shaders
+		int vertexShader = gl.glCreateShader(GL4ES3.GL_VERTEX_SHADER);
+		int fragmentShader = gl.glCreateShader(GL4ES3.GL_FRAGMENT_SHADER);
+
+		// STEP 2: Source and Compile Shaders
+		compile(gl, vertexShader, sVertexShaderCode, "vertex");
+		compile(gl, fragmentShader, sFragmentShaderCode, "fragment");
+
+		// STEP 3: Attach shaders to program and link
+		int mShaderProgram = gl.glCreateProgram();
+		gl.glAttachShader(mShaderProgram, vertexShader);
+		gl.glAttachShader(mShaderProgram, fragmentShader);
+		if ( binaryPath != null ) {
+			gl.glProgramParameteri(mShaderProgram, GL4ES3.GL_PROGRAM_BINARY_RETRIEVABLE_HINT, GL4ES3.GL_TRUE);
+		}
+		gl.glLinkProgram(mShaderProgram);
+
+		// STEP 4: Check linking errors
+		int[] linked = new int[1];
+		gl.glGetProgramiv(mShaderProgram, GL4ES3.GL_LINK_STATUS, linked, 0);
+		if ( linked[0] != 0 ) {
+			debug("GLSL", "OK program linked " + Long.toHexString(hash));
+		} else {
+			int[] logLength = new int[1];
+			gl.glGetProgramiv(mShaderProgram, GL4ES3.GL_INFO_LOG_LENGTH, logLength, 0);
+			byte[] log = new byte[Math.max(logLength[0], 1)];
+			gl.glGetProgramInfoLog(mShaderProgram, log.length, (int[])null, 0, log, 0);
+			System.err.println("Error linking the program: " + new String(log));
+			System.exit(1);
+		}
+
+		// STEP 5: Detach and delete the shaders, they are no longer needed after the program is linked
+		gl.glDetachShader(mShaderProgram, vertexShader);
+		gl.glDeleteShader(vertexShader);
+		gl.glDetachShader(mShaderProgram, fragmentShader);
+		gl.glDeleteShader(fragmentShader);
+
+		// STEP 6: Save the binary for the next start
+		if ( binaryPath != null ) {
+			saveBinary(gl, mShaderProgram, hash, binaryPath);
+		}
+
+		return createProgram(gl, mShaderProgram, hash, sVertexShaderCode, sFragmentShaderCode);
+	}
+
+	/**
+	 * Active attributes and uniforms ==> locations
+	 */
+	private ShaderProgram createProgram(GL4ES3 gl, int mShaderProgram, long hash, String sVertexShaderCode, String sFragmentShaderCode) {
+		HashMap<String, Integer> attribLocations = new HashMap<>();
+		for (String name : getActiveNames(gl, mShaderProgram, GL4ES3.GL_ACTIVE_ATTRIBUTES, GL4ES3.GL_ACTIVE_ATTRIBUTE_MAX_LENGTH)) {
+			attribLocations.put(name, gl.glGetAttribLocation(mShaderProgram, name));
+		}
+		HashMap<String, Integer> uniformLocations = new HashMap<>();
+		for (String name : getActiveNames(gl, mShaderProgram, GL4ES3.GL_ACTIVE_UNIFORMS, GL4ES3.GL_ACTIVE_UNIFORM_MAX_LENGTH)) {
+			int location = gl.glGetUniformLocation(mShaderProgram, name);
+			uniformLocations.put(name, location);
+			if ( name.endsWith("[0]") ) {
+				uniformLocations.put(name.substring(0, name.length() - 3), location);
+			}
+		}
+
+		// P, V, light, eye and fog are shared by all the programs, uploaded once per frame
+		int blockIndex = gl.glGetUniformBlockIndex(mShaderProgram, FrameUniforms.BLOCK_NAME);
+		if ( blockIndex != GL4ES3.GL_INVALID_INDEX ) {
+			gl.glUniformBlockBinding(mShaderProgram, blockIndex, FrameUniforms.BINDING);
+		}
+
+		return new ShaderProgram(mShaderProgram, hash, sVertexShaderCode, sFragmentShaderCode, attribLocations, uniformLocations);
+	}
+
+	/**
+	 * Linked program, 0 when the file is missing, stale or rejected by the driver
+	 */
+	private int loadBinary(GL4ES3 gl, long hash, Path binaryPath) {
+		ProgramBinaryFile file;
+		try {
+			file = ProgramBinaryFile.read(binaryPath, hash, driver);
+		} catch (IOException e) {
+			System.err.println("IOException while reading the program binary: " + binaryPath + " " + e.getMessage());
+			return 0;
+		}
+		if ( file == null ) {
+			return 0;
+		}
+
+		int mShaderProgram = gl.glCreateProgram();
+		ByteBuffer binary = file.getBinary();
+		gl.glProgramBinary(mShaderProgram, file.getFormat(), binary, binary.remaining());
+		int[] linked = new int[1];
+		gl.glGetProgramiv(mShaderProgram, GL4ES3.GL_LINK_STATUS, linked, 0);
+		if ( linked[0] != 0 ) {
+			debug("GLSL", "OK program binary loaded " + binaryPath);
+			nFromBinary++;
+			return mShaderProgram;
+		}
+
+		// the driver can reject any binary (new version), compile from the sources and save a new one
+		debug("GLSL", "program binary rejected " + binaryPath);
+		gl.glGetError();																	// GL_INVALID_ENUM for an unknown format
+		gl.glDeleteProgram(mShaderProgram);
+		nBinaryRejected++;
+		try {
+			Files.deleteIfExists(binaryPath);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		return 0;
+	}
+
+	private void saveBinary(GL4ES3 gl, int mShaderProgram, long hash, Path binaryPath) {
+		int[] length = new int[1];
+		gl.glGetProgramiv(mShaderProgram, GL4ES3.GL_PROGRAM_BINARY_LENGTH, length, 0);
+		if ( length[0] <= 0 ) {
+			return;
+		}
+		ByteBuffer binary = ByteBuffer.allocateDirect(length[0]);
+		int[] written = new int[1];
+		int[] format = new int[1];
+		gl.glGetProgramBinary(mShaderProgram, length[0], written, 0, format, 0, binary);
+		binary.limit(written[0]);
+		try {
+			Files.createDirectories(binaryDirectory);
+			ProgramBinaryFile.write(binaryPath, hash, driver, format[0], binary);
+		} catch (IOException e) {
+			e.printStackTrace();															// read only folder, the program is still valid
+		}
+	}
+
+	private void compile(GL4ES3 gl, int shader, String source, String type) {
+		String[] lines = new String[] { source };
+		int[] lengths = new int[] { lines[0].length() };
+		gl.glShaderSource(shader, lines.length, lines, lengths, 0);
+		gl.glCompileShader(shader);
+
+		int[] compiled = new int[1];
+		gl.glGetShaderiv(shader, GL4ES3.GL_COMPILE_STATUS, compiled, 0);
+		if ( compiled[0] != 0 ) {
+			debug("GLSL", "OK " + type + " shader compiled");
+		} else {
+			int[] logLength = new int[1];
+			gl.glGetShaderiv(shader, GL4ES3.GL_INFO_LOG_LENGTH, logLength, 0);
+			byte[] log = new byte[Math.max(logLength[0], 1)];
+			gl.glGetShaderInfoLog(shader, log.length, (int[])null, 0, log, 0);
+			System.err.println("Error compiling the " + type + " shader: " + new String(log));
+			System.exit(1);
+		}
+	}
+
+	private String[] getActiveNames(GL4ES3 gl, int program, int pnameCount, int pnameMaxLength) {
+		int[] count = new int[1];
+		int[] maxLength = new int[1];
+		gl.glGetProgramiv(program, pnameCount, count, 0);
+		gl.glGetProgramiv(program, pnameMaxLength, maxLength, 0);
+		byte[] name = new byte[Math.max(maxLength[0], 1)];
+		int[] length = new int[1];
+		int[] size = new int[1];
+		int[] type = new int[1];
+		String[] names = new String[count[0]];
+		for (int i = 0; i < names.length; i++) {
+			if ( pnameCount == GL4ES3.GL_ACTIVE_ATTRIBUTES ) {
+				gl.glGetActiveAttrib(program, i, name.length, length, 0, size, 0, type, 0, name, 0);
+			} else {
+				gl.glGetActiveUniform(program, i, name.length, length, 0, size, 0, type, 0, name, 0);
+			}
+			names[i] = new String(name, 0, length[0], StandardCharsets.US_ASCII);
+		}
+		return names;
+	}
+
+	private void debug(String tag, String msg) {
+		//System.out.println(">>> DEBUG >>> " + tag + " >>> " + msg);
+	}
+
+}
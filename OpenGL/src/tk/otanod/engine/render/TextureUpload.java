@@ -0,0 +1,62 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.engine.render;
+
+import java.nio.ByteBuffer;
+
+import com.jogamp.opengl.GL4ES3;
+
+import tk.otanod.libIO.RawImage;
+
+/**
+ * Uploads the texture bound to GL_TEXTURE_2D.
+ * An image with a mip chain (ImageFile.loadCachedImageFile) uploads every level with glTexImage2D, the GPU does not
+ * generate anything. An image without it uploads level 0 and calls glGenerateMipmap as before.
+ * An image with ETC2 blocks (ImageFile.loadCachedImageFile isCompressed) uploads them with glCompressedTexImage2D
+ * when the context decodes ETC2 (GL ES 3.0, GL 4.3), the RGBA levels otherwise.
+ */
+final class TextureUpload {
+
+	private TextureUpload() {
+	}
+
+	static boolean isETC2Supported(GL4ES3 gl) {
+		return gl.isGLES3() || gl.isExtensionAvailable("GL_ARB_ES3_compatibility");
+	}
+
+	static void texImage2D(GL4ES3 gl, RawImage tex) {
+		if ( tex.isCompressed() && isETC2Supported(gl) ) {
+			int nLevels = tex.getnLevels();
+			for (int level = 0; level < nLevels; level++) {
+				ByteBuffer blocks = tex.getCompressedLevel(level);
+				gl.glCompressedTexImage2D(GL4ES3.GL_TEXTURE_2D, level, tex.getCompressedFormat(), tex.getLevelWidth(level), tex.getLevelHeight(level), 0, blocks.remaining(), blocks);
+			}
+			gl.glTexParameteri(GL4ES3.GL_TEXTURE_2D, GL4ES3.GL_TEXTURE_MAX_LEVEL, nLevels - 1);		// no glGenerateMipmap for compressed textures
+			return;
+		}
+		if ( !tex.hasMipmaps() ) {
+			gl.glTexImage2D(GL4ES3.GL_TEXTURE_2D, 0, GL4ES3.GL_SRGB_ALPHA, tex.width, tex.height, 0, GL4ES3.GL_RGBA, GL4ES3.GL_UNSIGNED_BYTE, tex.byteDataBuffer);
+			gl.glGenerateMipmap(GL4ES3.GL_TEXTURE_2D);
+			return;
+		}
+
+		int nLevels = tex.getnLevels();
+		for (int level = 0; level < nLevels; level++) {
+			gl.glTexImage2D(GL4ES3.GL_TEXTURE_2D, level, GL4ES3.GL_SRGB_ALPHA, tex.getLevelWidth(level), tex.getLevelHeight(level), 0, GL4ES3.GL_RGBA, GL4ES3.GL_UNSIGNED_BYTE, tex.getLevel(level));
+		}
+		gl.glTexParameteri(GL4ES3.GL_TEXTURE_2D, GL4ES3.GL_TEXTURE_MAX_LEVEL, nLevels - 1);		// complete even if the chain stops early
+	}
+
+}
@@ -14,6 +14,10 @@ SOFTWARE.
 
 package tk.otanod.engine.terrain;
 
+import java.nio.Buffer;
+
+import tk.otanod.libOBJ.ElementBuffers;
+
 public class RawTerrain {
 
 	/***************************************************************
@@ -25,6 +29,7 @@ public class RawTerrain {
 	private float[] normals;
 	private int[] indices;
 	private int nElements;
+	private Buffer indexBuffer;
 	
 	public RawTerrain(int nElements, float[] positions, float[] textureCoords, float[] normals, int[] indices) {
 		this.nElements = nElements;
@@ -53,6 +58,20 @@ public class RawTerrain {
 	public int[] getIndices() {
 		return indices;
 	}
+	
+	public int getnVertices() {
+		return positions.length / 3;
+	}
+	
+	/**
+	 * Direct buffer, ShortBuffer when the terrain has fewer than 65536 vertices (GL_UNSIGNED_SHORT), IntBuffer otherwise (GL_UNSIGNED_INT)
+	 */
+	public Buffer getIndexBuffer() {
+		if ( indexBuffer == null ) {
+			indexBuffer = ElementBuffers.create(indices, getnVertices());
+		}
+		return ElementBuffers.duplicate(indexBuffer);
+	}
 
 
 		
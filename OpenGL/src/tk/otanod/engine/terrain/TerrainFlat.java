@@ -14,6 +14,11 @@ SOFTWARE.
 
 package tk.otanod.engine.terrain;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import tk.otanod.libOBJ.ElementBuffers;
+import tk.otanod.libOBJ.MeshOptimizer;
 
 public class TerrainFlat {
 
@@ -33,17 +38,46 @@ public class TerrainFlat {
 	 * FLAT TERRAIN
 	 ************************/
 	
+	// Vertices per side of a chunk, 255 x 255 = 65025 vertices fit in 16 bits indices
+	public static final int MAX_CHUNK_SLICES = 255;
 	
 	public RawTerrain create(float width, int slices){
+		return create(width, slices, 0, 0, slices, slices);
+	}
+	
+	/**
+	 * Same grid as create(width, slices) split in chunks of up to MAX_CHUNK_SLICES x MAX_CHUNK_SLICES vertices,
+	 * so each chunk is drawn with GL_UNSIGNED_SHORT indices. Neighbour chunks repeat the vertices of their common edge.
+	 */
+	public List<RawTerrain> createChunks(float width, int slices){
+		final int QUADS = MAX_CHUNK_SLICES - 1;							// quads per chunk side
+		
+		List<RawTerrain> chunks = new ArrayList<>();
+		for(int gz=0;gz<slices-1;gz+=QUADS){
+			for(int gx=0;gx<slices-1;gx+=QUADS){
+				int slicesX = Math.min(MAX_CHUNK_SLICES, slices - gx);
+				int slicesZ = Math.min(MAX_CHUNK_SLICES, slices - gz);
+				chunks.add(create(width, slices, gx, gz, slicesX, slicesZ));
+			}
+		}
+		return chunks;
+	}
+	
+	/**
+	 * Part of the grid of SLICES x SLICES vertices: SLICES_X x SLICES_Z vertices starting at vertex (gx0, gz0)
+	 */
+	private RawTerrain create(float width, int slices, int gx0, int gz0, int slicesX, int slicesZ){
 		final float WIDTH = width;
 		final int SLICES = slices;
+		final int SLICES_X = slicesX;
+		final int SLICES_Z = slicesZ;
 		
-		int count = SLICES * SLICES;
+		int count = SLICES_X * SLICES_Z;
 		
 		float[] vertices = new float[count * 3];
 		float[] normals = new float[count * 3];
 		float[] textureCoords = new float[count*2];
-		int[] indices = new int[6*(SLICES-1)*(SLICES-1)];
+		int[] indices = new int[6*(SLICES_X-1)*(SLICES_Z-1)];
 		
 		// Step 1. create the v, vt, vn
 		/**
@@ -61,8 +95,8 @@ public class TerrainFlat {
 		 *   Z
 		 */
 		int vertexPointer = 0;
-		for(int i=0;i<SLICES;i++){
-			for(int j=0;j<SLICES;j++){
+		for(int i=gz0;i<gz0+SLICES_Z;i++){
+			for(int j=gx0;j<gx0+SLICES_X;j++){
 				// VERTEX coordinates
 				vertices[vertexPointer*3] = (float)j/((float)SLICES - 1) * WIDTH;
 				vertices[vertexPointer*3+1] = 0;
@@ -81,14 +115,14 @@ public class TerrainFlat {
 			}
 		}
 		
-		// Step 2. create the indices
+		// Step 2. create the indices (local to the chunk)
 		int pointer = 0;
-		for(int gz=0;gz<SLICES-1;gz++){
-			for(int gx=0;gx<SLICES-1;gx++){
+		for(int gz=0;gz<SLICES_Z-1;gz++){
+			for(int gx=0;gx<SLICES_X-1;gx++){
 				// quad coordinates
-				int topLeft = (gz*SLICES)+gx;
+				int topLeft = (gz*SLICES_X)+gx;
 				int topRight = topLeft + 1;
-				int bottomLeft = ((gz+1)*SLICES)+gx;
+				int bottomLeft = ((gz+1)*SLICES_X)+gx;
 				int bottomRight = bottomLeft + 1;
 				// 2 triangle for each quad
 				indices[pointer++] = topLeft;
@@ -99,9 +133,24 @@ public class TerrainFlat {
 				indices[pointer++] = bottomRight;
 			}
 		}
+		
+		// Step 3. reorder the triangles for the GPU vertex cache (scan order misses the cache on every row)
+		//         and the vertices in order of first use
+		indices = MeshOptimizer.optimizeVertexCache(indices, count);
+		int[] remap = MeshOptimizer.getVertexFetchRemap(indices, count);
+		indices = MeshOptimizer.remapIndices(indices, remap);
+		vertices = MeshOptimizer.remapVertices(vertices, 3, remap);
+		normals = MeshOptimizer.remapVertices(normals, 3, remap);
+		textureCoords = MeshOptimizer.remapVertices(textureCoords, 2, remap);
+		debug("TerrainFlat", SLICES_X + "x" + SLICES_Z + " at (" + gx0 + "," + gz0 + ") " + (ElementBuffers.isShort(count) ? "16" : "32") + " bits indices");
+		
 		RawTerrain rawTerrain = new RawTerrain(pointer, vertices, textureCoords, normals, indices);
 		
 		return rawTerrain;
 	}
 	
+	private static void debug(String tag, String msg) {
+		//System.out.println(">>> DEBUG >>> " + tag + " >>> " + msg);
+	}
+	
 }
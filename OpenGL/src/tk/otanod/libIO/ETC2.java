@@ -0,0 +1,660 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libIO;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * ETC2 block compression (GL ES 3.0 core, GL 4.3 ARB_ES3_compatibility), 4x4 texels per block:
+ *   GL_COMPRESSED_SRGB8_ETC2              opaque images, 8 bytes per block  (4 bits per texel, RGBA8 / 8)
+ *   GL_COMPRESSED_SRGB8_ALPHA8_ETC2_EAC   images with alpha, 16 bytes per block: EAC alpha block + ETC2 color block
+ * The colors are the premultiplied sRGB values of RawImage, like the GL_SRGB_ALPHA uploads.
+ *
+ * Decoder: every mode (individual, differential, T, H, planar) and EAC alpha.
+ * Encoder: individual, differential and planar modes, both flips, the best one per block (least squared error).
+ * T and H modes (blocks with two unrelated colors) are not searched. The blocks are encoded in parallel.
+ *
+ * Texel p of a block is x * 4 + y (column major), the bit order of the specification.
+ * https://registry.khronos.org/DataFormat/specs/1.3/dataformat.1.3.html#ETC2
+ */
+public final class ETC2 {
+
+	// GL internal formats, same values as GL4ES3
+	public static final int GL_COMPRESSED_SRGB8_ETC2 = 0x9275;
+	public static final int GL_COMPRESSED_SRGB8_ALPHA8_ETC2_EAC = 0x9279;
+
+	private static final int PARALLEL_BLOCKS = 32 * 32;						// smaller levels are encoded by the calling thread
+
+	// ETC1 intensity modifiers {a, b}: index 0 +a, 1 +b, 2 -a, 3 -b
+	private static final int[][] MODIFIERS = { { 2, 8 }, { 5, 17 }, { 9, 29 }, { 13, 42 }, { 18, 60 }, { 24, 80 }, { 33, 106 }, { 47, 183 } };
+	// T and H modes
+	private static final int[] DISTANCES = { 3, 6, 11, 16, 23, 32, 41, 64 };
+	// EAC alpha
+	private static final int[][] ALPHA_MODIFIERS = {
+			{ -3, -6,  -9, -15, 2, 5, 8, 14 }, { -3, -7, -10, -13, 2, 6, 9, 12 }, { -2, -5, -8, -13, 1, 4, 7, 12 }, { -2, -4, -6, -13, 1, 3, 5, 12 },
+			{ -3, -6,  -8, -12, 2, 5, 7, 11 }, { -3, -7,  -9, -11, 2, 6, 8, 10 }, { -4, -7, -8, -11, 3, 6, 7, 10 }, { -3, -5, -8, -11, 2, 4, 7, 10 },
+			{ -2, -6,  -8, -10, 1, 5, 7,  9 }, { -2, -5,  -8, -10, 1, 4, 7,  9 }, { -2, -4, -8, -10, 1, 3, 7,  9 }, { -2, -5, -7, -10, 1, 4, 6,  9 },
+			{ -3, -4,  -7, -10, 2, 3, 6,  9 }, { -1, -2,  -3, -10, 0, 1, 2,  9 }, { -4, -6, -8,  -9, 3, 5, 7,  8 }, { -3, -5, -7,  -9, 2, 4, 6,  8 } };
+	private static final int FLAT_ALPHA_TABLE = 13;							// modifier 0 at index 4
+
+	private ETC2() {
+	}
+
+	/************************
+	 *	FORMATS
+	 ************************/
+
+	public static int getFormat(boolean hasAlpha) {
+		return hasAlpha ? GL_COMPRESSED_SRGB8_ALPHA8_ETC2_EAC : GL_COMPRESSED_SRGB8_ETC2;
+	}
+
+	public static boolean hasAlpha(int format) {
+		return format == GL_COMPRESSED_SRGB8_ALPHA8_ETC2_EAC;
+	}
+
+	/**
+	 * Bytes of a level, imageSize of glCompressedTexImage2D
+	 */
+	public static int getCompressedSize(int width, int height, int format) {
+		return ((width + 3) / 4) * ((height + 3) / 4) * (hasAlpha(format) ? 16 : 8);
+	}
+
+	/**
+	 * True when a texel of the RGBA image is not opaque
+	 */
+	public static boolean hasAlpha(ByteBuffer rgba, int width, int height) {
+		for (int i = 3; i < width * height * 4; i += 4) {
+			if ( rgba.get(i) != (byte) 0xff ) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * New image with the same levels plus their compressed variant (every level, the mip chain too when there is one).
+	 * The format depends on the alpha of level 0.
+	 */
+	public static RawImage compress(RawImage image) {
+		int format = getFormat(hasAlpha(image.byteDataBuffer, image.width, image.height));
+		int nLevels = image.getnLevels();
+		ByteBuffer[] levels = new ByteBuffer[nLevels];
+		ByteBuffer[] compressed = new ByteBuffer[nLevels];
+		for (int level = 0; level < nLevels; level++) {
+			levels[level] = image.getLevel(level);
+			compressed[level] = encode(levels[level], image.getLevelWidth(level), image.getLevelHeight(level), format);
+		}
+		RawImage result = new RawImage(image.name, image.width, image.height, levels);
+		result.setTransparent(image.isTransparent);
+		result.setCompressed(format, compressed);
+		return result;
+	}
+
+	/************************
+	 *	ENCODE
+	 ************************/
+
+	/**
+	 * RGBA image (RawImage layout) ==> direct buffer of blocks, ready for glCompressedTexImage2D.
+	 * The texels outside a partial block repeat the last column (row).
+	 */
+	public static ByteBuffer encode(ByteBuffer rgba, int width, int height, int format) {
+		boolean isAlpha = hasAlpha(format);
+		int blockSize = isAlpha ? 16 : 8;
+		int blocksX = (width + 3) / 4;
+		int blocksY = (height + 3) / 4;
+		ByteBuffer blocks = ByteBuffer.allocateDirect(blocksX * blocksY * blockSize).order(ByteOrder.BIG_ENDIAN);	// the specification is big endian
+		IntStream rows = IntStream.range(0, blocksY);
+		if ( blocksX * blocksY >= PARALLEL_BLOCKS ) {
+			rows = rows.parallel();
+		}
+		rows.forEach(by -> {
+			BlockEncoder encoder = new BlockEncoder();
+			for (int bx = 0; bx < blocksX; bx++) {
+				encoder.load(rgba, width, height, bx * 4, by * 4);
+				int offset = (by * blocksX + bx) * blockSize;
+				if ( isAlpha ) {
+					blocks.putLong(offset, encoder.encodeAlpha());
+					offset += 8;
+				}
+				blocks.putLong(offset, encoder.encodeColor());
+			}
+		});
+		return blocks;
+	}
+
+	/**
+	 * Encoder of one block, one per thread
+	 */
+	private static final class BlockEncoder {
+
+		private final int[] r = new int[16];
+		private final int[] g = new int[16];
+		private final int[] b = new int[16];
+		private final int[] a = new int[16];
+
+		// best modifier index of each texel for the table being evaluated, and for the best table
+		private final int[] indices = new int[16];
+		private final int[] bestIndices = new int[16];
+		private final int[] blockIndices = new int[16];
+		private final int[][] paint = new int[3][4];
+
+		void load(ByteBuffer rgba, int width, int height, int x0, int y0) {
+			for (int x = 0; x < 4; x++) {
+				for (int y = 0; y < 4; y++) {
+					int i = (Math.min(y0 + y, height - 1) * width + Math.min(x0 + x, width - 1)) * 4;
+					int p = x * 4 + y;
+					r[p] = rgba.get(i) & 0xff;
+					g[p] = rgba.get(i + 1) & 0xff;
+					b[p] = rgba.get(i + 2) & 0xff;
+					a[p] = rgba.get(i + 3) & 0xff;
+				}
+			}
+		}
+
+		long encodeColor() {
+			long best = 0L;
+			long bestError = Long.MAX_VALUE;
+			for (int flip = 0; flip < 2; flip++) {
+				for (int diff = 0; diff < 2; diff++) {
+					long[] candidate = encodeETC1(flip, diff == 1);
+					if ( candidate[1] < bestError ) {
+						best = candidate[0];
+						bestError = candidate[1];
+					}
+				}
+			}
+			long planar = encodePlanar();
+			if ( getError(planar) < bestError ) {
+				best = planar;
+			}
+			return best;
+		}
+
+		/**
+		 * {block, squared error}, the base colors are the averages of the sub blocks
+		 */
+		private long[] encodeETC1(int flip, boolean isDifferential) {
+			int[][] quantized = new int[2][3];
+			for (int s = 0; s < 2; s++) {
+				int sumR = 0;
+				int sumG = 0;
+				int sumB = 0;
+				for (int p : SUB_BLOCKS[flip][s]) {
+					sumR += r[p];
+					sumG += g[p];
+					sumB += b[p];
+				}
+				int max = isDifferential ? 31 : 15;
+				quantized[s][0] = Math.round(sumR * max / (8f * 255f));
+				quantized[s][1] = Math.round(sumG * max / (8f * 255f));
+				quantized[s][2] = Math.round(sumB * max / (8f * 255f));
+			}
+			if ( isDifferential ) {
+				for (int k = 0; k < 3; k++) {
+					quantized[1][k] = quantized[0][k] + Math.max(-4, Math.min(3, quantized[1][k] - quantized[0][k]));
+				}
+			}
+
+			long error = 0;
+			int[] tables = new int[2];
+			for (int s = 0; s < 2; s++) {
+				int[] q = quantized[s];
+				int baseR = isDifferential ? extend5(q[0]) : extend4(q[0]);
+				int baseG = isDifferential ? extend5(q[1]) : extend4(q[1]);
+				int baseB = isDifferential ? extend5(q[2]) : extend4(q[2]);
+				int[] texels = SUB_BLOCKS[flip][s];
+				long bestError = Long.MAX_VALUE;
+				for (int t = 0; t < MODIFIERS.length; t++) {
+					long tableError = evaluateTable(texels, baseR, baseG, baseB, t, bestError);
+					if ( tableError < bestError ) {
+						bestError = tableError;
+						tables[s] = t;
+						for (int p : texels) {
+							bestIndices[p] = indices[p];
+						}
+					}
+				}
+				error += bestError;
+			}
+
+			long block;
+			if ( isDifferential ) {
+				block = ((long) quantized[0][0] << 59) | ((long) ((quantized[1][0] - quantized[0][0]) & 7) << 56)
+					  | ((long) quantized[0][1] << 51) | ((long) ((quantized[1][1] - quantized[0][1]) & 7) << 48)
+					  | ((long) quantized[0][2] << 43) | ((long) ((quantized[1][2] - quantized[0][2]) & 7) << 40)
+					  | (1L << 33);
+			} else {
+				block = ((long) quantized[0][0] << 60) | ((long) quantized[1][0] << 56)
+					  | ((long) quantized[0][1] << 52) | ((long) quantized[1][1] << 48)
+					  | ((long) quantized[0][2] << 44) | ((long) quantized[1][2] << 40);
+			}
+			block |= ((long) tables[0] << 37) | ((long) tables[1] << 34) | ((long) flip << 32) | getIndexBits(bestIndices);
+			return new long[] { block, error };
+		}
+
+		/**
+		 * Squared error of the texels with the best modifier of the table for each one (indices[p]),
+		 * stops at the error of the best table so far
+		 */
+		private long evaluateTable(int[] texels, int baseR, int baseG, int baseB, int table, long bestError) {
+			int[] paintR = paint[0];
+			int[] paintG = paint[1];
+			int[] paintB = paint[2];
+			for (int i = 0; i < 4; i++) {
+				int modifier = getModifier(table, i);
+				paintR[i] = clamp(baseR + modifier);
+				paintG[i] = clamp(baseG + modifier);
+				paintB[i] = clamp(baseB + modifier);
+			}
+			long error = 0;
+			for (int p : texels) {
+				int bestTexelError = Integer.MAX_VALUE;
+				for (int i = 0; i < 4; i++) {
+					int dr = paintR[i] - r[p];
+					int dg = paintG[i] - g[p];
+					int db = paintB[i] - b[p];
+					int texelError = dr * dr + dg * dg + db * db;
+					if ( texelError < bestTexelError ) {
+						bestTexelError = texelError;
+						indices[p] = i;
+					}
+				}
+				error += bestTexelError;
+				if ( error >= bestError ) {
+					break;
+				}
+			}
+			return error;
+		}
+
+		/**
+		 * Least squares plane c = O + x (H - O) / 4 + y (V - O) / 4 of each channel
+		 */
+		private long encodePlanar() {
+			int[] o = new int[3];
+			int[] h = new int[3];
+			int[] v = new int[3];
+			int[][] channels = { r, g, b };
+			for (int k = 0; k < 3; k++) {
+				float mean = 0f;
+				float sx = 0f;
+				float sy = 0f;
+				for (int p = 0; p < 16; p++) {
+					int c = channels[k][p];
+					mean += c;
+					sx += ((p >> 2) - 1.5f) * c;
+					sy += ((p & 3) - 1.5f) * c;
+				}
+				mean /= 16f;
+				float dx = sx / 20f;														// sum of (x - 1.5)^2 over the block
+				float dy = sy / 20f;
+				float origin = mean - 1.5f * dx - 1.5f * dy;
+				int bits = ( k == 1 ) ? 7 : 6;
+				o[k] = quantize(origin, bits);
+				h[k] = quantize(origin + 4f * dx, bits);
+				v[k] = quantize(origin + 4f * dy, bits);
+			}
+
+			long block = ((long) o[0] << 57) | ((long) (o[1] >> 6) << 56) | ((long) (o[1] & 0x3f) << 49)
+					   | ((long) (o[2] >> 5) << 48) | ((long) ((o[2] >> 3) & 3) << 43) | ((long) (o[2] & 7) << 39)
+					   | ((long) (h[0] >> 1) << 34) | (1L << 33) | ((long) (h[0] & 1) << 32)
+					   | ((long) h[1] << 25) | ((long) h[2] << 19)
+					   | ((long) v[0] << 13) | ((long) v[1] << 6) | v[2];
+
+			// bits 63, 55, 47, 46, 45 and 42 are free: R and G must not overflow, B must (see getMode)
+			for (int free = 0; free < 64; free++) {
+				long candidate = block | ((long) (free & 1) << 63) | ((long) ((free >> 1) & 1) << 55)
+						| ((long) ((free >> 2) & 7) << 45) | ((long) ((free >> 5) & 1) << 42);
+				if ( getMode(candidate) == Mode.PLANAR ) {
+					return candidate;
+				}
+			}
+			throw new IllegalStateException("planar block");								// there is always a combination
+		}
+
+		private long getError(long block) {
+			int[] rgb = new int[16 * 3];
+			decodeColor(block, rgb);
+			long error = 0;
+			for (int p = 0; p < 16; p++) {
+				int dr = rgb[p * 3] - r[p];
+				int dg = rgb[p * 3 + 1] - g[p];
+				int db = rgb[p * 3 + 2] - b[p];
+				error += dr * dr + dg * dg + db * db;
+			}
+			return error;
+		}
+
+		/**
+		 * EAC block: base codeword, multiplier and table around the middle of the alpha range
+		 */
+		long encodeAlpha() {
+			int min = 255;
+			int max = 0;
+			for (int p = 0; p < 16; p++) {
+				min = Math.min(min, a[p]);
+				max = Math.max(max, a[p]);
+			}
+			if ( min == max ) {
+				return ((long) min << 56) | (1L << 52) | ((long) FLAT_ALPHA_TABLE << 48) | getAlphaIndexBits(4);
+			}
+
+			long best = 0L;
+			long bestError = Long.MAX_VALUE;
+			for (int t = 0; t < ALPHA_MODIFIERS.length; t++) {
+				int[] modifiers = ALPHA_MODIFIERS[t];
+				int span = modifiers[7] - modifiers[3];										// largest - smallest
+				int multiplier = Math.round((max - min) / (float) span);
+				for (int m = Math.max(1, multiplier - 1); m <= Math.min(15, multiplier + 1); m++) {
+					int base = clamp(Math.round((min + max) / 2f - (modifiers[7] + modifiers[3]) * m / 2f));
+					long error = 0;
+					for (int p = 0; p < 16; p++) {
+						int bestTexelError = Integer.MAX_VALUE;
+						for (int i = 0; i < 8; i++) {
+							int d = clamp(base + modifiers[i] * m) - a[p];
+							if ( d * d < bestTexelError ) {
+								bestTexelError = d * d;
+								indices[p] = i;
+							}
+						}
+						error += bestTexelError;
+					}
+					if ( error < bestError ) {
+						bestError = error;
+						System.arraycopy(indices, 0, blockIndices, 0, 16);
+						best = ((long) base << 56) | ((long) m << 52) | ((long) t << 48);
+					}
+				}
+			}
+			for (int p = 0; p < 16; p++) {
+				best |= (long) blockIndices[p] << (45 - 3 * p);
+			}
+			return best;
+		}
+
+		private static long getAlphaIndexBits(int index) {
+			long bits = 0L;
+			for (int p = 0; p < 16; p++) {
+				bits |= (long) index << (45 - 3 * p);
+			}
+			return bits;
+		}
+
+	}
+
+	// texels of each sub block: SUB_BLOCKS[flip][subBlock]
+	private static final int[][][] SUB_BLOCKS = new int[2][2][8];
+
+	static {
+		int[][] n = new int[2][2];
+		for (int flip = 0; flip < 2; flip++) {
+			for (int p = 0; p < 16; p++) {
+				int s = getSubBlock(p, flip);
+				SUB_BLOCKS[flip][s][n[flip][s]++] = p;
+			}
+		}
+	}
+
+	private static int getSubBlock(int p, int flip) {
+		return ( flip == 0 ) ? (p >> 3) : ((p >> 1) & 1);								// 2x4 side by side, 4x2 on top of each other
+	}
+
+	/**
+	 * Index i of texel p: MSB at bit 16 + p, LSB at bit p
+	 */
+	private static long getIndexBits(int[] indices) {
+		long bits = 0L;
+		for (int p = 0; p < 16; p++) {
+			bits |= ((long) (indices[p] >> 1) << (16 + p)) | ((long) (indices[p] & 1) << p);
+		}
+		return bits;
+	}
+
+	private static int quantize(float value, int bits) {
+		int max = (1 << bits) - 1;
+		return Math.max(0, Math.min(max, Math.round(value * max / 255f)));
+	}
+
+	/************************
+	 *	DECODE
+	 ************************/
+
+	private enum Mode { INDIVIDUAL, DIFFERENTIAL, T, H, PLANAR }
+
+	/**
+	 * Blocks ==> RGBA image (alpha 255 without EAC)
+	 */
+	public static byte[] decode(ByteBuffer blocks, int width, int height, int format) {
+		boolean isAlpha = hasAlpha(format);
+		int blockSize = isAlpha ? 16 : 8;
+		int blocksX = (width + 3) / 4;
+		int blocksY = (height + 3) / 4;
+		byte[] rgba = new byte[width * height * 4];
+		int[] rgb = new int[16 * 3];
+		int[] alpha = new int[16];
+		ByteBuffer be = blocks.duplicate().order(ByteOrder.BIG_ENDIAN);
+		for (int by = 0; by < blocksY; by++) {
+			for (int bx = 0; bx < blocksX; bx++) {
+				int offset = (by * blocksX + bx) * blockSize;
+				if ( isAlpha ) {
+					decodeAlpha(be.getLong(offset), alpha);
+					offset += 8;
+				} else {
+					Arrays.fill(alpha, 255);
+				}
+				decodeColor(be.getLong(offset), rgb);
+				for (int x = 0; x < 4 && bx * 4 + x < width; x++) {
+					for (int y = 0; y < 4 && by * 4 + y < height; y++) {
+						int p = x * 4 + y;
+						int i = ((by * 4 + y) * width + bx * 4 + x) * 4;
+						rgba[i] = (byte) rgb[p * 3];
+						rgba[i + 1] = (byte) rgb[p * 3 + 1];
+						rgba[i + 2] = (byte) rgb[p * 3 + 2];
+						rgba[i + 3] = (byte) alpha[p];
+					}
+				}
+			}
+		}
+		return rgba;
+	}
+
+	private static Mode getMode(long block) {
+		if ( (block & (1L << 33)) == 0 ) {
+			return Mode.INDIVIDUAL;
+		}
+		if ( isOverflow(block, 59) ) {
+			return Mode.T;
+		}
+		if ( isOverflow(block, 51) ) {
+			return Mode.H;
+		}
+		if ( isOverflow(block, 43) ) {
+			return Mode.PLANAR;
+		}
+		return Mode.DIFFERENTIAL;
+	}
+
+	/**
+	 * 5 bits base + 3 bits signed difference outside 0..31
+	 */
+	private static boolean isOverflow(long block, int shift) {
+		int base = (int) (block >>> shift) & 0x1f;
+		int difference = ((int) (block >>> (shift - 3)) & 7) << 29 >> 29;
+		int value = base + difference;
+		return value < 0 || value > 31;
+	}
+
+	/**
+	 * 16 texels, RGB each
+	 */
+	private static void decodeColor(long block, int[] rgb) {
+		Mode mode = getMode(block);
+		if ( mode == Mode.PLANAR ) {
+			decodePlanar(block, rgb);
+			return;
+		}
+
+		int[][] paint = new int[4][3];
+		if ( mode == Mode.INDIVIDUAL || mode == Mode.DIFFERENTIAL ) {
+			int[][] base = new int[2][3];
+			for (int k = 0; k < 3; k++) {
+				int shift = 59 - k * 8;
+				if ( mode == Mode.INDIVIDUAL ) {
+					base[0][k] = extend4((int) (block >>> (shift + 1)) & 0xf);
+					base[1][k] = extend4((int) (block >>> (shift - 3)) & 0xf);
+				} else {
+					int c = (int) (block >>> shift) & 0x1f;
+					int d = ((int) (block >>> (shift - 3)) & 7) << 29 >> 29;
+					base[0][k] = extend5(c);
+					base[1][k] = extend5(c + d);
+				}
+			}
+			int[] tables = { (int) (block >>> 37) & 7, (int) (block >>> 34) & 7 };
+			int flip = (int) (block >>> 32) & 1;
+			for (int p = 0; p < 16; p++) {
+				int s = getSubBlock(p, flip);
+				int modifier = getModifier(tables[s], getIndex(block, p));
+				for (int k = 0; k < 3; k++) {
+					rgb[p * 3 + k] = clamp(base[s][k] + modifier);
+				}
+			}
+			return;
+		}
+
+		int[] c1;
+		int[] c2;
+		int distance;
+		if ( mode == Mode.T ) {
+			c1 = new int[] { (int) (((block >>> 59) & 3) << 2 | ((block >>> 56) & 3)), (int) (block >>> 52) & 0xf, (int) (block >>> 48) & 0xf };
+			c2 = new int[] { (int) (block >>> 44) & 0xf, (int) (block >>> 40) & 0xf, (int) (block >>> 36) & 0xf };
+			distance = DISTANCES[(int) (((block >>> 34) & 3) << 1 | ((block >>> 32) & 1))];
+		} else {
+			c1 = new int[] { (int) (block >>> 59) & 0xf, (int) (((block >>> 56) & 7) << 1 | ((block >>> 52) & 1)), (int) (((block >>> 51) & 1) << 3 | ((block >>> 47) & 7)) };
+			c2 = new int[] { (int) (block >>> 43) & 0xf, (int) (block >>> 39) & 0xf, (int) (block >>> 35) & 0xf };
+			int order = ( ((c1[0] << 8) | (c1[1] << 4) | c1[2]) >= ((c2[0] << 8) | (c2[1] << 4) | c2[2]) ) ? 1 : 0;
+			distance = DISTANCES[(int) (((block >>> 34) & 1) << 2 | ((block >>> 32) & 1) << 1) | order];
+		}
+		for (int k = 0; k < 3; k++) {
+			int e1 = extend4(c1[k]);
+			int e2 = extend4(c2[k]);
+			if ( mode == Mode.T ) {
+				paint[0][k] = e1;
+				paint[1][k] = clamp(e2 + distance);
+				paint[2][k] = e2;
+				paint[3][k] = clamp(e2 - distance);
+			} else {
+				paint[0][k] = clamp(e1 + distance);
+				paint[1][k] = clamp(e1 - distance);
+				paint[2][k] = clamp(e2 + distance);
+				paint[3][k] = clamp(e2 - distance);
+			}
+		}
+		for (int p = 0; p < 16; p++) {
+			int index = getIndex(block, p);
+			for (int k = 0; k < 3; k++) {
+				rgb[p * 3 + k] = paint[index][k];
+			}
+		}
+	}
+
+	private static void decodePlanar(long block, int[] rgb) {
+		int[] o = {
+				extend6((int) (block >>> 57) & 0x3f),
+				extend7((int) (((block >>> 56) & 1) << 6 | ((block >>> 49) & 0x3f))),
+				extend6((int) (((block >>> 48) & 1) << 5 | ((block >>> 43) & 3) << 3 | ((block >>> 39) & 7))) };
+		int[] h = {
+				extend6((int) (((block >>> 34) & 0x1f) << 1 | ((block >>> 32) & 1))),
+				extend7((int) (block >>> 25) & 0x7f),
+				extend6((int) (block >>> 19) & 0x3f) };
+		int[] v = {
+				extend6((int) (block >>> 13) & 0x3f),
+				extend7((int) (block >>> 6) & 0x7f),
+				extend6((int) block & 0x3f) };
+		for (int p = 0; p < 16; p++) {
+			int x = p >> 2;
+			int y = p & 3;
+			for (int k = 0; k < 3; k++) {
+				rgb[p * 3 + k] = clamp((x * (h[k] - o[k]) + y * (v[k] - o[k]) + 4 * o[k] + 2) >> 2);
+			}
+		}
+	}
+
+	private static void decodeAlpha(long block, int[] alpha) {
+		int base = (int) (block >>> 56) & 0xff;
+		int multiplier = (int) (block >>> 52) & 0xf;
+		int[] modifiers = ALPHA_MODIFIERS[(int) (block >>> 48) & 0xf];
+		for (int p = 0; p < 16; p++) {
+			alpha[p] = clamp(base + modifiers[(int) (block >>> (45 - 3 * p)) & 7] * multiplier);
+		}
+	}
+
+	private static int getIndex(long block, int p) {
+		return (int) (((block >>> (16 + p)) & 1) << 1 | ((block >>> p) & 1));
+	}
+
+	private static int getModifier(int table, int index) {
+		int modifier = MODIFIERS[table][index & 1];
+		return ( index < 2 ) ? modifier : -modifier;
+	}
+
+	private static int extend4(int c) {
+		return (c << 4) | c;
+	}
+
+	private static int extend5(int c) {
+		return (c << 3) | (c >> 2);
+	}
+
+	private static int extend6(int c) {
+		return (c << 2) | (c >> 4);
+	}
+
+	private static int extend7(int c) {
+		return (c << 1) | (c >> 6);
+	}
+
+	private static int clamp(int c) {
+		return Math.max(0, Math.min(255, c));
+	}
+
+	/************************
+	 *	QUALITY
+	 ************************/
+
+	/**
+	 * Peak signal to noise ratio (dB) of two RGBA images, alpha included when hasAlpha
+	 */
+	public static double getPSNR(ByteBuffer expected, byte[] actual, boolean hasAlpha) {
+		double sum = 0.0;
+		long n = 0;
+		for (int i = 0; i < actual.length; i++) {
+			if ( (i & 3) == 3 && !hasAlpha ) {
+				continue;
+			}
+			int d = (expected.get(i) & 0xff) - (actual[i] & 0xff);
+			sum += d * d;
+			n++;
+		}
+		if ( sum == 0.0 ) {
+			return Double.POSITIVE_INFINITY;
+		}
+		return 10.0 * Math.log10(255.0 * 255.0 * n / sum);
+	}
+
+}
@@ -25,13 +25,18 @@ import java.awt.image.ComponentColorModel;
 import java.awt.image.Raster;
 import java.awt.image.SampleModel;
 import java.awt.image.WritableRaster;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Hashtable;
 
 import javax.imageio.ImageIO;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
 
 
 public final class ImageFile {
@@ -44,75 +49,157 @@ public final class ImageFile {
 		return loadImageFile(file, true);
 	}
 	
+	/**
+	 * PNG files are decoded by PNGDecoder straight into the RGBA buffer, other formats (or PNG features it does not support) by ImageIO
+	 */
 	public static RawImage loadImageFile(String file, boolean isFlipped) {
+		try {
+			RawImage image = PNGDecoder.decode(file, isFlipped);
+			if ( image != null ) {
+				return image;
+			}
+		} catch (IOException e) {
+			System.err.println("IOException while decoding PNG, trying ImageIO: " + file + " " + e.getMessage());
+		}
+		return loadImageIOFile(file, isFlipped);
+	}
 
-		BufferedImage mBufferedImage = null;
-		ByteBuffer byteBufferedFile = null;
-		int width = 0;
-		int height = 0;
-
-		byte[] bytes = null;
+	/**
+	 * Same as loadImageFile(file, isFlipped) with the file already in memory
+	 */
+	public static RawImage loadImageFile(String name, byte[] data, boolean isFlipped) {
+		try {
+			RawImage image = PNGDecoder.decode(name, data, isFlipped);
+			if ( image != null ) {
+				return image;
+			}
+		} catch (IOException e) {
+			System.err.println("IOException while decoding PNG, trying ImageIO: " + name + " " + e.getMessage());
+		}
 
 		try {
-			File mFile = new File(file);
-			debug("loadImageFile",mFile.getAbsolutePath() + ", " +  mFile.length() );
+			ImageInputStream stream = new MemoryCacheImageInputStream(new ByteArrayInputStream(data));		// closed by ImageIO.read
+			return loadImageIO(name, ImageIO.read(stream), isFlipped);
+		} catch (IOException e) {
+			System.err.println("IOException while reading ImageFile: " + e.getMessage());
+		}
+		return new RawImage(name, 0, 0, (ByteBuffer) null);
+	}
 
-			mBufferedImage = ImageIO.read(mFile);
-			
-			if ( isFlipped == true ) {
-				mBufferedImage = createFlipped(mBufferedImage);											// this avoids the tricks inside the GLSL fragment shader!!!!!!!!!
-			} else {				
-				mBufferedImage = createTransformed(mBufferedImage);											// this avoids the tricks inside the GLSL fragment shader!!!!!!!!!
+	/**
+	 * Same image as loadImageFile(file, isFlipped) plus its mip chain (MipChain), cached in a .rawtex file next to the image.
+	 * The cache is memory mapped when it is newer than the image, it is rebuilt otherwise.
+	 */
+	public static RawImage loadCachedImageFile(String file, boolean isFlipped) {
+		return loadCachedImageFile(file, isFlipped, false);
+	}
+
+	/**
+	 * isCompressed: the ETC2 blocks of every level too (ETC2.compress), encoded once when the cache is built
+	 */
+	public static RawImage loadCachedImageFile(String file, boolean isFlipped, boolean isCompressed) {
+		Path source = Paths.get(file);
+		Path cache = TextureFile.getCachePath(source, isFlipped);
+		try {
+			RawImage image = TextureFile.map(file, isFlipped, isCompressed, source, cache);
+			if ( image != null ) {
+				debug("loadCachedImageFile", "mapped " + cache + " with " + image.getnLevels() + " levels");
+				return image;
 			}
-			
-						
-			// Returns the image type. If it is not one of the known types, TYPE_CUSTOM is returned.
-			// Returns:the image type of this BufferedImage.
-			// See Also:TYPE_INT_RGB TYPE_INT_ARGB TYPE_INT_ARGB_PRE TYPE_INT_BGR TYPE_3BYTE_BGR TYPE_4BYTE_ABGR TYPE_4BYTE_ABGR_PRE TYPE_BYTE_GRAY TYPE_BYTE_BINARY TYPE_BYTE_INDEXED TYPE_USHORT_GRAY TYPE_USHORT_565_RGB TYPE_USHORT_555_RGB TYPE_CUSTOM        	
-
-			// IMPORTANT
-			// Type 6: TYPE_4BYTE_ABGR_PRE
-			// Photoshop: unblock layer, remove a portion to see that it shows transparency, save as png
-			// Check the file details that show 32bits, 8bits per channel, include tranparency/alpha
-			// requires ==> GLSL: gl_FragColor = texture2D(uSampler, vTextureCoord).abgr;
-			//
-			// FLIP texture
-			// T = 1 - T
-			// "   gl_FragColor = texture2D(uSampler, vec2(vTextureCoord.s, 1.0 - vTextureCoord.t)).abgr; \n" +
-			// IMPORTANT
-
-			width = mBufferedImage.getWidth();
-			height = mBufferedImage.getHeight();
-			debug("loadImageFile", " size " + mBufferedImage.getWidth() + " x " + mBufferedImage.getHeight());
-			String[] aImageType = new String[]{"TYPE_CUSTOM", "TYPE_INT_RGB","TYPE_INT_ARGB","TYPE_INT_ARGB_PRE","TYPE_INT_BGR","TYPE_3BYTE_BGR","TYPE_4BYTE_ABGR","TYPE_4BYTE_ABGR_PRE","TYPE_BYTE_GRAY","TYPE_BYTE_BINARY","TYPE_BYTE_INDEXED","TYPE_USHORT_GRAY","TYPE_USHORT_565_RGB","TYPE_USHORT_555_RGB"};
-			debug("loadImageFile", "TEXTURE channel type: " + aImageType[mBufferedImage.getType()]);
-
-
-			// COLOR MODEL
-			//ColorModel cm = mBufferedImage.getColorModel();
-			//System.out.println(">>> readImageFile: TEXTURE alpha? " + cm.hasAlpha() );
-			//System.out.println(">>> readImageFile: TEXTURE channel type: " + cm );
-
-			// RASTER
-			WritableRaster raster = mBufferedImage.getRaster();
-
-			SampleModel sm = raster.getSampleModel();
-			debug("loadImageFile", "Bytes per pixel: " + sm.getNumDataElements() );
-			
-			DataBufferByte data   = (DataBufferByte) raster.getDataBuffer();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
 
-			bytes = data.getData();
+		RawImage image = loadImageFile(file, isFlipped);
+		if ( image.byteDataBuffer == null ) {
+			return image;																// unreadable, nothing to cache
+		}
+		image = MipChain.generate(image);
+		if ( isCompressed ) {
+			image = ETC2.compress(image);
+		}
+		try {
+			TextureFile.write(image, isFlipped, source, cache);
+		} catch (IOException e) {
+			e.printStackTrace();														// read only folder, the image is still valid
+		}
+		return image;
+	}
 
-			byteBufferedFile = ByteBuffer.allocateDirect(bytes.length);
-			byteBufferedFile.order(ByteOrder.nativeOrder());
-			byteBufferedFile.put(bytes);   
-			byteBufferedFile.position(0);
+	/**
+	 * Any format known by ImageIO, through a BufferedImage (RGBA premultiplied)
+	 */
+	public static RawImage loadImageIOFile(String file, boolean isFlipped) {
+		try {
+			File mFile = new File(file);
+			debug("loadImageFile",mFile.getAbsolutePath() + ", " +  mFile.length() );
 
-			bytes = null;
+			return loadImageIO(file, ImageIO.read(mFile), isFlipped);
 
 		} catch (IOException e) {
 			System.err.println("IOException while reading ImageFile: " + e.getMessage());
 		}
+		return new RawImage(file, 0, 0, (ByteBuffer) null);
+	}
+
+	private static RawImage loadImageIO(String file, BufferedImage mBufferedImage, boolean isFlipped) {
+
+		ByteBuffer byteBufferedFile = null;
+		int width = 0;
+		int height = 0;
+
+		byte[] bytes = null;
+
+		if ( isFlipped == true ) {
+			mBufferedImage = createFlipped(mBufferedImage);											// this avoids the tricks inside the GLSL fragment shader!!!!!!!!!
+		} else {				
+			mBufferedImage = createTransformed(mBufferedImage);											// this avoids the tricks inside the GLSL fragment shader!!!!!!!!!
+		}
+		
+					
+		// Returns the image type. If it is not one of the known types, TYPE_CUSTOM is returned.
+		// Returns:the image type of this BufferedImage.
+		// See Also:TYPE_INT_RGB TYPE_INT_ARGB TYPE_INT_ARGB_PRE TYPE_INT_BGR TYPE_3BYTE_BGR TYPE_4BYTE_ABGR TYPE_4BYTE_ABGR_PRE TYPE_BYTE_GRAY TYPE_BYTE_BINARY TYPE_BYTE_INDEXED TYPE_USHORT_GRAY TYPE_USHORT_565_RGB TYPE_USHORT_555_RGB TYPE_CUSTOM        	
+
+		// IMPORTANT
+		// Type 6: TYPE_4BYTE_ABGR_PRE
+		// Photoshop: unblock layer, remove a portion to see that it shows transparency, save as png
+		// Check the file details that show 32bits, 8bits per channel, include tranparency/alpha
+		// requires ==> GLSL: gl_FragColor = texture2D(uSampler, vTextureCoord).abgr;
+		//
+		// FLIP texture
+		// T = 1 - T
+		// "   gl_FragColor = texture2D(uSampler, vec2(vTextureCoord.s, 1.0 - vTextureCoord.t)).abgr; \n" +
+		// IMPORTANT
+
+		width = mBufferedImage.getWidth();
+		height = mBufferedImage.getHeight();
+		debug("loadImageFile", " size " + mBufferedImage.getWidth() + " x " + mBufferedImage.getHeight());
+		String[] aImageType = new String[]{"TYPE_CUSTOM", "TYPE_INT_RGB","TYPE_INT_ARGB","TYPE_INT_ARGB_PRE","TYPE_INT_BGR","TYPE_3BYTE_BGR","TYPE_4BYTE_ABGR","TYPE_4BYTE_ABGR_PRE","TYPE_BYTE_GRAY","TYPE_BYTE_BINARY","TYPE_BYTE_INDEXED","TYPE_USHORT_GRAY","TYPE_USHORT_565_RGB","TYPE_USHORT_555_RGB"};
+		debug("loadImageFile", "TEXTURE channel type: " + aImageType[mBufferedImage.getType()]);
+
+
+		// COLOR MODEL
+		//ColorModel cm = mBufferedImage.getColorModel();
+		//System.out.println(">>> readImageFile: TEXTURE alpha? " + cm.hasAlpha() );
+		//System.out.println(">>> readImageFile: TEXTURE channel type: " + cm );
+
+		// RASTER
+		WritableRaster raster = mBufferedImage.getRaster();
+
+		SampleModel sm = raster.getSampleModel();
+		debug("loadImageFile", "Bytes per pixel: " + sm.getNumDataElements() );
+		
+		DataBufferByte data   = (DataBufferByte) raster.getDataBuffer();
+
+		bytes = data.getData();
+
+		byteBufferedFile = ByteBuffer.allocateDirect(bytes.length);
+		byteBufferedFile.order(ByteOrder.nativeOrder());
+		byteBufferedFile.put(bytes);   
+		byteBufferedFile.position(0);
+
+		bytes = null;
 
 		RawImage rawImg = new RawImage(file, width, height, byteBufferedFile);
 		
@@ -221,6 +308,53 @@ public final class ImageFile {
 		return subImage;
 	}
 
+	/**
+	 * Same texels as subImage (RGBA) without a copy: the flips are done in place, in one pass over the rectangle
+	 * of the sub image in the buffer of image (the rest of the image is untouched), and the result is a view
+	 * of that buffer (RawImage.isSubImage). Each rectangle must be cut once, a second call flips it back.
+	 */
+	public static RawImage subImageView(RawImage image, String name, int rows, int cols, int index, boolean isFlippedHorizontal, boolean isFlippedVertical) {
+		int width = image.getWidth() / cols;
+		int height = image.getHeight() / rows;
+		int x = (index % cols) * width;
+		int y = (index / cols) * height;
+		
+		if ( isFlippedHorizontal || isFlippedVertical ) {
+			ByteBuffer bb = image.getByteDataBuffer().duplicate();
+			int rowBytes = image.getWidth() * 4;
+			byte[] top = new byte[width * 4];
+			byte[] bottom = new byte[width * 4];
+			int nRows = isFlippedVertical ? (height + 1) / 2 : height;				// a vertical flip swaps pairs of rows
+			for (int i = 0; i < nRows; i++) {
+				int topPosition = (y + i) * rowBytes + x * 4;
+				int bottomPosition = isFlippedVertical ? (y + height - 1 - i) * rowBytes + x * 4 : topPosition;
+				bb.position(topPosition);
+				bb.get(top);
+				bb.position(bottomPosition);
+				bb.get(bottom);
+				if ( isFlippedHorizontal ) {
+					reversePixels(top);
+					reversePixels(bottom);
+				}
+				bb.position(bottomPosition);
+				bb.put(top);
+				bb.position(topPosition);
+				bb.put(bottom);
+			}
+		}
+		return new RawImage(name, image, x, y, width, height);
+	}
+
+	private static void reversePixels(byte[] row) {
+		for (int i = 0, j = row.length - 4; i < j; i += 4, j -= 4) {
+			for (int k = 0; k < 4; k++) {
+				byte b = row[i + k];
+				row[i + k] = row[j + k];
+				row[j + k] = b;
+			}
+		}
+	}
+
 	private static void debug(String tag, String msg) {
 		//System.out.println(">>> DEBUG >>> " + tag + " >>> " + msg);
 	}
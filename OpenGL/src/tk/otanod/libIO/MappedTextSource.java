@@ -0,0 +1,287 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libIO;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Text file memory mapped once (FileChannel.map), read in place: no copy of the file on the heap and no String per line.
+ *   lines()             cursor over the lines: the current line is a range [start, end) of getBuffer() and a CharSequence
+ *   records(delimiter)  same cursor, records separated by one byte (',' ';' '\0' ...)
+ *   asCharSequence()    the whole file as a CharSequence
+ * The CharSequence views are ISO-8859-1, one char per byte (the OBJ and FNT files are ASCII), toString(charset) decodes.
+ *
+ * Lines end at "\n", "\r\n" or "\r" like BufferedReader.readLine, the terminator is not part of the line.
+ * The mapping is released by the GC, a file bigger than 2GB needs several mappings (OBJLoader.loadParallel).
+ */
+public final class MappedTextSource {
+
+	private final ByteBuffer buffer;
+
+	private MappedTextSource(ByteBuffer buffer) {
+		this.buffer = buffer;
+	}
+
+	public static MappedTextSource open(String fname) throws IOException {
+		return open(Paths.get(fname));
+	}
+
+	public static MappedTextSource open(Path path) throws IOException {
+		try ( FileChannel channel = FileChannel.open(path, StandardOpenOption.READ) ) {
+			long size = channel.size();
+			if ( size > Integer.MAX_VALUE ) {
+				throw new IOException(path + ": " + size + " bytes, more than one mapping (2GB)");
+			}
+			return new MappedTextSource(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));	// the mapping outlives the channel
+		}
+	}
+
+	/**
+	 * Text already in memory (tests, network), same cursors
+	 */
+	public static MappedTextSource wrap(ByteBuffer buffer) {
+		return new MappedTextSource(buffer.slice());
+	}
+
+	public int size() {
+		return buffer.limit();
+	}
+
+	/**
+	 * New view (own position and limit) of the whole file, the ranges of the cursors are absolute indices in it
+	 */
+	public ByteBuffer getBuffer() {
+		return buffer.duplicate();
+	}
+
+	public Lines lines() {
+		return new Lines(buffer, -1);
+	}
+
+	public Lines records(byte delimiter) {
+		return new Lines(buffer, delimiter & 0xff);
+	}
+
+	public CharSequence asCharSequence() {
+		return new Latin1Sequence(buffer, 0, buffer.limit());
+	}
+
+	/**
+	 * Every line followed by separator, decoded with charset (TextFile.readTextFile). The lines are copied in bulk
+	 * and decoded once, the charset must encode the terminators in one byte (ASCII, ISO-8859-1, UTF-8).
+	 */
+	public String joinLines(Charset charset, String separator) {
+		byte[] bytesSeparator = separator.getBytes(charset);
+		byte[] joined = new byte[size() + bytesSeparator.length];
+		int n = 0;
+		ByteBuffer src = buffer.duplicate();
+		Lines lines = lines();
+		while ( lines.next() ) {
+			int length = lines.length();
+			if ( n + length + bytesSeparator.length > joined.length ) {
+				joined = Arrays.copyOf(joined, Math.max(n + length + bytesSeparator.length, joined.length + (joined.length >> 1)));	// separator longer than the terminators
+			}
+			src.limit(lines.getEnd()).position(lines.getStart());
+			src.get(joined, n, length);
+			n += length;
+			System.arraycopy(bytesSeparator, 0, joined, n, bytesSeparator.length);
+			n += bytesSeparator.length;
+			src.limit(src.capacity());
+		}
+		return new String(joined, 0, n, charset);
+	}
+
+	/**
+	 * The whole file decoded in one go (malformed input is replaced, as new String(bytes, charset))
+	 */
+	public String toString(Charset charset) {
+		return charset.decode(buffer.duplicate()).toString();
+	}
+
+	/************************
+	 *	CURSOR
+	 ************************/
+
+	/**
+	 * Forward only cursor, next() moves to the next line (record). The cursor is the CharSequence of the current one,
+	 * toString() copies it. Not thread safe, each thread uses its own cursor.
+	 */
+	public static final class Lines implements CharSequence {
+
+		private final ByteBuffer buffer;
+		private final int delimiter;								// -1: line terminators
+		private final int limit;
+		private int next = 0;
+		private int start = 0;
+		private int end = 0;
+
+		private Lines(ByteBuffer buffer, int delimiter) {
+			this.buffer = buffer;
+			this.delimiter = delimiter;
+			this.limit = buffer.limit();
+		}
+
+		/**
+		 * false at the end of the file. A terminator at the end of the file does not start an empty line.
+		 */
+		public boolean next() {
+			if ( next >= limit ) {
+				return false;
+			}
+			start = next;
+			int i = start;
+			if ( delimiter < 0 ) {
+				int b = 0;
+				while ( i < limit && (b = buffer.get(i)) != '\n' && b != '\r' ) {
+					i++;
+				}
+				end = i;
+				next = ( i < limit && b == '\r' && i + 1 < limit && buffer.get(i + 1) == '\n' ) ? i + 2 : i + 1;
+			} else {
+				while ( i < limit && (buffer.get(i) & 0xff) != delimiter ) {
+					i++;
+				}
+				end = i;
+				next = i + 1;
+			}
+			return true;
+		}
+
+		/**
+		 * Index in getBuffer() of the first byte of the line
+		 */
+		public int getStart() {
+			return start;
+		}
+
+		/**
+		 * Index in getBuffer() after the last byte of the line (without the terminator)
+		 */
+		public int getEnd() {
+			return end;
+		}
+
+		public boolean isEmpty() {
+			return start == end;
+		}
+
+		public boolean startsWith(String prefix) {
+			if ( prefix.length() > end - start ) {
+				return false;
+			}
+			for (int i = 0; i < prefix.length(); i++) {
+				if ( (buffer.get(start + i) & 0xff) != prefix.charAt(i) ) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * The line decoded with charset
+		 */
+		public String toString(Charset charset) {
+			ByteBuffer line = buffer.duplicate();
+			line.limit(end).position(start);
+			return charset.decode(line).toString();
+		}
+
+		@Override
+		public int length() {
+			return end - start;
+		}
+
+		@Override
+		public char charAt(int index) {
+			if ( index < 0 || index >= end - start ) {
+				throw new IndexOutOfBoundsException("index " + index + ", length " + (end - start));
+			}
+			return (char) (buffer.get(start + index) & 0xff);
+		}
+
+		/**
+		 * View of the current line, it does not move with the cursor
+		 */
+		@Override
+		public CharSequence subSequence(int from, int to) {
+			if ( from < 0 || to > end - start || from > to ) {
+				throw new IndexOutOfBoundsException("from " + from + ", to " + to + ", length " + (end - start));
+			}
+			return new Latin1Sequence(buffer, start + from, start + to);
+		}
+
+		@Override
+		public String toString() {
+			return new Latin1Sequence(buffer, start, end).toString();
+		}
+
+	}
+
+	/**
+	 * Fixed range of the buffer as ISO-8859-1 chars
+	 */
+	private static final class Latin1Sequence implements CharSequence {
+
+		private final ByteBuffer buffer;
+		private final int start;
+		private final int end;
+
+		private Latin1Sequence(ByteBuffer buffer, int start, int end) {
+			this.buffer = buffer;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		public int length() {
+			return end - start;
+		}
+
+		@Override
+		public char charAt(int index) {
+			if ( index < 0 || index >= end - start ) {
+				throw new IndexOutOfBoundsException("index " + index + ", length " + (end - start));
+			}
+			return (char) (buffer.get(start + index) & 0xff);
+		}
+
+		@Override
+		public CharSequence subSequence(int from, int to) {
+			if ( from < 0 || to > end - start || from > to ) {
+				throw new IndexOutOfBoundsException("from " + from + ", to " + to + ", length " + (end - start));
+			}
+			return new Latin1Sequence(buffer, start + from, start + to);
+		}
+
+		@Override
+		public String toString() {
+			byte[] bytes = new byte[end - start];
+			ByteBuffer range = buffer.duplicate();
+			range.limit(end).position(start);
+			range.get(bytes);
+			return new String(bytes, StandardCharsets.ISO_8859_1);
+		}
+
+	}
+
+}
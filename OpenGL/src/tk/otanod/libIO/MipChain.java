@@ -0,0 +1,157 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libIO;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.stream.IntStream;
+
+/**
+ * Mip chain of an RGBA image (8 bits per channel, premultiplied alpha, sRGB colors) computed on the CPU:
+ * the renderers upload every level with glTexImage2D instead of calling glGenerateMipmap.
+ *
+ * Filter: 2x2 box, gamma correct. The colors are averaged in linear light weighted by their alpha
+ * (unpremultiply, sRGB ==> linear, average, linear ==> sRGB, premultiply), the textures are GL_SRGB_ALPHA.
+ * Alpha is linear and averaged as it is. Transparent texels do not darken their neighbours.
+ *
+ * Level n is max(1, width >> n) x max(1, height >> n) like GL, down to 1x1.
+ * An odd size drops its last column (row) as the GL drivers do.
+ * Each level needs the previous one, the rows of a level are filtered in parallel.
+ */
+public final class MipChain {
+
+	private static final int PARALLEL_PIXELS = 128 * 128;					// smaller levels are filtered by the calling thread
+	private static final int LINEAR_STEPS = 16383;							// 14 bits linear ==> 8 bits sRGB table
+
+	private static final float[] SRGB_TO_LINEAR = new float[256];
+	private static final byte[] LINEAR_TO_SRGB = new byte[LINEAR_STEPS + 1];
+
+	static {
+		for (int i = 0; i < SRGB_TO_LINEAR.length; i++) {
+			SRGB_TO_LINEAR[i] = (float) toLinear(i / 255.0);
+		}
+		for (int i = 0; i < LINEAR_TO_SRGB.length; i++) {
+			LINEAR_TO_SRGB[i] = (byte) Math.round(toSRGB(i / (double) LINEAR_STEPS) * 255.0);
+		}
+	}
+
+	private MipChain() {
+	}
+
+	/**
+	 * Levels of a full chain, 1 + floor(log2(max(width, height)))
+	 */
+	public static int getLevelCount(int width, int height) {
+		return 32 - Integer.numberOfLeadingZeros(Math.max(1, Math.max(width, height)));
+	}
+
+	/**
+	 * New image with the full mip chain, level 0 is the buffer of the image (not copied).
+	 * The other levels are direct buffers ready for glTexImage2D.
+	 */
+	public static RawImage generate(RawImage image) {
+		int width = image.width;
+		int height = image.height;
+		ByteBuffer[] levels = new ByteBuffer[getLevelCount(width, height)];
+		levels[0] = image.byteDataBuffer;
+
+		byte[] level = new byte[width * height * 4];
+		image.byteDataBuffer.duplicate().position(0).get(level);
+		for (int i = 1; i < levels.length; i++) {
+			level = downsample(level, width, height);
+			width = Math.max(1, width >> 1);
+			height = Math.max(1, height >> 1);
+			levels[i] = ByteBuffer.allocateDirect(level.length).order(ByteOrder.nativeOrder());
+			levels[i].put(level);
+			levels[i].position(0);
+		}
+
+		RawImage mipmapped = new RawImage(image.name, image.width, image.height, levels);
+		mipmapped.setTransparent(image.isTransparent);
+		return mipmapped;
+	}
+
+	/**
+	 * Next level, max(1, width / 2) x max(1, height / 2) texels
+	 */
+	public static byte[] downsample(byte[] src, int width, int height) {
+		int w = Math.max(1, width >> 1);
+		int h = Math.max(1, height >> 1);
+		byte[] dst = new byte[w * h * 4];
+		IntStream rows = IntStream.range(0, h);
+		if ( w * h >= PARALLEL_PIXELS ) {
+			rows = rows.parallel();
+		}
+		rows.forEach(y -> downsampleRow(src, width, height, dst, w, y));
+		return dst;
+	}
+
+	private static void downsampleRow(byte[] src, int width, int height, byte[] dst, int w, int y) {
+		int row0 = 2 * y * width * 4;
+		int row1 = Math.min(2 * y + 1, height - 1) * width * 4;						// 1 texel high source
+		float[] sum = new float[3];
+		int o = y * w * 4;
+		for (int x = 0; x < w; x++) {
+			int col0 = 2 * x * 4;
+			int col1 = Math.min(2 * x + 1, width - 1) * 4;								// 1 texel wide source
+			sum[0] = 0f;
+			sum[1] = 0f;
+			sum[2] = 0f;
+			int alphaSum = addTexel(src, row0 + col0, sum)
+						 + addTexel(src, row0 + col1, sum)
+						 + addTexel(src, row1 + col0, sum)
+						 + addTexel(src, row1 + col1, sum);
+			int alpha = (alphaSum + 2) >> 2;
+			for (int k = 0; k < 3; k++) {
+				int c = ( alphaSum == 0 ) ? 0 : toSRGB8(sum[k] / alphaSum);
+				dst[o + k] = (byte) ((c * alpha * 0x010101 + 0x800000) >>> 24);		// premultiply, same rounding as PNGDecoder
+			}
+			dst[o + 3] = (byte) alpha;
+			o += 4;
+		}
+	}
+
+	/**
+	 * Adds the linear colors of the texel weighted by its alpha, returns the alpha
+	 */
+	private static int addTexel(byte[] src, int i, float[] sum) {
+		int a = src[i + 3] & 0xff;
+		if ( a == 0 ) {
+			return 0;
+		}
+		for (int k = 0; k < 3; k++) {
+			int c = Math.min(255, ((src[i + k] & 0xff) * 255 + (a >> 1)) / a);		// unpremultiply
+			sum[k] += SRGB_TO_LINEAR[c] * a;
+		}
+		return a;
+	}
+
+	private static int toSRGB8(float linear) {
+		return LINEAR_TO_SRGB[(int) (linear * LINEAR_STEPS + 0.5f)] & 0xff;
+	}
+
+	/************************
+	 *	TRANSFER FUNCTIONS
+	 ************************/
+
+	public static double toLinear(double srgb) {
+		return ( srgb <= 0.04045 ) ? srgb / 12.92 : Math.pow((srgb + 0.055) / 1.055, 2.4);
+	}
+
+	public static double toSRGB(double linear) {
+		return ( linear <= 0.0031308 ) ? linear * 12.92 : 1.055 * Math.pow(linear, 1.0 / 2.4) - 0.055;
+	}
+
+}
@@ -0,0 +1,437 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libIO;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * PNG decoder without AWT: the IDAT stream is inflated row by row, each row is unfiltered and converted
+ * straight into the direct RGBA buffer uploaded by glTexImage2D (at the flipped row when isFlipped).
+ *
+ * Output: same layout as the ImageIO path of ImageFile, RGBA 8 bits per channel with premultiplied alpha,
+ * the first row is the top of the image (the bottom one when flipped).
+ *
+ * Supported: every color type (gray, RGB, palette, gray + alpha, RGBA), bit depths 1 to 16 (16 bits keep the high byte), tRNS transparency.
+ * Not supported (decode returns null, ImageFile falls back to ImageIO): files that are not PNG and interlaced (Adam7) images.
+ * Color chunks (gAMA, iCCP, sRGB, cHRM) are ignored, the samples are used as they are like the ImageIO path.
+ *
+ * https://www.w3.org/TR/png/
+ */
+public final class PNGDecoder {
+
+	private static final byte[] SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n' };
+
+	private static final int IHDR = 0x49484452;
+	private static final int PLTE = 0x504c5445;
+	private static final int TRNS = 0x74524e53;
+	private static final int IDAT = 0x49444154;
+	private static final int IEND = 0x49454e44;
+
+	private static final int GRAY = 0, RGB = 2, PALETTE = 3, GRAY_ALPHA = 4, RGBA = 6;
+
+	// IHDR
+	private int width;
+	private int height;
+	private int bitDepth;
+	private int colorType;
+
+	private byte[] palette;								// RGBA per entry, alpha from tRNS (premultiplied on output)
+	private int transparentGray = -1;					// tRNS of GRAY, in the bit depth of the image
+	private int transparentR = -1, transparentG = -1, transparentB = -1;	// tRNS of RGB
+
+	// IDAT chunks, inflated as one zlib stream
+	private byte[] file;
+	private int[] idatOffsets = new int[8];
+	private int[] idatLengths = new int[8];
+	private int nIdat;
+	private int nextIdat;
+
+	private PNGDecoder() {
+	}
+
+	public static boolean isPNG(byte[] data) {
+		if ( data.length < SIGNATURE.length ) {
+			return false;
+		}
+		for (int i = 0; i < SIGNATURE.length; i++) {
+			if ( data[i] != SIGNATURE[i] ) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * null when the file is not a PNG or it is interlaced, IOException when it is a damaged PNG
+	 */
+	public static RawImage decode(String fname, boolean isFlipped) throws IOException {
+		return decode(fname, Files.readAllBytes(Paths.get(fname)), isFlipped);
+	}
+
+	/**
+	 * Same as decode(fname, isFlipped) with the file already in memory (AssetLoader reads it on an I/O thread)
+	 */
+	public static RawImage decode(String name, byte[] data, boolean isFlipped) throws IOException {
+		if ( !isPNG(data) ) {
+			return null;
+		}
+		PNGDecoder decoder = new PNGDecoder();
+		if ( !decoder.readChunks(data) ) {
+			return null;
+		}
+		ByteBuffer rgba = decoder.decodePixels(isFlipped);
+		return new RawImage(name, decoder.width, decoder.height, rgba);
+	}
+
+	/************************
+	 *	CHUNKS
+	 ************************/
+
+	private boolean readChunks(byte[] data) throws IOException {
+		this.file = data;
+		ByteBuffer bb = ByteBuffer.wrap(data);										// big endian
+		int pos = SIGNATURE.length;
+		boolean isHeader = false;
+		int interlace = 0;
+		while ( pos + 8 <= data.length ) {
+			int length = bb.getInt(pos);
+			int type = bb.getInt(pos + 4);
+			int start = pos + 8;
+			if ( length < 0 || start + length > data.length ) {
+				throw new IOException("PNG chunk out of the file");
+			}
+			switch (type) {
+			case IHDR:
+				width = bb.getInt(start);
+				height = bb.getInt(start + 4);
+				bitDepth = data[start + 8];
+				colorType = data[start + 9];
+				if ( data[start + 10] != 0 || data[start + 11] != 0 ) {
+					throw new IOException("PNG compression or filter method not supported");
+				}
+				interlace = data[start + 12];
+				isHeader = true;
+				break;
+			case PLTE:
+				int entries = length / 3;
+				palette = new byte[256 * 4];
+				for (int i = 0; i < entries && i < 256; i++) {
+					palette[i * 4]     = data[start + i * 3];
+					palette[i * 4 + 1] = data[start + i * 3 + 1];
+					palette[i * 4 + 2] = data[start + i * 3 + 2];
+					palette[i * 4 + 3] = (byte) 0xff;
+				}
+				break;
+			case TRNS:
+				if ( colorType == PALETTE && palette != null ) {
+					for (int i = 0; i < length && i < 256; i++) {
+						palette[i * 4 + 3] = data[start + i];
+					}
+				} else if ( colorType == GRAY && length >= 2 ) {
+					transparentGray = bb.getShort(start) & 0xffff;
+				} else if ( colorType == RGB && length >= 6 ) {
+					transparentR = bb.getShort(start) & 0xffff;
+					transparentG = bb.getShort(start + 2) & 0xffff;
+					transparentB = bb.getShort(start + 4) & 0xffff;
+				}
+				break;
+			case IDAT:
+				if ( nIdat == idatOffsets.length ) {
+					idatOffsets = Arrays.copyOf(idatOffsets, nIdat * 2);
+					idatLengths = Arrays.copyOf(idatLengths, nIdat * 2);
+				}
+				idatOffsets[nIdat] = start;
+				idatLengths[nIdat] = length;
+				nIdat++;
+				break;
+			default:
+				break;
+			}
+			if ( type == IEND ) {
+				break;
+			}
+			pos = start + length + 4;													// skip the CRC
+		}
+
+		if ( !isHeader || nIdat == 0 || width <= 0 || height <= 0 ) {
+			throw new IOException("PNG without IHDR or IDAT");
+		}
+		if ( colorType == PALETTE && palette == null ) {
+			throw new IOException("PNG palette image without PLTE");
+		}
+		if ( !isValidDepth() ) {
+			throw new IOException("PNG color type " + colorType + " with bit depth " + bitDepth);
+		}
+		return interlace == 0;
+	}
+
+	private boolean isValidDepth() {
+		switch (colorType) {
+		case GRAY:
+			return bitDepth == 1 || bitDepth == 2 || bitDepth == 4 || bitDepth == 8 || bitDepth == 16;
+		case PALETTE:
+			return bitDepth == 1 || bitDepth == 2 || bitDepth == 4 || bitDepth == 8;
+		case RGB:
+		case GRAY_ALPHA:
+		case RGBA:
+			return bitDepth == 8 || bitDepth == 16;
+		default:
+			return false;
+		}
+	}
+
+	private int getChannels() {
+		switch (colorType) {
+		case RGB:
+			return 3;
+		case GRAY_ALPHA:
+			return 2;
+		case RGBA:
+			return 4;
+		default:
+			return 1;
+		}
+	}
+
+	/************************
+	 *	PIXELS
+	 ************************/
+
+	private ByteBuffer decodePixels(boolean isFlipped) throws IOException {
+		int bitsPerPixel = getChannels() * bitDepth;
+		int bytesPerPixel = Math.max(1, bitsPerPixel / 8);							// distance to the left byte in the filters
+		int stride = (int) (((long) width * bitsPerPixel + 7) / 8);
+		long size = (long) width * height * 4;
+		if ( size > Integer.MAX_VALUE ) {
+			throw new IOException("PNG too big " + width + " x " + height);
+		}
+
+		ByteBuffer rgba = ByteBuffer.allocateDirect((int) size).order(ByteOrder.nativeOrder());
+		byte[] row = new byte[stride + 1];											// filter type + samples
+		byte[] previous = new byte[stride + 1];										// zeros: the row above the first one
+		byte[] out = new byte[width * 4];
+		Inflater inflater = new Inflater();
+		try {
+			for (int y = 0; y < height; y++) {
+				inflateFully(inflater, row);
+				unfilter(row, previous, stride, bytesPerPixel);
+				toRGBA(row, out);
+				rgba.position((isFlipped ? height - 1 - y : y) * width * 4);
+				rgba.put(out);
+				byte[] swap = previous;
+				previous = row;
+				row = swap;
+			}
+		} finally {
+			inflater.end();
+		}
+		rgba.position(0);
+		return rgba;
+	}
+
+	private void inflateFully(Inflater inflater, byte[] dst) throws IOException {
+		int n = 0;
+		try {
+			while ( n < dst.length ) {
+				int count = inflater.inflate(dst, n, dst.length - n);
+				if ( count == 0 ) {
+					if ( inflater.needsInput() && nextIdat < nIdat ) {
+						inflater.setInput(file, idatOffsets[nextIdat], idatLengths[nextIdat]);
+						nextIdat++;
+					} else if ( inflater.needsInput() || inflater.finished() || inflater.needsDictionary() ) {
+						throw new IOException("PNG image data truncated");
+					}
+				}
+				n += count;
+			}
+		} catch (DataFormatException e) {
+			throw new IOException("PNG image data damaged: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * row and previous: filter type at [0], samples at [1..stride]
+	 */
+	private static void unfilter(byte[] row, byte[] previous, int stride, int bpp) throws IOException {
+		int filter = row[0];
+		switch (filter) {
+		case 0:																		// None
+			break;
+		case 1:																		// Sub
+			for (int i = 1 + bpp; i <= stride; i++) {
+				row[i] += row[i - bpp];
+			}
+			break;
+		case 2:																		// Up
+			for (int i = 1; i <= stride; i++) {
+				row[i] += previous[i];
+			}
+			break;
+		case 3:																		// Average
+			for (int i = 1; i <= bpp; i++) {
+				row[i] += (previous[i] & 0xff) >>> 1;
+			}
+			for (int i = 1 + bpp; i <= stride; i++) {
+				row[i] += ((row[i - bpp] & 0xff) + (previous[i] & 0xff)) >>> 1;
+			}
+			break;
+		case 4:																		// Paeth
+			for (int i = 1; i <= bpp; i++) {
+				row[i] += previous[i];												// a = c = 0 ==> b
+			}
+			for (int i = 1 + bpp; i <= stride; i++) {
+				int a = row[i - bpp] & 0xff;
+				int b = previous[i] & 0xff;
+				int c = previous[i - bpp] & 0xff;
+				int pa = Math.abs(b - c);
+				int pb = Math.abs(a - c);
+				int pc = Math.abs(a + b - 2 * c);
+				int predictor = ( pa <= pb && pa <= pc ) ? a : ( pb <= pc ) ? b : c;
+				row[i] += predictor;
+			}
+			break;
+		default:
+			throw new IOException("PNG filter type " + filter);
+		}
+	}
+
+	/**
+	 * Unfiltered samples (from row[1]) ==> premultiplied RGBA
+	 */
+	private void toRGBA(byte[] row, byte[] out) {
+		if ( bitDepth == 8 ) {
+			switch (colorType) {
+			case RGBA:
+				for (int x = 0, i = 1, o = 0; x < width; x++, i += 4, o += 4) {
+					int a = row[i + 3] & 0xff;
+					if ( a == 0xff ) {
+						out[o]     = row[i];
+						out[o + 1] = row[i + 1];
+						out[o + 2] = row[i + 2];
+						out[o + 3] = (byte) 0xff;
+					} else {
+						out[o]     = premultiply(row[i], a);
+						out[o + 1] = premultiply(row[i + 1], a);
+						out[o + 2] = premultiply(row[i + 2], a);
+						out[o + 3] = (byte) a;
+					}
+				}
+				return;
+			case RGB:
+				if ( transparentR < 0 ) {
+					for (int x = 0, i = 1, o = 0; x < width; x++, i += 3, o += 4) {
+						out[o]     = row[i];
+						out[o + 1] = row[i + 1];
+						out[o + 2] = row[i + 2];
+						out[o + 3] = (byte) 0xff;
+					}
+					return;
+				}
+				break;
+			case PALETTE:
+				for (int x = 0, i = 1, o = 0; x < width; x++, i++, o += 4) {
+					putPalette(row[i] & 0xff, out, o);
+				}
+				return;
+			default:
+				break;
+			}
+		}
+
+		// Generic path: bit depths 1, 2, 4, 16, gray and tRNS colors
+		int channels = getChannels();
+		int max = (1 << bitDepth) - 1;
+		for (int x = 0, o = 0; x < width; x++, o += 4) {
+			int sample = x * channels;
+			switch (colorType) {
+			case PALETTE:
+				putPalette(getSample(row, sample), out, o);
+				break;
+			case GRAY: {
+				int gray = getSample(row, sample);
+				byte g = to8Bits(gray, max);
+				putPixel(out, o, g, g, g, ( gray == transparentGray ) ? 0 : 0xff);
+				break;
+			}
+			case GRAY_ALPHA: {
+				byte g = to8Bits(getSample(row, sample), max);
+				putPixel(out, o, g, g, g, to8Bits(getSample(row, sample + 1), max) & 0xff);
+				break;
+			}
+			case RGB: {
+				int r = getSample(row, sample), g = getSample(row, sample + 1), b = getSample(row, sample + 2);
+				boolean isTransparent = r == transparentR && g == transparentG && b == transparentB;
+				putPixel(out, o, to8Bits(r, max), to8Bits(g, max), to8Bits(b, max), isTransparent ? 0 : 0xff);
+				break;
+			}
+			default: {
+				putPixel(out, o, to8Bits(getSample(row, sample), max), to8Bits(getSample(row, sample + 1), max),
+						to8Bits(getSample(row, sample + 2), max), to8Bits(getSample(row, sample + 3), max) & 0xff);
+				break;
+			}
+			}
+		}
+	}
+
+	/**
+	 * Sample number index of the row (from row[1]) in the bit depth of the image
+	 */
+	private int getSample(byte[] row, int index) {
+		switch (bitDepth) {
+		case 16:
+			return ((row[1 + index * 2] & 0xff) << 8) | (row[2 + index * 2] & 0xff);
+		case 8:
+			return row[1 + index] & 0xff;
+		default:
+			// 1, 2, 4 bits, the first sample in the high bits
+			int bit = index * bitDepth;
+			int shift = 8 - bitDepth - (bit & 7);
+			return ((row[1 + (bit >>> 3)] & 0xff) >>> shift) & ((1 << bitDepth) - 1);
+		}
+	}
+
+	private void putPalette(int index, byte[] out, int o) {
+		putPixel(out, o, palette[index * 4], palette[index * 4 + 1], palette[index * 4 + 2], palette[index * 4 + 3] & 0xff);
+	}
+
+	private static void putPixel(byte[] out, int o, byte r, byte g, byte b, int a) {
+		out[o]     = premultiply(r, a);
+		out[o + 1] = premultiply(g, a);
+		out[o + 2] = premultiply(b, a);
+		out[o + 3] = (byte) a;
+	}
+
+	private static byte to8Bits(int value, int max) {
+		if ( max == 0xffff ) {
+			return (byte) (value >>> 8);											// 16 bits: high byte, like Java2D
+		}
+		return (byte) ( (max == 0xff) ? value : (value * 0xff + (max >>> 1)) / max );	// 1, 2, 4 bits: rounded
+	}
+
+	/**
+	 * round(c * a / 255), same rounding as the mul8 table of Java2D (the ImageIO path)
+	 */
+	static byte premultiply(byte c, int a) {
+		return (byte) (((c & 0xff) * a * 0x010101 + 0x800000) >>> 24);
+	}
+
+}
@@ -23,6 +23,12 @@ public class RawImage {
 	public int height;
 	public ByteBuffer byteDataBuffer;
 	public boolean isTransparent = false;
+	private ByteBuffer[] levels;								// mip chain, null when the GPU generates it
+	private int compressedFormat = 0;							// ETC2 format of compressedLevels, 0 when there is no compressed variant
+	private ByteBuffer[] compressedLevels;
+	private int rowLength = 0;									// texels per row of byteDataBuffer when it is the buffer of a bigger image, 0 otherwise
+	private int skipPixels = 0;
+	private int skipRows = 0;
 				
 	public RawImage(String imageName, int width, int height, ByteBuffer byteBufferedFile) {
 		this.name = imageName;
@@ -31,6 +37,26 @@ public class RawImage {
 		this.byteDataBuffer = byteBufferedFile;
 	}
 
+	/**
+	 * Image with its mip chain (MipChain, TextureFile), levels[0] is the image
+	 */
+	public RawImage(String imageName, int width, int height, ByteBuffer[] levels) {
+		this(imageName, width, height, levels[0]);
+		this.levels = levels;
+	}
+
+	/**
+	 * Rectangle of a bigger image without a copy (ImageFile.subImageView): byteDataBuffer is the buffer of the parent,
+	 * glTexImage2D reads it with GL_UNPACK_ROW_LENGTH, GL_UNPACK_SKIP_PIXELS and GL_UNPACK_SKIP_ROWS.
+	 * No mip chain, MipChain and ETC2 only read packed images.
+	 */
+	public RawImage(String imageName, RawImage parent, int x, int y, int width, int height) {
+		this(imageName, width, height, parent.byteDataBuffer.duplicate().order(parent.byteDataBuffer.order()).position(0));
+		this.rowLength = parent.width;
+		this.skipPixels = x;
+		this.skipRows = y;
+	}
+
 	public String getName() {
 		return this.name;
 	}
@@ -55,4 +81,81 @@ public class RawImage {
 		this.isTransparent = isTransparent;
 	}
 
+	/************************
+	 *	SUB IMAGE
+	 ************************/
+
+	public boolean isSubImage() {
+		return rowLength != 0;
+	}
+
+	/**
+	 * GL_UNPACK_ROW_LENGTH, 0 (width) for a packed image
+	 */
+	public int getRowLength() {
+		return rowLength;
+	}
+
+	public int getSkipPixels() {
+		return skipPixels;
+	}
+
+	public int getSkipRows() {
+		return skipRows;
+	}
+
+	/************************
+	 *	MIPMAPS
+	 ************************/
+
+	public boolean hasMipmaps() {
+		return levels != null;
+	}
+
+	/**
+	 * 1 when there is no mip chain
+	 */
+	public int getnLevels() {
+		return ( levels == null ) ? 1 : levels.length;
+	}
+
+	public ByteBuffer getLevel(int level) {
+		return ( levels == null ) ? byteDataBuffer : levels[level];
+	}
+
+	public int getLevelWidth(int level) {
+		return Math.max(1, width >> level);
+	}
+
+	public int getLevelHeight(int level) {
+		return Math.max(1, height >> level);
+	}
+
+	/************************
+	 *	COMPRESSED (ETC2)
+	 ************************/
+
+	public boolean isCompressed() {
+		return compressedFormat != 0;
+	}
+
+	/**
+	 * GL internal format of glCompressedTexImage2D
+	 */
+	public int getCompressedFormat() {
+		return compressedFormat;
+	}
+
+	public ByteBuffer getCompressedLevel(int level) {
+		return compressedLevels[level];
+	}
+
+	/**
+	 * One compressed buffer per level of getnLevels()
+	 */
+	public void setCompressed(int format, ByteBuffer[] compressedLevels) {
+		this.compressedFormat = format;
+		this.compressedLevels = compressedLevels;
+	}
+
 }
@@ -32,21 +32,40 @@ public class RawImagePack {
 		}
 	}
 	
+	/**
+	 * Images already loaded (AssetLoader)
+	 */
+	public RawImagePack(RawImage[] images) {
+		this.size = images.length;
+		this.nameImages = new String[this.size];
+		this.rawImages = images.clone();
+		for (int i=0; i<this.size; i++) {
+			this.nameImages[i] = images[i].getName();
+		}
+	}
+	
 	public RawImagePack(String imagePackName, int rows, int cols) {
+		this(ImageFile.loadImageFile(imagePackName,  false), rows, cols);
+	}
+	
+	/**
+	 * Cube map faces cut from one image (not flipped) with the faces in a grid of rows x cols.
+	 * No copy: the faces are flipped in place in the buffer of image and they are views of it (ImageFile.subImageView),
+	 * the image must not be used for anything else.
+	 */
+	public RawImagePack(RawImage image, int rows, int cols) {
 		this.nameImages = new String[] { "right", "left", "top", "bottom", "back", "front" };
 		
 		this.size = this.nameImages.length;
 		
 		this.rawImages = new RawImage[this.size];
 
-		RawImage image = ImageFile.loadImageFile(imagePackName,  false);
-		
-		this.rawImages[0] = ImageFile.subImage(image, "right",  rows, cols, 6, true, false);	// GL_TEXTURE_CUBE_MAP_POSITIVE_X 	Right
-		this.rawImages[1] = ImageFile.subImage(image, "left",   rows, cols, 4, true, false);	// GL_TEXTURE_CUBE_MAP_NEGATIVE_X 	Left
-		this.rawImages[2] = ImageFile.subImage(image, "top",    rows, cols, 1, false, true);	// GL_TEXTURE_CUBE_MAP_POSITIVE_Y 	Top
-		this.rawImages[3] = ImageFile.subImage(image, "bottom", rows, cols, 9, false, true);	// GL_TEXTURE_CUBE_MAP_NEGATIVE_Y 	Bottom
-		this.rawImages[4] = ImageFile.subImage(image, "back",   rows, cols, 7, true, false);	// GL_TEXTURE_CUBE_MAP_POSITIVE_Z 	Back
-		this.rawImages[5] = ImageFile.subImage(image, "front", 	rows, cols, 5, true, false);	// GL_TEXTURE_CUBE_MAP_NEGATIVE_Z 	Front
+		this.rawImages[0] = ImageFile.subImageView(image, "right",  rows, cols, 6, true, false);	// GL_TEXTURE_CUBE_MAP_POSITIVE_X 	Right
+		this.rawImages[1] = ImageFile.subImageView(image, "left",   rows, cols, 4, true, false);	// GL_TEXTURE_CUBE_MAP_NEGATIVE_X 	Left
+		this.rawImages[2] = ImageFile.subImageView(image, "top",    rows, cols, 1, false, true);	// GL_TEXTURE_CUBE_MAP_POSITIVE_Y 	Top
+		this.rawImages[3] = ImageFile.subImageView(image, "bottom", rows, cols, 9, false, true);	// GL_TEXTURE_CUBE_MAP_NEGATIVE_Y 	Bottom
+		this.rawImages[4] = ImageFile.subImageView(image, "back",   rows, cols, 7, true, false);	// GL_TEXTURE_CUBE_MAP_POSITIVE_Z 	Back
+		this.rawImages[5] = ImageFile.subImageView(image, "front", 	rows, cols, 5, true, false);	// GL_TEXTURE_CUBE_MAP_NEGATIVE_Z 	Front
 		
 	}
 	
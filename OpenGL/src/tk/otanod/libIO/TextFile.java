@@ -17,11 +17,11 @@ package tk.otanod.libIO;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.OpenOption;
@@ -35,80 +35,39 @@ public class TextFile {
 	/// READ TEXT FILES
 	////////////////////////////////////////////////////////////////////
 	
+	/**
+	 * Lines of the file (default charset) each one followed by System.lineSeparator(), through MappedTextSource
+	 */
 	public static String readTextFile(String fname) {
-		String everything = "";
-		
-		try {
-			//AssetManager assetManager = activity.getAssets();												// @android assets
-			//BufferedReader br = new BufferedReader(new InputStreamReader(assetManager.open(fname)));		// @android  assets
-			FileReader fr = new FileReader(fname);
-			BufferedReader br = new BufferedReader(fr);			// JDK 6
-			
-			StringBuilder sb = new StringBuilder();
-			String line = br.readLine();
-			while (line != null) {
-				sb.append(line);
-				sb.append(System.lineSeparator());
-				line = br.readLine();
-			}
-
-			br.close();
-			everything = sb.toString();
-		} catch (FileNotFoundException e) {
-			e.printStackTrace();
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
-		return(everything);		
+		return readLines(fname, Charset.defaultCharset(), System.lineSeparator());
 	}
 	
+	/**
+	 * Lines of the file (ISO-8859-1) each one followed by "\n", through MappedTextSource
+	 */
 	public static String readTextFile7(String sName) {
-		Path path = Paths.get(sName);				// JDK 1.7	// @android 26
-		
-		//Charset charset = Charset.forName("ISO-8859-13");  // others like "US-ASCII" see  http://www.iana.org/assignments/character-sets
-		//ArrayList<String> lines = new ArrayList<String>();
-		String str = "";
-		try (
-			BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.ISO_8859_1);		// JDK 7		
-		) {
-			String line = null;
-			while (( line = reader.readLine() ) != null )  {
-				//lines.add(line);
-			str += line + "\n";		// TODO: adds extra "\n" at the end of the String
-				
-			}	
-			return(str);
-		} catch ( IOException e ) {
+		return readLines(sName, StandardCharsets.ISO_8859_1, "\n");
+	}
+	
+	/**
+	 * The whole file as it is (default charset), through MappedTextSource
+	 */
+	public static String readContent(String sName) {
+		try {
+			return MappedTextSource.open(sName).toString(Charset.defaultCharset());
+		} catch (IOException e) {
 			e.printStackTrace();
-			return(str);
+			return "";
 		}
 	}
 	
-	public static String readContent(String sName) {
-		String sContent = "";
-		FileInputStream fileInputStream = null;
-
-		File file = new File(sName);
-
+	private static String readLines(String fname, Charset charset, String separator) {
 		try {
-			//ANDROID: fileInputStream =  context.openFileInput(sName);
-			fileInputStream = new FileInputStream(file);
-			byte[] buffer =  new byte[(int) fileInputStream.getChannel().size()];
-			fileInputStream.read(buffer);
-
-			sContent = new String(buffer);
-			buffer = null;
-			
+			return MappedTextSource.open(fname).joinLines(charset, separator);
 		} catch (IOException e) {
 			e.printStackTrace();
-		} finally {
-			try {
-				fileInputStream.close();
-			} catch ( NullPointerException | IOException e) {
-				e.printStackTrace();
-			}
+			return "";
 		}
-		return sContent;
 	}
 	
 	////////////////////////////////////////////////////////////////////
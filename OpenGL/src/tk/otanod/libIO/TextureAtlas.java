@@ -0,0 +1,283 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libIO;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Several textures packed in one (shelf packing): the models that use them share one texture object and one
+ * texture unit, their texture coordinates are moved into the region of their image (remap).
+ *
+ * Each image sits in a cell with a gutter around it, the gutter repeats the edge texels of the image (clamp to edge).
+ * The cells start at multiples of the gutter, so level n of the atlas is built from level n of every image
+ * (x >> n is exact) and the mip filter never mixes two images. The chain stops at log2(gutter) levels:
+ * the last level keeps a 2 texels gutter, an ETC2 block (4x4) or a bilinear fetch never reaches the next image.
+ *
+ * The atlas is cached in a .rawtex file (TextureFile), keyed by a hash of its sources.
+ */
+public final class TextureAtlas {
+
+	public static final int DEFAULT_GUTTER = 16;						// 4 levels, down to 1/8
+	public static final int MAX_SIZE = 2048;							// GL_MAX_TEXTURE_SIZE guaranteed by OpenGL ES 3.0
+	private static final int BLOCK_SIZE = 4;							// ETC2 block
+
+	private final RawImage image;
+	private final int[] regions;										// x, y, width, height of each image (level 0 texels)
+
+	private TextureAtlas(RawImage image, int[] regions) {
+		this.image = image;
+		this.regions = regions;
+	}
+
+	/************************
+	 *	PACK
+	 ************************/
+
+	/**
+	 * images: level 0 or the full chain (MipChain.generate is called for the images without it)
+	 */
+	public static TextureAtlas pack(String name, RawImage[] images, int gutter) {
+		int[] size = new int[2];
+		int[] regions = layout(getWidths(images), getHeights(images), gutter, size);
+		return new TextureAtlas(compose(name, images, regions, size[0], size[1], gutter), regions);
+	}
+
+	/**
+	 * Same atlas as pack(name, images of ImageFile.loadCachedImageFile(file, isFlipped), DEFAULT_GUTTER),
+	 * cached in name.rawtex (name.flipped.rawtex). The cache is rebuilt when any image changes.
+	 * isCompressed: with the ETC2 blocks of every level, encoded once when the cache is built
+	 */
+	public static TextureAtlas loadCached(String name, String[] files, boolean isFlipped, boolean isCompressed) {
+		RawImage[] images = new RawImage[files.length];
+		for (int i = 0; i < files.length; i++) {
+			images[i] = ImageFile.loadCachedImageFile(files[i], isFlipped);			// mapped, the levels are read only to build the atlas
+			if ( images[i].byteDataBuffer == null ) {
+				throw new IllegalArgumentException("unreadable image " + files[i]);
+			}
+		}
+		int[] size = new int[2];
+		int[] regions = layout(getWidths(images), getHeights(images), DEFAULT_GUTTER, size);
+
+		Path cache = TextureFile.getCachePath(Paths.get(name), isFlipped);
+		long sourceModified = 0;
+		long sourceHash = DEFAULT_GUTTER;
+		try {
+			for (String file : files) {
+				Path source = Paths.get(file);
+				long modified = Files.getLastModifiedTime(source).toMillis();
+				sourceModified = Math.max(sourceModified, modified);
+				sourceHash = ((sourceHash * 31 + file.hashCode()) * 31 + modified) * 31 + Files.size(source);
+			}
+			RawImage image = TextureFile.map(name, isFlipped, isCompressed, sourceModified, sourceHash, cache);
+			if ( image != null && image.width == size[0] && image.height == size[1] ) {
+				debug("loadCached", "mapped " + cache + " with " + image.getnLevels() + " levels");
+				return new TextureAtlas(image, regions);
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+
+		RawImage image = compose(name, images, regions, size[0], size[1], DEFAULT_GUTTER);
+		if ( isCompressed ) {
+			image = ETC2.compress(image);
+		}
+		try {
+			TextureFile.write(image, isFlipped, sourceModified, sourceHash, cache);
+		} catch (IOException e) {
+			e.printStackTrace();														// read only folder, the atlas is still valid
+		}
+		return new TextureAtlas(image, regions);
+	}
+
+	/**
+	 * Shelf packing, the cells sorted by height. Tries every power of two width up to MAX_SIZE and keeps the
+	 * smallest area (then the squarest). size returns the width and the height (a multiple of the gutter).
+	 * Returns x, y, width, height of each image.
+	 */
+	static int[] layout(int[] widths, int[] heights, int gutter, int[] size) {
+		if ( gutter < BLOCK_SIZE || Integer.bitCount(gutter) != 1 ) {
+			throw new IllegalArgumentException("gutter " + gutter + ", a power of two >= " + BLOCK_SIZE);
+		}
+		int n = widths.length;
+		if ( n == 0 ) {
+			throw new IllegalArgumentException("no images");
+		}
+		int minWidth = 0;
+		Integer[] order = new Integer[n];
+		for (int i = 0; i < n; i++) {
+			minWidth = Math.max(minWidth, getCellSize(widths[i], gutter));
+			order[i] = i;
+		}
+		Arrays.sort(order, Comparator.comparingInt((Integer i) -> -getCellSize(heights[i], gutter)).thenComparingInt(i -> i));
+
+		int[] best = null;
+		long bestArea = Long.MAX_VALUE;
+		for (int width = Integer.highestOneBit(minWidth - 1) << 1; width <= MAX_SIZE; width <<= 1) {
+			int[] regions = new int[n * 4];
+			int x = 0;
+			int y = 0;
+			int shelfHeight = 0;
+			for (int i : order) {
+				int cellWidth = getCellSize(widths[i], gutter);
+				if ( x + cellWidth > width ) {
+					x = 0;
+					y += shelfHeight;
+					shelfHeight = 0;
+				}
+				regions[i * 4] = x + gutter;
+				regions[i * 4 + 1] = y + gutter;
+				regions[i * 4 + 2] = widths[i];
+				regions[i * 4 + 3] = heights[i];
+				x += cellWidth;
+				shelfHeight = Math.max(shelfHeight, getCellSize(heights[i], gutter));
+			}
+			int height = y + shelfHeight;
+			long area = (long) width * height;
+			if ( height <= MAX_SIZE && (area < bestArea || (area == bestArea && Math.max(width, height) < Math.max(size[0], size[1]))) ) {
+				best = regions;
+				bestArea = area;
+				size[0] = width;
+				size[1] = height;
+			}
+		}
+		if ( best == null ) {
+			throw new IllegalArgumentException("the images do not fit in " + MAX_SIZE + "x" + MAX_SIZE);
+		}
+		return best;
+	}
+
+	/**
+	 * Image rounded up to the gutter plus a gutter on each side
+	 */
+	private static int getCellSize(int size, int gutter) {
+		return (size + gutter - 1) / gutter * gutter + 2 * gutter;
+	}
+
+	private static int[] getWidths(RawImage[] images) {
+		return Arrays.stream(images).mapToInt(RawImage::getWidth).toArray();
+	}
+
+	private static int[] getHeights(RawImage[] images) {
+		return Arrays.stream(images).mapToInt(RawImage::getHeight).toArray();
+	}
+
+	/************************
+	 *	COMPOSE
+	 ************************/
+
+	private static RawImage compose(String name, RawImage[] images, int[] regions, int width, int height, int gutter) {
+		int nLevels = Math.min(Integer.numberOfTrailingZeros(gutter), MipChain.getLevelCount(width, height));
+		boolean isTransparent = false;
+		RawImage[] mipmapped = new RawImage[images.length];
+		for (int i = 0; i < images.length; i++) {
+			mipmapped[i] = images[i].hasMipmaps() ? images[i] : MipChain.generate(images[i]);
+			nLevels = Math.min(nLevels, mipmapped[i].getnLevels());
+			isTransparent |= images[i].isTransparent;
+		}
+
+		ByteBuffer[] levels = new ByteBuffer[nLevels];
+		for (int level = 0; level < nLevels; level++) {
+			int levelWidth = Math.max(1, width >> level);
+			byte[] atlas = new byte[levelWidth * Math.max(1, height >> level) * 4];		// texels outside the cells stay transparent black
+			for (int i = 0; i < images.length; i++) {
+				copyCell(atlas, levelWidth, mipmapped[i], level, regions, i, gutter);
+			}
+			levels[level] = ByteBuffer.allocateDirect(atlas.length).order(ByteOrder.nativeOrder());
+			levels[level].put(atlas);
+			levels[level].position(0);
+		}
+
+		RawImage result = new RawImage(name, width, height, levels);
+		result.setTransparent(isTransparent);
+		return result;
+	}
+
+	/**
+	 * Level of the image into its cell, the gutter repeats the first (last) column and row
+	 */
+	private static void copyCell(byte[] atlas, int atlasWidth, RawImage image, int level, int[] regions, int i, int gutter) {
+		int width = image.getLevelWidth(level);
+		int height = image.getLevelHeight(level);
+		byte[] src = new byte[width * height * 4];
+		image.getLevel(level).duplicate().position(0).get(src);
+
+		int g = gutter >> level;
+		int cellX = (regions[i * 4] >> level) - g;
+		int cellY = (regions[i * 4 + 1] >> level) - g;
+		int cellWidth = getCellSize(regions[i * 4 + 2], gutter) >> level;
+		int cellHeight = getCellSize(regions[i * 4 + 3], gutter) >> level;
+		for (int row = 0; row < cellHeight; row++) {
+			int s = Math.max(0, Math.min(height - 1, row - g)) * width * 4;
+			int d = ((cellY + row) * atlasWidth + cellX) * 4;
+			for (int col = 0; col < g; col++) {
+				System.arraycopy(src, s, atlas, d + col * 4, 4);
+			}
+			System.arraycopy(src, s, atlas, d + g * 4, width * 4);
+			for (int col = g + width; col < cellWidth; col++) {
+				System.arraycopy(src, s + (width - 1) * 4, atlas, d + col * 4, 4);
+			}
+		}
+	}
+
+	/************************
+	 *	TEXTURE COORDINATES
+	 ************************/
+
+	public RawImage getImage() {
+		return image;
+	}
+
+	public int getnImages() {
+		return regions.length / 4;
+	}
+
+	/**
+	 * uOffset, vOffset, uScale, vScale of the image: atlas uv = offset + uv * scale
+	 */
+	public float[] getRegion(int index) {
+		return new float[] {
+				regions[index * 4] / (float) image.width,
+				regions[index * 4 + 1] / (float) image.height,
+				regions[index * 4 + 2] / (float) image.width,
+				regions[index * 4 + 3] / (float) image.height
+		};
+	}
+
+	/**
+	 * New texture coordinates (u, v pairs) inside the region of the image. They are clamped to [0,1] first:
+	 * GL_REPEAT would wrap into the next image, the gutter only covers a few texels.
+	 */
+	public float[] remap(float[] textureCoords, int index) {
+		float[] region = getRegion(index);
+		float[] result = new float[textureCoords.length];
+		for (int i = 0; i < textureCoords.length; i += 2) {
+			result[i] = region[0] + Math.max(0f, Math.min(1f, textureCoords[i])) * region[2];
+			result[i + 1] = region[1] + Math.max(0f, Math.min(1f, textureCoords[i + 1])) * region[3];
+		}
+		return result;
+	}
+
+	private static void debug(String tag, String msg) {
+		//System.out.println(">>> DEBUG >>> " + tag + " >>> " + msg);
+	}
+
+}
@@ -0,0 +1,50 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libIO;
+
+/**
+ * Offline ETC2 encoding: builds the .rawtex cache (mip chain + ETC2 blocks) of each image before the first start.
+ *
+ *   java -cp opengl.jar tk.otanod.libIO.TextureCompressor [-flipped] image.png ...
+ *
+ * -flipped applies to the images after it, the same flag as ImageFile.loadImageFile.
+ */
+public final class TextureCompressor {
+
+	private TextureCompressor() {
+	}
+
+	public static void main(String[] args) {
+		boolean isFlipped = false;
+		for (String arg : args) {
+			if ( "-flipped".equals(arg) ) {
+				isFlipped = true;
+				continue;
+			}
+			long start = System.nanoTime();
+			RawImage image = ImageFile.loadCachedImageFile(arg, isFlipped, true);
+			if ( !image.isCompressed() ) {
+				System.err.println("Cannot read " + arg);
+				continue;
+			}
+			int format = image.getCompressedFormat();
+			byte[] decoded = ETC2.decode(image.getCompressedLevel(0), image.width, image.height, format);
+			System.out.printf("%s %dx%d %d levels %s, PSNR %.2f dB, %d ms%n", arg, image.width, image.height, image.getnLevels(),
+					ETC2.hasAlpha(format) ? "RGBA8 ETC2 EAC" : "RGB8 ETC2", ETC2.getPSNR(image.byteDataBuffer, decoded, ETC2.hasAlpha(format)),
+					(System.nanoTime() - start) / 1000000);
+		}
+	}
+
+}
@@ -0,0 +1,225 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libIO;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Decoded texture with its mip chain (.rawtex), written next to the image file and memory mapped on load:
+ * no PNG decode, no flip and no mipmap generation at start-up. Optionally the ETC2 blocks of every level too.
+ *
+ * Layout, native byte order:
+ *    0  int   MAGIC 'RTEX'
+ *    4  int   VERSION
+ *    8  int   BYTE_ORDER_MARK, read as a different value on a machine with the other endianness
+ *   12  int   1 when the rows are flipped (ImageFile.loadImageFile isFlipped)
+ *   16  long  source last modified time (ms)
+ *   24  long  source size (bytes), a hash of the sources for a TextureAtlas
+ *   32  int   width of level 0
+ *   36  int   height of level 0
+ *   40  int   nLevels (<= MAX_LEVELS)
+ *   44  int   1 when the image is transparent
+ *   48  int   ETC2 format of the compressed levels, 0 without them
+ *   52  int   unused
+ *   56  long  offset of each level, MAX_LEVELS entries (RGBA, max(1, width >> level) x max(1, height >> level))
+ *  312  long  offset of each compressed level, MAX_LEVELS entries (ETC2.getCompressedSize)
+ * Every level starts at a multiple of SECTION_ALIGNMENT bytes.
+ */
+class TextureFile {
+
+	static final String EXTENSION = ".rawtex";
+	static final String FLIPPED_EXTENSION = ".flipped" + EXTENSION;
+
+	private static final int MAGIC = ('R' << 24) | ('T' << 16) | ('E' << 8) | 'X';
+	private static final int VERSION = 2;								// 2: ETC2 levels
+	private static final int BYTE_ORDER_MARK = 0x01020304;
+	private static final int MAX_LEVELS = 32;
+	private static final int LEVELS = 56;
+	private static final int COMPRESSED_LEVELS = LEVELS + MAX_LEVELS * Long.BYTES;
+	private static final int HEADER_SIZE = COMPRESSED_LEVELS + MAX_LEVELS * Long.BYTES;
+	private static final int SECTION_ALIGNMENT = 64;
+
+	/**
+	 * res/drawable/grass.png ==> res/drawable/grass.rawtex (grass.flipped.rawtex)
+	 */
+	static Path getCachePath(Path source, boolean isFlipped) {
+		String name = source.getFileName().toString();
+		int dot = name.lastIndexOf('.');
+		String base = (dot > 0) ? name.substring(0, dot) : name;
+		return source.resolveSibling(base + (isFlipped ? FLIPPED_EXTENSION : EXTENSION));
+	}
+
+	static void write(RawImage image, boolean isFlipped, Path source, Path target) throws IOException {
+		write(image, isFlipped, Files.getLastModifiedTime(source).toMillis(), Files.size(source), target);
+	}
+
+	/**
+	 * Image built from several files (TextureAtlas): the newest last modified time and a hash of the sources
+	 */
+	static void write(RawImage image, boolean isFlipped, long sourceModified, long sourceSize, Path target) throws IOException {
+		int nLevels = image.getnLevels();
+		int format = image.getCompressedFormat();
+		long[] offsets = new long[nLevels];
+		long[] compressedOffsets = new long[nLevels];
+		long size = HEADER_SIZE;
+		for (int i = 0; i < nLevels; i++) {
+			offsets[i] = align(size);
+			size = offsets[i] + getLevelSize(image.width, image.height, i);
+		}
+		if ( image.isCompressed() ) {
+			for (int i = 0; i < nLevels; i++) {
+				compressedOffsets[i] = align(size);
+				size = compressedOffsets[i] + getCompressedLevelSize(image.width, image.height, i, format);
+			}
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(size)).order(ByteOrder.nativeOrder());
+		buffer.putInt(MAGIC);
+		buffer.putInt(VERSION);
+		buffer.putInt(BYTE_ORDER_MARK);
+		buffer.putInt(isFlipped ? 1 : 0);
+		buffer.putLong(sourceModified);
+		buffer.putLong(sourceSize);
+		buffer.putInt(image.width);
+		buffer.putInt(image.height);
+		buffer.putInt(nLevels);
+		buffer.putInt(image.isTransparent ? 1 : 0);
+		buffer.putInt(format);
+		for (int i = 0; i < nLevels; i++) {
+			buffer.putLong(LEVELS + i * Long.BYTES, offsets[i]);
+			buffer.putLong(COMPRESSED_LEVELS + i * Long.BYTES, compressedOffsets[i]);
+			putSection(buffer, offsets[i], image.getLevel(i), getLevelSize(image.width, image.height, i));
+			if ( image.isCompressed() ) {
+				putSection(buffer, compressedOffsets[i], image.getCompressedLevel(i), getCompressedLevelSize(image.width, image.height, i, format));
+			}
+		}
+		buffer.position(0);
+
+		// write to a temporary file and rename it, a reader never sees a half written cache
+		Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+		try ( FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE) ) {
+			while ( buffer.hasRemaining() ) {
+				channel.write(buffer);
+			}
+		}
+		try {
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Maps the cache file, returns null when it is missing, stale (source changed), flipped the other way,
+	 * without the requested compressed levels or was written by another version or on a machine with another byte order.
+	 * The levels of the RawImage are views of the mapping, glTexImage2D reads them straight from the page cache.
+	 */
+	static RawImage map(String name, boolean isFlipped, boolean isCompressed, Path source, Path cache) throws IOException {
+		if ( !Files.isRegularFile(cache) ) {
+			return null;
+		}
+		return map(name, isFlipped, isCompressed, Files.getLastModifiedTime(source).toMillis(), Files.size(source), cache);
+	}
+
+	static RawImage map(String name, boolean isFlipped, boolean isCompressed, long sourceModified, long sourceSize, Path cache) throws IOException {
+		if ( !Files.isRegularFile(cache) ) {
+			return null;
+		}
+		MappedByteBuffer mapped;
+		try ( FileChannel channel = FileChannel.open(cache, StandardOpenOption.READ) ) {
+			if ( channel.size() < HEADER_SIZE ) {
+				return null;
+			}
+			mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());			// the mapping outlives the channel
+		}
+		mapped.order(ByteOrder.nativeOrder());
+
+		if ( mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION || mapped.getInt(8) != BYTE_ORDER_MARK || mapped.getInt(12) != (isFlipped ? 1 : 0) ) {
+			return null;
+		}
+		if ( mapped.getLong(16) != sourceModified || mapped.getLong(24) != sourceSize ) {
+			return null;
+		}
+		int width = mapped.getInt(32);
+		int height = mapped.getInt(36);
+		int nLevels = mapped.getInt(40);
+		int format = mapped.getInt(48);
+		if ( width <= 0 || height <= 0 || nLevels < 1 || nLevels > MAX_LEVELS || (isCompressed && format == 0) ) {
+			return null;
+		}
+
+		ByteBuffer[] levels = new ByteBuffer[nLevels];
+		ByteBuffer[] compressedLevels = new ByteBuffer[nLevels];
+		for (int i = 0; i < nLevels; i++) {
+			levels[i] = getSection(mapped, mapped.getLong(LEVELS + i * Long.BYTES), getLevelSize(width, height, i));
+			if ( isCompressed ) {
+				compressedLevels[i] = getSection(mapped, mapped.getLong(COMPRESSED_LEVELS + i * Long.BYTES), getCompressedLevelSize(width, height, i, format));
+			}
+			if ( levels[i] == null || (isCompressed && compressedLevels[i] == null) ) {
+				return null;
+			}
+		}
+
+		RawImage image = new RawImage(name, width, height, levels);
+		image.setTransparent(mapped.getInt(44) == 1);
+		if ( isCompressed ) {
+			image.setCompressed(format, compressedLevels);
+		}
+		return image;
+	}
+
+	private static int getLevelSize(int width, int height, int level) {
+		return Math.max(1, width >> level) * Math.max(1, height >> level) * 4;
+	}
+
+	private static int getCompressedLevelSize(int width, int height, int level, int format) {
+		return ETC2.getCompressedSize(Math.max(1, width >> level), Math.max(1, height >> level), format);
+	}
+
+	private static long align(long offset) {
+		return (offset + SECTION_ALIGNMENT - 1) / SECTION_ALIGNMENT * SECTION_ALIGNMENT;
+	}
+
+	private static void putSection(ByteBuffer buffer, long offset, ByteBuffer data, int nBytes) {
+		ByteBuffer section = data.duplicate();
+		section.position(0);
+		section.limit(nBytes);
+		buffer.position((int) offset);
+		buffer.put(section);
+	}
+
+	/**
+	 * null when the section is outside the file
+	 */
+	private static ByteBuffer getSection(ByteBuffer mapped, long offset, int nBytes) {
+		if ( offset < HEADER_SIZE || offset + nBytes > mapped.capacity() ) {
+			return null;
+		}
+		ByteBuffer section = mapped.duplicate();
+		section.position((int) offset);
+		section.limit((int) offset + nBytes);
+		return section.slice().order(ByteOrder.nativeOrder());					// slice() is always BIG_ENDIAN
+	}
+
+}
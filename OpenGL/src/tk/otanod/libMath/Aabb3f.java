@@ -0,0 +1,244 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libMath;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Name: Aabb3f
+ * Created by: Jose Donato Perez Gonzalez
+ * Email: jdperezg@yahoo.es
+ * 
+ * VERSION
+ * [1] [2026-10-17] Initial version
+ * 
+ */
+
+/**
+ * Axis aligned bounding box [min, max]. The empty box has min > max (setEmpty), include() grows it.
+ */
+public class Aabb3f {
+
+	private float minX, minY, minZ;
+	private float maxX, maxY, maxZ;
+
+	/* *******************************
+	 * BUILDERS
+	 * *******************************/
+	
+	public Aabb3f() {
+		setEmpty();
+	}
+
+	public Aabb3f(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		set(minX, minY, minZ, maxX, maxY, maxZ);
+	}
+	
+	public Aabb3f(Aabb3f that) {
+		set(that);
+	}
+	
+	/* *******************************
+	 * GETTERS
+	 * *******************************/
+	
+	public float minX() { return(this.minX);  }
+
+	public float minY() { return(this.minY);  }
+
+	public float minZ() { return(this.minZ);  }
+
+	public float maxX() { return(this.maxX);  }
+
+	public float maxY() { return(this.maxY);  }
+
+	public float maxZ() { return(this.maxZ);  }
+	
+	public V3f getCenter(V3f dest) {
+		return dest.set((minX + maxX) * 0.5f, (minY + maxY) * 0.5f, (minZ + maxZ) * 0.5f);
+	}
+	
+	/**
+	 * Half size on each axis
+	 */
+	public V3f getExtent(V3f dest) {
+		return dest.set((maxX - minX) * 0.5f, (maxY - minY) * 0.5f, (maxZ - minZ) * 0.5f);
+	}
+	
+	public boolean isEmpty() {
+		return minX > maxX || minY > maxY || minZ > maxZ;
+	}
+	
+	/* *******************************
+	 * SETTERS
+	 * *******************************/
+	
+	public Aabb3f set(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		this.minX = minX;
+		this.minY = minY;
+		this.minZ = minZ;
+		this.maxX = maxX;
+		this.maxY = maxY;
+		this.maxZ = maxZ;
+		return this;
+	}
+	
+	public Aabb3f set(Aabb3f that) {
+		return set(that.minX, that.minY, that.minZ, that.maxX, that.maxY, that.maxZ);
+	}
+	
+	public Aabb3f setEmpty() {
+		return set(Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY,
+				Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY);
+	}
+	
+	/**
+	 * Box of the positions x y z x y z ...
+	 */
+	public Aabb3f setFromPositions(float[] positions) {
+		setEmpty();
+		for (int i = 0; i + 2 < positions.length; i += 3) {
+			include(positions[i], positions[i+1], positions[i+2]);
+		}
+		return this;
+	}
+	
+	/**
+	 * Box of the positions between position and limit, the position of the buffer is not modified
+	 */
+	public Aabb3f setFromPositions(FloatBuffer positions) {
+		setEmpty();
+		for (int i = positions.position(); i + 2 < positions.limit(); i += 3) {
+			include(positions.get(i), positions.get(i+1), positions.get(i+2));
+		}
+		return this;
+	}
+	
+	public Aabb3f include(float x, float y, float z) {
+		minX = Math.min(minX, x);
+		minY = Math.min(minY, y);
+		minZ = Math.min(minZ, z);
+		maxX = Math.max(maxX, x);
+		maxY = Math.max(maxY, y);
+		maxZ = Math.max(maxZ, z);
+		return this;
+	}
+	
+	public Aabb3f include(Aabb3f that) {
+		if ( that.isEmpty() ) {
+			return this;
+		}
+		include(that.minX, that.minY, that.minZ);
+		return include(that.maxX, that.maxY, that.maxZ);
+	}
+	
+	/**
+	 * Packed 6 floats: minX minY minZ maxX maxY maxZ
+	 */
+	public float[] get(float[] dst, int offset) {
+		dst[offset]   = minX;
+		dst[offset+1] = minY;
+		dst[offset+2] = minZ;
+		dst[offset+3] = maxX;
+		dst[offset+4] = maxY;
+		dst[offset+5] = maxZ;
+		return dst;
+	}
+	
+	/**
+	 * Element i of a SoA of n boxes (BatchTransforms.transformAabbs, Frustum.cullAabbs)
+	 */
+	public float[] getBatch(float[] aabbs, int n, int i) {
+		aabbs[BatchTransforms.MIN_X * n + i] = minX;
+		aabbs[BatchTransforms.MIN_Y * n + i] = minY;
+		aabbs[BatchTransforms.MIN_Z * n + i] = minZ;
+		aabbs[BatchTransforms.MAX_X * n + i] = maxX;
+		aabbs[BatchTransforms.MAX_Y * n + i] = maxY;
+		aabbs[BatchTransforms.MAX_Z * n + i] = maxZ;
+		return aabbs;
+	}
+	
+	/* *******************************
+	 * CLONE
+	 * *******************************/
+	
+	@Override
+	public Aabb3f clone() {
+		return new Aabb3f(this);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+
+		Aabb3f that = (Aabb3f) obj;
+		if ( this.isEmpty() || that.isEmpty() ) 
+			return this.isEmpty() && that.isEmpty();
+		if ( Math.abs(this.minX-that.minX)>V3f.THRESHOLD || Math.abs(this.maxX-that.maxX)>V3f.THRESHOLD ) 
+			return false;
+		if ( Math.abs(this.minY-that.minY)>V3f.THRESHOLD || Math.abs(this.maxY-that.maxY)>V3f.THRESHOLD ) 
+			return false;
+		if ( Math.abs(this.minZ-that.minZ)>V3f.THRESHOLD || Math.abs(this.maxZ-that.maxZ)>V3f.THRESHOLD ) 
+			return false;
+		
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "Aabb3f [min=(" + minX + ", " + minY + ", " + minZ + "), max=(" + maxX + ", " + maxY + ", " + maxZ + ")]";
+	}
+	
+	/* *******************************
+	 * OPERATIONS
+	 * *******************************/
+	
+	public boolean contains(float x, float y, float z) {
+		return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+	}
+	
+	public boolean intersects(Aabb3f that) {
+		return this.minX <= that.maxX && this.maxX >= that.minX
+			&& this.minY <= that.maxY && this.maxY >= that.minY
+			&& this.minZ <= that.maxZ && this.maxZ >= that.minZ;
+	}
+	
+	/**
+	 * dest = box of the transformed box (Arvo: transformed center +- extents along |M|), dest can be this.
+	 * Same math as BatchTransforms.transformAabbs.
+	 */
+	public Aabb3f transform(M4f m, Aabb3f dest) {
+		if ( isEmpty() ) {
+			return dest.setEmpty();
+		}
+		float cx = (minX + maxX) * 0.5f, cy = (minY + maxY) * 0.5f, cz = (minZ + maxZ) * 0.5f;
+		float ex = (maxX - minX) * 0.5f, ey = (maxY - minY) * 0.5f, ez = (maxZ - minZ) * 0.5f;
+		
+		float tcx = m.getElement(0) * cx + m.getElement(4) * cy + m.getElement(8)  * cz + m.getElement(12);
+		float tcy = m.getElement(1) * cx + m.getElement(5) * cy + m.getElement(9)  * cz + m.getElement(13);
+		float tcz = m.getElement(2) * cx + m.getElement(6) * cy + m.getElement(10) * cz + m.getElement(14);
+		float tex = Math.abs(m.getElement(0)) * ex + Math.abs(m.getElement(4)) * ey + Math.abs(m.getElement(8))  * ez;
+		float tey = Math.abs(m.getElement(1)) * ex + Math.abs(m.getElement(5)) * ey + Math.abs(m.getElement(9))  * ez;
+		float tez = Math.abs(m.getElement(2)) * ex + Math.abs(m.getElement(6)) * ey + Math.abs(m.getElement(10)) * ez;
+		
+		return dest.set(tcx - tex, tcy - tey, tcz - tez, tcx + tex, tcy + tey, tcz + tez);
+	}
+
+}
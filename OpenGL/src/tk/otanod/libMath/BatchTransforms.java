@@ -0,0 +1,272 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libMath;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Batch math for instances: N transforms in one call, no M4f per instance.
+ *
+ * Input  (structure of arrays, one float[]): component k of the element i is at [k * n + i]
+ *   TRS    10 components  tx ty tz  qx qy qz qw (unit quaternion)  sx sy sz
+ *   POINT   3 components  x y z
+ *   AABB    6 components  minX minY minZ maxX maxY maxZ
+ * Output matrices: 16 floats per instance, column major (same layout as M4f.getElements, ready for the instance VBO)
+ *
+ * getInstance() uses the jdk.incubator.vector kernels (BatchTransformsVector, src-vector) when the JVM runs with
+ * --add-modules jdk.incubator.vector, otherwise this scalar version. Both give the same floats (same operations, same order).
+ */
+public class BatchTransforms {
+
+	public static final int TRS_COMPONENTS = 10;
+	public static final int POINT_COMPONENTS = 3;
+	public static final int AABB_COMPONENTS = 6;
+	public static final int MATRIX_FLOATS = 16;
+
+	// SoA offsets (multiplied by n)
+	public static final int TX = 0, TY = 1, TZ = 2, QX = 3, QY = 4, QZ = 5, QW = 6, SX = 7, SY = 8, SZ = 9;
+	public static final int MIN_X = 0, MIN_Y = 1, MIN_Z = 2, MAX_X = 3, MAX_Y = 4, MAX_Z = 5;
+
+	private static final int BUFFER_CHUNK = 256;										// matrices per bulk put into a direct FloatBuffer
+	private static final ThreadLocal<float[]> CHUNK = ThreadLocal.withInitial(() -> new float[BUFFER_CHUNK * MATRIX_FLOATS]);
+	private static final ThreadLocal<float[]> MATRIX = ThreadLocal.withInitial(() -> new float[MATRIX_FLOATS * 2]);	// elements (and |elements|) of the M4f argument
+
+	private static final BatchTransforms SCALAR = new BatchTransforms();
+	private static final BatchTransforms INSTANCE = loadVectorKernels();
+
+	protected BatchTransforms() {
+	}
+
+	public static BatchTransforms getInstance() {
+		return INSTANCE;
+	}
+
+	public static BatchTransforms getScalar() {
+		return SCALAR;
+	}
+
+	public boolean isVectorized() {
+		return false;
+	}
+
+	private static BatchTransforms loadVectorKernels() {
+		// -Dtk.otanod.libMath.scalar=true forces the scalar kernels
+		if ( Boolean.getBoolean("tk.otanod.libMath.scalar") || !ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent() ) {
+			return SCALAR;
+		}
+		try {
+			Class<?> kernels = Class.forName("tk.otanod.libMath.BatchTransformsVector");
+			return (BatchTransforms) kernels.getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException | LinkageError e) {
+			return SCALAR;																// built without the src-vector folder
+		}
+	}
+
+	/************************
+	 *	SoA HELPERS
+	 ************************/
+
+	public static void setTRS(float[] trs, int n, int i, float tx, float ty, float tz, float qx, float qy, float qz, float qw, float sx, float sy, float sz) {
+		trs[TX * n + i] = tx;
+		trs[TY * n + i] = ty;
+		trs[TZ * n + i] = tz;
+		trs[QX * n + i] = qx;
+		trs[QY * n + i] = qy;
+		trs[QZ * n + i] = qz;
+		trs[QW * n + i] = qw;
+		trs[SX * n + i] = sx;
+		trs[SY * n + i] = sy;
+		trs[SZ * n + i] = sz;
+	}
+
+	/**
+	 * Uniform scale, rotation around Y (same as M4f.rotateYaxisCCW) and translation
+	 */
+	public static void setTRSYaw(float[] trs, int n, int i, float tx, float ty, float tz, double angleRad, float scale) {
+		setTRS(trs, n, i, tx, ty, tz, 0f, (float) Math.sin(angleRad / 2.0), 0f, (float) Math.cos(angleRad / 2.0), scale, scale, scale);
+	}
+
+	/************************
+	 *	TRS ==> MATRICES
+	 ************************/
+
+	/**
+	 * dst[dstOffset + i*16] = T * R * S of the instance i
+	 */
+	public void composeTRS(int n, float[] trs, float[] dst, int dstOffset) {
+		composeTRS(0, n, n, trs, dst, dstOffset);
+	}
+
+	/**
+	 * Writes from the position of the buffer, the position is not modified
+	 */
+	public void composeTRS(int n, float[] trs, FloatBuffer dst) {
+		if ( dst.hasArray() ) {
+			composeTRS(n, trs, dst.array(), dst.arrayOffset() + dst.position());
+			return;
+		}
+		float[] chunk = CHUNK.get();
+		int position = dst.position();
+		for (int from = 0; from < n; from += BUFFER_CHUNK) {
+			int to = Math.min(n, from + BUFFER_CHUNK);
+			composeTRS(from, to, n, trs, chunk, -from * MATRIX_FLOATS);
+			dst.put(chunk, 0, (to - from) * MATRIX_FLOATS);							// relative bulk put, FloatBuffer.put(int, float[]...) is Java 16
+		}
+		dst.position(position);
+	}
+
+	/**
+	 * Instances [from, to) of a SoA of n elements, the instance i is written at dst[dstOffset + i*16]
+	 */
+	protected void composeTRS(int from, int to, int n, float[] trs, float[] dst, int dstOffset) {
+		for (int i = from; i < to; i++) {
+			float qx = trs[QX * n + i], qy = trs[QY * n + i], qz = trs[QZ * n + i], qw = trs[QW * n + i];
+			float sx = trs[SX * n + i], sy = trs[SY * n + i], sz = trs[SZ * n + i];
+
+			// Rotation matrix of the unit quaternion
+			float xx = qx * qx, yy = qy * qy, zz = qz * qz;
+			float xy = qx * qy, xz = qx * qz, yz = qy * qz;
+			float xw = qx * qw, yw = qy * qw, zw = qz * qw;
+
+			int k = dstOffset + i * MATRIX_FLOATS;
+			// first column = R column 0 * sx
+			dst[k]      = (1f - 2f * (yy + zz)) * sx;
+			dst[k + 1]  = 2f * (xy + zw) * sx;
+			dst[k + 2]  = 2f * (xz - yw) * sx;
+			dst[k + 3]  = 0f;
+			// second column = R column 1 * sy
+			dst[k + 4]  = 2f * (xy - zw) * sy;
+			dst[k + 5]  = (1f - 2f * (xx + zz)) * sy;
+			dst[k + 6]  = 2f * (yz + xw) * sy;
+			dst[k + 7]  = 0f;
+			// third column = R column 2 * sz
+			dst[k + 8]  = 2f * (xz + yw) * sz;
+			dst[k + 9]  = 2f * (yz - xw) * sz;
+			dst[k + 10] = (1f - 2f * (xx + yy)) * sz;
+			dst[k + 11] = 0f;
+			// fourth column = translation
+			dst[k + 12] = trs[TX * n + i];
+			dst[k + 13] = trs[TY * n + i];
+			dst[k + 14] = trs[TZ * n + i];
+			dst[k + 15] = 1f;
+		}
+	}
+
+	/************************
+	 *	PARENT * MATRICES
+	 ************************/
+
+	/**
+	 * dst[i] = parent * src[i] for n column major matrices (16 floats each), dst can be src
+	 */
+	public void mul(M4f parent, int n, float[] src, int srcOffset, float[] dst, int dstOffset) {
+		mul(parent.getElements(MATRIX.get(), 0), 0, n, src, srcOffset, dst, dstOffset);
+	}
+
+	/**
+	 * Writes from the position of the buffer, the position is not modified
+	 */
+	public void mul(M4f parent, int n, float[] src, int srcOffset, FloatBuffer dst) {
+		float[] p = parent.getElements(MATRIX.get(), 0);
+		if ( dst.hasArray() ) {
+			mul(p, 0, n, src, srcOffset, dst.array(), dst.arrayOffset() + dst.position());
+			return;
+		}
+		float[] chunk = CHUNK.get();
+		int position = dst.position();
+		for (int from = 0; from < n; from += BUFFER_CHUNK) {
+			int to = Math.min(n, from + BUFFER_CHUNK);
+			mul(p, from, to, src, srcOffset, chunk, -from * MATRIX_FLOATS);
+			dst.put(chunk, 0, (to - from) * MATRIX_FLOATS);
+		}
+		dst.position(position);
+	}
+
+	protected void mul(float[] p, int from, int to, float[] src, int srcOffset, float[] dst, int dstOffset) {
+		float p00 = p[0], p01 = p[4], p02 = p[8],  p03 = p[12],
+		      p10 = p[1], p11 = p[5], p12 = p[9],  p13 = p[13],
+		      p20 = p[2], p21 = p[6], p22 = p[10], p23 = p[14],
+		      p30 = p[3], p31 = p[7], p32 = p[11], p33 = p[15];
+		for (int i = from; i < to; i++) {
+			for (int col = 0; col < 4; col++) {
+				int s = srcOffset + i * MATRIX_FLOATS + col * 4;
+				int d = dstOffset + i * MATRIX_FLOATS + col * 4;
+				float b0 = src[s], b1 = src[s + 1], b2 = src[s + 2], b3 = src[s + 3];
+				dst[d]     = p00 * b0 + p01 * b1 + p02 * b2 + p03 * b3;
+				dst[d + 1] = p10 * b0 + p11 * b1 + p12 * b2 + p13 * b3;
+				dst[d + 2] = p20 * b0 + p21 * b1 + p22 * b2 + p23 * b3;
+				dst[d + 3] = p30 * b0 + p31 * b1 + p32 * b2 + p33 * b3;
+			}
+		}
+	}
+
+	/************************
+	 *	POINTS AND AABBs
+	 ************************/
+
+	/**
+	 * Affine transform (w = 1, no perspective divide) of n points, SoA in and out, dst can be points
+	 */
+	public void transformPoints(M4f m, int n, float[] points, float[] dst) {
+		transformPoints(m.getElements(MATRIX.get(), 0), 0, n, n, points, dst);
+	}
+
+	protected void transformPoints(float[] m, int from, int to, int n, float[] points, float[] dst) {
+		for (int i = from; i < to; i++) {
+			float x = points[i], y = points[n + i], z = points[2 * n + i];
+			dst[i]         = m[0] * x + m[4] * y + m[8]  * z + m[12];
+			dst[n + i]     = m[1] * x + m[5] * y + m[9]  * z + m[13];
+			dst[2 * n + i] = m[2] * x + m[6] * y + m[10] * z + m[14];
+		}
+	}
+
+	/**
+	 * AABB of each transformed AABB (Arvo: transformed center +- extents along |M|), SoA in and out, dst can be aabbs
+	 */
+	public void transformAabbs(M4f m, int n, float[] aabbs, float[] dst) {
+		float[] e = m.getElements(MATRIX.get(), 0);
+		for (int k = 0; k < MATRIX_FLOATS; k++) {
+			e[MATRIX_FLOATS + k] = Math.abs(e[k]);
+		}
+		transformAabbs(e, 0, n, n, aabbs, dst);
+	}
+
+	/**
+	 * m: 16 floats of the matrix followed by their 16 absolute values
+	 */
+	protected void transformAabbs(float[] m, int from, int to, int n, float[] aabbs, float[] dst) {
+		for (int i = from; i < to; i++) {
+			float minX = aabbs[MIN_X * n + i], minY = aabbs[MIN_Y * n + i], minZ = aabbs[MIN_Z * n + i];
+			float maxX = aabbs[MAX_X * n + i], maxY = aabbs[MAX_Y * n + i], maxZ = aabbs[MAX_Z * n + i];
+			float cx = (minX + maxX) * 0.5f, cy = (minY + maxY) * 0.5f, cz = (minZ + maxZ) * 0.5f;
+			float ex = (maxX - minX) * 0.5f, ey = (maxY - minY) * 0.5f, ez = (maxZ - minZ) * 0.5f;
+
+			float tcx = m[0] * cx + m[4] * cy + m[8]  * cz + m[12];
+			float tcy = m[1] * cx + m[5] * cy + m[9]  * cz + m[13];
+			float tcz = m[2] * cx + m[6] * cy + m[10] * cz + m[14];
+			float tex = m[16] * ex + m[20] * ey + m[24] * ez;
+			float tey = m[17] * ex + m[21] * ey + m[25] * ez;
+			float tez = m[18] * ex + m[22] * ey + m[26] * ez;
+
+			dst[MIN_X * n + i] = tcx - tex;
+			dst[MIN_Y * n + i] = tcy - tey;
+			dst[MIN_Z * n + i] = tcz - tez;
+			dst[MAX_X * n + i] = tcx + tex;
+			dst[MAX_Y * n + i] = tcy + tey;
+			dst[MAX_Z * n + i] = tcz + tez;
+		}
+	}
+
+}
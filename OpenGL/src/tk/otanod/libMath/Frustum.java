@@ -0,0 +1,259 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libMath;
+
+/**
+ * Name: Frustum
+ * Created by: Jose Donato Perez Gonzalez
+ * Email: jdperezg@yahoo.es
+ * 
+ * VERSION
+ * [1] [2026-10-17] Initial version
+ * 
+ * REFERENCES:
+ * Gribb, Hartmann - Fast Extraction of Viewing Frustum Planes from the World-View-Projection Matrix
+ * 
+ */
+
+/**
+ * Six planes a*x + b*y + c*z + d >= 0 inside, extracted from projection * view (world space planes)
+ * or from projection * view * model (model space planes). The normals (a, b, c) are unit vectors so
+ * the plane equation is the signed distance.
+ * 
+ * An infinite projection (Camera.getInfiniteProjectionMatrix) has no far plane, it is stored as 0*x + 1 >= 0.
+ */
+public class Frustum {
+
+	public static final int LEFT = 0, RIGHT = 1, BOTTOM = 2, TOP = 3, NEAR = 4, FAR = 5;
+	public static final int PLANES = 6;
+
+	public static final int OUTSIDE = 0;
+	public static final int INTERSECTING = 1;
+	public static final int INSIDE = 2;
+
+	private final float[] planes = new float[PLANES * 4];			// a b c d per plane
+	private final M4f m4ProjectionView = new M4f();					// scratch, set(projection, view) doesn't allocate
+
+	/* *******************************
+	 * BUILDERS
+	 * *******************************/
+	
+	public Frustum() {
+		for (int p = 0; p < PLANES; p++) {
+			planes[p * 4 + 3] = 1f;									// everything inside until set
+		}
+	}
+	
+	public Frustum(M4f projection, M4f view) {
+		set(projection, view);
+	}
+	
+	/* *******************************
+	 * GETTERS / SETTERS
+	 * *******************************/
+	
+	public float[] getPlane(int plane, float[] dst, int offset) {
+		System.arraycopy(planes, plane * 4, dst, offset, 4);
+		return dst;
+	}
+	
+	public Frustum set(M4f projection, M4f view) {
+		return set(M4f.mul(projection, view, m4ProjectionView));
+	}
+	
+	/**
+	 * Planes of the clip volume -w <= x, y, z <= w of the matrix: row3 +- row0, row3 +- row1, row3 +- row2
+	 */
+	public Frustum set(M4f projectionView) {
+		for (int axis = 0; axis < 3; axis++) {
+			for (int k = 0; k < 4; k++) {
+				// column major: row r of column k is element k*4+r
+				float w = projectionView.getElement(k * 4 + 3);
+				float v = projectionView.getElement(k * 4 + axis);
+				planes[(axis * 2) * 4 + k] = w + v;
+				planes[(axis * 2 + 1) * 4 + k] = w - v;
+			}
+		}
+		for (int p = 0; p < PLANES; p++) {
+			int i = p * 4;
+			float length = (float) Math.sqrt(planes[i] * planes[i] + planes[i+1] * planes[i+1] + planes[i+2] * planes[i+2]);
+			if ( length < V3f.THRESHOLD ) {
+				planes[i] = 0f;
+				planes[i+1] = 0f;
+				planes[i+2] = 0f;
+				planes[i+3] = 1f;
+				continue;
+			}
+			float inv = 1f / length;
+			planes[i] *= inv;
+			planes[i+1] *= inv;
+			planes[i+2] *= inv;
+			planes[i+3] *= inv;
+		}
+		return this;
+	}
+	
+	/* *******************************
+	 * TESTS
+	 * *******************************/
+	
+	public boolean isPointVisible(float x, float y, float z) {
+		for (int i = 0; i < PLANES * 4; i += 4) {
+			if ( planes[i] * x + planes[i+1] * y + planes[i+2] * z + planes[i+3] < 0f ) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	public boolean isSphereVisible(float x, float y, float z, float radius) {
+		for (int i = 0; i < PLANES * 4; i += 4) {
+			if ( planes[i] * x + planes[i+1] * y + planes[i+2] * z + planes[i+3] < -radius ) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	public boolean isVisible(Sphere3f sphere) {
+		return isSphereVisible(sphere.x(), sphere.y(), sphere.z(), sphere.radius());
+	}
+	
+	/**
+	 * Conservative: a box near a corner of the frustum can be outside and still reported as visible
+	 */
+	public boolean isAabbVisible(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		for (int i = 0; i < PLANES * 4; i += 4) {
+			// the corner farthest along the normal (p-vertex)
+			float a = planes[i], b = planes[i+1], c = planes[i+2];
+			float px = ( a >= 0f ) ? maxX : minX;
+			float py = ( b >= 0f ) ? maxY : minY;
+			float pz = ( c >= 0f ) ? maxZ : minZ;
+			if ( a * px + b * py + c * pz + planes[i+3] < 0f ) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	public boolean isVisible(Aabb3f box) {
+		return !box.isEmpty() && isAabbVisible(box.minX(), box.minY(), box.minZ(), box.maxX(), box.maxY(), box.maxZ());
+	}
+	
+	/**
+	 * OUTSIDE, INTERSECTING or INSIDE (every corner inside: the children of the box don't need more tests)
+	 */
+	public int classify(Aabb3f box) {
+		int result = INSIDE;
+		for (int i = 0; i < PLANES * 4; i += 4) {
+			float a = planes[i], b = planes[i+1], c = planes[i+2], d = planes[i+3];
+			float px = ( a >= 0f ) ? box.maxX() : box.minX();
+			float py = ( b >= 0f ) ? box.maxY() : box.minY();
+			float pz = ( c >= 0f ) ? box.maxZ() : box.minZ();
+			if ( a * px + b * py + c * pz + d < 0f ) {
+				return OUTSIDE;
+			}
+			// the nearest corner (n-vertex)
+			float nx = ( a >= 0f ) ? box.minX() : box.maxX();
+			float ny = ( b >= 0f ) ? box.minY() : box.maxY();
+			float nz = ( c >= 0f ) ? box.minZ() : box.maxZ();
+			if ( a * nx + b * ny + c * nz + d < 0f ) {
+				result = INTERSECTING;
+			}
+		}
+		return result;
+	}
+	
+	public int classify(Sphere3f sphere) {
+		int result = INSIDE;
+		for (int i = 0; i < PLANES * 4; i += 4) {
+			float distance = planes[i] * sphere.x() + planes[i+1] * sphere.y() + planes[i+2] * sphere.z() + planes[i+3];
+			if ( distance < -sphere.radius() ) {
+				return OUTSIDE;
+			}
+			if ( distance < sphere.radius() ) {
+				result = INTERSECTING;
+			}
+		}
+		return result;
+	}
+	
+	/* *******************************
+	 * BATCH TESTS
+	 * *******************************/
+	
+	/**
+	 * Indices of the visible spheres, SoA of n spheres x[] y[] z[] radius[] (Sphere3f.getBatch).
+	 * Returns the number of indices written to visible (length >= n).
+	 */
+	public int cullSpheres(int n, float[] spheres, int[] visible) {
+		return cullSpheres(n, spheres, 0, n, visible, 0);
+	}
+	
+	/**
+	 * Same test for the spheres [start, end) of the n spheres, the indices are written from visible[offset].
+	 * Ranges of the same batch can be culled on different threads (InstanceCuller).
+	 */
+	public int cullSpheres(int n, float[] spheres, int start, int end, int[] visible, int offset) {
+		final float a0 = planes[0],  b0 = planes[1],  c0 = planes[2],  d0 = planes[3];
+		final float a1 = planes[4],  b1 = planes[5],  c1 = planes[6],  d1 = planes[7];
+		final float a2 = planes[8],  b2 = planes[9],  c2 = planes[10], d2 = planes[11];
+		final float a3 = planes[12], b3 = planes[13], c3 = planes[14], d3 = planes[15];
+		final float a4 = planes[16], b4 = planes[17], c4 = planes[18], d4 = planes[19];
+		final float a5 = planes[20], b5 = planes[21], c5 = planes[22], d5 = planes[23];
+		int count = offset;
+		for (int i = start; i < end; i++) {
+			float x = spheres[i], y = spheres[n + i], z = spheres[2 * n + i], r = -spheres[3 * n + i];
+			// all six distances without early exit, the loop stays branch free except the store
+			boolean isVisible = (a0 * x + b0 * y + c0 * z + d0 >= r)
+							  & (a1 * x + b1 * y + c1 * z + d1 >= r)
+							  & (a2 * x + b2 * y + c2 * z + d2 >= r)
+							  & (a3 * x + b3 * y + c3 * z + d3 >= r)
+							  & (a4 * x + b4 * y + c4 * z + d4 >= r)
+							  & (a5 * x + b5 * y + c5 * z + d5 >= r);
+			visible[count] = i;
+			count += isVisible ? 1 : 0;
+		}
+		return count - offset;
+	}
+	
+	/**
+	 * Indices of the visible boxes, SoA of n boxes minX[] minY[] minZ[] maxX[] maxY[] maxZ[]
+	 * (Aabb3f.getBatch, BatchTransforms.transformAabbs). Returns the number of indices written to visible (length >= n).
+	 */
+	public int cullAabbs(int n, float[] aabbs, int[] visible) {
+		int count = 0;
+		for (int i = 0; i < n; i++) {
+			float cx = (aabbs[BatchTransforms.MIN_X * n + i] + aabbs[BatchTransforms.MAX_X * n + i]) * 0.5f;
+			float cy = (aabbs[BatchTransforms.MIN_Y * n + i] + aabbs[BatchTransforms.MAX_Y * n + i]) * 0.5f;
+			float cz = (aabbs[BatchTransforms.MIN_Z * n + i] + aabbs[BatchTransforms.MAX_Z * n + i]) * 0.5f;
+			float ex = (aabbs[BatchTransforms.MAX_X * n + i] - aabbs[BatchTransforms.MIN_X * n + i]) * 0.5f;
+			float ey = (aabbs[BatchTransforms.MAX_Y * n + i] - aabbs[BatchTransforms.MIN_Y * n + i]) * 0.5f;
+			float ez = (aabbs[BatchTransforms.MAX_Z * n + i] - aabbs[BatchTransforms.MIN_Z * n + i]) * 0.5f;
+			// center and extents: distance(p-vertex) = distance(center) + |a|*ex + |b|*ey + |c|*ez
+			boolean isVisible = true;
+			for (int p = 0; p < PLANES * 4; p += 4) {
+				float a = planes[p], b = planes[p+1], c = planes[p+2];
+				float distance = a * cx + b * cy + c * cz + planes[p+3];
+				float radius = Math.abs(a) * ex + Math.abs(b) * ey + Math.abs(c) * ez;
+				isVisible &= distance + radius >= 0f;
+			}
+			visible[count] = i;
+			count += isVisible ? 1 : 0;
+		}
+		return count;
+	}
+
+}
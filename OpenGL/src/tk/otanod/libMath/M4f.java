@@ -14,6 +14,7 @@ SOFTWARE.
 
 package tk.otanod.libMath;
 
+import java.nio.FloatBuffer;
 
 /**
  * Name: cMat4f
@@ -27,6 +28,9 @@ package tk.otanod.libMath;
  * [4] [2017-08-14] Bug detected in getFloats, it was returning a pointer instead of a copy
  * [5] [2018-07-25] Renamed some mehtods to add the prefix "u" updated
  * [6] [2020-10-16] refactor
+ * [7] [2026-10-17] allocation free API: mul, invert, lookAt, getElements(dst, offset), FloatBuffer get/set
+ *                  preMultiply, postMultiply, scale and rotations work in place without temporary objects
+ * [8] [2026-10-17] set(Quatf), set(Transform)
  * 
  * REFERENCES:
  * https://github.com/toji/gl-matrix
@@ -155,6 +159,24 @@ public class M4f {
         return(that);
     }
     
+    public float[] getElements(float[] dst, int offset) {
+    	// NO ALLOCATION, copy into the caller array (glUniformMatrix4fv, instance arrays)
+        System.arraycopy(this.m, 0, dst, offset, NELEMENTS);
+        return(dst);
+    }
+    
+    public FloatBuffer get(FloatBuffer buffer) {
+    	// Absolute put at the current position, the position of the buffer is not modified
+    	return(get(buffer.position(), buffer));
+    }
+    
+    public FloatBuffer get(int index, FloatBuffer buffer) {
+    	for(int i=0;i<NELEMENTS;i++) {
+    		buffer.put(index + i, this.m[i]);
+    	}
+    	return(buffer);
+    }
+    
     public float[] getM3Elements() {
     	// FASTER THAN getFloats()
     	float[] that = new float[9];
@@ -170,6 +192,20 @@ public class M4f {
     	return(that);
     }
     
+    public float[] getM3Elements(float[] dst, int offset) {
+    	// NO ALLOCATION, upper left 3x3 matrix (glUniformMatrix3fv)
+    	dst[offset]   = this.m[0];
+    	dst[offset+1] = this.m[1];
+    	dst[offset+2] = this.m[2];
+    	dst[offset+3] = this.m[4];
+    	dst[offset+4] = this.m[5];
+    	dst[offset+5] = this.m[6];
+    	dst[offset+6] = this.m[8];
+    	dst[offset+7] = this.m[9];
+    	dst[offset+8] = this.m[10];
+    	return(dst);
+    }
+    
     /* **********************
      * Setters 
      * **********************/
@@ -203,6 +239,35 @@ public class M4f {
         this.m[14] = data[14];  //tz
         this.m[15] = data[15];
     }
+
+    public M4f set(M4f that) {
+    	System.arraycopy(that.m, 0, this.m, 0, NELEMENTS);
+    	return(this);
+    }
+    
+    public M4f set(FloatBuffer buffer) {
+    	// Absolute get at the current position, the position of the buffer is not modified
+    	return(set(buffer.position(), buffer));
+    }
+    
+    public M4f set(int index, FloatBuffer buffer) {
+    	for(int i=0;i<NELEMENTS;i++) {
+    		this.m[i] = buffer.get(index + i);
+    	}
+    	return(this);
+    }
+    
+    public M4f set(Quatf q) {
+    	// Rotation matrix of the quaternion, written in place
+    	q.getMatrix(this.m, 0);
+    	return(this);
+    }
+    
+    public M4f set(Transform t) {
+    	// T * R * S, written in place
+    	t.getMatrix(this.m, 0);
+    	return(this);
+    }
    
 	/* *******************************
 	 * CLONE
@@ -294,6 +359,11 @@ public class M4f {
     }
 
     public M4f getInverse() {
+        return(invert(new M4f()));
+    }
+
+    public M4f invert(M4f dest) {
+        // NO ALLOCATION, dest = inverse(this), dest can be this. A singular matrix gives a zero matrix
         // Cache the matrix values (makes for huge speed increases!)
         double  a00 = this.m[0], a01 = this.m[4], a02 = this.m[8],  a03 = this.m[12],
                 a10 = this.m[1], a11 = this.m[5], a12 = this.m[9],  a13 = this.m[13],
@@ -317,30 +387,31 @@ public class M4f {
        
         double invDet;
 
-        // Calculate the determinant
-        float[] dest = new float[NELEMENTS];
-
         if ( Math.abs(d) > THRESHOLD ) {
             invDet = 1 / d;
 
-            dest[0] = (float) ((a11 * b11 - a12 * b10 + a13 * b09) * invDet);
-            dest[4] = (float) ((-a01 * b11 + a02 * b10 - a03 * b09) * invDet);
-            dest[8] = (float) ((a31 * b05 - a32 * b04 + a33 * b03) * invDet);
-            dest[12] = (float) ((-a21 * b05 + a22 * b04 - a23 * b03) * invDet);
-            dest[1] = (float) ((-a10 * b11 + a12 * b08 - a13 * b07) * invDet);
-            dest[5] = (float) ((a00 * b11 - a02 * b08 + a03 * b07) * invDet);
-            dest[9] = (float) ((-a30 * b05 + a32 * b02 - a33 * b01) * invDet);
-            dest[13] = (float) ((a20 * b05 - a22 * b02 + a23 * b01) * invDet);
-            dest[2] = (float) ((a10 * b10 - a11 * b08 + a13 * b06) * invDet);
-            dest[6] = (float) ((-a00 * b10 + a01 * b08 - a03 * b06) * invDet);
-            dest[10] = (float) ((a30 * b04 - a31 * b02 + a33 * b00) * invDet);
-            dest[14] = (float) ((-a20 * b04 + a21 * b02 - a23 * b00) * invDet);
-            dest[3] = (float) ((-a10 * b09 + a11 * b07 - a12 * b06) * invDet);
-            dest[7] = (float) ((a00 * b09 - a01 * b07 + a02 * b06) * invDet);
-            dest[11] = (float) ((-a30 * b03 + a31 * b01 - a32 * b00) * invDet);
-            dest[15] = (float) ((a20 * b03 - a21 * b01 + a22 * b00) * invDet);
-        } 
-        return(new M4f(dest));
+            dest.m[0] = (float) ((a11 * b11 - a12 * b10 + a13 * b09) * invDet);
+            dest.m[4] = (float) ((-a01 * b11 + a02 * b10 - a03 * b09) * invDet);
+            dest.m[8] = (float) ((a31 * b05 - a32 * b04 + a33 * b03) * invDet);
+            dest.m[12] = (float) ((-a21 * b05 + a22 * b04 - a23 * b03) * invDet);
+            dest.m[1] = (float) ((-a10 * b11 + a12 * b08 - a13 * b07) * invDet);
+            dest.m[5] = (float) ((a00 * b11 - a02 * b08 + a03 * b07) * invDet);
+            dest.m[9] = (float) ((-a30 * b05 + a32 * b02 - a33 * b01) * invDet);
+            dest.m[13] = (float) ((a20 * b05 - a22 * b02 + a23 * b01) * invDet);
+            dest.m[2] = (float) ((a10 * b10 - a11 * b08 + a13 * b06) * invDet);
+            dest.m[6] = (float) ((-a00 * b10 + a01 * b08 - a03 * b06) * invDet);
+            dest.m[10] = (float) ((a30 * b04 - a31 * b02 + a33 * b00) * invDet);
+            dest.m[14] = (float) ((-a20 * b04 + a21 * b02 - a23 * b00) * invDet);
+            dest.m[3] = (float) ((-a10 * b09 + a11 * b07 - a12 * b06) * invDet);
+            dest.m[7] = (float) ((a00 * b09 - a01 * b07 + a02 * b06) * invDet);
+            dest.m[11] = (float) ((-a30 * b03 + a31 * b01 - a32 * b00) * invDet);
+            dest.m[15] = (float) ((a20 * b03 - a21 * b01 + a22 * b00) * invDet);
+        } else {
+            for(int i=0;i<NELEMENTS;i++) {
+                dest.m[i] = 0;
+            }
+        }
+        return(dest);
     }
 
     public M4f getTranspose() {
@@ -369,60 +440,93 @@ public class M4f {
     
     public M4f postMultiply(M4f m4) {
         // A(orig) * B
-        float[] A = new float[NELEMENTS];
-        A = this.getFloats();
-        float[] B = m4.getFloats();
-
-        this.m[0]  = A[0] * B[0] + A[4] * B[1] + A[8]  * B[2] + A[12] * B[3];
-        this.m[1]  = A[1] * B[0] + A[5] * B[1] + A[9]  * B[2] + A[13] * B[3];
-        this.m[2]  = A[2] * B[0] + A[6] * B[1] + A[10] * B[2] + A[14] * B[3];
-        this.m[3]  = A[3] * B[0] + A[7] * B[1] + A[11] * B[2] + A[15] * B[3];  // bug corrected
-
-        this.m[4]  = A[0] * B[4] + A[4] * B[5] + A[8]  * B[6] + A[12] * B[7];
-        this.m[5]  = A[1] * B[4] + A[5] * B[5] + A[9]  * B[6] + A[13] * B[7];
-        this.m[6]  = A[2] * B[4] + A[6] * B[5] + A[10] * B[6] + A[14] * B[7];
-        this.m[7]  = A[3] * B[4] + A[7] * B[5] + A[11] * B[6] + A[15] * B[7];
-
-        this.m[8]  = A[0] * B[8] + A[4] * B[9] + A[8]  * B[10] + A[12] * B[11];
-        this.m[9]  = A[1] * B[8] + A[5] * B[9] + A[9]  * B[10] + A[13] * B[11];
-        this.m[10] = A[2] * B[8] + A[6] * B[9] + A[10] * B[10] + A[14] * B[11];
-        this.m[11] = A[3] * B[8] + A[7] * B[9] + A[11] * B[10] + A[15] * B[11];
-
-        this.m[12] = A[0] * B[12] + A[4] * B[13] + A[8]  * B[14] + A[12] * B[15];
-        this.m[13] = A[1] * B[12] + A[5] * B[13] + A[9]  * B[14] + A[13] * B[15];
-        this.m[14] = A[2] * B[12] + A[6] * B[13] + A[10] * B[14] + A[14] * B[15];
-        this.m[15] = A[3] * B[12] + A[7] * B[13] + A[11] * B[14] + A[15] * B[15];
-        
-        return(this);
+        return(mul(this, m4, this));
     }
 
     public M4f preMultiply(M4f m4) {
         // A * B(orig)
-        float[] B = new float[NELEMENTS];
-        B = this.getFloats();
-        float[] A = m4.getFloats();
-
-        this.m[0]  = A[0] * B[0] + A[4] * B[1] + A[8]  * B[2] + A[12] * B[3];
-        this.m[1]  = A[1] * B[0] + A[5] * B[1] + A[9]  * B[2] + A[13] * B[3];
-        this.m[2]  = A[2] * B[0] + A[6] * B[1] + A[10] * B[2] + A[14] * B[3];
-        this.m[3]  = A[3] * B[0] + A[7] * B[1] + A[11] * B[2] + A[15] * B[3];		// bug corrected
-
-        this.m[4]  = A[0] * B[4] + A[4] * B[5] + A[8]  * B[6] + A[12] * B[7];
-        this.m[5]  = A[1] * B[4] + A[5] * B[5] + A[9]  * B[6] + A[13] * B[7];
-        this.m[6]  = A[2] * B[4] + A[6] * B[5] + A[10] * B[6] + A[14] * B[7];
-        this.m[7]  = A[3] * B[4] + A[7] * B[5] + A[11] * B[6] + A[15] * B[7];
-
-        this.m[8]  = A[0] * B[8] + A[4] * B[9] + A[8]  * B[10] + A[12] * B[11];
-        this.m[9]  = A[1] * B[8] + A[5] * B[9] + A[9]  * B[10] + A[13] * B[11];
-        this.m[10] = A[2] * B[8] + A[6] * B[9] + A[10] * B[10] + A[14] * B[11];
-        this.m[11] = A[3] * B[8] + A[7] * B[9] + A[11] * B[10] + A[15] * B[11];
-
-        this.m[12] = A[0] * B[12] + A[4] * B[13] + A[8]  * B[14] + A[12] * B[15];
-        this.m[13] = A[1] * B[12] + A[5] * B[13] + A[9]  * B[14] + A[13] * B[15];
-        this.m[14] = A[2] * B[12] + A[6] * B[13] + A[10] * B[14] + A[14] * B[15];
-        this.m[15] = A[3] * B[12] + A[7] * B[13] + A[11] * B[14] + A[15] * B[15];
+        return(mul(m4, this, this));
+    }
+
+    public static M4f mul(M4f a, M4f b, M4f dest) {
+        // NO ALLOCATION, dest = A * B, dest can be a or b
+        // A is cached in locals, each column of dest only needs the same column of B
+        float[] A = a.m;
+        float a00 = A[0], a01 = A[4], a02 = A[8],  a03 = A[12],
+              a10 = A[1], a11 = A[5], a12 = A[9],  a13 = A[13],
+              a20 = A[2], a21 = A[6], a22 = A[10], a23 = A[14],
+              a30 = A[3], a31 = A[7], a32 = A[11], a33 = A[15];
+        float[] B = b.m;
+        float[] D = dest.m;
+        for(int col=0;col<COLS;col++) {
+            int k = col * ROWS;
+            float b0 = B[k], b1 = B[k+1], b2 = B[k+2], b3 = B[k+3];
+            D[k]   = a00 * b0 + a01 * b1 + a02 * b2 + a03 * b3;
+            D[k+1] = a10 * b0 + a11 * b1 + a12 * b2 + a13 * b3;
+            D[k+2] = a20 * b0 + a21 * b1 + a22 * b2 + a23 * b3;
+            D[k+3] = a30 * b0 + a31 * b1 + a32 * b2 + a33 * b3;
+        }
+        return(dest);
+    }
+
+    public static M4f lookAt(V3f eye, V3f center, V3f up, M4f dest) {
+        // NO ALLOCATION, same view matrix as Camera.getViewMatrixLookAt
+        // http://www.songho.ca/opengl/gl_camera.html
+        // forward = normalize(eye - center)
+        float fx = eye.x() - center.x();
+        float fy = eye.y() - center.y();
+        float fz = eye.z() - center.z();
+        float mag = (float) Math.sqrt(fx*fx + fy*fy + fz*fz);
+        fx /= mag;
+        fy /= mag;
+        fz /= mag;
         
-        return(this);
+        // right = normalize(up x forward)
+        float rx = up.y() * fz - up.z() * fy;
+        float ry = up.z() * fx - up.x() * fz;
+        float rz = up.x() * fy - up.y() * fx;
+        mag = (float) Math.sqrt(rx*rx + ry*ry + rz*rz);
+        rx /= mag;
+        ry /= mag;
+        rz /= mag;
+        
+        // up = normalize(forward x right)
+        float ux = fy * rz - fz * ry;
+        float uy = fz * rx - fx * rz;
+        float uz = fx * ry - fy * rx;
+        mag = (float) Math.sqrt(ux*ux + uy*uy + uz*uz);
+        ux /= mag;
+        uy /= mag;
+        uz /= mag;
+        
+        float[] D = dest.m;
+        //first column, Right vector in XYZ cartesian system
+        D[0] = rx;
+        D[4] = ry;
+        D[8] = rz;
+        
+        //second column, Up vector in XYZ cartesian system
+        D[1] = ux;
+        D[5] = uy;
+        D[9] = uz;
+        
+        //third column, Forward vector in XYZ cartesian system
+        D[2] = fx;
+        D[6] = fy;
+        D[10]= fz;
+        
+        // Fourth row
+        D[3] = 0;
+        D[7] = 0;
+        D[11]= 0;
+        
+        //Fourth column
+        D[12] = -(rx * eye.x() + ry * eye.y() + rz * eye.z());  //tx
+        D[13] = -(ux * eye.x() + uy * eye.y() + uz * eye.z());  //ty
+        D[14] = -(fx * eye.x() + fy * eye.y() + fz * eye.z());  //tz
+        D[15] = 1.0f;
+        
+        return(dest);
     }
 
 
@@ -455,11 +559,12 @@ public class M4f {
     }
     
     public M4f scale(float sx, float sy, float sz) {
-	    M4f m4Scale = new M4f();
-	    m4Scale.m[0] = sx;
-	    m4Scale.m[5] = sy;
-	    m4Scale.m[10] = sz;
-	    this.preMultiply(m4Scale);
+	    // S * this, the diagonal matrix S scales the rows (in place, no temporary matrix)
+	    for(int col=0;col<COLS;col++) {
+	        this.m[col*ROWS]   *= sx;
+	        this.m[col*ROWS+1] *= sy;
+	        this.m[col*ROWS+2] *= sz;
+	    }
 
 	    return this;
     }    
@@ -480,21 +585,11 @@ public class M4f {
     }
 
     public M4f rotateXaxisCCW(double angleRad) {
-	    
-	    M4f m4Rotation  = new M4f();
-	    m4Rotation.setRotationXaxisCCW(angleRad);
-	    this.preMultiply(m4Rotation);
-	    
-	    return this;
+	    return preRotate(1, 2, angleRad);
     }
     
     public M4f rotateXaxisCW(double angleRad) {
-	    
-	    M4f m4Rotation  = new M4f();
-	    m4Rotation.setRotationXaxisCW(angleRad);
-	    this.preMultiply(m4Rotation);
-	    
-	    return this;
+	    return preRotate(1, 2, -angleRad);
     }
 
     public void setRotationYaxisCCW(double angleRad) {
@@ -509,21 +604,11 @@ public class M4f {
     }
     
     public M4f rotateYaxisCCW(double angleRad) {
-	    
-	    M4f m4Rotation  = new M4f();
-	    m4Rotation.setRotationYaxisCCW(angleRad);
-	    this.preMultiply(m4Rotation);
-	    
-	    return this;
+	    return preRotate(2, 0, angleRad);
     }
     
     public M4f rotateYaxisCW(double angleRad) {
-	    
-	    M4f m4Rotation  = new M4f();
-	    m4Rotation.setRotationYaxisCW(angleRad);
-	    this.preMultiply(m4Rotation);
-	    
-	    return this;
+	    return preRotate(2, 0, -angleRad);
     }
 
     public void setRotationZaxisCCW(double angleRad) {
@@ -538,22 +623,26 @@ public class M4f {
     }
 
     public M4f rotateZaxisCCW(double angleRad) {
-	    
-	    M4f m4Rotation  = new M4f();
-	    m4Rotation.setRotationZaxisCCW(angleRad);
-	    this.preMultiply(m4Rotation);
-	    
-	    return this;
+	    return preRotate(0, 1, angleRad);
     }
     
     public M4f rotateZaxisCW(double angleRad) {
-	    
-	    M4f m4Rotation  = new M4f();
-	    m4Rotation.setRotationZaxisCW(angleRad);
-	    this.preMultiply(m4Rotation);
-	    
-	    return this;
+	    return preRotate(0, 1, -angleRad);
     }
   
+    private M4f preRotate(int rowA, int rowB, double angleRad) {
+        // R * this, the rotation R only mixes two rows:  A' = cos*A - sin*B   B' = sin*A + cos*B
+        // X axis (1,2)  Y axis (2,0)  Z axis (0,1), same result as preMultiply(setRotation...) without the temporary matrix
+        float cos = (float) Math.cos(angleRad);
+        float sin = (float) Math.sin(angleRad);
+        for(int col=0;col<COLS;col++) {
+            float a = this.m[col*ROWS+rowA];
+            float b = this.m[col*ROWS+rowB];
+            this.m[col*ROWS+rowA] = cos * a - sin * b;
+            this.m[col*ROWS+rowB] = sin * a + cos * b;
+        }
+        return this;
+    }
+
 }
 
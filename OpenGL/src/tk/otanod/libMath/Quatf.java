@@ -0,0 +1,392 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libMath;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Name: Quatf
+ * Created by: Jose Donato Perez Gonzalez
+ * Email: jdperezg@yahoo.es
+ * 
+ * VERSION
+ * [1] [2026-10-17] Initial version
+ * 
+ * REFERENCES:
+ * https://github.com/toji/gl-matrix
+ * https://github.com/JOML-CI/JOML/tree/master/src/org/joml
+ * 
+ */
+
+/**
+ * Rotation quaternion q = (x, y, z, w) = (axis * sin(angle/2), cos(angle/2))
+ * 
+ * Same conventions as M4f:
+ *   rotateXaxisCCW... pre-multiply ( this = R * this ), like M4f.rotateXaxisCCW
+ *   mul(a, b)         rotation b first, then a ( M(a*b) = M(a) * M(b) )
+ *   getMatrix         column major rotation matrix
+ * The operations work in place and return this, nothing allocates.
+ */
+public class Quatf {
+
+	private float x;
+	private float y;
+	private float z;
+	private float w;
+	public final static float THRESHOLD = 1E-6f;		// Float maximum precision is 6 or 7 decimal positions
+	private final static float NLERP_DOT = 0.9995f;		// angle under 1.8 degrees, slerp ==> nlerp (sin(angle) close to 0)
+
+	/* *******************************
+	 * BUILDERS
+	 * *******************************/
+	
+	public Quatf() {
+		this.w = 1.0f;
+	}
+
+	public Quatf(float x, float y, float z, float w) {
+		this.x = x;
+		this.y = y;
+		this.z = z;
+		this.w = w;
+	}
+	
+	public Quatf(Quatf q) {
+		this(q.x, q.y, q.z, q.w);
+	}
+	
+	/* *******************************
+	 * GETTERS
+	 * *******************************/
+	
+	public float x() { return(this.x);  }
+
+	public float y() { return(this.y);  }
+
+	public float z() { return(this.z);  }
+	
+	public float w() { return(this.w);  }
+	
+	public float[] getFloats(float[] dst, int offset) {
+		// NO ALLOCATION, x y z w
+		dst[offset] = this.x;
+		dst[offset+1] = this.y;
+		dst[offset+2] = this.z;
+		dst[offset+3] = this.w;
+		return(dst);
+	}
+	
+	public FloatBuffer get(int index, FloatBuffer buffer) {
+		// Absolute puts, the position of the buffer is not modified
+		buffer.put(index, this.x);
+		buffer.put(index+1, this.y);
+		buffer.put(index+2, this.z);
+		buffer.put(index+3, this.w);
+		return(buffer);
+	}
+	
+	/**
+	 * Column major rotation matrix, 16 floats at dst[offset] (same values as BatchTransforms.composeTRS with scale 1)
+	 */
+	public float[] getMatrix(float[] dst, int offset) {
+		float xx = x * x, yy = y * y, zz = z * z;
+		float xy = x * y, xz = x * z, yz = y * z;
+		float xw = x * w, yw = y * w, zw = z * w;
+		
+		//first column
+		dst[offset]    = 1f - 2f * (yy + zz);
+		dst[offset+1]  = 2f * (xy + zw);
+		dst[offset+2]  = 2f * (xz - yw);
+		dst[offset+3]  = 0f;
+		
+		//second column
+		dst[offset+4]  = 2f * (xy - zw);
+		dst[offset+5]  = 1f - 2f * (xx + zz);
+		dst[offset+6]  = 2f * (yz + xw);
+		dst[offset+7]  = 0f;
+		
+		//third column
+		dst[offset+8]  = 2f * (xz + yw);
+		dst[offset+9]  = 2f * (yz - xw);
+		dst[offset+10] = 1f - 2f * (xx + yy);
+		dst[offset+11] = 0f;
+		
+		//fourth column
+		dst[offset+12] = 0f;
+		dst[offset+13] = 0f;
+		dst[offset+14] = 0f;
+		dst[offset+15] = 1f;
+		return(dst);
+	}
+	
+	public M4f getMatrix(M4f dest) {
+		return dest.set(this);
+	}
+	
+	/* *******************************
+	 * SETTERS
+	 * *******************************/
+	
+	public Quatf set(float x, float y, float z, float w) {
+		this.x = x;
+		this.y = y;
+		this.z = z;
+		this.w = w;
+		return this;
+	}
+	
+	public Quatf set(Quatf that) {
+		return set(that.x, that.y, that.z, that.w);
+	}
+	
+	public Quatf set(int index, FloatBuffer buffer) {
+		return set(buffer.get(index), buffer.get(index+1), buffer.get(index+2), buffer.get(index+3));
+	}
+	
+	public Quatf identity() {
+		return set(0f, 0f, 0f, 1f);
+	}
+	
+	/**
+	 * Rotation of angleRad around the axis (any length, it is normalized)
+	 */
+	public Quatf setAxisAngle(float ax, float ay, float az, double angleRad) {
+		float length = (float) Math.sqrt(ax * ax + ay * ay + az * az);
+		if ( length < THRESHOLD ) {
+			return identity();
+		}
+		float s = (float) Math.sin(angleRad / 2.0) / length;
+		return set(ax * s, ay * s, az * s, (float) Math.cos(angleRad / 2.0));
+	}
+	
+	/**
+	 * Rotation part of a matrix without scale (Shepperd: the biggest of w, x, y, z is computed first)
+	 */
+	public Quatf setFromMatrix(M4f m) {
+		float m00 = m.getElement(0), m10 = m.getElement(1), m20 = m.getElement(2);
+		float m01 = m.getElement(4), m11 = m.getElement(5), m21 = m.getElement(6);
+		float m02 = m.getElement(8), m12 = m.getElement(9), m22 = m.getElement(10);
+		float trace = m00 + m11 + m22;
+		if ( trace > 0f ) {
+			float s = (float) Math.sqrt(trace + 1f) * 2f;			// s = 4w
+			return set((m21 - m12) / s, (m02 - m20) / s, (m10 - m01) / s, 0.25f * s);
+		} else if ( m00 > m11 && m00 > m22 ) {
+			float s = (float) Math.sqrt(1f + m00 - m11 - m22) * 2f;	// s = 4x
+			return set(0.25f * s, (m01 + m10) / s, (m02 + m20) / s, (m21 - m12) / s);
+		} else if ( m11 > m22 ) {
+			float s = (float) Math.sqrt(1f + m11 - m00 - m22) * 2f;	// s = 4y
+			return set((m01 + m10) / s, 0.25f * s, (m12 + m21) / s, (m02 - m20) / s);
+		}
+		float s = (float) Math.sqrt(1f + m22 - m00 - m11) * 2f;		// s = 4z
+		return set((m02 + m20) / s, (m12 + m21) / s, 0.25f * s, (m10 - m01) / s);
+	}
+	
+	/* *******************************
+	 * CLONE
+	 * *******************************/
+	
+	@Override
+	public Quatf clone() {
+		return new Quatf(this);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+
+		Quatf that = (Quatf) obj;
+		if ( Math.abs(this.x-that.x)>THRESHOLD ) 
+			return false;
+		if ( Math.abs(this.y-that.y)>THRESHOLD ) 
+			return false;
+		if ( Math.abs(this.z-that.z)>THRESHOLD ) 
+			return false;
+		if ( Math.abs(this.w-that.w)>THRESHOLD ) 
+			return false;
+		
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "Quatf [x=" + x + ", y=" + y + ", z=" + z + ", w=" + w + "]";
+	}
+	
+	/* *******************************
+	 * QUATERNION OPERATIONS
+	 * *******************************/
+	
+	public float dotProduct(Quatf that) {
+		return this.x * that.x + this.y * that.y + this.z * that.z + this.w * that.w;
+	}
+	
+	public float magnitude() {
+		return (float) Math.sqrt(dotProduct(this));
+	}
+	
+	public Quatf normalize() {
+		float length = magnitude();
+		if ( length < THRESHOLD ) {
+			return identity();
+		}
+		float inv = 1f / length;
+		return set(x * inv, y * inv, z * inv, w * inv);
+	}
+	
+	/**
+	 * Inverse of a unit quaternion (same rotation angle, opposite direction)
+	 */
+	public Quatf conjugate() {
+		return set(-x, -y, -z, w);
+	}
+	
+	/**
+	 * dest = this^-1 (any length), dest can be this
+	 */
+	public Quatf invert(Quatf dest) {
+		float norm = dotProduct(this);
+		if ( norm < THRESHOLD * THRESHOLD ) {
+			return dest.set(0f, 0f, 0f, 0f);
+		}
+		float inv = 1f / norm;
+		return dest.set(-x * inv, -y * inv, -z * inv, w * inv);
+	}
+	
+	/**
+	 * dest = a * b (rotation b first, then a), dest can be a or b
+	 */
+	public static Quatf mul(Quatf a, Quatf b, Quatf dest) {
+		float ax = a.x, ay = a.y, az = a.z, aw = a.w;
+		float bx = b.x, by = b.y, bz = b.z, bw = b.w;
+		return dest.set(
+				aw * bx + ax * bw + ay * bz - az * by,
+				aw * by - ax * bz + ay * bw + az * bx,
+				aw * bz + ax * by - ay * bx + az * bw,
+				aw * bw - ax * bx - ay * by - az * bz);
+	}
+	
+	public Quatf preMultiply(Quatf that) {
+		// this = that * this
+		return mul(that, this, this);
+	}
+	
+	public Quatf postMultiply(Quatf that) {
+		// this = this * that
+		return mul(this, that, this);
+	}
+	
+	public Quatf rotateXaxisCCW(double angleRad) {
+		return preRotate(0, angleRad);
+	}
+	
+	public Quatf rotateXaxisCW(double angleRad) {
+		return preRotate(0, -angleRad);
+	}
+	
+	public Quatf rotateYaxisCCW(double angleRad) {
+		return preRotate(1, angleRad);
+	}
+	
+	public Quatf rotateYaxisCW(double angleRad) {
+		return preRotate(1, -angleRad);
+	}
+	
+	public Quatf rotateZaxisCCW(double angleRad) {
+		return preRotate(2, angleRad);
+	}
+	
+	public Quatf rotateZaxisCW(double angleRad) {
+		return preRotate(2, -angleRad);
+	}
+	
+	private Quatf preRotate(int axis, double angleRad) {
+		// R * this, R = (axis * s, c) only has one of x y z, mul() without the zero terms
+		float s = (float) Math.sin(angleRad / 2.0);
+		float c = (float) Math.cos(angleRad / 2.0);
+		float qx = this.x, qy = this.y, qz = this.z, qw = this.w;
+		switch (axis) {
+		case 0:
+			return set(c * qx + s * qw, c * qy - s * qz, c * qz + s * qy, c * qw - s * qx);
+		case 1:
+			return set(c * qx + s * qz, c * qy + s * qw, c * qz - s * qx, c * qw - s * qy);
+		default:
+			return set(c * qx - s * qy, c * qy + s * qx, c * qz + s * qw, c * qw - s * qz);
+		}
+	}
+	
+	/**
+	 * dest = rotation of v, dest can be v
+	 */
+	public V3f transform(V3f v, V3f dest) {
+		// v' = v + w * t + q x t,  t = 2 * (q x v)
+		float vx = v.x(), vy = v.y(), vz = v.z();
+		float tx = 2f * (y * vz - z * vy);
+		float ty = 2f * (z * vx - x * vz);
+		float tz = 2f * (x * vy - y * vx);
+		return dest.set(
+				vx + w * tx + (y * tz - z * ty),
+				vy + w * ty + (z * tx - x * tz),
+				vz + w * tz + (x * ty - y * tx));
+	}
+	
+	/* *******************************
+	 * INTERPOLATION
+	 * *******************************/
+	
+	/**
+	 * Normalized linear interpolation, shortest path. Not constant angular speed, cheaper than slerp and fine for small steps
+	 * (animation frames, network updates). dest can be a or b
+	 */
+	public static Quatf nlerp(Quatf a, Quatf b, float t, Quatf dest) {
+		float sign = ( a.dotProduct(b) < 0f ) ? -1f : 1f;
+		float wa = 1f - t;
+		float wb = t * sign;
+		return dest.set(
+				wa * a.x + wb * b.x,
+				wa * a.y + wb * b.y,
+				wa * a.z + wb * b.z,
+				wa * a.w + wb * b.w).normalize();
+	}
+	
+	/**
+	 * Spherical linear interpolation, shortest path, constant angular speed. dest can be a or b
+	 */
+	public static Quatf slerp(Quatf a, Quatf b, float t, Quatf dest) {
+		float cos = a.dotProduct(b);
+		float sign = 1f;
+		if ( cos < 0f ) {
+			cos = -cos;
+			sign = -1f;
+		}
+		if ( cos > NLERP_DOT ) {
+			return nlerp(a, b, t, dest);
+		}
+		double angle = Math.acos(cos);
+		double sin = Math.sin(angle);
+		float wa = (float) (Math.sin((1.0 - t) * angle) / sin);
+		float wb = (float) (Math.sin(t * angle) / sin) * sign;
+		return dest.set(
+				wa * a.x + wb * b.x,
+				wa * a.y + wb * b.y,
+				wa * a.z + wb * b.z,
+				wa * a.w + wb * b.w);
+	}
+
+}
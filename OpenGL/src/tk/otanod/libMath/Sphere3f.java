@@ -0,0 +1,205 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libMath;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Name: Sphere3f
+ * Created by: Jose Donato Perez Gonzalez
+ * Email: jdperezg@yahoo.es
+ * 
+ * VERSION
+ * [1] [2026-10-17] Initial version
+ * 
+ */
+
+/**
+ * Bounding sphere, center (x, y, z) and radius
+ */
+public class Sphere3f {
+
+	public static final int COMPONENTS = 4;			// SoA of spheres (Frustum.cullSpheres): x[] y[] z[] radius[]
+
+	private float x, y, z;
+	private float radius;
+
+	/* *******************************
+	 * BUILDERS
+	 * *******************************/
+	
+	public Sphere3f() {
+	}
+
+	public Sphere3f(float x, float y, float z, float radius) {
+		set(x, y, z, radius);
+	}
+	
+	public Sphere3f(Sphere3f that) {
+		set(that);
+	}
+	
+	/* *******************************
+	 * GETTERS
+	 * *******************************/
+	
+	public float x() { return(this.x);  }
+
+	public float y() { return(this.y);  }
+
+	public float z() { return(this.z);  }
+
+	public float radius() { return(this.radius);  }
+	
+	public V3f getCenter(V3f dest) {
+		return dest.set(x, y, z);
+	}
+	
+	/**
+	 * Element i of a SoA of n spheres (Frustum.cullSpheres)
+	 */
+	public float[] getBatch(float[] spheres, int n, int i) {
+		spheres[i] = x;
+		spheres[n + i] = y;
+		spheres[2 * n + i] = z;
+		spheres[3 * n + i] = radius;
+		return spheres;
+	}
+	
+	/* *******************************
+	 * SETTERS
+	 * *******************************/
+	
+	public Sphere3f set(float x, float y, float z, float radius) {
+		this.x = x;
+		this.y = y;
+		this.z = z;
+		this.radius = radius;
+		return this;
+	}
+	
+	public Sphere3f set(Sphere3f that) {
+		return set(that.x, that.y, that.z, that.radius);
+	}
+	
+	/**
+	 * Sphere around the box: center of the box, half of its diagonal (positions not available, QuantizedOBJ)
+	 */
+	public Sphere3f setFromBounds(Aabb3f bounds) {
+		if ( bounds.isEmpty() ) {
+			return set(0f, 0f, 0f, 0f);
+		}
+		float ex = (bounds.maxX() - bounds.minX()) * 0.5f, ey = (bounds.maxY() - bounds.minY()) * 0.5f, ez = (bounds.maxZ() - bounds.minZ()) * 0.5f;
+		return set(bounds.minX() + ex, bounds.minY() + ey, bounds.minZ() + ez, Math.nextUp((float) Math.sqrt(ex * ex + ey * ey + ez * ez)));
+	}
+	
+	/**
+	 * Center of the box, radius to the farthest position (tighter than the sphere around the box)
+	 */
+	public Sphere3f setFromPositions(float[] positions, Aabb3f bounds) {
+		if ( bounds.isEmpty() ) {
+			return set(0f, 0f, 0f, 0f);
+		}
+		float cx = (bounds.minX() + bounds.maxX()) * 0.5f, cy = (bounds.minY() + bounds.maxY()) * 0.5f, cz = (bounds.minZ() + bounds.maxZ()) * 0.5f;
+		float max = 0f;
+		for (int i = 0; i + 2 < positions.length; i += 3) {
+			float dx = positions[i] - cx, dy = positions[i+1] - cy, dz = positions[i+2] - cz;
+			max = Math.max(max, dx * dx + dy * dy + dz * dz);
+		}
+		return set(cx, cy, cz, Math.nextUp((float) Math.sqrt(max)));			// rounded up, every position stays inside
+	}
+	
+	/**
+	 * Same as setFromPositions(float[], Aabb3f), the position of the buffer is not modified
+	 */
+	public Sphere3f setFromPositions(FloatBuffer positions, Aabb3f bounds) {
+		if ( bounds.isEmpty() ) {
+			return set(0f, 0f, 0f, 0f);
+		}
+		float cx = (bounds.minX() + bounds.maxX()) * 0.5f, cy = (bounds.minY() + bounds.maxY()) * 0.5f, cz = (bounds.minZ() + bounds.maxZ()) * 0.5f;
+		float max = 0f;
+		for (int i = positions.position(); i + 2 < positions.limit(); i += 3) {
+			float dx = positions.get(i) - cx, dy = positions.get(i+1) - cy, dz = positions.get(i+2) - cz;
+			max = Math.max(max, dx * dx + dy * dy + dz * dz);
+		}
+		return set(cx, cy, cz, Math.nextUp((float) Math.sqrt(max)));			// rounded up, every position stays inside
+	}
+	
+	/* *******************************
+	 * CLONE
+	 * *******************************/
+	
+	@Override
+	public Sphere3f clone() {
+		return new Sphere3f(this);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+
+		Sphere3f that = (Sphere3f) obj;
+		if ( Math.abs(this.x-that.x)>V3f.THRESHOLD ) 
+			return false;
+		if ( Math.abs(this.y-that.y)>V3f.THRESHOLD ) 
+			return false;
+		if ( Math.abs(this.z-that.z)>V3f.THRESHOLD ) 
+			return false;
+		if ( Math.abs(this.radius-that.radius)>V3f.THRESHOLD ) 
+			return false;
+		
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "Sphere3f [x=" + x + ", y=" + y + ", z=" + z + ", radius=" + radius + "]";
+	}
+	
+	/* *******************************
+	 * OPERATIONS
+	 * *******************************/
+	
+	public boolean contains(float px, float py, float pz) {
+		float dx = px - x, dy = py - y, dz = pz - z;
+		return dx * dx + dy * dy + dz * dz <= radius * radius;
+	}
+	
+	public boolean intersects(Sphere3f that) {
+		float dx = that.x - x, dy = that.y - y, dz = that.z - z;
+		float r = radius + that.radius;
+		return dx * dx + dy * dy + dz * dz <= r * r;
+	}
+	
+	/**
+	 * dest = sphere around the transformed sphere: transformed center, radius * biggest axis scale. dest can be this
+	 */
+	public Sphere3f transform(M4f m, Sphere3f dest) {
+		float tx = m.getElement(0) * x + m.getElement(4) * y + m.getElement(8)  * z + m.getElement(12);
+		float ty = m.getElement(1) * x + m.getElement(5) * y + m.getElement(9)  * z + m.getElement(13);
+		float tz = m.getElement(2) * x + m.getElement(6) * y + m.getElement(10) * z + m.getElement(14);
+		float scaleX = m.getElement(0) * m.getElement(0) + m.getElement(1) * m.getElement(1) + m.getElement(2)  * m.getElement(2);
+		float scaleY = m.getElement(4) * m.getElement(4) + m.getElement(5) * m.getElement(5) + m.getElement(6)  * m.getElement(6);
+		float scaleZ = m.getElement(8) * m.getElement(8) + m.getElement(9) * m.getElement(9) + m.getElement(10) * m.getElement(10);
+		float scale = (float) Math.sqrt(Math.max(scaleX, Math.max(scaleY, scaleZ)));
+		return dest.set(tx, ty, tz, radius * scale);
+	}
+
+}
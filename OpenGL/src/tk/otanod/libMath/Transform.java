@@ -0,0 +1,375 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libMath;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Name: Transform
+ * Created by: Jose Donato Perez Gonzalez
+ * Email: jdperezg@yahoo.es
+ * 
+ * VERSION
+ * [1] [2026-10-17] Initial version
+ * 
+ */
+
+/**
+ * Translation, rotation (unit quaternion) and scale: M = T * R * S
+ * 
+ * Packed in 10 floats (40 bytes instead of the 64 bytes of a matrix):
+ *   [tx ty tz qx qy qz qw sx sy sz]   same order as the SoA components of BatchTransforms (TX..SZ)
+ * 
+ * mul and invert are exact with uniform scale. With non-uniform scale and rotations the product of two TRS
+ * is not a TRS (shear), the scale is multiplied per axis like most scene graphs do.
+ */
+public class Transform {
+
+	public static final int FLOATS = BatchTransforms.TRS_COMPONENTS;
+
+	private float tx, ty, tz;
+	private float qx, qy, qz, qw;
+	private float sx, sy, sz;
+
+	/* *******************************
+	 * BUILDERS
+	 * *******************************/
+	
+	public Transform() {
+		identity();
+	}
+	
+	public Transform(Transform that) {
+		set(that);
+	}
+	
+	/* *******************************
+	 * GETTERS
+	 * *******************************/
+	
+	public V3f getTranslation(V3f dest) {
+		return dest.set(tx, ty, tz);
+	}
+	
+	public Quatf getRotation(Quatf dest) {
+		return dest.set(qx, qy, qz, qw);
+	}
+	
+	public V3f getScale(V3f dest) {
+		return dest.set(sx, sy, sz);
+	}
+	
+	/**
+	 * Packed 10 floats at dst[offset]
+	 */
+	public float[] get(float[] dst, int offset) {
+		dst[offset]   = tx;
+		dst[offset+1] = ty;
+		dst[offset+2] = tz;
+		dst[offset+3] = qx;
+		dst[offset+4] = qy;
+		dst[offset+5] = qz;
+		dst[offset+6] = qw;
+		dst[offset+7] = sx;
+		dst[offset+8] = sy;
+		dst[offset+9] = sz;
+		return dst;
+	}
+	
+	public FloatBuffer get(int index, FloatBuffer buffer) {
+		// Absolute puts, the position of the buffer is not modified
+		buffer.put(index,   tx);
+		buffer.put(index+1, ty);
+		buffer.put(index+2, tz);
+		buffer.put(index+3, qx);
+		buffer.put(index+4, qy);
+		buffer.put(index+5, qz);
+		buffer.put(index+6, qw);
+		buffer.put(index+7, sx);
+		buffer.put(index+8, sy);
+		buffer.put(index+9, sz);
+		return buffer;
+	}
+	
+	/**
+	 * Element i of a BatchTransforms SoA of n elements, BatchTransforms.composeTRS builds all the matrices in one call
+	 */
+	public float[] getBatch(float[] trs, int n, int i) {
+		BatchTransforms.setTRS(trs, n, i, tx, ty, tz, qx, qy, qz, qw, sx, sy, sz);
+		return trs;
+	}
+	
+	/**
+	 * Column major T * R * S, 16 floats at dst[offset] (same values as BatchTransforms.composeTRS)
+	 */
+	public float[] getMatrix(float[] dst, int offset) {
+		float xx = qx * qx, yy = qy * qy, zz = qz * qz;
+		float xy = qx * qy, xz = qx * qz, yz = qy * qz;
+		float xw = qx * qw, yw = qy * qw, zw = qz * qw;
+		
+		//first column = R column 0 * sx
+		dst[offset]    = (1f - 2f * (yy + zz)) * sx;
+		dst[offset+1]  = 2f * (xy + zw) * sx;
+		dst[offset+2]  = 2f * (xz - yw) * sx;
+		dst[offset+3]  = 0f;
+		
+		//second column = R column 1 * sy
+		dst[offset+4]  = 2f * (xy - zw) * sy;
+		dst[offset+5]  = (1f - 2f * (xx + zz)) * sy;
+		dst[offset+6]  = 2f * (yz + xw) * sy;
+		dst[offset+7]  = 0f;
+		
+		//third column = R column 2 * sz
+		dst[offset+8]  = 2f * (xz + yw) * sz;
+		dst[offset+9]  = 2f * (yz - xw) * sz;
+		dst[offset+10] = (1f - 2f * (xx + yy)) * sz;
+		dst[offset+11] = 0f;
+		
+		//fourth column = translation
+		dst[offset+12] = tx;
+		dst[offset+13] = ty;
+		dst[offset+14] = tz;
+		dst[offset+15] = 1f;
+		return dst;
+	}
+	
+	public M4f getMatrix(M4f dest) {
+		return dest.set(this);
+	}
+	
+	/* *******************************
+	 * SETTERS
+	 * *******************************/
+	
+	public Transform identity() {
+		tx = 0f; ty = 0f; tz = 0f;
+		qx = 0f; qy = 0f; qz = 0f; qw = 1f;
+		sx = 1f; sy = 1f; sz = 1f;
+		return this;
+	}
+	
+	public Transform set(Transform that) {
+		tx = that.tx; ty = that.ty; tz = that.tz;
+		qx = that.qx; qy = that.qy; qz = that.qz; qw = that.qw;
+		sx = that.sx; sy = that.sy; sz = that.sz;
+		return this;
+	}
+	
+	public Transform set(float[] src, int offset) {
+		tx = src[offset];   ty = src[offset+1]; tz = src[offset+2];
+		qx = src[offset+3]; qy = src[offset+4]; qz = src[offset+5]; qw = src[offset+6];
+		sx = src[offset+7]; sy = src[offset+8]; sz = src[offset+9];
+		return this;
+	}
+	
+	public Transform set(int index, FloatBuffer buffer) {
+		tx = buffer.get(index);   ty = buffer.get(index+1); tz = buffer.get(index+2);
+		qx = buffer.get(index+3); qy = buffer.get(index+4); qz = buffer.get(index+5); qw = buffer.get(index+6);
+		sx = buffer.get(index+7); sy = buffer.get(index+8); sz = buffer.get(index+9);
+		return this;
+	}
+	
+	public Transform setTranslation(float x, float y, float z) {
+		tx = x; ty = y; tz = z;
+		return this;
+	}
+	
+	public Transform setTranslation(V3f v) {
+		return setTranslation(v.x(), v.y(), v.z());
+	}
+	
+	public Transform setRotation(Quatf q) {
+		qx = q.x(); qy = q.y(); qz = q.z(); qw = q.w();
+		return this;
+	}
+	
+	public Transform setScale(float scale) {
+		return setScale(scale, scale, scale);
+	}
+	
+	public Transform setScale(float x, float y, float z) {
+		sx = x; sy = y; sz = z;
+		return this;
+	}
+	
+	/* *******************************
+	 * CLONE
+	 * *******************************/
+	
+	@Override
+	public Transform clone() {
+		return new Transform(this);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+
+		Transform that = (Transform) obj;
+		float[] a = get(new float[FLOATS], 0);
+		float[] b = that.get(new float[FLOATS], 0);
+		for (int i = 0; i < FLOATS; i++) {
+			if ( Math.abs(a[i]-b[i])>V3f.THRESHOLD ) 
+				return false;
+		}
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "Transform [t=(" + tx + ", " + ty + ", " + tz + "), q=(" + qx + ", " + qy + ", " + qz + ", " + qw + "), s=(" + sx + ", " + sy + ", " + sz + ")]";
+	}
+	
+	/* *******************************
+	 * TRANSFORM OPERATIONS
+	 * *******************************/
+	
+	public Transform translate(float dx, float dy, float dz) {
+		tx += dx; ty += dy; tz += dz;
+		return this;
+	}
+	
+	/**
+	 * this = q * rotation (world axes, like M4f.rotate...), the translation does not change
+	 */
+	public Transform rotate(Quatf q) {
+		float ax = q.x(), ay = q.y(), az = q.z(), aw = q.w();
+		float bx = qx, by = qy, bz = qz, bw = qw;
+		qx = aw * bx + ax * bw + ay * bz - az * by;
+		qy = aw * by - ax * bz + ay * bw + az * bx;
+		qz = aw * bz + ax * by - ay * bx + az * bw;
+		qw = aw * bw - ax * bx - ay * by - az * bz;
+		return this;
+	}
+	
+	/**
+	 * dest = parent * child (child first), dest can be parent or child
+	 *   t = parent.t + parent.r * (parent.s * child.t)   r = parent.r * child.r   s = parent.s * child.s
+	 */
+	public static Transform mul(Transform parent, Transform child, Transform dest) {
+		float px = parent.qx, py = parent.qy, pz = parent.qz, pw = parent.qw;
+		float cx = child.qx, cy = child.qy, cz = child.qz, cw = child.qw;
+		
+		// parent.r * (parent.s * child.t)
+		float vx = parent.sx * child.tx, vy = parent.sy * child.ty, vz = parent.sz * child.tz;
+		float ux = 2f * (py * vz - pz * vy);
+		float uy = 2f * (pz * vx - px * vz);
+		float uz = 2f * (px * vy - py * vx);
+		float rx = vx + pw * ux + (py * uz - pz * uy);
+		float ry = vy + pw * uy + (pz * ux - px * uz);
+		float rz = vz + pw * uz + (px * uy - py * ux);
+		
+		dest.tx = parent.tx + rx;
+		dest.ty = parent.ty + ry;
+		dest.tz = parent.tz + rz;
+		dest.qx = pw * cx + px * cw + py * cz - pz * cy;
+		dest.qy = pw * cy - px * cz + py * cw + pz * cx;
+		dest.qz = pw * cz + px * cy - py * cx + pz * cw;
+		dest.qw = pw * cw - px * cx - py * cy - pz * cz;
+		dest.sx = parent.sx * child.sx;
+		dest.sy = parent.sy * child.sy;
+		dest.sz = parent.sz * child.sz;
+		return dest;
+	}
+	
+	/**
+	 * dest = this^-1, dest can be this. The scale must not be 0
+	 *   r' = conjugate(r)   s' = 1 / s   t' = s' * (r' * -t)
+	 */
+	public Transform invert(Transform dest) {
+		float ix = -qx, iy = -qy, iz = -qz, iw = qw;
+		float isx = 1f / sx, isy = 1f / sy, isz = 1f / sz;
+		
+		float vx = -tx, vy = -ty, vz = -tz;
+		float ux = 2f * (iy * vz - iz * vy);
+		float uy = 2f * (iz * vx - ix * vz);
+		float uz = 2f * (ix * vy - iy * vx);
+		
+		dest.tx = (vx + iw * ux + (iy * uz - iz * uy)) * isx;
+		dest.ty = (vy + iw * uy + (iz * ux - ix * uz)) * isy;
+		dest.tz = (vz + iw * uz + (ix * uy - iy * ux)) * isz;
+		dest.qx = ix; dest.qy = iy; dest.qz = iz; dest.qw = iw;
+		dest.sx = isx; dest.sy = isy; dest.sz = isz;
+		return dest;
+	}
+	
+	/**
+	 * dest = M * (x, y, z, 1), dest can be p
+	 */
+	public V3f transformPoint(V3f p, V3f dest) {
+		float vx = p.x() * sx, vy = p.y() * sy, vz = p.z() * sz;
+		float ux = 2f * (qy * vz - qz * vy);
+		float uy = 2f * (qz * vx - qx * vz);
+		float uz = 2f * (qx * vy - qy * vx);
+		return dest.set(
+				vx + qw * ux + (qy * uz - qz * uy) + tx,
+				vy + qw * uy + (qz * ux - qx * uz) + ty,
+				vz + qw * uz + (qx * uy - qy * ux) + tz);
+	}
+	
+	/* *******************************
+	 * INTERPOLATION
+	 * *******************************/
+	
+	/**
+	 * Linear translation and scale, nlerp rotation. dest can be a or b
+	 */
+	public static Transform nlerp(Transform a, Transform b, float t, Transform dest) {
+		return interpolate(a, b, t, false, dest);
+	}
+	
+	/**
+	 * Linear translation and scale, slerp rotation. dest can be a or b
+	 */
+	public static Transform slerp(Transform a, Transform b, float t, Transform dest) {
+		return interpolate(a, b, t, true, dest);
+	}
+	
+	private static Transform interpolate(Transform a, Transform b, float t, boolean isSlerp, Transform dest) {
+		float cos = a.qx * b.qx + a.qy * b.qy + a.qz * b.qz + a.qw * b.qw;
+		float sign = ( cos < 0f ) ? -1f : 1f;
+		cos *= sign;
+		float wa = 1f - t;
+		float wb = t;
+		if ( isSlerp && cos <= 0.9995f ) {
+			// same weights as Quatf.slerp
+			double angle = Math.acos(cos);
+			double sin = Math.sin(angle);
+			wa = (float) (Math.sin((1.0 - t) * angle) / sin);
+			wb = (float) (Math.sin(t * angle) / sin);
+		}
+		wb *= sign;
+		float qx = wa * a.qx + wb * b.qx;
+		float qy = wa * a.qy + wb * b.qy;
+		float qz = wa * a.qz + wb * b.qz;
+		float qw = wa * a.qw + wb * b.qw;
+		float inv = 1f / (float) Math.sqrt(qx * qx + qy * qy + qz * qz + qw * qw);		// exact for slerp, needed for nlerp
+		
+		dest.tx = a.tx + (b.tx - a.tx) * t;
+		dest.ty = a.ty + (b.ty - a.ty) * t;
+		dest.tz = a.tz + (b.tz - a.tz) * t;
+		dest.qx = qx * inv; dest.qy = qy * inv; dest.qz = qz * inv; dest.qw = qw * inv;
+		dest.sx = a.sx + (b.sx - a.sx) * t;
+		dest.sy = a.sy + (b.sy - a.sy) * t;
+		dest.sz = a.sz + (b.sz - a.sz) * t;
+		return dest;
+	}
+
+}
@@ -29,6 +29,7 @@ import java.util.Arrays;
  * [3] [2017-08-07] added getFloats function
  * [4] [2018-08-13] bug corrected in function PreMultiplyMat4
  * [5] [2020-10-14] refactor 
+ * [6] [2026-10-17] allocation free getFloats(dst, offset), FloatBuffer get, fma
  * 
  * REFERENCES:
  * https://github.com/toji/gl-matrix
@@ -117,6 +118,26 @@ public class V3f {
 		return(new float[] { this.x, this.y, this.z });
 	}
 	
+	public float[] getFloats(float[] dst, int offset) {
+		// NO ALLOCATION, copy into the caller array (glUniform3fv)
+		dst[offset] = this.x;
+		dst[offset + 1] = this.y;
+		dst[offset + 2] = this.z;
+		return(dst);
+	}
+	
+	public FloatBuffer get(FloatBuffer buffer) {
+		// Absolute put at the current position, the position of the buffer is not modified
+		return(get(buffer.position(), buffer));
+	}
+	
+	public FloatBuffer get(int index, FloatBuffer buffer) {
+		buffer.put(index, this.x);
+		buffer.put(index + 1, this.y);
+		buffer.put(index + 2, this.z);
+		return(buffer);
+	}
+	
 	/* ********************************
 	 * Setters 
 	 * ********************************/
@@ -232,6 +253,15 @@ public class V3f {
 		return(this);
 	}
 	
+	public V3f fma(float scalar, V3f that) {
+		// this + scalar * that, without the temporary that.clone().scale(scalar)
+		this.x += scalar * that.x;
+		this.y += scalar * that.y;
+		this.z += scalar * that.z;
+
+		return(this);
+	}
+	
 	public float magnitude() {
 		return((float) Math.sqrt(this.x*this.x + this.y*this.y + this.z*this.z));
 	}
@@ -0,0 +1,82 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libOBJ;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * Index (element) buffers with the smallest index type:
+ *   ShortBuffer  meshes with fewer than 65536 vertices   GL_UNSIGNED_SHORT, 2 bytes per index
+ *   IntBuffer    bigger meshes                            GL_UNSIGNED_INT,   4 bytes per index
+ * The short indices are unsigned, 0xFFFF is never used so it stays free for primitive restart.
+ */
+public class ElementBuffers {
+
+	public static final int MAX_SHORT_VERTICES = 65535;
+
+	public static boolean isShort(int nVertices) {
+		return nVertices <= MAX_SHORT_VERTICES;
+	}
+
+	/**
+	 * Direct buffer in native order, ready for glBufferData
+	 */
+	public static Buffer create(int[] indices, int nVertices) {
+		if ( isShort(nVertices) ) {
+			ShortBuffer sb = ByteBuffer.allocateDirect(indices.length * Short.BYTES).order(ByteOrder.nativeOrder()).asShortBuffer();
+			for (int index : indices) {
+				sb.put((short) index);
+			}
+			sb.flip();
+			return sb;
+		}
+		IntBuffer ib = ByteBuffer.allocateDirect(indices.length * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+		ib.put(indices);
+		ib.flip();
+		return ib;
+	}
+
+	public static int getBytesPerIndex(Buffer elements) {
+		return ( elements instanceof ShortBuffer ) ? Short.BYTES : Integer.BYTES;
+	}
+
+	/**
+	 * New view (own position and limit) of the same memory
+	 */
+	public static Buffer duplicate(Buffer elements) {
+		if ( elements instanceof ShortBuffer ) {
+			return ((ShortBuffer) elements).duplicate();
+		}
+		return ((IntBuffer) elements).duplicate();
+	}
+
+	public static int[] toArray(Buffer elements) {
+		int[] indices = new int[elements.remaining()];
+		if ( elements instanceof ShortBuffer ) {
+			ShortBuffer sb = ((ShortBuffer) elements).duplicate();
+			for (int i = 0; i < indices.length; i++) {
+				indices[i] = sb.get() & 0xffff;
+			}
+		} else {
+			((IntBuffer) elements).duplicate().get(indices);
+		}
+		return indices;
+	}
+
+}
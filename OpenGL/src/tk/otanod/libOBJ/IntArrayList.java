@@ -0,0 +1,68 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libOBJ;
+
+import java.util.Arrays;
+
+/**
+ * Growable int[] without boxing, used by the OBJ parser instead of List<Integer>
+ */
+class IntArrayList {
+
+	private int[] data;
+	private int size;
+
+	IntArrayList(int initialCapacity) {
+		this.data = new int[Math.max(initialCapacity, 16)];
+		this.size = 0;
+	}
+
+	void add(int value) {
+		if ( this.size == this.data.length ) {
+			grow(this.size + 1);
+		}
+		this.data[this.size++] = value;
+	}
+
+	void addAll(IntArrayList that) {
+		if ( this.size + that.size > this.data.length ) {
+			grow(this.size + that.size);
+		}
+		System.arraycopy(that.data, 0, this.data, this.size, that.size);
+		this.size += that.size;
+	}
+
+	int get(int index) {
+		return this.data[index];
+	}
+
+	void set(int index, int value) {
+		this.data[index] = value;
+	}
+
+	int size() {
+		return this.size;
+	}
+
+	int[] toArray() {
+		return Arrays.copyOf(this.data, this.size);
+	}
+
+	private void grow(int minCapacity) {
+		int newCapacity = Math.max(minCapacity, this.data.length + (this.data.length >> 1));		// x1.5 like ArrayList
+		this.data = Arrays.copyOf(this.data, newCapacity);
+	}
+
+}
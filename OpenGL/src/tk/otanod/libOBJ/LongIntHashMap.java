@@ -0,0 +1,121 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libOBJ;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing (linear probing) hash map from non negative long keys to int values.
+ * Two primitive arrays, no Entry objects and no boxing.
+ */
+class LongIntHashMap {
+
+	static final int NOT_FOUND = -1;
+	private static final long EMPTY = -1L;						// keys are always >= 0
+	private static final float LOAD_FACTOR = 0.5f;
+
+	private long[] keys;
+	private int[] values;
+	private int mask;
+	private int size;
+
+	LongIntHashMap(int expectedSize) {
+		int capacity = 16;
+		while ( capacity < (1 << 30) && capacity * LOAD_FACTOR < expectedSize ) {
+			capacity <<= 1;
+		}
+		allocate(capacity);
+	}
+
+	int size() {
+		return this.size;
+	}
+
+	int get(long key) {
+		int slot = hash(key) & this.mask;
+		while ( this.keys[slot] != EMPTY ) {
+			if ( this.keys[slot] == key ) {
+				return this.values[slot];
+			}
+			slot = (slot + 1) & this.mask;
+		}
+		return NOT_FOUND;
+	}
+
+	/**
+	 * Stores the value, replacing the previous one
+	 */
+	void put(long key, int value) {
+		int slot = hash(key) & this.mask;
+		while ( this.keys[slot] != EMPTY ) {
+			if ( this.keys[slot] == key ) {
+				this.values[slot] = value;
+				return;
+			}
+			slot = (slot + 1) & this.mask;
+		}
+		putIfAbsent(key, value);
+	}
+
+	/**
+	 * Returns the value already stored for the key, or stores the new value and returns NOT_FOUND
+	 */
+	int putIfAbsent(long key, int value) {
+		int slot = hash(key) & this.mask;
+		while ( this.keys[slot] != EMPTY ) {
+			if ( this.keys[slot] == key ) {
+				return this.values[slot];
+			}
+			slot = (slot + 1) & this.mask;
+		}
+		this.keys[slot] = key;
+		this.values[slot] = value;
+		this.size++;
+		if ( this.size > this.keys.length * LOAD_FACTOR ) {
+			rehash(this.keys.length * 2);
+		}
+		return NOT_FOUND;
+	}
+
+	private void allocate(int capacity) {
+		this.keys = new long[capacity];
+		this.values = new int[capacity];
+		this.mask = capacity - 1;
+		Arrays.fill(this.keys, EMPTY);
+	}
+
+	private void rehash(int capacity) {
+		long[] oldKeys = this.keys;
+		int[] oldValues = this.values;
+		allocate(capacity);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if ( oldKeys[i] != EMPTY ) {
+				int slot = hash(oldKeys[i]) & this.mask;
+				while ( this.keys[slot] != EMPTY ) {
+					slot = (slot + 1) & this.mask;
+				}
+				this.keys[slot] = oldKeys[i];
+				this.values[slot] = oldValues[i];
+			}
+		}
+	}
+
+	private static int hash(long key) {
+		// Fibonacci hashing, the high bits are well mixed
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+}
@@ -0,0 +1,59 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libOBJ;
+
+/**
+ * One level of detail built by MeshSimplifier
+ */
+public class MeshLOD {
+
+	private RawOBJ model;
+	private float targetRatio;			// requested triangles / original triangles
+	private float ratio;				// reached triangles / original triangles (locked borders and seams may stop it earlier)
+	private float error;				// max distance from the original vertices to the simplified surface, model units
+
+	public MeshLOD(RawOBJ model, float targetRatio, float ratio, float error) {
+		this.model = model;
+		this.targetRatio = targetRatio;
+		this.ratio = ratio;
+		this.error = error;
+	}
+
+	public RawOBJ getModel() {
+		return model;
+	}
+
+	public float getTargetRatio() {
+		return targetRatio;
+	}
+
+	public float getRatio() {
+		return ratio;
+	}
+
+	public float getError() {
+		return error;
+	}
+
+	public int getTriangles() {
+		return model.getnElements() / 3;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("LOD target %.3f reached %.3f (%d triangles) error %.5f", targetRatio, ratio, getTriangles(), error);
+	}
+
+}
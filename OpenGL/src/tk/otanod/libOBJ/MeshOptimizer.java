@@ -0,0 +1,308 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libOBJ;
+
+import java.util.Arrays;
+
+/**
+ * Index and vertex reordering of indexed triangle lists, done once at load time.
+ *
+ *   1. optimizeVertexCache: triangle order for the GPU post-transform vertex cache
+ *      (Tom Forsyth, "Linear-Speed Vertex Cache Optimisation", 2006)
+ *   2. getVertexFetchRemap: vertices sorted by first use in the new index order, so the vertex fetch reads memory linearly
+ *
+ * The results are measured with a FIFO cache simulation:
+ *   ACMR  average cache miss ratio = transformed vertices / triangles        (0.5 is the best for a big regular grid, 3 the worst)
+ *   ATVR  average transformed vertex ratio = transformed vertices / vertices (1.0 is the best)
+ */
+public class MeshOptimizer {
+
+	public static final int FIFO_CACHE_SIZE = 16;							// cache simulated by getACMR / getATVR
+
+	// Forsyth scoring, LRU cache model
+	private static final int CACHE_SIZE = 32;
+	private static final float CACHE_DECAY_POWER = 1.5f;
+	private static final float LAST_TRIANGLE_SCORE = 0.75f;
+	private static final float VALENCE_BOOST_SCALE = 2.0f;
+	private static final float VALENCE_BOOST_POWER = 0.5f;
+	private static final int MAX_VALENCE_TABLE = 64;
+
+	// Math.pow is too slow for the inner loop, the scores are tabulated
+	private static final float[] CACHE_SCORE = new float[CACHE_SIZE];
+	private static final float[] VALENCE_SCORE = new float[MAX_VALENCE_TABLE];
+	static {
+		for (int i = 0; i < CACHE_SIZE; i++) {
+			// used by the last triangle: fixed score so the strips do not go backwards
+			CACHE_SCORE[i] = ( i < 3 ) ? LAST_TRIANGLE_SCORE : (float) Math.pow(1.0f - (i - 3) * (1.0f / (CACHE_SIZE - 3)), CACHE_DECAY_POWER);
+		}
+		for (int i = 1; i < MAX_VALENCE_TABLE; i++) {
+			// vertices with few triangles left go first, so they are not left alone at the end
+			VALENCE_SCORE[i] = VALENCE_BOOST_SCALE * (float) Math.pow(i, -VALENCE_BOOST_POWER);
+		}
+	}
+
+	/************************
+	 *	RAW OBJ
+	 ************************/
+
+	/**
+	 * Returns a new RawOBJ with the triangles in vertex cache order and the vertices in fetch order.
+	 * Same triangles, same winding, same vertex attributes.
+	 */
+	public static RawOBJ optimize(RawOBJ model) {
+		int nVertices = model.getPositions().length / 3;
+		int[] indices = model.getIndices();
+
+		indices = optimizeVertexCache(indices, nVertices);
+		int[] remap = getVertexFetchRemap(indices, nVertices);
+		indices = remapIndices(indices, remap);
+		float[] positions = remapVertices(model.getPositions(), 3, remap);
+		float[] textureCoords = remapVertices(model.getTextureCoords(), 2, remap);
+		float[] normals = remapVertices(model.getNormals(), 3, remap);
+
+		return new RawOBJ(model.getnElements(), positions, textureCoords, normals, indices);
+	}
+
+	public static String getStats(int[] indices, int nVertices) {
+		return String.format("ACMR %.3f ATVR %.3f", getACMR(indices, nVertices, FIFO_CACHE_SIZE), getATVR(indices, nVertices, FIFO_CACHE_SIZE));
+	}
+
+	/************************
+	 *	VERTEX CACHE
+	 ************************/
+
+	/**
+	 * Returns the triangles of the indexed triangle list in a vertex cache friendly order.
+	 * Each triangle keeps its 3 indices in the same order (same winding).
+	 */
+	public static int[] optimizeVertexCache(int[] indices, int nVertices) {
+		int nTriangles = indices.length / 3;
+		int[] result = new int[nTriangles * 3];
+
+		// Step 1 - triangles of each vertex (CSR lists), live[v] = triangles of v still not emitted
+		int[] live = new int[nVertices];
+		for (int i = 0; i < nTriangles * 3; i++) {
+			live[indices[i]]++;
+		}
+		int[] offsets = new int[nVertices + 1];
+		for (int v = 0; v < nVertices; v++) {
+			offsets[v + 1] = offsets[v] + live[v];
+		}
+		int[] adjacency = new int[nTriangles * 3];
+		int[] fill = Arrays.copyOf(offsets, nVertices);
+		for (int i = 0; i < nTriangles * 3; i++) {
+			adjacency[fill[indices[i]]++] = i / 3;
+		}
+
+		// Step 2 - initial scores, nothing is in the cache
+		int[] cachePosition = new int[nVertices];
+		Arrays.fill(cachePosition, -1);
+		float[] vertexScore = new float[nVertices];
+		for (int v = 0; v < nVertices; v++) {
+			vertexScore[v] = getVertexScore(-1, live[v]);
+		}
+		float[] triangleScore = new float[nTriangles];
+		boolean[] isEmitted = new boolean[nTriangles];
+		int bestTriangle = -1;
+		float bestScore = -1f;
+		for (int t = 0; t < nTriangles; t++) {
+			triangleScore[t] = vertexScore[indices[t * 3]] + vertexScore[indices[t * 3 + 1]] + vertexScore[indices[t * 3 + 2]];
+			if ( triangleScore[t] > bestScore ) {
+				bestScore = triangleScore[t];
+				bestTriangle = t;
+			}
+		}
+
+		// Step 3 - emit the best triangle, update the cache and the scores of the vertices around it
+		int[] cache = new int[CACHE_SIZE + 3];
+		int[] newCache = new int[CACHE_SIZE + 3];
+		int cacheCount = 0;
+		int cursor = 0;
+		for (int n = 0; n < nTriangles; n++) {
+			if ( bestTriangle < 0 ) {
+				// nothing useful in the cache, take the next triangle in the original order
+				while ( isEmitted[cursor] ) {
+					cursor++;
+				}
+				bestTriangle = cursor;
+			}
+			int t = bestTriangle;
+			isEmitted[t] = true;
+			int newCount = 0;
+			for (int k = 0; k < 3; k++) {
+				int v = indices[t * 3 + k];
+				result[n * 3 + k] = v;
+				removeTriangle(adjacency, offsets[v], live[v], t);
+				live[v]--;
+				if ( !contains(newCache, newCount, v) ) {
+					newCache[newCount++] = v;
+				}
+			}
+			// LRU: the vertices of the triangle go to the front
+			int nTriangleVertices = newCount;
+			for (int i = 0; i < cacheCount; i++) {
+				int v = cache[i];
+				if ( !contains(newCache, nTriangleVertices, v) ) {
+					newCache[newCount++] = v;
+				}
+			}
+
+			// new scores, the vertices pushed out of the cache included
+			for (int i = 0; i < newCount; i++) {
+				int v = newCache[i];
+				cachePosition[v] = ( i < CACHE_SIZE ) ? i : -1;
+				float score = getVertexScore(cachePosition[v], live[v]);
+				float delta = score - vertexScore[v];
+				vertexScore[v] = score;
+				for (int a = offsets[v]; a < offsets[v] + live[v]; a++) {
+					triangleScore[adjacency[a]] += delta;
+				}
+			}
+
+			// best candidate among the triangles of the cached vertices
+			bestTriangle = -1;
+			bestScore = -1f;
+			cacheCount = Math.min(newCount, CACHE_SIZE);
+			for (int i = 0; i < cacheCount; i++) {
+				int v = newCache[i];
+				for (int a = offsets[v]; a < offsets[v] + live[v]; a++) {
+					int candidate = adjacency[a];
+					if ( triangleScore[candidate] > bestScore ) {
+						bestScore = triangleScore[candidate];
+						bestTriangle = candidate;
+					}
+				}
+			}
+			int[] swap = cache;
+			cache = newCache;
+			newCache = swap;
+		}
+
+		return result;
+	}
+
+	private static float getVertexScore(int cachePosition, int liveTriangles) {
+		if ( liveTriangles == 0 ) {
+			return -1f;														// no triangles left, never pick it
+		}
+		float score = ( cachePosition >= 0 ) ? CACHE_SCORE[cachePosition] : 0f;
+		if ( liveTriangles < MAX_VALENCE_TABLE ) {
+			score += VALENCE_SCORE[liveTriangles];
+		} else {
+			score += VALENCE_BOOST_SCALE * (float) Math.pow(liveTriangles, -VALENCE_BOOST_POWER);
+		}
+		return score;
+	}
+
+	private static void removeTriangle(int[] adjacency, int start, int count, int triangle) {
+		for (int a = start; a < start + count; a++) {
+			if ( adjacency[a] == triangle ) {
+				adjacency[a] = adjacency[start + count - 1];
+				adjacency[start + count - 1] = triangle;
+				return;
+			}
+		}
+	}
+
+	private static boolean contains(int[] array, int count, int value) {
+		for (int i = 0; i < count; i++) {
+			if ( array[i] == value ) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/************************
+	 *	VERTEX FETCH
+	 ************************/
+
+	/**
+	 * remap[oldVertex] = newVertex, the vertices are numbered in order of first use by the indices.
+	 * Vertices not used by any triangle go to the end, in their original order.
+	 */
+	public static int[] getVertexFetchRemap(int[] indices, int nVertices) {
+		int[] remap = new int[nVertices];
+		Arrays.fill(remap, -1);
+		int next = 0;
+		for (int index : indices) {
+			if ( remap[index] < 0 ) {
+				remap[index] = next++;
+			}
+		}
+		for (int v = 0; v < nVertices; v++) {
+			if ( remap[v] < 0 ) {
+				remap[v] = next++;
+			}
+		}
+		return remap;
+	}
+
+	public static int[] remapIndices(int[] indices, int[] remap) {
+		int[] result = new int[indices.length];
+		for (int i = 0; i < indices.length; i++) {
+			result[i] = remap[indices[i]];
+		}
+		return result;
+	}
+
+	public static float[] remapVertices(float[] data, int componentsPerVertex, int[] remap) {
+		float[] result = new float[data.length];
+		for (int v = 0; v < remap.length; v++) {
+			System.arraycopy(data, v * componentsPerVertex, result, remap[v] * componentsPerVertex, componentsPerVertex);
+		}
+		return result;
+	}
+
+	/************************
+	 *	ANALYSIS
+	 ************************/
+
+	public static float getACMR(int[] indices, int nVertices, int cacheSize) {
+		int nTriangles = indices.length / 3;
+		return ( nTriangles == 0 ) ? 0f : (float) getCacheMisses(indices, nVertices, cacheSize) / nTriangles;
+	}
+
+	public static float getATVR(int[] indices, int nVertices, int cacheSize) {
+		boolean[] isUsed = new boolean[nVertices];
+		int nUsed = 0;
+		for (int index : indices) {
+			if ( !isUsed[index] ) {
+				isUsed[index] = true;
+				nUsed++;
+			}
+		}
+		return ( nUsed == 0 ) ? 0f : (float) getCacheMisses(indices, nVertices, cacheSize) / nUsed;
+	}
+
+	private static int getCacheMisses(int[] indices, int nVertices, int cacheSize) {
+		// FIFO: a vertex is in the cache when less than cacheSize vertices were loaded after it
+		int[] loadedAt = new int[nVertices];
+		Arrays.fill(loadedAt, -cacheSize - 1);
+		int misses = 0;
+		for (int index : indices) {
+			if ( misses - loadedAt[index] >= cacheSize ) {
+				misses++;
+				loadedAt[index] = misses;
+			}
+		}
+		return misses;
+	}
+
+	private static void debug(String tag, String msg) {
+		//System.out.println(">>> DEBUG >>> " + tag + " >>> " + msg);
+	}
+
+}
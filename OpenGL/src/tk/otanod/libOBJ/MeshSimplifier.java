@@ -0,0 +1,785 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libOBJ;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Mesh simplification with quadric error metrics (Garland & Heckbert 1997) and half edge collapses:
+ * a position is removed by moving it onto one of its neighbours, so the LODs only use positions,
+ * texture coordinates and normals of the original model.
+ *
+ * Each triangle corner keeps 3 references: its position group (vertices with the same position),
+ * the vertex of its texture coordinates and the vertex of its normal. Kind of each position group:
+ *   MANIFOLD  collapses onto any neighbour
+ *   BORDER    on the open edge of the mesh (grass and fern cards), it only collapses along the border
+ *   LOCKED    non manifold or border corner, never removed
+ * The topology is welded by position, UV seams (different texture coordinates around a position) do not
+ * lock it: each side of the moved position takes the texture coordinates of the same side of its
+ * neighbour, a side without one (across the seam) takes the nearest texture coordinates of the neighbour.
+ * The UV distance a corner moves that way adds up, a collapse is rejected when a corner goes over
+ * maxUVError (texture space). Borders and UV seams also get edge quadrics that keep them in place.
+ * Hard edges (normal seams) do not restrict the collapses, each corner keeps its normal unless it is
+ * on the smooth side of the collapsed edge.
+ *
+ * The LOD chain is built offline (or at load time), no renderer selects the LODs yet.
+ */
+public class MeshSimplifier {
+
+	public static final float[] DEFAULT_LOD_RATIOS = new float[] { 1.0f, 0.5f, 0.25f, 0.125f };
+	public static final float DEFAULT_MAX_UV_ERROR = 1f / 8f;				// texture space, 64 texels of a 512 x 512 atlas (colour blocks of 170+ texels)
+
+	private static final int MANIFOLD = 0;
+	private static final int BORDER = 1;
+	private static final int LOCKED = 2;
+	private static final double EDGE_WEIGHT = 10.0;							// borders and seams are 10 times more expensive to move
+
+	/************************
+	 *	LOD CHAIN
+	 ************************/
+
+	public static List<MeshLOD> buildLODChain(RawOBJ model) {
+		return buildLODChain(model, DEFAULT_LOD_RATIOS);
+	}
+
+	public static List<MeshLOD> buildLODChain(RawOBJ model, float[] ratios) {
+		return buildLODChain(model, ratios, DEFAULT_MAX_UV_ERROR);
+	}
+
+	/**
+	 * One LOD for each target ratio of triangles, each one simplified from the original model
+	 * and measured against it. A ratio of 1 keeps the original model.
+	 */
+	public static List<MeshLOD> buildLODChain(RawOBJ model, float[] ratios, float maxUVError) {
+		List<MeshLOD> chain = new ArrayList<>();
+		for (float ratio : ratios) {
+			RawOBJ lod = ( ratio >= 1.0f ) ? model : simplify(model, ratio, maxUVError);
+			float reached = (float) lod.getnElements() / model.getnElements();
+			float error = ( lod == model ) ? 0f : getError(model, lod);
+			MeshLOD level = new MeshLOD(lod, ratio, reached, error);
+			debug("MeshSimplifier", level.toString());
+			chain.add(level);
+		}
+		return chain;
+	}
+
+	/************************
+	 *	SIMPLIFICATION
+	 ************************/
+
+	public static RawOBJ simplify(RawOBJ model, float targetRatio) {
+		return simplify(model, targetRatio, DEFAULT_MAX_UV_ERROR);
+	}
+
+	/**
+	 * Collapses the cheapest edges until the model has targetRatio of its triangles,
+	 * or no edge can be collapsed without removing a locked position, folding a triangle
+	 * or moving texture coordinates more than maxUVError across a seam.
+	 */
+	public static RawOBJ simplify(RawOBJ model, float targetRatio, float maxUVError) {
+		float[] positions = model.getPositions();
+		int[] indices = model.getIndices();
+		int nVertices = positions.length / 3;
+		int nTriangles = indices.length / 3;
+		int target = Math.max(1, Math.round(nTriangles * targetRatio));
+
+		// Step 1 - vertices with the same position / same position and texture coordinates / same normal
+		//          group id = first vertex of the group
+		int[] group = getGroups(nVertices, (v1, v2) -> compare(positions, 3, v1, v2));
+		int[] uvGroup = getGroups(nVertices, (v1, v2) -> {
+			int c = compare(positions, 3, v1, v2);
+			return ( c != 0 ) ? c : compare(model.getTextureCoords(), 2, v1, v2);
+		});
+		int[] normalGroup = getGroups(nVertices, (v1, v2) -> compare(model.getNormals(), 3, v1, v2));
+
+		// Step 2 - the corners
+		int[] cornerGroup = new int[indices.length];
+		int[] cornerUV = new int[indices.length];
+		int[] cornerNormal = new int[indices.length];
+		for (int i = 0; i < indices.length; i++) {
+			cornerGroup[i] = group[indices[i]];
+			cornerUV[i] = uvGroup[indices[i]];
+			cornerNormal[i] = normalGroup[indices[i]];
+		}
+
+		// Step 3 - triangles around each group, the lists are updated lazily (dead or moved triangles are skipped)
+		IntArrayList[] groupTriangles = new IntArrayList[nVertices];
+		for (int t = 0; t < nTriangles; t++) {
+			for (int k = 0; k < 3; k++) {
+				int g = cornerGroup[t * 3 + k];
+				if ( groupTriangles[g] == null ) {
+					groupTriangles[g] = new IntArrayList(8);
+				}
+				groupTriangles[g].add(t);
+			}
+		}
+
+		// Step 4 - error quadric of each group: planes of the triangles around it weighted by area,
+		//          plus the planes that keep the borders and seams in place
+		double[] quadrics = new double[nVertices * 10];
+		for (int t = 0; t < nTriangles; t++) {
+			addTriangleQuadric(quadrics, positions, cornerGroup, t);
+		}
+		int[] kind = getKinds(quadrics, positions, cornerGroup, cornerUV);
+
+		// Step 5 - passes of collapses, cheapest first, each group at most once per pass
+		Mesh mesh = new Mesh(positions, model.getTextureCoords(), maxUVError, cornerGroup, cornerUV, cornerNormal, groupTriangles, new boolean[nTriangles]);
+		boolean[] isTouched = new boolean[nVertices];
+		int[] from = new int[nTriangles * 6];
+		int[] to = new int[nTriangles * 6];
+		long[] keys = new long[nTriangles * 6];
+		int alive = nTriangles;
+		while ( alive > target ) {
+			int nCandidates = 0;
+			for (int t = 0; t < nTriangles; t++) {
+				if ( mesh.isDead[t] ) {
+					continue;
+				}
+				for (int k = 0; k < 3; k++) {
+					int ga = cornerGroup[t * 3 + k];
+					int gb = cornerGroup[t * 3 + (k + 1) % 3];
+					if ( kind[ga] != LOCKED ) {
+						from[nCandidates] = ga;
+						to[nCandidates] = gb;
+						keys[nCandidates] = getKey(getCost(quadrics, ga, positions, gb), nCandidates);
+						nCandidates++;
+					}
+					if ( kind[gb] != LOCKED ) {
+						from[nCandidates] = gb;
+						to[nCandidates] = ga;
+						keys[nCandidates] = getKey(getCost(quadrics, gb, positions, ga), nCandidates);
+						nCandidates++;
+					}
+				}
+			}
+			Arrays.sort(keys, 0, nCandidates);
+
+			Arrays.fill(isTouched, false);
+			int nCollapses = 0;
+			for (int i = 0; i < nCandidates && alive > target; i++) {
+				int candidate = (int) keys[i];
+				int ga = from[candidate];
+				int gb = to[candidate];
+				if ( ga == gb || isTouched[ga] || isTouched[gb] ) {
+					continue;
+				}
+				int[] remap = mesh.getCollapse(ga, gb, kind[ga] == BORDER);
+				if ( remap == null ) {
+					continue;
+				}
+				// touch the whole fan, its triangles change shape
+				IntArrayList fan = groupTriangles[ga];
+				for (int j = 0; j < fan.size(); j++) {
+					int t = fan.get(j);
+					if ( mesh.isAround(t, ga) ) {
+						for (int k = 0; k < 3; k++) {
+							isTouched[cornerGroup[t * 3 + k]] = true;
+						}
+					}
+				}
+				alive -= mesh.collapse(ga, gb, remap);
+				for (int q = 0; q < 10; q++) {
+					quadrics[gb * 10 + q] += quadrics[ga * 10 + q];
+				}
+				nCollapses++;
+			}
+			if ( nCollapses == 0 ) {
+				break;											// everything left is locked or would fold
+			}
+		}
+
+		return compact(model, mesh);
+	}
+
+	private static int[] getGroups(int nVertices, Comparator<Integer> comparator) {
+		// sort the vertices, equal vertices end up together
+		Integer[] order = new Integer[nVertices];
+		for (int v = 0; v < nVertices; v++) {
+			order[v] = v;
+		}
+		Arrays.sort(order, comparator);
+		int[] group = new int[nVertices];
+		for (int i = 0; i < nVertices; i++) {
+			int v = order[i];
+			if ( i > 0 && comparator.compare(order[i - 1], v) == 0 ) {
+				group[v] = group[order[i - 1]];
+			} else {
+				group[v] = v;
+			}
+		}
+		return group;
+	}
+
+	private static int compare(float[] data, int components, int v1, int v2) {
+		for (int k = 0; k < components; k++) {
+			int c = Float.compare(data[v1 * components + k], data[v2 * components + k]);
+			if ( c != 0 ) {
+				return c;
+			}
+		}
+		return 0;
+	}
+
+	private static int[] getKinds(double[] quadrics, float[] positions, int[] cornerGroup, int[] cornerUV) {
+		int nVertices = positions.length / 3;
+		int nCorners = cornerGroup.length;
+
+		// Step 1 - triangles of each edge between groups, a UV seam when its triangles use other texture coordinates
+		LongIntHashMap edgeCount = new LongIntHashMap(nCorners);
+		LongIntHashMap edgeFirst = new LongIntHashMap(nCorners);			// first corner that used the edge
+		boolean[] isSeamEdge = new boolean[nCorners];
+		for (int i = 0; i < nCorners; i++) {
+			int j = next(i);
+			if ( cornerGroup[i] == cornerGroup[j] ) {
+				continue;
+			}
+			long key = getEdgeKey(cornerGroup[i], cornerGroup[j], nVertices);
+			int count = edgeCount.get(key);
+			edgeCount.put(key, ( count == LongIntHashMap.NOT_FOUND ) ? 1 : count + 1);
+			int first = edgeFirst.putIfAbsent(key, i);
+			if ( first != LongIntHashMap.NOT_FOUND ) {
+				int firstNext = next(first);
+				boolean isSameUV = ( cornerUV[first] == cornerUV[j] && cornerUV[firstNext] == cornerUV[i] )
+						|| ( cornerUV[first] == cornerUV[i] && cornerUV[firstNext] == cornerUV[j] );
+				if ( !isSameUV ) {
+					isSeamEdge[first] = true;
+					isSeamEdge[i] = true;
+				}
+			}
+		}
+
+		// Step 2 - kind of each group: border edges around it and non manifold edges
+		int[] borderEdges = new int[nVertices];
+		boolean[] isNonManifold = new boolean[nVertices];
+		for (int i = 0; i < nCorners; i++) {
+			int ga = cornerGroup[i];
+			int gb = cornerGroup[next(i)];
+			if ( ga == gb ) {
+				continue;
+			}
+			int count = edgeCount.get(getEdgeKey(ga, gb, nVertices));
+			if ( count == 1 ) {
+				borderEdges[ga]++;
+				borderEdges[gb]++;
+				addEdgeQuadric(quadrics, positions, cornerGroup, i);
+			} else if ( count > 2 ) {
+				isNonManifold[ga] = true;
+				isNonManifold[gb] = true;
+			} else if ( isSeamEdge[i] ) {
+				addEdgeQuadric(quadrics, positions, cornerGroup, i);
+			}
+		}
+		int[] kind = new int[nVertices];
+		for (int g = 0; g < nVertices; g++) {
+			if ( isNonManifold[g] || (borderEdges[g] != 0 && borderEdges[g] != 2) ) {
+				kind[g] = LOCKED;
+			} else if ( borderEdges[g] == 2 ) {
+				kind[g] = BORDER;
+			} else {
+				kind[g] = MANIFOLD;
+			}
+		}
+		return kind;
+	}
+
+	private static int next(int corner) {
+		return ( corner % 3 == 2 ) ? corner - 2 : corner + 1;
+	}
+
+	private static long getEdgeKey(int ga, int gb, int nVertices) {
+		return (long) Math.min(ga, gb) * nVertices + Math.max(ga, gb);
+	}
+
+	/**
+	 * Triangles being simplified, as corners (position group, texture coordinates vertex, normal vertex)
+	 */
+	private static class Mesh {
+
+		static final int REMAP = 5;												// uv of ga, uv of gb, normal of ga, normal of gb, UV error (float bits)
+
+		final float[] positions;
+		final float[] textureCoords;
+		final float maxUVError;
+		final int[] cornerGroup;
+		final int[] cornerUV;
+		final int[] cornerNormal;
+		final float[] cornerUVError;											// UV distance moved across seams, each corner
+		final IntArrayList[] groupTriangles;
+		final boolean[] isDead;
+
+		Mesh(float[] positions, float[] textureCoords, float maxUVError, int[] cornerGroup, int[] cornerUV, int[] cornerNormal, IntArrayList[] groupTriangles, boolean[] isDead) {
+			this.positions = positions;
+			this.textureCoords = textureCoords;
+			this.maxUVError = maxUVError;
+			this.cornerGroup = cornerGroup;
+			this.cornerUV = cornerUV;
+			this.cornerNormal = cornerNormal;
+			this.cornerUVError = new float[cornerGroup.length];
+			this.groupTriangles = groupTriangles;
+			this.isDead = isDead;
+		}
+
+		boolean isAround(int t, int g) {
+			return !isDead[t] && getCorner(t, g) >= 0;
+		}
+
+		int getCorner(int t, int g) {
+			for (int k = 0; k < 3; k++) {
+				if ( cornerGroup[t * 3 + k] == g ) {
+					return t * 3 + k;
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 * Checks the collapse of the group ga onto the group gb. Returns the texture coordinates remap
+		 * (REMAP ints for each side of ga), or null when it is not valid
+		 */
+		int[] getCollapse(int ga, int gb, boolean isBorder) {
+			IntArrayList fan = groupTriangles[ga];
+
+			// Step 1 - each side of ga goes to the vertex of gb used on the same side (the triangles of the edge)
+			IntArrayList remap = new IntArrayList(8);
+			int nEdgeTriangles = 0;
+			for (int j = 0; j < fan.size(); j++) {
+				int t = fan.get(j);
+				if ( !isAround(t, ga) || getCorner(t, gb) < 0 ) {
+					continue;
+				}
+				nEdgeTriangles++;
+				int a = getCorner(t, ga);
+				int b = getCorner(t, gb);
+				int i = getRemap(remap.toArray(), cornerUV[a]);
+				if ( i == -1 ) {
+					addRemap(remap, cornerUV[a], cornerUV[b], cornerNormal[a], cornerNormal[b], 0f);
+				} else if ( remap.get(i + 1) != cornerUV[b] ) {
+					// the edge is a seam on the side of gb only, the first side wins, the other one moves
+					float uvError = Math.max(Float.intBitsToFloat(remap.get(i + 4)), getUVDistance(remap.get(i + 1), cornerUV[b]));
+					remap.set(i + 4, Float.floatToIntBits(uvError));
+				}
+			}
+			if ( nEdgeTriangles == 0 || (isBorder && nEdgeTriangles != 1) ) {
+				return null;													// a border position only moves along the border
+			}
+
+			// Step 2 - link condition: ga and gb can only share the positions opposite to the edge, otherwise the mesh pinches
+			IntArrayList neighboursA = getNeighbourGroups(ga);
+			IntArrayList neighboursB = getNeighbourGroups(gb);
+			int nShared = 0;
+			for (int i = 0; i < neighboursA.size(); i++) {
+				int g = neighboursA.get(i);
+				if ( g != gb && contains(neighboursB, g) ) {
+					nShared++;
+				}
+			}
+			if ( nShared > nEdgeTriangles ) {
+				return null;
+			}
+
+			// Step 3 - every other triangle of the fan needs a side of gb and it may not flip (or become a line)
+			//          a side across a seam takes the nearest texture coordinates of gb, within maxUVError
+			IntArrayList uvsB = null;
+			for (int j = 0; j < fan.size(); j++) {
+				int t = fan.get(j);
+				if ( !isAround(t, ga) || getCorner(t, gb) >= 0 ) {
+					continue;
+				}
+				int a = getCorner(t, ga);
+				int i = getRemap(remap.toArray(), cornerUV[a]);
+				if ( i == -1 ) {
+					if ( uvsB == null ) {
+						uvsB = getTextureCoords(gb);
+					}
+					int nearest = -1;
+					float nearestDistance = Float.MAX_VALUE;
+					for (int k = 0; k < uvsB.size(); k++) {
+						float distance = getUVDistance(cornerUV[a], uvsB.get(k));
+						if ( distance < nearestDistance ) {
+							nearest = uvsB.get(k);
+							nearestDistance = distance;
+						}
+					}
+					i = remap.size();
+					addRemap(remap, cornerUV[a], nearest, cornerNormal[a], cornerNormal[a], nearestDistance);	// keeps its own normal
+				}
+				if ( cornerUVError[a] + Float.intBitsToFloat(remap.get(i + 4)) > maxUVError ) {
+					return null;
+				}
+				double[] before = getNormal(positions, cornerGroup, t, -1, -1);
+				double[] after = getNormal(positions, cornerGroup, t, ga, gb);
+				double dot = before[0] * after[0] + before[1] * after[1] + before[2] * after[2];
+				if ( dot <= 0.0 ) {
+					return null;
+				}
+			}
+			return remap.toArray();
+		}
+
+		int collapse(int ga, int gb, int[] remap) {
+			int removed = 0;
+			IntArrayList fan = groupTriangles[ga];
+			for (int j = 0; j < fan.size(); j++) {
+				int t = fan.get(j);
+				if ( !isAround(t, ga) ) {
+					continue;
+				}
+				if ( getCorner(t, gb) >= 0 ) {
+					// the triangles of the edge
+					isDead[t] = true;
+					removed++;
+				} else {
+					int a = getCorner(t, ga);
+					int i = getRemap(remap, cornerUV[a]);
+					// smooth side keeps being smooth, a hard edge keeps its own normal
+					if ( cornerNormal[a] == remap[i + 2] ) {
+						cornerNormal[a] = remap[i + 3];
+					}
+					cornerUV[a] = remap[i + 1];
+					cornerUVError[a] += Float.intBitsToFloat(remap[i + 4]);
+					cornerGroup[a] = gb;
+					groupTriangles[gb].add(t);
+				}
+			}
+			return removed;
+		}
+
+		private IntArrayList getNeighbourGroups(int g) {
+			IntArrayList neighbours = new IntArrayList(16);
+			IntArrayList fan = groupTriangles[g];
+			for (int j = 0; j < fan.size(); j++) {
+				int t = fan.get(j);
+				if ( !isAround(t, g) ) {
+					continue;
+				}
+				for (int k = 0; k < 3; k++) {
+					int n = cornerGroup[t * 3 + k];
+					if ( n != g && !contains(neighbours, n) ) {
+						neighbours.add(n);
+					}
+				}
+			}
+			return neighbours;
+		}
+
+		private IntArrayList getTextureCoords(int g) {
+			IntArrayList uvs = new IntArrayList(8);
+			IntArrayList fan = groupTriangles[g];
+			for (int j = 0; j < fan.size(); j++) {
+				int t = fan.get(j);
+				if ( isAround(t, g) && !contains(uvs, cornerUV[getCorner(t, g)]) ) {
+					uvs.add(cornerUV[getCorner(t, g)]);
+				}
+			}
+			return uvs;
+		}
+
+		private float getUVDistance(int uv1, int uv2) {
+			float du = textureCoords[uv1 * 2] - textureCoords[uv2 * 2];
+			float dv = textureCoords[uv1 * 2 + 1] - textureCoords[uv2 * 2 + 1];
+			return (float) Math.sqrt(du * du + dv * dv);
+		}
+
+		private static void addRemap(IntArrayList remap, int uvA, int uvB, int normalA, int normalB, float uvError) {
+			remap.add(uvA);
+			remap.add(uvB);
+			remap.add(normalA);
+			remap.add(normalB);
+			remap.add(Float.floatToIntBits(uvError));
+		}
+
+		private static int getRemap(int[] remap, int uv) {
+			for (int i = 0; i < remap.length; i += REMAP) {
+				if ( remap[i] == uv ) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		private static boolean contains(IntArrayList list, int value) {
+			for (int i = 0; i < list.size(); i++) {
+				if ( list.get(i) == value ) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+	}
+
+	private static double[] getNormal(float[] positions, int[] cornerGroup, int t, int replaced, int replacement) {
+		// the position of a group is the position of its first vertex (the group id)
+		double[][] p = new double[3][];
+		for (int k = 0; k < 3; k++) {
+			int g = cornerGroup[t * 3 + k];
+			if ( g == replaced ) {
+				g = replacement;
+			}
+			p[k] = new double[] { positions[g * 3], positions[g * 3 + 1], positions[g * 3 + 2] };
+		}
+		double ux = p[1][0] - p[0][0], uy = p[1][1] - p[0][1], uz = p[1][2] - p[0][2];
+		double vx = p[2][0] - p[0][0], vy = p[2][1] - p[0][1], vz = p[2][2] - p[0][2];
+		return new double[] { uy * vz - uz * vy, uz * vx - ux * vz, ux * vy - uy * vx };
+	}
+
+	/************************
+	 *	QUADRICS
+	 ************************/
+
+	private static void addTriangleQuadric(double[] quadrics, float[] positions, int[] cornerGroup, int t) {
+		double[] n = getNormal(positions, cornerGroup, t, -1, -1);
+		double length = Math.sqrt(n[0] * n[0] + n[1] * n[1] + n[2] * n[2]);
+		if ( length == 0.0 ) {
+			return;																// degenerate triangle, no plane
+		}
+		double area = 0.5 * length;
+		for (int k = 0; k < 3; k++) {
+			addPlane(quadrics, cornerGroup[t * 3 + k], n[0] / length, n[1] / length, n[2] / length, positions, cornerGroup[t * 3], area);
+		}
+	}
+
+	private static void addEdgeQuadric(double[] quadrics, float[] positions, int[] cornerGroup, int corner) {
+		// plane through the edge, perpendicular to its triangle
+		int ga = cornerGroup[corner];
+		int gb = cornerGroup[next(corner)];
+		double[] n = getNormal(positions, cornerGroup, corner / 3, -1, -1);
+		double ex = positions[gb * 3] - positions[ga * 3];
+		double ey = positions[gb * 3 + 1] - positions[ga * 3 + 1];
+		double ez = positions[gb * 3 + 2] - positions[ga * 3 + 2];
+		double px = ey * n[2] - ez * n[1];
+		double py = ez * n[0] - ex * n[2];
+		double pz = ex * n[1] - ey * n[0];
+		double length = Math.sqrt(px * px + py * py + pz * pz);
+		if ( length == 0.0 ) {
+			return;
+		}
+		double weight = EDGE_WEIGHT * (ex * ex + ey * ey + ez * ez);
+		addPlane(quadrics, ga, px / length, py / length, pz / length, positions, ga, weight);
+		addPlane(quadrics, gb, px / length, py / length, pz / length, positions, ga, weight);
+	}
+
+	private static void addPlane(double[] quadrics, int g, double a, double b, double c, float[] positions, int onPlane, double weight) {
+		// symmetric 4x4 matrix (a b c d)^T (a b c d), upper triangle
+		double d = -(a * positions[onPlane * 3] + b * positions[onPlane * 3 + 1] + c * positions[onPlane * 3 + 2]);
+		int o = g * 10;
+		quadrics[o] += weight * a * a;
+		quadrics[o + 1] += weight * a * b;
+		quadrics[o + 2] += weight * a * c;
+		quadrics[o + 3] += weight * a * d;
+		quadrics[o + 4] += weight * b * b;
+		quadrics[o + 5] += weight * b * c;
+		quadrics[o + 6] += weight * b * d;
+		quadrics[o + 7] += weight * c * c;
+		quadrics[o + 8] += weight * c * d;
+		quadrics[o + 9] += weight * d * d;
+	}
+
+	private static float getCost(double[] quadrics, int g, float[] positions, int v) {
+		// squared distances (weighted) from the position of v to the planes around g
+		double x = positions[v * 3];
+		double y = positions[v * 3 + 1];
+		double z = positions[v * 3 + 2];
+		int o = g * 10;
+		double cost = quadrics[o] * x * x + 2 * quadrics[o + 1] * x * y + 2 * quadrics[o + 2] * x * z + 2 * quadrics[o + 3] * x
+				+ quadrics[o + 4] * y * y + 2 * quadrics[o + 5] * y * z + 2 * quadrics[o + 6] * y
+				+ quadrics[o + 7] * z * z + 2 * quadrics[o + 8] * z
+				+ quadrics[o + 9];
+		return (float) Math.max(0.0, cost);										// rounding can make it slightly negative
+	}
+
+	private static long getKey(float cost, int candidate) {
+		// positive floats sort like their bits: cost in the high half, candidate in the low half
+		return ((long) Float.floatToIntBits(cost) << 32) | candidate;
+	}
+
+	/************************
+	 *	RESULT
+	 ************************/
+
+	private static RawOBJ compact(RawOBJ model, Mesh mesh) {
+		// weld the corners again: one vertex per (position, texture coordinates, normal) still used
+		float[] p = model.getPositions();
+		float[] uv = model.getTextureCoords();
+		float[] n = model.getNormals();
+		long nVertices = p.length / 3;
+		LongIntHashMap positionUVMap = new LongIntHashMap(mesh.cornerGroup.length);	// (g, u) ==> dense id
+		LongIntHashMap vertexMap = new LongIntHashMap(mesh.cornerGroup.length);		// (dense id, m) ==> vertex
+		FloatArrayList positions = new FloatArrayList(p.length);
+		FloatArrayList textureCoords = new FloatArrayList(uv.length);
+		FloatArrayList normals = new FloatArrayList(n.length);
+		IntArrayList indices = new IntArrayList(mesh.cornerGroup.length);
+		for (int t = 0; t < mesh.isDead.length; t++) {
+			if ( mesh.isDead[t] ) {
+				continue;
+			}
+			for (int i = t * 3; i < t * 3 + 3; i++) {
+				int g = mesh.cornerGroup[i];
+				int u = mesh.cornerUV[i];
+				int m = mesh.cornerNormal[i];
+				// two keys below nVertices^2 (< 2^62), one key (g, u, m) overflows a long from 2^21 vertices
+				int positionUV = positionUVMap.putIfAbsent(g * nVertices + u, positionUVMap.size());
+				if ( positionUV == LongIntHashMap.NOT_FOUND ) {
+					positionUV = positionUVMap.size() - 1;
+				}
+				long key = positionUV * nVertices + m;
+				int vertex = vertexMap.putIfAbsent(key, vertexMap.size());
+				if ( vertex == LongIntHashMap.NOT_FOUND ) {
+					vertex = vertexMap.size() - 1;
+					positions.add(p[g * 3]);
+					positions.add(p[g * 3 + 1]);
+					positions.add(p[g * 3 + 2]);
+					textureCoords.add(uv[u * 2]);
+					textureCoords.add(uv[u * 2 + 1]);
+					normals.add(n[m * 3]);
+					normals.add(n[m * 3 + 1]);
+					normals.add(n[m * 3 + 2]);
+				}
+				indices.add(vertex);
+			}
+		}
+
+		// vertex cache order of the new triangles
+		int[] lodIndices = indices.toArray();
+		int nUsed = positions.size() / 3;
+		lodIndices = MeshOptimizer.optimizeVertexCache(lodIndices, nUsed);
+		int[] remap = MeshOptimizer.getVertexFetchRemap(lodIndices, nUsed);
+		return new RawOBJ(lodIndices.length,
+				MeshOptimizer.remapVertices(positions.toArray(), 3, remap),
+				MeshOptimizer.remapVertices(textureCoords.toArray(), 2, remap),
+				MeshOptimizer.remapVertices(normals.toArray(), 3, remap),
+				MeshOptimizer.remapIndices(lodIndices, remap));
+	}
+
+	/************************
+	 *	ERROR
+	 ************************/
+
+	/**
+	 * Geometric error of a LOD: max distance from the vertices of the original model to the triangles of the LOD.
+	 * Brute force (vertices x triangles), it is meant for the offline build of the LOD chain.
+	 */
+	public static float getError(RawOBJ original, RawOBJ lod) {
+		float[] p = original.getPositions();
+		float[] q = lod.getPositions();
+		int[] lodIndices = lod.getIndices();
+		int nTriangles = lodIndices.length / 3;
+
+		// bounding sphere of each triangle (centroid, radius), the far triangles are skipped
+		double[] spheres = new double[nTriangles * 4];
+		for (int t = 0; t < nTriangles; t++) {
+			for (int k = 0; k < 3; k++) {
+				int v = lodIndices[t * 3 + k];
+				spheres[t * 4] += q[v * 3] / 3.0;
+				spheres[t * 4 + 1] += q[v * 3 + 1] / 3.0;
+				spheres[t * 4 + 2] += q[v * 3 + 2] / 3.0;
+			}
+			for (int k = 0; k < 3; k++) {
+				int v = lodIndices[t * 3 + k];
+				double dx = q[v * 3] - spheres[t * 4], dy = q[v * 3 + 1] - spheres[t * 4 + 1], dz = q[v * 3 + 2] - spheres[t * 4 + 2];
+				spheres[t * 4 + 3] = Math.max(spheres[t * 4 + 3], Math.sqrt(dx * dx + dy * dy + dz * dz));
+			}
+		}
+
+		double maxDistance2 = 0.0;
+		double[] closest = new double[3];
+		for (int v = 0; v < p.length / 3; v++) {
+			double px = p[v * 3], py = p[v * 3 + 1], pz = p[v * 3 + 2];
+			double minDistance2 = Double.MAX_VALUE;
+			for (int t = 0; t < nTriangles && minDistance2 > 0.0; t++) {
+				double sx = px - spheres[t * 4], sy = py - spheres[t * 4 + 1], sz = pz - spheres[t * 4 + 2];
+				double toSphere = Math.sqrt(sx * sx + sy * sy + sz * sz) - spheres[t * 4 + 3];
+				if ( toSphere > 0.0 && toSphere * toSphere >= minDistance2 ) {
+					continue;
+				}
+				int a = lodIndices[t * 3];
+				int b = lodIndices[t * 3 + 1];
+				int c = lodIndices[t * 3 + 2];
+				getClosestPoint(px, py, pz,
+						q[a * 3], q[a * 3 + 1], q[a * 3 + 2],
+						q[b * 3], q[b * 3 + 1], q[b * 3 + 2],
+						q[c * 3], q[c * 3 + 1], q[c * 3 + 2], closest);
+				double dx = px - closest[0], dy = py - closest[1], dz = pz - closest[2];
+				minDistance2 = Math.min(minDistance2, dx * dx + dy * dy + dz * dz);
+			}
+			maxDistance2 = Math.max(maxDistance2, minDistance2);
+		}
+		return (float) Math.sqrt(maxDistance2);
+	}
+
+	private static void getClosestPoint(double px, double py, double pz,
+			double ax, double ay, double az, double bx, double by, double bz, double cx, double cy, double cz, double[] result) {
+		// Real-Time Collision Detection (C. Ericson) 5.1.5, closest point on triangle abc to point p
+		double abx = bx - ax, aby = by - ay, abz = bz - az;
+		double acx = cx - ax, acy = cy - ay, acz = cz - az;
+		double apx = px - ax, apy = py - ay, apz = pz - az;
+		double d1 = abx * apx + aby * apy + abz * apz;
+		double d2 = acx * apx + acy * apy + acz * apz;
+		if ( d1 <= 0.0 && d2 <= 0.0 ) {
+			set(result, ax, ay, az);												// vertex a
+			return;
+		}
+		double bpx = px - bx, bpy = py - by, bpz = pz - bz;
+		double d3 = abx * bpx + aby * bpy + abz * bpz;
+		double d4 = acx * bpx + acy * bpy + acz * bpz;
+		if ( d3 >= 0.0 && d4 <= d3 ) {
+			set(result, bx, by, bz);												// vertex b
+			return;
+		}
+		double vc = d1 * d4 - d3 * d2;
+		if ( vc <= 0.0 && d1 >= 0.0 && d3 <= 0.0 ) {
+			double v = d1 / (d1 - d3);
+			set(result, ax + v * abx, ay + v * aby, az + v * abz);					// edge ab
+			return;
+		}
+		double cpx = px - cx, cpy = py - cy, cpz = pz - cz;
+		double d5 = abx * cpx + aby * cpy + abz * cpz;
+		double d6 = acx * cpx + acy * cpy + acz * cpz;
+		if ( d6 >= 0.0 && d5 <= d6 ) {
+			set(result, cx, cy, cz);												// vertex c
+			return;
+		}
+		double vb = d5 * d2 - d1 * d6;
+		if ( vb <= 0.0 && d2 >= 0.0 && d6 <= 0.0 ) {
+			double w = d2 / (d2 - d6);
+			set(result, ax + w * acx, ay + w * acy, az + w * acz);					// edge ac
+			return;
+		}
+		double va = d3 * d6 - d5 * d4;
+		if ( va <= 0.0 && (d4 - d3) >= 0.0 && (d5 - d6) >= 0.0 ) {
+			double w = (d4 - d3) / ((d4 - d3) + (d5 - d6));
+			set(result, bx + w * (cx - bx), by + w * (cy - by), bz + w * (cz - bz));	// edge bc
+			return;
+		}
+		double denom = 1.0 / (va + vb + vc);
+		double v = vb * denom;
+		double w = vc * denom;
+		set(result, ax + abx * v + acx * w, ay + aby * v + acy * w, az + abz * v + acz * w);	// inside
+	}
+
+	private static void set(double[] result, double x, double y, double z) {
+		result[0] = x;
+		result[1] = y;
+		result[2] = z;
+	}
+
+	private static void debug(String tag, String msg) {
+		//System.out.println(">>> DEBUG >>> " + tag + " >>> " + msg);
+	}
+
+}
@@ -15,10 +15,21 @@ SOFTWARE.
 package tk.otanod.libOBJ;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
 import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import tk.otanod.libIO.TextFile;
 import tk.otanod.libMath.V2f;
@@ -26,9 +37,201 @@ import tk.otanod.libMath.V3f;
 
 public class OBJLoader {
 
+	private static final int READ_BUFFER_SIZE = 1 << 16;				// 64KB per FileChannel read
+	private static final long MIN_CHUNK_SIZE = 4L << 20;				// 4MB, smaller files are parsed by a single chunk
+	private static final long MAX_CHUNK_SIZE = 256L << 20;				// 256MB, each chunk is an independent mapping (< 2GB)
+
 	public static RawOBJ load(String fname) {
 		// https://en.wikipedia.org/wiki/Wavefront_.obj_file
 		
+		// Single pass: bytes from disk ==> primitive arrays, no String per line
+		OBJParser parser = parse(fname);
+		RawOBJ model = parser.build();
+		debug("OBJloader","loaded " + fname + getStats(parser, model));
+		
+		return model;
+	}
+	
+	static RawOBJ read(String fname) {
+		return parse(fname).build();
+	}
+	
+	/**
+	 * Same model as load(fname) optimized for the vertex cache (MeshOptimizer), through the binary cache
+	 * written next to the OBJ file (stall.obj ==> stall.rawobj).
+	 * The cache is memory mapped, the RawOBJ buffers can go straight to glBufferData.
+	 * It is rebuilt when the OBJ file changes (last modified time or size).
+	 */
+	public static RawOBJ loadCached(String fname) {
+		Path source = Paths.get(fname);
+		Path cache = RawOBJFile.getCachePath(source);
+		try {
+			RawOBJ model = RawOBJFile.map(source, cache);
+			if ( model != null ) {
+				debug("OBJloader","mapped " + cache + " with " + model.getnElements() + " vertices");
+				return model;
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		
+		RawOBJ model = MeshOptimizer.optimize(load(fname));
+		try {
+			RawOBJFile.write(model, source, cache);
+		} catch (IOException e) {
+			e.printStackTrace();							// read only folder, the model is still valid
+		}
+		
+		return model;
+	}
+	
+	private static OBJParser parse(String fname) {
+		OBJParser parser = null;
+		try ( FileChannel channel = FileChannel.open(Paths.get(fname), StandardOpenOption.READ) ) {
+			parser = new OBJParser(channel.size());
+			ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+			boolean isEOF = false;
+			while ( !isEOF ) {
+				isEOF = ( channel.read(buffer) < 0 );
+				int limit = buffer.position();
+				
+				// parse only complete lines, the last partial line is moved to the beginning of the buffer
+				int end = limit;
+				if ( !isEOF ) {
+					while ( end > 0 && buffer.get(end - 1) != '\n' ) {
+						end--;
+					}
+					if ( end == 0 ) {
+						if ( limit == buffer.capacity() ) {
+							// a line longer than the buffer
+							ByteBuffer bigger = ByteBuffer.allocate(buffer.capacity() * 2);
+							buffer.flip();
+							bigger.put(buffer);
+							buffer = bigger;
+						}
+						continue;
+					}
+				}
+				parser.parse(buffer, 0, end);
+				
+				buffer.limit(limit);
+				buffer.position(end);
+				buffer.compact();
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+			parser = new OBJParser(0);
+		}
+		
+		return parser;
+	}
+	
+	/**
+	 * Memory maps the file and parses line aligned chunks in parallel on the common ForkJoinPool.
+	 * The result is exactly the same RawOBJ as load(fname), it pays off for files of hundreds of MB.
+	 */
+	public static RawOBJ loadParallel(String fname) {
+		ForkJoinPool pool = ForkJoinPool.commonPool();
+		OBJParser parser = parseParallel(fname, pool, getChunkSize(fname, pool.getParallelism()));
+		RawOBJ model = parser.build();
+		debug("OBJloader","loaded " + fname + getStats(parser, model) + " (" + pool.getParallelism() + " threads)");
+		
+		return model;
+	}
+	
+	static RawOBJ readParallel(String fname, ForkJoinPool pool, long chunkSize) {
+		return parseParallel(fname, pool, chunkSize).build();
+	}
+	
+	private static OBJParser parseParallel(String fname, ForkJoinPool pool, long chunkSize) {
+		OBJParser parser = null;
+		try ( FileChannel channel = FileChannel.open(Paths.get(fname), StandardOpenOption.READ) ) {
+			// Step 1 - split the file in chunks that start at the beginning of a line
+			long size = channel.size();
+			List<Long> starts = new ArrayList<>();
+			long start = 0;
+			while ( start < size ) {
+				starts.add(start);
+				start = findNextLine(channel, start + chunkSize, size);
+			}
+			starts.add(size);
+			
+			// Step 2 - map and parse each chunk on its own thread
+			List<Callable<OBJParser>> tasks = new ArrayList<>();
+			for (int i = 0; i < starts.size() - 1; i++) {
+				final long chunkStart = starts.get(i);
+				final long chunkEnd = starts.get(i + 1);
+				tasks.add(() -> {
+					MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunkStart, chunkEnd - chunkStart);
+					OBJParser chunkParser = new OBJParser(chunkEnd - chunkStart);
+					chunkParser.parse(buffer, 0, buffer.limit());
+					return chunkParser;
+				});
+			}
+			List<Future<OBJParser>> results = pool.invokeAll(tasks);
+			
+			// Step 3 - stitch the primitive arrays of the chunks, in file order
+			OBJParser[] chunks = new OBJParser[results.size()];
+			for (int i = 0; i < chunks.length; i++) {
+				chunks[i] = results.get(i).get();
+			}
+			parser = OBJParser.merge(chunks);
+		} catch (IOException | ExecutionException e) {
+			e.printStackTrace();
+			parser = new OBJParser(0);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			parser = new OBJParser(0);
+		}
+		
+		return parser;
+	}
+	
+	private static String getStats(OBJParser parser, RawOBJ model) {
+		// vertices before welding: one per face corner, after welding: one per unique (v, vt, vn)
+		int nWelded = model.getPositions().length / 3;
+		return " with " + parser.getPositionCount() + " positions, "
+				+ model.getnElements() + " vertices ==> " + nWelded + " vertices after welding";
+	}
+	
+	private static long getChunkSize(String fname, int threads) {
+		long size = new File(fname).length();
+		long chunkSize = size / (threads * 4L);						// some chunks per thread to balance the work
+		return Math.max(MIN_CHUNK_SIZE, Math.min(MAX_CHUNK_SIZE, chunkSize));
+	}
+	
+	private static long findNextLine(FileChannel channel, long position, long size) throws IOException {
+		// returns the position after the first '\n' found at or after position
+		ByteBuffer window = ByteBuffer.allocate(4096);
+		while ( position < size ) {
+			window.clear();
+			int n = channel.read(window, position);
+			if ( n <= 0 ) {
+				break;
+			}
+			for (int i = 0; i < n; i++) {
+				if ( window.get(i) == '\n' ) {
+					return position + i + 1;
+				}
+			}
+			position += n;
+		}
+		return size;
+	}
+	
+	/**
+	 * Previous loader based on String.split, kept as reference for the tests and the benchmark
+	 */
+	public static RawOBJ loadText(String fname) {
+		RawOBJ model = readText(fname);
+		debug("OBJloader","loaded " + fname + " with " + model.getnElements() + " vertices");
+		
+		return model;
+	}
+	
+	static RawOBJ readText(String fname) {
+		// https://en.wikipedia.org/wiki/Wavefront_.obj_file
+		
 		// Step 1 - read the file from disk
 		String str = TextFile.readTextFile(fname);
 		
@@ -143,7 +346,6 @@ public class OBJLoader {
 		
 		// Step 5 - Create the RawOBJ
 		RawOBJ model = new RawOBJ(indicesArray.length, positionArray, textureArray, normalArray, indicesArray);
-		debug("OBJloader","loaded " + fname + " with " + indicesArray.length + " vertices");
 
 		return model;
 	}
@@ -0,0 +1,431 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libOBJ;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Byte level parser of the v, vt, vn and f records of a Wavefront OBJ file.
+ *
+ * It reads ASCII bytes straight from a ByteBuffer (no String per line, no split, no boxing)
+ * and appends the values to primitive growable arrays.
+ *
+ * Face corners are stored as 3 ints (position, texture, normal), 0-based:
+ *   >= 0   absolute index
+ *   -1     MISSING attribute (f 1//1, f 1/1, f 1)
+ *   <= -2  relative index (f -1/-1/-1) already resolved against the local counters: RELATIVE + local
+ *          it is solved when the chunks are merged, adding the offset of the chunk (0 for a single parser).
+ *          local can be negative when a chunk points to the elements of the previous chunks
+ */
+class OBJParser {
+
+	static final int MISSING = -1;
+	private static final int RELATIVE = Integer.MIN_VALUE / 2;
+
+	// float fast path: mantissa and power of ten are exact floats (10^10 = 2^10 * 5^10, 5^10 < 2^24),
+	// one float multiplication or division rounds once, same result as Float.parseFloat
+	private static final float[] POW10 = {
+			1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+	};
+	private static final long MAX_EXACT_MANTISSA = 1L << 24;
+	private static final int MAX_EXACT_DIGITS = 15;							// 10^15 < 2^63, mantissa is exact in the long
+
+	final FloatArrayList positions;
+	final FloatArrayList textureCoords;
+	final FloatArrayList normals;
+	final IntArrayList corners;
+
+	private int cursor;
+	private int[] faceScratch = new int[3 * 8];
+
+	OBJParser(long bytesHint) {
+		// ~30 bytes per line in the exported OBJ files
+		int linesHint = (int) Math.min(Integer.MAX_VALUE / 4, Math.max(16L, bytesHint / 30L));
+		this.positions = new FloatArrayList(linesHint);
+		this.textureCoords = new FloatArrayList(linesHint);
+		this.normals = new FloatArrayList(linesHint);
+		this.corners = new IntArrayList(linesHint * 2);
+	}
+
+	int getPositionCount() {
+		return this.positions.size() / 3;
+	}
+
+	int getTextureCoordCount() {
+		return this.textureCoords.size() / 2;
+	}
+
+	int getNormalCount() {
+		return this.normals.size() / 3;
+	}
+
+	/**
+	 * Parses all the records of the lines between start (included) and end (excluded).
+	 * start must be the beginning of a line, the last line may end without '\n'
+	 */
+	void parse(ByteBuffer buffer, int start, int end) {
+		this.cursor = start;
+		while ( this.cursor < end ) {
+			skipBlanks(buffer, end);
+			if ( this.cursor >= end ) {
+				break;
+			}
+			byte c0 = buffer.get(this.cursor);
+			byte c1 = (this.cursor + 1 < end) ? buffer.get(this.cursor + 1) : (byte) '\n';
+			if ( c0 == 'v' ) {
+				if ( isBlank(c1) ) {
+					// v 3.227124 -0.065127 -1.000000
+					this.cursor += 1;
+					this.positions.add(parseFloat(buffer, end));
+					this.positions.add(parseFloat(buffer, end));
+					this.positions.add(parseFloat(buffer, end));
+				} else if ( c1 == 't' ) {
+					// vt 0.921287 0.703296
+					this.cursor += 2;
+					this.textureCoords.add(parseFloat(buffer, end));
+					this.textureCoords.add(parseFloat(buffer, end));
+				} else if ( c1 == 'n' ) {
+					// vn -0.740379 -0.095126 -0.665365
+					this.cursor += 2;
+					this.normals.add(parseFloat(buffer, end));
+					this.normals.add(parseFloat(buffer, end));
+					this.normals.add(parseFloat(buffer, end));
+				}
+			} else if ( c0 == 'f' && isBlank(c1) ) {
+				// f 41/1/1 38/2/1 45/3/1
+				this.cursor += 1;
+				parseFace(buffer, end);
+			}
+			skipLine(buffer, end);												// comments, o, g, s, usemtl, mtllib, extra values, ...
+		}
+	}
+
+	private void parseFace(ByteBuffer buffer, int end) {
+		int n = 0;
+		while ( true ) {
+			skipBlanks(buffer, end);
+			if ( this.cursor >= end ) {
+				break;
+			}
+			byte c = buffer.get(this.cursor);
+			if ( c != '-' && (c < '0' || c > '9') ) {
+				break;															// '\n', '#' or garbage
+			}
+			if ( n * 3 + 3 > this.faceScratch.length ) {
+				this.faceScratch = Arrays.copyOf(this.faceScratch, this.faceScratch.length * 2);
+			}
+			// v, v/vt, v//vn, v/vt/vn
+			int position = resolve(parseInt(buffer, end), getPositionCount());
+			int texture = MISSING;
+			int normal = MISSING;
+			if ( this.cursor < end && buffer.get(this.cursor) == '/' ) {
+				this.cursor++;
+				if ( this.cursor < end && buffer.get(this.cursor) != '/' ) {
+					texture = resolve(parseInt(buffer, end), getTextureCoordCount());
+				}
+				if ( this.cursor < end && buffer.get(this.cursor) == '/' ) {
+					this.cursor++;
+					normal = resolve(parseInt(buffer, end), getNormalCount());
+				}
+			}
+			this.faceScratch[n * 3 + 0] = position;
+			this.faceScratch[n * 3 + 1] = texture;
+			this.faceScratch[n * 3 + 2] = normal;
+			n++;
+		}
+		// Triangle fan for polygons: (0,1,2) (0,2,3) ...
+		for (int i = 1; i + 1 < n; i++) {
+			addCorner(0);
+			addCorner(i);
+			addCorner(i + 1);
+		}
+	}
+
+	private void addCorner(int scratchIndex) {
+		this.corners.add(this.faceScratch[scratchIndex * 3 + 0]);
+		this.corners.add(this.faceScratch[scratchIndex * 3 + 1]);
+		this.corners.add(this.faceScratch[scratchIndex * 3 + 2]);
+	}
+
+	private static int resolve(int objIndex, int localCount) {
+		if ( objIndex > 0 ) {
+			return objIndex - 1;							// because OBJ indices start with 1, and our arrays start with 0
+		}
+		if ( objIndex < 0 ) {
+			return RELATIVE + localCount + objIndex;		// relative to the last element read, the chunk offset is added later
+		}
+		return MISSING;
+	}
+
+	/**
+	 * Returns the absolute 0-based index of a stored corner value, adding the offset of the chunk to relative indices
+	 */
+	static int absolute(int stored, int chunkOffset) {
+		if ( stored < MISSING ) {
+			return stored - RELATIVE + chunkOffset;
+		}
+		return stored;
+	}
+
+	/************************
+	 *	NUMBERS
+	 ************************/
+
+	private int parseInt(ByteBuffer buffer, int end) {
+		boolean negative = false;
+		if ( this.cursor < end && buffer.get(this.cursor) == '-' ) {
+			negative = true;
+			this.cursor++;
+		}
+		int value = 0;
+		while ( this.cursor < end ) {
+			int digit = buffer.get(this.cursor) - '0';
+			if ( digit < 0 || digit > 9 ) {
+				break;
+			}
+			value = value * 10 + digit;
+			this.cursor++;
+		}
+		return negative ? -value : value;
+	}
+
+	private float parseFloat(ByteBuffer buffer, int end) {
+		skipBlanks(buffer, end);
+		int start = this.cursor;
+
+		boolean negative = false;
+		if ( this.cursor < end ) {
+			byte c = buffer.get(this.cursor);
+			if ( c == '-' || c == '+' ) {
+				negative = ( c == '-' );
+				this.cursor++;
+			}
+		}
+
+		long mantissa = 0;
+		int digits = 0;											// significant digits stored in mantissa
+		int exp10 = 0;
+		boolean anyDigit = false;
+		boolean isExact = true;
+
+		// integer part
+		while ( this.cursor < end ) {
+			int digit = buffer.get(this.cursor) - '0';
+			if ( digit < 0 || digit > 9 ) {
+				break;
+			}
+			anyDigit = true;
+			if ( digits < MAX_EXACT_DIGITS ) {
+				mantissa = mantissa * 10 + digit;
+				if ( mantissa != 0 ) {
+					digits++;
+				}
+			} else {
+				exp10++;
+				isExact = isExact && ( digit == 0 );
+			}
+			this.cursor++;
+		}
+		// fractional part
+		if ( this.cursor < end && buffer.get(this.cursor) == '.' ) {
+			this.cursor++;
+			while ( this.cursor < end ) {
+				int digit = buffer.get(this.cursor) - '0';
+				if ( digit < 0 || digit > 9 ) {
+					break;
+				}
+				anyDigit = true;
+				if ( digits < MAX_EXACT_DIGITS ) {
+					mantissa = mantissa * 10 + digit;
+					if ( mantissa != 0 ) {
+						digits++;
+					}
+					exp10--;
+				} else {
+					isExact = isExact && ( digit == 0 );
+				}
+				this.cursor++;
+			}
+		}
+		// exponent
+		if ( this.cursor < end ) {
+			byte c = buffer.get(this.cursor);
+			if ( c == 'e' || c == 'E' ) {
+				this.cursor++;
+				boolean negativeExp = false;
+				if ( this.cursor < end ) {
+					byte s = buffer.get(this.cursor);
+					if ( s == '-' || s == '+' ) {
+						negativeExp = ( s == '-' );
+						this.cursor++;
+					}
+				}
+				int exp = 0;
+				while ( this.cursor < end ) {
+					int digit = buffer.get(this.cursor) - '0';
+					if ( digit < 0 || digit > 9 ) {
+						break;
+					}
+					exp = Math.min(exp * 10 + digit, 100000);
+					this.cursor++;
+				}
+				exp10 += negativeExp ? -exp : exp;
+			}
+		}
+
+		if ( !anyDigit || !isExact || !isEndOfNumber(buffer, end) ) {
+			return parseFloatSlow(buffer, start, end);				// nan, inf, too many digits, ...
+		}
+
+		float value;
+		if ( mantissa == 0 ) {
+			value = 0f;
+		} else if ( mantissa > MAX_EXACT_MANTISSA ) {
+			return parseFloatSlow(buffer, start, end);				// 8+ significant digits, not exact in a float
+		} else if ( exp10 >= 0 && exp10 < POW10.length ) {
+			value = mantissa * POW10[exp10];
+		} else if ( exp10 < 0 && -exp10 < POW10.length ) {
+			value = mantissa / POW10[-exp10];						// both exact in a float, so the division is correctly rounded
+		} else {
+			return parseFloatSlow(buffer, start, end);
+		}
+		return negative ? -value : value;
+	}
+
+	private float parseFloatSlow(ByteBuffer buffer, int start, int end) {
+		this.cursor = start;
+		while ( this.cursor < end && !isBlank(buffer.get(this.cursor)) && buffer.get(this.cursor) != '\n' ) {
+			this.cursor++;
+		}
+		byte[] token = new byte[this.cursor - start];
+		for (int i = 0; i < token.length; i++) {
+			token[i] = buffer.get(start + i);
+		}
+		return Float.parseFloat(new String(token, StandardCharsets.ISO_8859_1));
+	}
+
+	private boolean isEndOfNumber(ByteBuffer buffer, int end) {
+		if ( this.cursor >= end ) {
+			return true;
+		}
+		byte c = buffer.get(this.cursor);
+		return isBlank(c) || c == '\n';
+	}
+
+	/************************
+	 *	LINES
+	 ************************/
+
+	private static boolean isBlank(byte c) {
+		return c == ' ' || c == '\t' || c == '\r';
+	}
+
+	private void skipBlanks(ByteBuffer buffer, int end) {
+		while ( this.cursor < end && isBlank(buffer.get(this.cursor)) ) {
+			this.cursor++;
+		}
+	}
+
+	private void skipLine(ByteBuffer buffer, int end) {
+		while ( this.cursor < end && buffer.get(this.cursor) != '\n' ) {
+			this.cursor++;
+		}
+		this.cursor++;															// skip the '\n'
+	}
+
+	/************************
+	 *	CHUNKS
+	 ************************/
+
+	/**
+	 * Concatenates the parsers of consecutive chunks of the same file (in file order).
+	 * Relative indices are solved with the number of elements read by the previous chunks.
+	 */
+	static OBJParser merge(OBJParser[] chunks) {
+		if ( chunks.length == 1 ) {
+			return chunks[0];
+		}
+		OBJParser merged = new OBJParser(0);
+		int positionOffset = 0;
+		int textureOffset = 0;
+		int normalOffset = 0;
+		for (OBJParser chunk : chunks) {
+			merged.positions.addAll(chunk.positions);
+			merged.textureCoords.addAll(chunk.textureCoords);
+			merged.normals.addAll(chunk.normals);
+			int nCorners = chunk.corners.size() / 3;
+			for (int i = 0; i < nCorners; i++) {
+				merged.corners.add(absolute(chunk.corners.get(i * 3 + 0), positionOffset));
+				merged.corners.add(absolute(chunk.corners.get(i * 3 + 1), textureOffset));
+				merged.corners.add(absolute(chunk.corners.get(i * 3 + 2), normalOffset));
+			}
+			positionOffset += chunk.getPositionCount();
+			textureOffset += chunk.getTextureCoordCount();
+			normalOffset += chunk.getNormalCount();
+		}
+		return merged;
+	}
+
+	/************************
+	 *	RAW OBJ
+	 ************************/
+
+	/**
+	 * Builds the RawOBJ welding the face corners: one vertex for each unique
+	 * (position, texture, normal) triple, so UV seams and hard edges keep their own vertices
+	 * and the corners that share the three attributes share the vertex.
+	 */
+	RawOBJ build() {
+		int nCorners = this.corners.size() / 3;
+
+		// key = (p * (nT+1) + (t+1)) * (nN+1) + (n+1), MISSING (-1) is mapped to 0
+		long nTextureKeys = getTextureCoordCount() + 1L;
+		long nNormalKeys = getNormalCount() + 1L;
+		Math.multiplyExact(Math.multiplyExact((long) getPositionCount(), nTextureKeys), nNormalKeys);		// fails fast on overflow
+
+		LongIntHashMap vertexMap = new LongIntHashMap(Math.max(getPositionCount(), nCorners / 4));
+		FloatArrayList positionList = new FloatArrayList(getPositionCount() * 3);
+		FloatArrayList textureList = new FloatArrayList(getPositionCount() * 2);
+		FloatArrayList normalList = new FloatArrayList(getPositionCount() * 3);
+		int[] indicesArray = new int[nCorners];
+
+		for (int i = 0; i < nCorners; i++) {
+			int p = absolute(this.corners.get(i * 3 + 0), 0);
+			int t = absolute(this.corners.get(i * 3 + 1), 0);
+			int n = absolute(this.corners.get(i * 3 + 2), 0);
+
+			long key = (p * nTextureKeys + (t + 1)) * nNormalKeys + (n + 1);
+			int nVertices = vertexMap.size();
+			int vertex = vertexMap.putIfAbsent(key, nVertices);
+			if ( vertex == LongIntHashMap.NOT_FOUND ) {
+				// new triple ==> new vertex
+				vertex = nVertices;
+				positionList.add(this.positions.get(p * 3 + 0));
+				positionList.add(this.positions.get(p * 3 + 1));
+				positionList.add(this.positions.get(p * 3 + 2));
+				textureList.add(( t != MISSING ) ? this.textureCoords.get(t * 2 + 0) : 0f);
+				textureList.add(( t != MISSING ) ? this.textureCoords.get(t * 2 + 1) : 0f);
+				normalList.add(( n != MISSING ) ? this.normals.get(n * 3 + 0) : 0f);
+				normalList.add(( n != MISSING ) ? this.normals.get(n * 3 + 1) : 0f);
+				normalList.add(( n != MISSING ) ? this.normals.get(n * 3 + 2) : 0f);
+			}
+			indicesArray[i] = vertex;
+		}
+
+		return new RawOBJ(indicesArray.length, positionList.toArray(), textureList.toArray(), normalList.toArray(), indicesArray);
+	}
+}
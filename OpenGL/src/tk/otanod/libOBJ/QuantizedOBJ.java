@@ -0,0 +1,310 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libOBJ;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+
+/**
+ * Compressed vertex format of a RawOBJ, 16 bytes per vertex instead of 32:
+ *   positions       4 x unorm16 (x, y, z, 0) relative to the AABB of the mesh, GL_UNSIGNED_SHORT normalized
+ *                   decode: min + value * extent
+ *   texture coords  2 x half float, GL_HALF_FLOAT
+ *   normals         2 x snorm16 octahedral encoding, GL_SHORT normalized
+ *                   decode: OCTAHEDRAL_DECODE_GLSL
+ * The positions use 4 components so every attribute starts at a multiple of 4 bytes.
+ *
+ * Max error of each attribute:
+ *   positions       extent / 65535 / 2 on each axis
+ *   texture coords  2^-11 relative (half of the 10 bits mantissa), 2^-25 below 2^-14
+ *   normals         about 0.00005 rad (2 / 32767 on the octahedron)
+ */
+public class QuantizedOBJ {
+
+	public static final int BYTES_PER_VERTEX = 16;
+
+	// GLSL function used by the vertex shaders to decode the normals
+	public static final String OCTAHEDRAL_DECODE_GLSL =
+			  "vec3 octahedralDecode(vec2 e) { \n"
+			+ "  vec3 n = vec3(e.x, e.y, 1.0 - abs(e.x) - abs(e.y)); \n"
+			+ "  float t = max(-n.z, 0.0); \n"												// lower half is folded over the diagonals
+			+ "  n.x += (n.x >= 0.0) ? -t : t; \n"
+			+ "  n.y += (n.y >= 0.0) ? -t : t; \n"
+			+ "  return normalize(n); \n"
+			+ "} \n";
+
+	private int nElements;
+	private int nVertices;
+	private float[] positionMin;
+	private float[] positionExtent;
+	private ShortBuffer positions;
+	private ShortBuffer textureCoords;
+	private ShortBuffer normals;
+	private Buffer indices;
+
+	private QuantizedOBJ(int nElements, int nVertices, float[] positionMin, float[] positionExtent,
+			ShortBuffer positions, ShortBuffer textureCoords, ShortBuffer normals, Buffer indices) {
+		this.nElements = nElements;
+		this.nVertices = nVertices;
+		this.positionMin = positionMin;
+		this.positionExtent = positionExtent;
+		this.positions = positions;
+		this.textureCoords = textureCoords;
+		this.normals = normals;
+		this.indices = indices;
+	}
+
+	/************************
+	 *	ENCODE
+	 ************************/
+
+	public static QuantizedOBJ quantize(RawOBJ model) {
+		float[] p = model.getPositions();
+		float[] uv = model.getTextureCoords();
+		float[] n = model.getNormals();
+		int nVertices = p.length / 3;
+
+		// Step 1 - AABB of the mesh
+		float[] min = new float[] { Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE };
+		float[] max = new float[] { -Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE };
+		for (int v = 0; v < nVertices; v++) {
+			for (int k = 0; k < 3; k++) {
+				min[k] = Math.min(min[k], p[v * 3 + k]);
+				max[k] = Math.max(max[k], p[v * 3 + k]);
+			}
+		}
+		float[] extent = new float[3];
+		for (int k = 0; k < 3; k++) {
+			if ( nVertices == 0 ) {
+				min[k] = 0f;
+			} else {
+				extent[k] = max[k] - min[k];
+			}
+		}
+
+		// Step 2 - vertex attributes
+		ShortBuffer positions = getShortBuffer(nVertices * 4);
+		ShortBuffer textureCoords = getShortBuffer(nVertices * 2);
+		ShortBuffer normals = getShortBuffer(nVertices * 2);
+		short[] octahedral = new short[2];
+		for (int v = 0; v < nVertices; v++) {
+			for (int k = 0; k < 3; k++) {
+				positions.put(toUnorm16(p[v * 3 + k], min[k], extent[k]));
+			}
+			positions.put((short) 0);
+			textureCoords.put(toHalf(uv[v * 2]));
+			textureCoords.put(toHalf(uv[v * 2 + 1]));
+			encodeOctahedral(n[v * 3], n[v * 3 + 1], n[v * 3 + 2], octahedral);
+			normals.put(octahedral);
+		}
+		positions.position(0);
+		textureCoords.position(0);
+		normals.position(0);
+
+		return new QuantizedOBJ(model.getnElements(), nVertices, min, extent, positions, textureCoords, normals, model.getIndexBuffer());
+	}
+
+	private static ShortBuffer getShortBuffer(int n) {
+		return ByteBuffer.allocateDirect(n * Short.BYTES).order(ByteOrder.nativeOrder()).asShortBuffer();
+	}
+
+	/************************
+	 *	GETTERS
+	 ************************/
+
+	public int getnElements() {
+		return nElements;
+	}
+
+	public int getnVertices() {
+		return nVertices;
+	}
+
+	/**
+	 * Shader uniform: position = min + unorm16 * extent
+	 */
+	public float[] getPositionMin() {
+		return positionMin.clone();
+	}
+
+	public float[] getPositionExtent() {
+		return positionExtent.clone();
+	}
+
+	/**
+	 * Views of the direct buffers, ready for glBufferData (4 unorm16 per vertex)
+	 */
+	public ShortBuffer getPositionBuffer() {
+		return positions.duplicate();
+	}
+
+	public ShortBuffer getTextureCoordBuffer() {
+		return textureCoords.duplicate();
+	}
+
+	public ShortBuffer getNormalBuffer() {
+		return normals.duplicate();
+	}
+
+	/**
+	 * Same index buffer as the RawOBJ, ShortBuffer or IntBuffer (see ElementBuffers)
+	 */
+	public Buffer getIndexBuffer() {
+		return ElementBuffers.duplicate(indices);
+	}
+
+	/************************
+	 *	DECODE (CPU, same math as the shaders)
+	 ************************/
+
+	public void getPosition(int vertex, float[] result) {
+		for (int k = 0; k < 3; k++) {
+			result[k] = positionMin[k] + fromUnorm16(positions.get(vertex * 4 + k)) * positionExtent[k];
+		}
+	}
+
+	public void getTextureCoord(int vertex, float[] result) {
+		result[0] = fromHalf(textureCoords.get(vertex * 2));
+		result[1] = fromHalf(textureCoords.get(vertex * 2 + 1));
+	}
+
+	public void getNormal(int vertex, float[] result) {
+		decodeOctahedral(normals.get(vertex * 2), normals.get(vertex * 2 + 1), result);
+	}
+
+	/************************
+	 *	UNORM16
+	 ************************/
+
+	public static short toUnorm16(float value, float min, float extent) {
+		if ( extent == 0f ) {
+			return 0;																// flat axis, every vertex is at min
+		}
+		int q = Math.round((value - min) / extent * 65535f);
+		return (short) Math.max(0, Math.min(65535, q));
+	}
+
+	public static float fromUnorm16(short value) {
+		return (value & 0xffff) / 65535f;											// GL normalized unsigned short
+	}
+
+	/************************
+	 *	HALF FLOAT
+	 ************************/
+
+	/**
+	 * IEEE 754 binary16, round to nearest even. Values over 65504 become infinity.
+	 */
+	public static short toHalf(float value) {
+		int bits = Float.floatToIntBits(value);
+		int sign = (bits >>> 16) & 0x8000;
+		int abs = bits & 0x7fffffff;
+		if ( abs >= 0x7f800000 ) {
+			return (short) (sign | 0x7c00 | ((abs > 0x7f800000) ? 0x200 : 0));		// infinity, NaN
+		}
+		if ( abs >= 0x47800000 ) {
+			return (short) (sign | 0x7c00);											// 65536 and over, overflow
+		}
+		if ( abs < 0x38800000 ) {
+			// half subnormal: value = h * 2^-24
+			if ( abs < 0x33000000 ) {
+				return (short) sign;												// under 2^-25, rounds to zero
+			}
+			int exponent = abs >>> 23;
+			int mantissa = (abs & 0x7fffff) | 0x800000;
+			int shift = 126 - exponent;
+			int h = mantissa >> shift;
+			int remainder = mantissa & ((1 << shift) - 1);
+			int half = 1 << (shift - 1);
+			if ( remainder > half || (remainder == half && (h & 1) != 0) ) {
+				h++;
+			}
+			return (short) (sign | h);
+		}
+		// normal: exponent bias 127 ==> 15, mantissa 23 ==> 10 bits (a carry moves to the exponent, 65520+ ==> infinity)
+		int h = (abs - 0x38000000) >> 13;
+		int remainder = abs & 0x1fff;
+		if ( remainder > 0x1000 || (remainder == 0x1000 && (h & 1) != 0) ) {
+			h++;
+		}
+		return (short) (sign | h);
+	}
+
+	public static float fromHalf(short value) {
+		int h = value & 0xffff;
+		int sign = (h & 0x8000) << 16;
+		int exponent = (h >>> 10) & 0x1f;
+		int mantissa = h & 0x3ff;
+		if ( exponent == 0 ) {
+			float subnormal = mantissa * 0x1p-24f;
+			return ( sign != 0 ) ? -subnormal : subnormal;
+		}
+		if ( exponent == 31 ) {
+			return Float.intBitsToFloat(sign | 0x7f800000 | (mantissa << 13));		// infinity, NaN
+		}
+		return Float.intBitsToFloat(sign | ((exponent + 112) << 23) | (mantissa << 13));
+	}
+
+	/************************
+	 *	OCTAHEDRAL NORMALS
+	 ************************/
+
+	/**
+	 * Projects the unit vector on the octahedron |x|+|y|+|z|=1 and unfolds it on the square [-1,1]^2.
+	 * A zero vector (models without normals) is encoded as +Z.
+	 */
+	public static void encodeOctahedral(float x, float y, float z, short[] result) {
+		float l1 = Math.abs(x) + Math.abs(y) + Math.abs(z);
+		if ( l1 == 0f ) {
+			result[0] = 0;
+			result[1] = 0;
+			return;
+		}
+		float u = x / l1;
+		float v = y / l1;
+		if ( z < 0f ) {
+			float foldedU = (1f - Math.abs(v)) * Math.signum(u == 0f ? 1f : u);
+			float foldedV = (1f - Math.abs(u)) * Math.signum(v == 0f ? 1f : v);
+			u = foldedU;
+			v = foldedV;
+		}
+		result[0] = toSnorm16(u);
+		result[1] = toSnorm16(v);
+	}
+
+	public static void decodeOctahedral(short eu, short ev, float[] result) {
+		float u = fromSnorm16(eu);
+		float v = fromSnorm16(ev);
+		float z = 1f - Math.abs(u) - Math.abs(v);
+		float t = Math.max(-z, 0f);
+		float x = u + ((u >= 0f) ? -t : t);
+		float y = v + ((v >= 0f) ? -t : t);
+		float length = (float) Math.sqrt(x * x + y * y + z * z);
+		result[0] = x / length;
+		result[1] = y / length;
+		result[2] = z / length;
+	}
+
+	private static short toSnorm16(float value) {
+		return (short) Math.round(Math.max(-1f, Math.min(1f, value)) * 32767f);
+	}
+
+	private static float fromSnorm16(short value) {
+		return Math.max(value / 32767f, -1f);										// GL normalized signed short
+	}
+
+}
@@ -14,6 +14,14 @@ SOFTWARE.
 
 package tk.otanod.libOBJ;
 
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+import tk.otanod.libMath.Aabb3f;
+import tk.otanod.libMath.Sphere3f;
+
 public class RawOBJ {
 
 	private float[] positions;
@@ -22,12 +30,41 @@ public class RawOBJ {
 	private int[] indices;
 	private int nElements;
 	
+	// Direct buffers in native order, ready for glBufferData (memory mapped when loaded from a .rawobj file)
+	private FloatBuffer positionBuffer;
+	private FloatBuffer textureCoordBuffer;
+	private FloatBuffer normalBuffer;
+	private Buffer indexBuffer;							// ShortBuffer or IntBuffer, see ElementBuffers
+	
+	// Local (model space) bounds, computed once at load time (stored in the .rawobj cache)
+	private final Aabb3f bounds;
+	private final Sphere3f boundingSphere;
+	
 	public RawOBJ(int nElements, float[] positions, float[] textureCoords, float[] normals, int[] indices) {
 		this.nElements = nElements;
 		this.positions = positions;
 		this.textureCoords = textureCoords;
 		this.normals = normals;
 		this.indices = indices;
+		this.bounds = new Aabb3f().setFromPositions(positions);
+		this.boundingSphere = new Sphere3f().setFromPositions(positions, bounds);
+	}
+
+	public RawOBJ(int nElements, FloatBuffer positions, FloatBuffer textureCoords, FloatBuffer normals, Buffer indices) {
+		this(nElements, positions, textureCoords, normals, indices, null, null);
+	}
+	
+	/**
+	 * bounds and boundingSphere already known (RawOBJFile), null to compute them from the positions
+	 */
+	RawOBJ(int nElements, FloatBuffer positions, FloatBuffer textureCoords, FloatBuffer normals, Buffer indices, Aabb3f bounds, Sphere3f boundingSphere) {
+		this.nElements = nElements;
+		this.positionBuffer = positions;
+		this.textureCoordBuffer = textureCoords;
+		this.normalBuffer = normals;
+		this.indexBuffer = indices;
+		this.bounds = ( bounds != null ) ? bounds : new Aabb3f().setFromPositions(positions);
+		this.boundingSphere = ( boundingSphere != null ) ? boundingSphere : new Sphere3f().setFromPositions(positions, this.bounds);
 	}
 
 	public int getnElements() {
@@ -35,21 +72,112 @@ public class RawOBJ {
 	}
 	
 	public float[] getPositions() {
+		if ( positions == null ) {
+			positions = toArray(positionBuffer);
+		}
 		return positions;
 	}
 
 	public float[] getTextureCoords() {
+		if ( textureCoords == null ) {
+			textureCoords = toArray(textureCoordBuffer);
+		}
 		return textureCoords;
 	}
 	
 	public float[] getNormals() {
+		if ( normals == null ) {
+			normals = toArray(normalBuffer);
+		}
 		return normals;
 	}
 
 	public int[] getIndices() {
+		if ( indices == null ) {
+			indices = ElementBuffers.toArray(indexBuffer);
+		}
 		return indices;
 	}
 	
+	public int getnVertices() {
+		return ( positions != null ) ? positions.length / 3 : positionBuffer.remaining() / 3;
+	}
+	
+	/**
+	 * Box of the positions (empty when the model has no vertices), a copy
+	 */
+	public Aabb3f getBounds() {
+		return bounds.clone();
+	}
+	
+	/**
+	 * Center of the bounds, radius to the farthest vertex, a copy
+	 */
+	public Sphere3f getBoundingSphere() {
+		return boundingSphere.clone();
+	}
+	
+	/**
+	 * Same mesh with other texture coordinates (TextureAtlas.remap), the other buffers are shared
+	 */
+	public RawOBJ withTextureCoords(float[] textureCoords) {
+		return new RawOBJ(nElements, getPositionBuffer(), toBuffer(textureCoords), getNormalBuffer(), getIndexBuffer(), bounds, boundingSphere);
+	}
+	
+	/************************
+	 *	DIRECT BUFFERS
+	 ************************/
+	
+	// Each call returns a new view (own position and limit) of the same memory, no copy
+	
+	public FloatBuffer getPositionBuffer() {
+		if ( positionBuffer == null ) {
+			positionBuffer = toBuffer(positions);
+		}
+		return positionBuffer.duplicate();
+	}
+	
+	public FloatBuffer getTextureCoordBuffer() {
+		if ( textureCoordBuffer == null ) {
+			textureCoordBuffer = toBuffer(textureCoords);
+		}
+		return textureCoordBuffer.duplicate();
+	}
+	
+	public FloatBuffer getNormalBuffer() {
+		if ( normalBuffer == null ) {
+			normalBuffer = toBuffer(normals);
+		}
+		return normalBuffer.duplicate();
+	}
+	
+	/**
+	 * ShortBuffer when the model has fewer than 65536 vertices (GL_UNSIGNED_SHORT), IntBuffer otherwise (GL_UNSIGNED_INT)
+	 */
+	public Buffer getIndexBuffer() {
+		if ( indexBuffer == null ) {
+			indexBuffer = ElementBuffers.create(indices, getnVertices());
+		}
+		return ElementBuffers.duplicate(indexBuffer);
+	}
+	
+	public int getBytesPerIndex() {
+		return ( indexBuffer != null ) ? ElementBuffers.getBytesPerIndex(indexBuffer) : ( ElementBuffers.isShort(getnVertices()) ? Short.BYTES : Integer.BYTES );
+	}
+	
+	private static FloatBuffer toBuffer(float[] data) {
+		FloatBuffer fb = ByteBuffer.allocateDirect(data.length * Float.BYTES).order(ByteOrder.nativeOrder()).asFloatBuffer();
+		fb.put(data);
+		fb.flip();
+		return fb;
+	}
+	
+	private static float[] toArray(FloatBuffer buffer) {
+		float[] data = new float[buffer.remaining()];
+		buffer.duplicate().get(data);
+		return data;
+	}
+	
 	public static RawOBJ buildQuad() {
 		// A ---------------  D
 		// |                  |
@@ -0,0 +1,219 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libOBJ;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import tk.otanod.libMath.Aabb3f;
+import tk.otanod.libMath.Sphere3f;
+
+/**
+ * Binary image of a RawOBJ (.rawobj), written next to the OBJ file and memory mapped on load.
+ *
+ * Layout, native byte order:
+ *    0  int   MAGIC 'ROBJ'
+ *    4  int   VERSION
+ *    8  int   BYTE_ORDER_MARK, read as a different value on a machine with the other endianness
+ *   12  int   nElements
+ *   16  long  source last modified time (ms)
+ *   24  long  source size (bytes)
+ *   32  int   nVertices
+ *   36  int   nIndices
+ *   40  long  offset of the positions      (nVertices * 3 floats)
+ *   48  long  offset of the texture coords (nVertices * 2 floats)
+ *   56  long  offset of the normals        (nVertices * 3 floats)
+ *   64  long  offset of the indices        (nIndices shorts or ints)
+ *   72  int   bytes per index, 2 (unsigned short, fewer than 65536 vertices) or 4
+ *   76  float bounds minX minY minZ maxX maxY maxZ (RawOBJ.getBounds)
+ *  100  float bounding sphere x y z radius         (RawOBJ.getBoundingSphere)
+ * Every section starts at a multiple of SECTION_ALIGNMENT bytes.
+ * The file is mapped as one buffer, so models over MAX_SIZE bytes are not cached.
+ */
+class RawOBJFile {
+
+	static final String EXTENSION = ".rawobj";
+
+	private static final int MAGIC = ('R' << 24) | ('O' << 16) | ('B' << 8) | 'J';
+	private static final int VERSION = 4;								// 2: optimized index and vertex order, 3: 16 bits indices, 4: bounds
+	private static final int BYTE_ORDER_MARK = 0x01020304;
+	private static final int HEADER_SIZE = 116;
+	private static final int SECTION_ALIGNMENT = 64;
+	private static final long MAX_SIZE = Integer.MAX_VALUE;
+
+	/**
+	 * res/models/stall.obj ==> res/models/stall.rawobj
+	 */
+	static Path getCachePath(Path source) {
+		String name = source.getFileName().toString();
+		int dot = name.lastIndexOf('.');
+		String base = (dot > 0) ? name.substring(0, dot) : name;
+		return source.resolveSibling(base + EXTENSION);
+	}
+
+	/**
+	 * Writes the cache file, nothing is written when the model does not fit in MAX_SIZE bytes
+	 */
+	static void write(RawOBJ model, Path source, Path target) throws IOException {
+		float[] positions = model.getPositions();
+		float[] textureCoords = model.getTextureCoords();
+		float[] normals = model.getNormals();
+		int[] indices = model.getIndices();
+		int bytesPerIndex = model.getBytesPerIndex();
+
+		long positionOffset = align(HEADER_SIZE);
+		long textureOffset = align(positionOffset + (long) positions.length * Float.BYTES);
+		long normalOffset = align(textureOffset + (long) textureCoords.length * Float.BYTES);
+		long indexOffset = align(normalOffset + (long) normals.length * Float.BYTES);
+		long size = indexOffset + (long) indices.length * bytesPerIndex;
+		if ( size > MAX_SIZE ) {
+			return;
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate((int) size).order(ByteOrder.nativeOrder());
+		buffer.putInt(MAGIC);
+		buffer.putInt(VERSION);
+		buffer.putInt(BYTE_ORDER_MARK);
+		buffer.putInt(model.getnElements());
+		buffer.putLong(Files.getLastModifiedTime(source).toMillis());
+		buffer.putLong(Files.size(source));
+		buffer.putInt(positions.length / 3);
+		buffer.putInt(indices.length);
+		buffer.putLong(positionOffset);
+		buffer.putLong(textureOffset);
+		buffer.putLong(normalOffset);
+		buffer.putLong(indexOffset);
+		buffer.putInt(bytesPerIndex);
+		putFloats(buffer, 76, model.getBounds().get(new float[6], 0));
+		Sphere3f sphere = model.getBoundingSphere();
+		putFloats(buffer, 100, new float[] { sphere.x(), sphere.y(), sphere.z(), sphere.radius() });
+		putFloats(buffer, positionOffset, positions);
+		putFloats(buffer, textureOffset, textureCoords);
+		putFloats(buffer, normalOffset, normals);
+		buffer.position((int) indexOffset);
+		if ( bytesPerIndex == Short.BYTES ) {
+			ShortBuffer sb = buffer.asShortBuffer();
+			for (int index : indices) {
+				sb.put((short) index);
+			}
+		} else {
+			buffer.asIntBuffer().put(indices);
+		}
+		buffer.position(0);
+
+		// write to a temporary file and rename it, a reader never sees a half written cache
+		Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+		try ( FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE) ) {
+			while ( buffer.hasRemaining() ) {
+				channel.write(buffer);
+			}
+		}
+		try {
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Maps the cache file, returns null when it is missing, stale (source changed), corrupt (a section
+	 * outside the file) or was written by another version or on a machine with another byte order.
+	 * The buffers of the RawOBJ are views of the mapping: no parsing and no heap copy.
+	 */
+	static RawOBJ map(Path source, Path cache) throws IOException {
+		if ( !Files.isRegularFile(cache) ) {
+			return null;
+		}
+		MappedByteBuffer mapped;
+		try ( FileChannel channel = FileChannel.open(cache, StandardOpenOption.READ) ) {
+			if ( channel.size() < HEADER_SIZE || channel.size() > MAX_SIZE ) {
+				return null;
+			}
+			mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());			// the mapping outlives the channel
+		}
+		mapped.order(ByteOrder.nativeOrder());
+
+		if ( mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION || mapped.getInt(8) != BYTE_ORDER_MARK ) {
+			return null;
+		}
+		if ( mapped.getLong(16) != Files.getLastModifiedTime(source).toMillis() || mapped.getLong(24) != Files.size(source) ) {
+			return null;
+		}
+		int nElements = mapped.getInt(12);
+		int nVertices = mapped.getInt(32);
+		int nIndices = mapped.getInt(36);
+		long positionOffset = mapped.getLong(40);
+		long textureOffset = mapped.getLong(48);
+		long normalOffset = mapped.getLong(56);
+		long indexOffset = mapped.getLong(64);
+		int bytesPerIndex = mapped.getInt(72);
+		if ( bytesPerIndex != Short.BYTES && bytesPerIndex != Integer.BYTES ) {
+			return null;
+		}
+		if ( !isSection(mapped, positionOffset, nVertices * 3L * Float.BYTES) || !isSection(mapped, textureOffset, nVertices * 2L * Float.BYTES)
+				|| !isSection(mapped, normalOffset, nVertices * 3L * Float.BYTES) || !isSection(mapped, indexOffset, (long) nIndices * bytesPerIndex) ) {
+			return null;
+		}
+
+		FloatBuffer positions = getFloats(mapped, positionOffset, nVertices * 3);
+		FloatBuffer textureCoords = getFloats(mapped, textureOffset, nVertices * 2);
+		FloatBuffer normals = getFloats(mapped, normalOffset, nVertices * 3);
+		ByteBuffer indexSection = getSection(mapped, indexOffset, nIndices * bytesPerIndex);
+		Buffer indices = ( bytesPerIndex == Short.BYTES ) ? indexSection.asShortBuffer() : indexSection.asIntBuffer();
+		Aabb3f bounds = new Aabb3f(mapped.getFloat(76), mapped.getFloat(80), mapped.getFloat(84), mapped.getFloat(88), mapped.getFloat(92), mapped.getFloat(96));
+		Sphere3f sphere = new Sphere3f(mapped.getFloat(100), mapped.getFloat(104), mapped.getFloat(108), mapped.getFloat(112));
+
+		return new RawOBJ(nElements, positions, textureCoords, normals, indices, bounds, sphere);
+	}
+
+	private static long align(long offset) {
+		return (offset + SECTION_ALIGNMENT - 1) / SECTION_ALIGNMENT * SECTION_ALIGNMENT;
+	}
+
+	/**
+	 * The section is after the header and inside the file, the offset and the size come from the file
+	 */
+	private static boolean isSection(ByteBuffer mapped, long offset, long nBytes) {
+		return offset >= HEADER_SIZE && nBytes >= 0 && offset <= mapped.capacity() - nBytes;
+	}
+
+	private static void putFloats(ByteBuffer buffer, long offset, float[] data) {
+		buffer.position((int) offset);
+		buffer.asFloatBuffer().put(data);
+	}
+
+	private static FloatBuffer getFloats(ByteBuffer mapped, long offset, int n) {
+		return getSection(mapped, offset, n * Float.BYTES).asFloatBuffer();
+	}
+
+	private static ByteBuffer getSection(ByteBuffer mapped, long offset, int nBytes) {
+		ByteBuffer section = mapped.duplicate();
+		section.position((int) offset);
+		section.limit((int) offset + nBytes);
+		return section.slice().order(ByteOrder.nativeOrder());					// slice() is always BIG_ENDIAN
+	}
+
+}
@@ -0,0 +1,103 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.engine.camera;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Test;
+
+import tk.otanod.engine.light.Light;
+import tk.otanod.libMath.M4f;
+import tk.otanod.libMath.V3f;
+
+/**
+ * The math of a frame (camera update, view/projection products, uniform arrays) must not allocate.
+ * Measured with the allocated bytes counter of the thread (HotSpot com.sun.management.ThreadMXBean).
+ */
+public class CameraAllocationTest {
+
+	private static final int FRAMES = 10000;
+	private static final int ROUNDS = 5;
+
+	private final Camera camera = new Camera(new V3f(0f, 1f, 0f), new V3f(0f, 0f, -1f), new V3f(0f, 2f, 5f));
+	private final Light light = new Light(new V3f(0f, 100f, 0f), new V3f(0.2f), new V3f(0.8f), new V3f(1f), new V3f(0.5f));
+	private final M4f m4Projection = new M4f(Camera.getProjectionMatrix(60f, 16f / 9f, 0.1f, 1000f));
+	private final M4f m4World = new M4f();
+	private final M4f m4PV = new M4f();
+	private final M4f m4InverseView = new M4f();
+	private final float[] aUniformData = new float[16];
+	private float checksum;
+
+	@Test
+	public void zeroBytesPerFrameTest() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+		assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+		threadBean.setThreadAllocatedMemoryEnabled(true);
+		long threadId = Thread.currentThread().getId();
+
+		// warm up, the counter calls themselves are measured with an empty loop
+		for (int frame = 0; frame < FRAMES; frame++) {
+			frame(frame);
+		}
+		long b0 = threadBean.getThreadAllocatedBytes(threadId);
+		long b1 = threadBean.getThreadAllocatedBytes(threadId);
+		long overhead = b1 - b0;
+
+		// steady state: a few rounds, the JIT can still allocate once while it compiles the loop (OSR)
+		long bytes = -1;
+		for (int round = 0; round < ROUNDS && bytes != 0; round++) {
+			long before = threadBean.getThreadAllocatedBytes(threadId);
+			for (int frame = 0; frame < FRAMES; frame++) {
+				frame(frame);
+			}
+			long after = threadBean.getThreadAllocatedBytes(threadId);
+			bytes = after - before - overhead;
+		}
+
+		assertEquals("bytes per " + FRAMES + " frames", 0L, bytes);
+	}
+
+	private void frame(int frame) {
+		// 1. user input
+		camera.setDeltaYaw(0.1);
+		camera.setDeltaPitch((frame & 1) == 0 ? 0.05 : -0.05);
+		camera.moveForward(0.01f);
+		if ( (frame & 63) == 0 ) {
+			camera.moveUpDown(0.001f);
+		}
+
+		// 2. update, same calls as the renderers
+		M4f m4View = camera.getLookAtViewMatrix();
+		V3f v3Eye = camera.getEye();
+		m4World.identity().scale(2f, 2f, 2f).rotateYaxisCCW(frame * 0.001).setTranslate(1f, 0f, -3f);
+		M4f.mul(m4Projection, m4View, m4PV);
+		m4View.invert(m4InverseView);
+
+		// 3. uniforms
+		checksum += m4Projection.getElements(aUniformData, 0)[0];
+		checksum += m4PV.getElements(aUniformData, 0)[5];
+		checksum += m4World.getElements(aUniformData, 0)[10];
+		checksum += m4InverseView.getM3Elements(aUniformData, 0)[4];
+		checksum += light.getPosition(aUniformData, 0)[1];
+		checksum += light.getSkyColor(aUniformData, 0)[2];
+		checksum += v3Eye.getFloats(aUniformData, 0)[1];
+	}
+
+}
@@ -0,0 +1,89 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.engine.loader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.junit.Test;
+
+import tk.otanod.engine.font.Font;
+import tk.otanod.libIO.ImageFile;
+import tk.otanod.libIO.RawImage;
+import tk.otanod.libIO.RawImagePack;
+import tk.otanod.libOBJ.OBJLoader;
+import tk.otanod.libOBJ.RawOBJ;
+
+public class AssetLoaderTest {
+
+	private static final String[] IMAGES = { "res/drawable/grass.png", "res/drawable/grass1.png", "res/drawable/grass3.png", "res/drawable/fern.png" };
+
+	@Test
+	public void sameAsSequentialTest() {
+		for (boolean isAsync : new boolean[] { true, false }) {
+			try ( AssetLoader loader = new AssetLoader(isAsync) ) {
+				CompletableFuture<RawImagePack> pack = loader.loadImagePack(IMAGES, true);
+				CompletableFuture<RawImagePack> cubeMap = loader.loadCubeMap("res/drawable/blendMap.png", 4, 4);
+				CompletableFuture<RawOBJ> model = loader.loadOBJ("res/models/stall.obj");
+				CompletableFuture<Font> font = loader.loadFont("res/fonts/Ubuntu-R.fnt");
+				if ( !isAsync ) {
+					assertTrue(loader.getAllLoaded().isDone());							// loaded by the calling thread
+				}
+				loader.getAllLoaded().join();
+
+				RawImagePack expectedPack = new RawImagePack(IMAGES, true);				// grass3.png: ImageIO fallback
+				for (int i = 0; i < IMAGES.length; i++) {
+					assertSameImage(IMAGES[i], expectedPack.getRawImage(i), pack.join().getRawImage(i));
+				}
+				RawImagePack expectedCubeMap = new RawImagePack("res/drawable/blendMap.png", 4, 4);
+				for (int i = 0; i < expectedCubeMap.getSize(); i++) {
+					assertSameImage("cube map " + i, expectedCubeMap.getRawImage(i), cubeMap.join().getRawImage(i));
+				}
+				assertEquals(OBJLoader.loadCached("res/models/stall.obj").getIndexBuffer(), model.join().getIndexBuffer());
+				assertEquals(new Font("res/fonts/Ubuntu-R.fnt").getGlyph('A').toString(), font.join().getGlyph('A').toString());
+			}
+		}
+	}
+
+	@Test
+	public void missingFileTest() {
+		try ( AssetLoader loader = new AssetLoader() ) {
+			CompletableFuture<RawImage> image = loader.loadFlippedImage("res/drawable/missing.png");
+			loader.getAllLoaded().join();												// completes even when an asset fails
+			try {
+				image.join();
+				fail();
+			} catch (CompletionException e) {
+				assertTrue(e.getCause() instanceof UncheckedIOException);
+			}
+		}
+	}
+
+	private static void assertSameImage(String msg, RawImage expected, RawImage actual) {
+		assertEquals(msg, expected.getName(), actual.getName());
+		assertEquals(msg, expected.getWidth(), actual.getWidth());
+		assertEquals(msg, expected.getHeight(), actual.getHeight());
+		ByteBuffer e = expected.getByteDataBuffer();
+		ByteBuffer a = actual.getByteDataBuffer();
+		assertEquals(msg, e.position(0), a.position(0));
+	}
+
+}
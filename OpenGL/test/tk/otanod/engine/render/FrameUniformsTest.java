@@ -0,0 +1,96 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.engine.render;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.FloatBuffer;
+
+import org.junit.Test;
+
+import tk.otanod.engine.camera.Camera;
+import tk.otanod.engine.light.Light;
+import tk.otanod.libMath.M4f;
+import tk.otanod.libMath.V3f;
+
+/**
+ * GL-free: the std140 contents of the buffer, not the upload
+ */
+public class FrameUniformsTest {
+
+	private static float[] getRange(float[] data, int offset, int length) {
+		float[] range = new float[length];
+		System.arraycopy(data, offset, range, 0, length);
+		return range;
+	}
+
+	@Test
+	public void layoutTest() {
+		Light light = new Light(new V3f(1f, 2f, 3f), new V3f(0.1f, 0.2f, 0.3f), new V3f(0.4f, 0.5f, 0.6f), new V3f(0.7f, 0.8f, 0.9f), new V3f(0.25f, 0.5f, 0.75f));
+		Camera camera = new Camera(new V3f(0f, 1f, 0f), new V3f(0f, 0f, -20f), new V3f(4f, 3f, 2f));
+		M4f projection = new M4f(Camera.getProjectionMatrix(60f, 1.5f, 1f, 150f));
+
+		FrameUniforms frame = new FrameUniforms();
+		frame.update(camera, light, projection);
+		FloatBuffer buffer = frame.getData();
+		assertEquals(FrameUniforms.SIZE / Float.BYTES, buffer.remaining());
+		float[] data = new float[buffer.remaining()];
+		buffer.get(data);
+
+		assertArrayEquals(projection.getElements(), getRange(data, FrameUniforms.P, 16), 0f);
+		assertArrayEquals(camera.getLookAtViewMatrix().getElements(), getRange(data, FrameUniforms.V, 16), 0f);
+		assertArrayEquals(light.getPosition(), getRange(data, FrameUniforms.LIGHT_POSITION, 3), 0f);
+		assertArrayEquals(light.getAmbientColor(), getRange(data, FrameUniforms.LIGHT_AMBIENT_COLOR, 3), 0f);
+		assertArrayEquals(light.getDiffuseColor(), getRange(data, FrameUniforms.LIGHT_DIFFUSE_COLOR, 3), 0f);
+		assertArrayEquals(light.getSpecularColor(), getRange(data, FrameUniforms.LIGHT_SPECULAR_COLOR, 3), 0f);
+		assertArrayEquals(new float[] { 4f, 3f, 2f }, getRange(data, FrameUniforms.EYE_POSITION, 3), 0f);
+		assertArrayEquals(light.getSkyColor(), getRange(data, FrameUniforms.SKY_COLOR, 3), 0f);
+		assertArrayEquals(light.getFogColor(), getRange(data, FrameUniforms.FOG_COLOR, 3), 0f);
+		assertEquals(light.getFogUpperLimit(), data[FrameUniforms.FOG_UPPER_LIMIT], 0f);
+		assertEquals(light.getFogLowerLimit(), data[FrameUniforms.FOG_LOWER_LIMIT], 0f);
+
+		// std140: every vec3 starts a new vec4, the first float after the fog color is packed in its fourth component
+		assertEquals(FrameUniforms.FOG_COLOR + 3, FrameUniforms.FOG_UPPER_LIMIT);
+		for (int vec3 : new int[] { FrameUniforms.LIGHT_POSITION, FrameUniforms.LIGHT_AMBIENT_COLOR, FrameUniforms.LIGHT_DIFFUSE_COLOR,
+				FrameUniforms.LIGHT_SPECULAR_COLOR, FrameUniforms.EYE_POSITION, FrameUniforms.SKY_COLOR }) {
+			assertEquals(0, vec3 % 4);
+			assertEquals(0f, data[vec3 + 3], 0f);														// padding
+		}
+		for (int i = FrameUniforms.FOG_LOWER_LIMIT + 1; i < data.length; i++) {
+			assertEquals(0f, data[i], 0f);
+		}
+	}
+
+	@Test
+	public void cameraMovesTest() {
+		Light light = new Light(new V3f(1f, 2f, 3f), new V3f(0.1f, 0.2f, 0.3f), new V3f(0.4f, 0.5f, 0.6f), new V3f(0.7f, 0.8f, 0.9f), new V3f(0.25f, 0.5f, 0.75f));
+		Camera camera = new Camera(new V3f(0f, 1f, 0f), new V3f(0f, 0f, -20f), new V3f(0f, 3f, 0f));
+		FrameUniforms frame = new FrameUniforms();
+		frame.update(camera, light, new M4f());
+		frame.getData();
+
+		// the camera is read every frame, no update needed after it moves
+		camera.moveUpDown(2f);
+		camera.setDeltaYaw(30d);
+		FloatBuffer buffer = frame.getData();
+		assertEquals(5f, buffer.get(FrameUniforms.EYE_POSITION + 1), 0f);
+		float[] view = new float[16];
+		buffer.position(FrameUniforms.V);
+		buffer.get(view);
+		assertArrayEquals(camera.getLookAtViewMatrix().getElements(), view, 0f);
+	}
+
+}
@@ -0,0 +1,148 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.engine.render;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.Test;
+
+import com.jogamp.opengl.GLAutoDrawable;
+
+import tk.otanod.engine.camera.Camera;
+import tk.otanod.engine.light.Light;
+import tk.otanod.libMath.M4f;
+
+/**
+ * GL-free: the models only record the init() calls
+ */
+public class GLUploadQueueTest {
+
+	private final List<String> events = new ArrayList<>();
+
+	private class TestModel implements Model {
+		private final String name;
+
+		private TestModel(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public void init(GLAutoDrawable drawable) {
+			events.add(name);
+		}
+
+		@Override
+		public void dispose(GLAutoDrawable drawable) {
+		}
+
+		@Override
+		public void display(GLAutoDrawable drawable) {
+		}
+
+		@Override
+		public void reshape(GLAutoDrawable drawable, int x, int y, int width, int height) {
+		}
+
+		@Override
+		public void update(float x, float y, float z, Camera camera, Light light, M4f projection) {
+		}
+
+		@Override
+		public void updatePosition(float x, float y, float z) {
+		}
+
+		@Override
+		public void updateScale(float xScale, float yScale, float zScale) {
+		}
+
+		@Override
+		public void update(Camera camera) {
+		}
+
+		@Override
+		public void update(Light light) {
+		}
+
+		@Override
+		public void update(M4f projection) {
+		}
+	}
+
+	@Test
+	public void orderTest() {
+		List<Model> models = new CopyOnWriteArrayList<>();
+		GLUploadQueue uploads = new GLUploadQueue(Float.POSITIVE_INFINITY);
+		CompletableFuture<String> a = new CompletableFuture<>();
+		CompletableFuture<String> b = new CompletableFuture<>();
+		CompletableFuture<TestModel> modelA = uploads.add(models, a, () -> new TestModel(a.join()));
+		CompletableFuture<TestModel> modelB = uploads.add(models, b, () -> new TestModel(b.join()));
+
+		// b is ready but it waits for a, the models keep their order
+		b.complete("b");
+		assertEquals(0, uploads.upload(null));
+		assertTrue(models.isEmpty());
+		assertFalse(modelB.isDone());
+
+		a.complete("a");
+		assertEquals(2, uploads.upload(null));
+		assertEquals(List.of("a", "b"), events);
+		assertEquals(2, models.size());
+		assertSame(modelA.join(), models.get(0));
+		assertSame(modelB.join(), models.get(1));
+		assertTrue(uploads.isEmpty());
+	}
+
+	@Test
+	public void budgetTest() {
+		List<Model> models = new CopyOnWriteArrayList<>();
+		GLUploadQueue uploads = new GLUploadQueue(0f);									// one model per frame
+		for (int i = 0; i < 3; i++) {
+			String name = "m" + i;
+			uploads.add(models, CompletableFuture.completedFuture(null), () -> new TestModel(name));
+		}
+		for (int frame = 1; frame <= 3; frame++) {
+			assertEquals(1, uploads.upload(null));
+			assertEquals(frame, models.size());
+		}
+		assertEquals(0, uploads.upload(null));
+		assertEquals(List.of("m0", "m1", "m2"), events);
+	}
+
+	@Test
+	public void failedAssetsTest() {
+		List<Model> models = new CopyOnWriteArrayList<>();
+		GLUploadQueue uploads = new GLUploadQueue(Float.POSITIVE_INFINITY);
+		CompletableFuture<Void> missing = new CompletableFuture<>();
+		missing.completeExceptionally(new IOException("missing.png"));
+		CompletableFuture<TestModel> failed = uploads.add(models, missing, () -> new TestModel("failed"));
+		uploads.add(models, CompletableFuture.completedFuture(null), () -> new TestModel("next"));
+
+		// the failed model is dropped, it doesn't block the next one
+		assertEquals(1, uploads.upload(null));
+		assertEquals(List.of("next"), events);
+		assertTrue(failed.isCompletedExceptionally());
+		assertTrue(uploads.isEmpty());
+	}
+
+}
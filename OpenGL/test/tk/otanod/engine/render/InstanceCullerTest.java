@@ -0,0 +1,164 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.engine.render;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import tk.otanod.engine.camera.Camera;
+import tk.otanod.libMath.Frustum;
+import tk.otanod.libMath.M4f;
+import tk.otanod.libMath.Sphere3f;
+import tk.otanod.libMath.V3f;
+
+public class InstanceCullerTest {
+
+	private static final M4f PROJECTION = new M4f(Camera.getProjectionMatrix(60f, 1f, 1f, 150f));
+	private static final Sphere3f UNIT_SPHERE = new Sphere3f(0f, 0f, 0f, 0.5f);
+
+	@Test
+	public void rowTest() {
+		// one instance every unit from z = -1 to z = -200, near 1, far 150
+		float[] m = new float[200 * 16];
+		for (int i = 0; i < 200; i++) {
+			setInstance(m, i, 0f, 0f, -1f - i, 1f);
+		}
+		InstanceCuller culler = new InstanceCuller(200, m, UNIT_SPHERE);
+		assertEquals(150, culler.cull(getFrustum(0f, 0f, -1f)));
+		for (int i = 0; i < 150; i++) {
+			assertEquals(i, culler.getVisible()[i]);
+		}
+		assertEquals(0, culler.cull(getFrustum(0f, 0f, 1f)));						// looking back
+		assertEquals(0, culler.cull(getFrustum(-1f, 0f, 0f)));						// looking left
+	}
+
+	@Test
+	public void gridTest() {
+		// same result as the sphere test of each instance, matrices in instance order
+		Random random = new Random(3);
+		int n = 20000;
+		float[] m = getRandomInstances(n, random);
+		InstanceCuller culler = new InstanceCuller(n, m, UNIT_SPHERE);
+		Frustum frustum = getFrustum(1f, -0.2f, -1f);
+		int nVisible = culler.cull(frustum, ForkJoinPool.commonPool(), Integer.MAX_VALUE);
+		int count = 0;
+		for (int i = 0; i < n; i++) {
+			float scale = m[i * 16];
+			if ( frustum.isSphereVisible(m[i * 16 + 12], m[i * 16 + 13], m[i * 16 + 14], 0.5f * scale) ) {
+				assertEquals(i, culler.getVisible()[count]);
+				assertArrayEquals(Arrays.copyOfRange(m, i * 16, i * 16 + 16), Arrays.copyOfRange(culler.getVisibleMatrices(), count * 16, count * 16 + 16), 0f);
+				count++;
+			}
+		}
+		assertEquals(count, nVisible);
+		assertTrue(nVisible > 100 && nVisible < n);
+	}
+
+	@Test
+	public void parallelTest() {
+		// the chunks culled on 4 threads give the same visible set as one thread
+		Random random = new Random(5);
+		int n = 50000;
+		float[] m = getRandomInstances(n, random);
+		InstanceCuller serial = new InstanceCuller(n, m, UNIT_SPHERE);
+		InstanceCuller parallel = new InstanceCuller(n, m, UNIT_SPHERE);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (int k = 0; k < 10; k++) {
+				Frustum frustum = getFrustum(random.nextFloat() - 0.5f, random.nextFloat() - 0.5f, random.nextFloat() - 0.5f);
+				int nVisible = serial.cull(frustum, pool, Integer.MAX_VALUE);
+				assertEquals(nVisible, parallel.cull(frustum, pool, 0));
+				assertArrayEquals(Arrays.copyOf(serial.getVisible(), nVisible), Arrays.copyOf(parallel.getVisible(), nVisible));
+				assertArrayEquals(Arrays.copyOf(serial.getVisibleMatrices(), nVisible * 16), Arrays.copyOf(parallel.getVisibleMatrices(), nVisible * 16), 0f);
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void changedTest() {
+		float[] m = getRandomInstances(1000, new Random(7));
+		InstanceCuller culler = new InstanceCuller(1000, m, UNIT_SPHERE);
+		culler.cull(getFrustum(0f, 0f, -1f));
+		assertTrue(culler.isChanged());												// first cull
+		culler.cull(getFrustum(0f, 0f, -1f));
+		assertFalse(culler.isChanged());												// same camera, no upload
+		culler.cull(getFrustum(1f, 0f, 0f));
+		assertTrue(culler.isChanged());
+	}
+
+	@Test
+	public void depthTest() {
+		// instances spread on both sides of the origin: the centroid says nothing, the visible ones do
+		float[] m = new float[4 * 16];
+		setInstance(m, 0, 0f, 0f, -10f, 1f);
+		setInstance(m, 1, 0f, 0f, -30f, 1f);
+		setInstance(m, 2, 0f, 0f, 10f, 1f);
+		setInstance(m, 3, 0f, 0f, 30f, 1f);
+		InstanceCuller culler = new InstanceCuller(4, m, UNIT_SPHERE);
+		V3f eye = new V3f(0f, 0f, 0f);
+		assertEquals(2, culler.cull(getFrustum(0f, 0f, -1f)));
+		assertEquals(9.5f, culler.getNearestDepth(eye), 1E-5f);
+		assertEquals(20f, culler.getMeanDepth(eye), 1E-5f);
+		assertEquals(0f, culler.getNearestDepth(new V3f(0f, 0f, -10.2f)), 0f);		// inside a sphere
+
+		assertEquals(0, culler.cull(getFrustum(1f, 0f, 0f)));
+		assertEquals(0f, culler.getNearestDepth(eye), 0f);
+		assertEquals(0f, culler.getMeanDepth(eye), 0f);
+	}
+
+	@Test
+	public void worldSphereTest() {
+		// the radius follows the largest scale of the instance
+		float[] m = new float[16];
+		setInstance(m, 0, 10f, 0f, 0f, 3f);
+		float[] spheres = InstanceCuller.getWorldSpheres(1, m, new Sphere3f(1f, 0f, 0f, 2f));
+		assertArrayEquals(new float[] { 13f, 0f, 0f, 6f }, spheres, 1E-6f);
+	}
+
+	private static Frustum getFrustum(float x, float y, float z) {
+		M4f view = M4f.lookAt(new V3f(0f, 0f, 0f), new V3f(x, y, z), ( x == 0f && z == 0f ) ? new V3f(0f, 0f, 1f) : new V3f(0f, 1f, 0f), new M4f());
+		return new Frustum(PROJECTION, view);
+	}
+
+	private static float[] getRandomInstances(int n, Random random) {
+		float[] m = new float[n * 16];
+		for (int i = 0; i < n; i++) {
+			setInstance(m, i, random.nextFloat() * 400f - 200f, random.nextFloat() * 400f - 200f, random.nextFloat() * 400f - 200f, 0.5f + random.nextFloat() * 4f);
+		}
+		return m;
+	}
+
+	private static void setInstance(float[] m, int i, float x, float y, float z, float scale) {
+		int o = i * 16;
+		m[o] = scale;
+		m[o + 5] = scale;
+		m[o + 10] = scale;
+		m[o + 15] = 1f;
+		m[o + 12] = x;
+		m[o + 13] = y;
+		m[o + 14] = z;
+	}
+
+}
@@ -0,0 +1,97 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.engine.render;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.Test;
+
+/**
+ * GL-free: any bytes stand for the driver binary
+ */
+public class ProgramBinaryFileTest {
+
+	private static final long HASH = ShaderProgramCache.hash("vertex", "fragment");
+	private static final String DRIVER = ProgramBinaryFile.getDriver("Test Renderer", "4.6.0 Test 1.0");
+	private static final int FORMAT = 0x8740;
+
+	private static ByteBuffer getBinary(int size) {
+		ByteBuffer binary = ByteBuffer.allocateDirect(size);
+		for (int i = 0; i < size; i++) {
+			binary.put((byte) (i * 31 + 7));
+		}
+		binary.flip();
+		return binary;
+	}
+
+	@Test
+	public void roundTripTest() throws IOException {
+		Path folder = Files.createTempDirectory("rawprog");
+		Path cache = ProgramBinaryFile.getCachePath(folder, HASH);
+		assertEquals(String.format("%016x", HASH) + ".rawprog", cache.getFileName().toString());
+		assertNull(ProgramBinaryFile.read(cache, HASH, DRIVER));								// missing
+
+		ByteBuffer binary = getBinary(5000);
+		ProgramBinaryFile.write(cache, HASH, DRIVER, FORMAT, binary);
+		assertEquals(5000, binary.remaining());													// not consumed
+
+		ProgramBinaryFile file = ProgramBinaryFile.read(cache, HASH, DRIVER);
+		assertNotNull(file);
+		assertEquals(FORMAT, file.getFormat());
+		assertEquals(binary, file.getBinary());
+		assertTrue(file.getBinary().isDirect());
+
+		Files.delete(cache);
+		Files.delete(folder);
+	}
+
+	@Test
+	public void staleTest() throws IOException {
+		Path folder = Files.createTempDirectory("rawprog");
+		Path cache = ProgramBinaryFile.getCachePath(folder, HASH);
+		ProgramBinaryFile.write(cache, HASH, DRIVER, FORMAT, getBinary(100));
+
+		// other sources, other GPU, other driver version
+		assertNull(ProgramBinaryFile.read(cache, HASH + 1, DRIVER));
+		assertNull(ProgramBinaryFile.read(cache, HASH, ProgramBinaryFile.getDriver("Other Renderer", "4.6.0 Test 1.0")));
+		assertNull(ProgramBinaryFile.read(cache, HASH, ProgramBinaryFile.getDriver("Test Renderer", "4.6.0 Test 1.1")));
+		assertNotNull(ProgramBinaryFile.read(cache, HASH, DRIVER));
+
+		// truncated file
+		long size = Files.size(cache);
+		try ( FileChannel channel = FileChannel.open(cache, StandardOpenOption.WRITE) ) {
+			channel.truncate(size - 1);
+		}
+		assertNull(ProgramBinaryFile.read(cache, HASH, DRIVER));
+
+		// not a program binary
+		Files.write(cache, new byte[64]);
+		assertNull(ProgramBinaryFile.read(cache, HASH, DRIVER));
+
+		Files.delete(cache);
+		Files.delete(folder);
+	}
+
+}
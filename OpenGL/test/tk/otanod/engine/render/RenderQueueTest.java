@@ -0,0 +1,214 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.engine.render;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.jogamp.opengl.GL4ES3;
+
+/**
+ * GL-free: a proxy records the GL calls of the state changes
+ */
+public class RenderQueueTest {
+
+	private static GL4ES3 getGL(List<String> calls) {
+		return (GL4ES3) Proxy.newProxyInstance(GL4ES3.class.getClassLoader(), new Class<?>[] { GL4ES3.class },
+				(proxy, method, args) -> {
+					calls.add(method.getName());
+					return null;
+				});
+	}
+
+	@Test
+	public void radixSortTest() {
+		Random random = new Random(3);
+		for (int n : new int[] { 0, 1, 2, 17, 1000 }) {
+			long[] keys = new long[n];
+			int[] values = new int[n];
+			for (int i = 0; i < n; i++) {
+				keys[i] = ( i % 3 == 0 ) ? random.nextLong() : random.nextInt(8);			// negative = over 2^63 unsigned, many equal keys
+				values[i] = i;
+			}
+			long[] expected = keys.clone();
+			for (int i = 0; i < n; i++) {
+				expected[i] ^= Long.MIN_VALUE;												// unsigned order with the signed sort
+			}
+			Arrays.sort(expected);
+			for (int i = 0; i < n; i++) {
+				expected[i] ^= Long.MIN_VALUE;
+			}
+
+			long[] original = keys.clone();
+			long[] scratchKeys = new long[n];
+			int[] scratchValues = new int[n];
+			if ( RenderQueue.radixSort(keys, values, n, scratchKeys, scratchValues, new int[256]) ) {
+				keys = scratchKeys;
+				values = scratchValues;
+			}
+			assertArrayEquals(expected, keys);
+			for (int i = 0; i < n; i++) {
+				assertEquals(original[values[i]], keys[i]);
+				if ( i > 0 && keys[i] == keys[i - 1] ) {
+					assertTrue(values[i] > values[i - 1]);										// stable
+				}
+			}
+		}
+	}
+
+	@Test
+	public void keyTest() {
+		RenderState a = new RenderState(3, 0, 1, 10, false, true, GL4ES3.GL_LESS);
+		RenderState b = new RenderState(4, 0, 1, 11, false, true, GL4ES3.GL_LESS);
+
+		// passes first
+		assertTrue(Long.compareUnsigned(RenderQueue.getKey(RenderQueue.PASS_OPAQUE, b, 500f), RenderQueue.getKey(RenderQueue.PASS_SKY, a, 0f)) < 0);
+		assertTrue(Long.compareUnsigned(RenderQueue.getKey(RenderQueue.PASS_SKY, b, 500f), RenderQueue.getKey(RenderQueue.PASS_TRANSPARENT, a, 0f)) < 0);
+		assertTrue(Long.compareUnsigned(RenderQueue.getKey(RenderQueue.PASS_TRANSPARENT, b, 0f), RenderQueue.getKey(RenderQueue.PASS_OVERLAY, a, 0f)) < 0);
+
+		// opaque: state, then front to back
+		assertTrue(RenderQueue.getKey(RenderQueue.PASS_OPAQUE, a, 500f) < RenderQueue.getKey(RenderQueue.PASS_OPAQUE, b, 1f));
+		assertTrue(RenderQueue.getKey(RenderQueue.PASS_OPAQUE, a, 1f) < RenderQueue.getKey(RenderQueue.PASS_OPAQUE, a, 2f));
+		RenderState otherVao = new RenderState(3, 0, 1, 9, false, true, GL4ES3.GL_LESS);
+		assertTrue(RenderQueue.getKey(RenderQueue.PASS_OPAQUE, a, 1f) < RenderQueue.getKey(RenderQueue.PASS_OPAQUE, otherVao, 2f));
+
+		// transparent: back to front, then state
+		long near = RenderQueue.getKey(RenderQueue.PASS_TRANSPARENT, a, 1f);
+		long far = RenderQueue.getKey(RenderQueue.PASS_TRANSPARENT, b, 2f);
+		assertTrue(Long.compareUnsigned(far, near) < 0);
+		assertTrue(Long.compareUnsigned(RenderQueue.getKey(RenderQueue.PASS_TRANSPARENT, a, 2f), far) < 0);
+
+		// out of range depths are clamped
+		assertEquals(0, RenderQueue.getQuantizedDepth(-1f));
+		assertEquals(0, RenderQueue.getQuantizedDepth(Float.NaN));
+		assertEquals(RenderQueue.getQuantizedDepth(RenderQueue.DEPTH_RANGE), RenderQueue.getQuantizedDepth(1E9f));
+	}
+
+	@Test
+	public void stateTest() {
+		RenderState opaque = new RenderState(3, 5, 1, 10, false, true, GL4ES3.GL_LESS);
+		RenderState transparent = new RenderState(3, 5, 2, 11, true, false, GL4ES3.GL_LESS);
+		List<String> calls = new ArrayList<>();
+		GL4ES3 gl = getGL(calls);
+
+		assertEquals(0, RenderState.getnChanges(opaque, opaque));
+		assertEquals(3, RenderState.apply(gl, RenderState.DEFAULT, opaque));
+		assertEquals(Arrays.asList("glUseProgram", "glUniform1i", "glBindVertexArray"), calls);
+
+		calls.clear();
+		assertEquals(5, RenderState.apply(gl, opaque, transparent));								// same program: sampler, VAO, blend and cull
+		assertEquals(Arrays.asList("glUniform1i", "glBindVertexArray", "glEnable", "glBlendFunc", "glDisable"), calls);
+		assertEquals(5, RenderState.getnChanges(opaque, transparent));
+
+		calls.clear();
+		assertEquals(4, transparent.unbind(gl));
+		assertFalse(calls.contains("glUniform1i"));
+	}
+
+	@Test
+	public void executeTest() {
+		// the demo in list order: terrain, 4 props (one program, one atlas), sky, 3 vegetation (blended), text
+		RenderState terrain = new RenderState(1, -1, 0, 0, false, true, GL4ES3.GL_LESS);
+		RenderState[] props = new RenderState[4];
+		for (int i = 0; i < props.length; i++) {
+			props[i] = new RenderState(2, 7, 5, 20 + i, false, true, GL4ES3.GL_LESS);
+		}
+		RenderState sky = new RenderState(3, 4, 6, 30, false, true, GL4ES3.GL_LEQUAL);
+		RenderState[] vegetation = new RenderState[3];
+		for (int i = 0; i < vegetation.length; i++) {
+			vegetation[i] = new RenderState(2, 7, 8, 40 + i, true, false, GL4ES3.GL_LESS);
+		}
+		RenderState text = new RenderState(9, 4, 10, 50, true, false, GL4ES3.GL_LESS);
+
+		List<String> calls = new ArrayList<>();
+		RenderQueue queue = new RenderQueue();
+		for (int frame = 0; frame < 2; frame++) {
+			queue.clear();
+			calls.clear();
+			queue.submit(RenderQueue.getKey(RenderQueue.PASS_OPAQUE, terrain, 0f), terrain, d -> calls.add("draw terrain"));
+			float[] propDepths = { 40f, 10f, 30f, 20f };
+			for (int i = 0; i < props.length; i++) {
+				String name = "draw prop " + (int) propDepths[i];
+				queue.submit(RenderQueue.getKey(RenderQueue.PASS_OPAQUE, props[i], propDepths[i]), props[i], d -> calls.add(name));
+			}
+			queue.submit(RenderQueue.getKey(RenderQueue.PASS_SKY, sky, 0f), sky, d -> calls.add("draw sky"));
+			float[] vegetationDepths = { 5f, 50f, 25f };
+			for (int i = 0; i < vegetation.length; i++) {
+				String name = "draw vegetation " + (int) vegetationDepths[i];
+				queue.submit(RenderQueue.getKey(RenderQueue.PASS_TRANSPARENT, vegetation[i], vegetationDepths[i]), vegetation[i], d -> calls.add(name));
+			}
+			queue.submit(RenderQueue.getKey(RenderQueue.PASS_TRANSPARENT, text, 15f), text, d -> calls.add("draw text"));
+			queue.execute(getGL(calls), null);
+
+			List<String> draws = new ArrayList<>();
+			for (String call : calls) {
+				if ( call.startsWith("draw") ) {
+					draws.add(call);
+				}
+			}
+			assertEquals(Arrays.asList("draw terrain", "draw prop 10", "draw prop 20", "draw prop 30", "draw prop 40", "draw sky",
+					"draw vegetation 50", "draw vegetation 25", "draw text", "draw vegetation 5"), draws);
+			assertEquals(10, queue.getnItems());
+			assertEquals(calls.size() - draws.size(), queue.getnStateChanges());
+			assertTrue(queue.getStatistics(), queue.getnStateChanges() < queue.getnStateChangesUnsorted());
+			assertEquals(queue.getStatistics(), 29, queue.getnStateChanges());						// 69 drawn one by one
+			assertEquals("glDepthFunc", calls.get(calls.indexOf("draw sky") - 1));
+		}
+	}
+
+	@Test
+	public void overlayTest() {
+		List<String> calls = new ArrayList<>();
+		Model gui = getModel("gui", calls);
+		Model removed = getModel("removed", calls);
+		RenderQueue queue = new RenderQueue();
+
+		queue.clear();
+		queue.submit(gui);
+		queue.submit(removed);
+		queue.execute(getGL(calls), null);
+		assertEquals(Arrays.asList("display gui", "display removed"), calls);
+		assertEquals(2, queue.getnModelItems());
+
+		// the removed model is kept one frame, then its item is dropped
+		for (int frame = 0; frame < 2; frame++) {
+			calls.clear();
+			queue.clear();
+			queue.submit(gui);
+			queue.execute(getGL(calls), null);
+			assertEquals(Arrays.asList("display gui"), calls);
+		}
+		assertEquals(1, queue.getnModelItems());
+	}
+
+	private static Model getModel(String name, List<String> calls) {
+		return (Model) Proxy.newProxyInstance(Model.class.getClassLoader(), new Class<?>[] { Model.class },
+				(proxy, method, args) -> {
+					calls.add(method.getName() + " " + name);
+					return null;
+				});
+	}
+
+}
@@ -0,0 +1,119 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.engine.render;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * GL-free: the linker hands out program ids and records the links, the deleter records the deleted ids
+ */
+public class ShaderProgramCacheTest {
+
+	private static final String VERTEX = "attribute vec4 av4Position; void main(void) { gl_Position = av4Position; }";
+	private static final String FRAGMENT = "uniform vec3 uColor; void main(void) { gl_FragColor = vec4(uColor, 1.0); }";
+
+	private final List<String> linked = new ArrayList<>();
+	private final List<Integer> deleted = new ArrayList<>();
+	private int nextId = 1;
+
+	private ShaderProgram link(long hash, String vertexSource, String fragmentSource) {
+		linked.add(vertexSource);
+		HashMap<String, Integer> attribs = new HashMap<>();
+		attribs.put("av4Position", 0);
+		HashMap<String, Integer> uniforms = new HashMap<>();
+		uniforms.put("uColor", 3);
+		return new ShaderProgram(nextId++, hash, vertexSource, fragmentSource, attribs, uniforms);
+	}
+
+	@Test
+	public void sharedTest() {
+		ShaderProgramCache cache = new ShaderProgramCache();
+		ShaderProgram p1 = cache.acquire(VERTEX, FRAGMENT, this::link);
+		ShaderProgram p2 = cache.acquire(VERTEX, FRAGMENT, this::link);
+		ShaderProgram p3 = cache.acquire("#define QUANTIZED\n" + VERTEX, FRAGMENT, this::link);
+
+		// same sources ==> same program, linked once
+		assertSame(p1, p2);
+		assertNotSame(p1, p3);
+		assertEquals(2, linked.size());
+		assertEquals(2, cache.getnPrograms());
+		assertEquals(2, cache.getnLinked());
+		assertEquals(3, cache.getnAcquired());
+		assertEquals(2, p1.getReferences());
+
+		// location tables, -1 like GL for the inactive names
+		assertEquals(0, p1.getAttribLocation("av4Position"));
+		assertEquals(3, p1.getUniformLocation("uColor"));
+		assertEquals(-1, p1.getUniformLocation("uSampler"));
+		assertEquals(-1, p1.getAttribLocation("uColor"));
+	}
+
+	@Test
+	public void releaseTest() {
+		ShaderProgramCache cache = new ShaderProgramCache();
+		ShaderProgram p1 = cache.acquire(VERTEX, FRAGMENT, this::link);
+		cache.acquire(VERTEX, FRAGMENT, this::link);
+
+		// the program lives until the last renderer releases it
+		cache.release(p1.getId(), deleted::add);
+		assertEquals(0, deleted.size());
+		assertEquals(1, cache.getnPrograms());
+		cache.release(p1.getId(), deleted::add);
+		assertEquals(1, deleted.size());
+		assertEquals(p1.getId(), (int) deleted.get(0));
+		assertEquals(0, cache.getnPrograms());
+
+		// unknown or already deleted ids are ignored
+		cache.release(p1.getId(), deleted::add);
+		cache.release(1234, deleted::add);
+		assertEquals(1, deleted.size());
+
+		// linked again after the delete
+		ShaderProgram p2 = cache.acquire(VERTEX, FRAGMENT, this::link);
+		assertNotEquals(p1.getId(), p2.getId());
+		assertEquals(2, linked.size());
+	}
+
+	@Test
+	public void hashTest() {
+		assertEquals(ShaderProgramCache.hash(VERTEX, FRAGMENT), ShaderProgramCache.hash(VERTEX, FRAGMENT));
+		assertNotEquals(ShaderProgramCache.hash(VERTEX, FRAGMENT), ShaderProgramCache.hash(FRAGMENT, VERTEX));
+		assertNotEquals(ShaderProgramCache.hash("ab", "c"), ShaderProgramCache.hash("a", "bc"));
+		assertNotEquals(ShaderProgramCache.hash("", ""), ShaderProgramCache.hash(" ", ""));
+		assertNotEquals(ShaderProgramCache.hash("\u0100", ""), ShaderProgramCache.hash("\u0001", ""));
+	}
+
+	@Test
+	public void headerTest() {
+		// uniform blocks need GLSL ES 3.00 or GLSL 1.40 on every profile, the version line comes first
+		assertEquals("#version 300 es\n", ShaderProgramCache.getHeader(true, false));
+		assertEquals("#version 300 es\nprecision mediump float;\n", ShaderProgramCache.getHeader(true, true));
+		assertEquals("#version 140\n", ShaderProgramCache.getHeader(false, false));
+		assertEquals("#version 140\n", ShaderProgramCache.getHeader(false, true));
+		assertEquals("#version 140\n#define QUANTIZED\n#define MAX_LIGHTS 4\n", ShaderProgramCache.getHeader(false, false, "QUANTIZED", "MAX_LIGHTS 4"));
+		assertTrue(ShaderProgramCache.getHeader(true, true, "QUANTIZED").endsWith("precision mediump float;\n#define QUANTIZED\n"));
+	}
+
+}
@@ -0,0 +1,72 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.engine.terrain;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.util.List;
+
+import org.junit.Test;
+
+import tk.otanod.libOBJ.ElementBuffers;
+
+public class TerrainFlatTest {
+
+	@Test
+	public void singleChunkTest() {
+		RawTerrain terrain = TerrainFlat.getInstance().create(512f, 128);
+		List<RawTerrain> chunks = TerrainFlat.getInstance().createChunks(512f, 128);
+
+		assertEquals(1, chunks.size());
+		assertEquals(terrain.getnElements(), chunks.get(0).getnElements());
+		assertArrayEquals(terrain.getIndices(), chunks.get(0).getIndices());
+		assertArrayEquals(terrain.getPositions(), chunks.get(0).getPositions(), 0f);
+		assertArrayEquals(terrain.getTextureCoords(), chunks.get(0).getTextureCoords(), 0f);
+		assertTrue(terrain.getIndexBuffer() instanceof ShortBuffer);
+	}
+
+	@Test
+	public void chunksTest() {
+		// 600 x 600 vertices need 32 bits indices, the chunks fit in 16 bits
+		final float WIDTH = 512f;
+		final int SLICES = 600;
+		RawTerrain terrain = TerrainFlat.getInstance().create(WIDTH, SLICES);
+		List<RawTerrain> chunks = TerrainFlat.getInstance().createChunks(WIDTH, SLICES);
+
+		assertTrue(terrain.getIndexBuffer() instanceof IntBuffer);
+		assertEquals(9, chunks.size());
+
+		int nElements = 0;
+		for (RawTerrain chunk : chunks) {
+			assertTrue(chunk.getnVertices() <= ElementBuffers.MAX_SHORT_VERTICES);
+			assertTrue(chunk.getIndexBuffer() instanceof ShortBuffer);
+			nElements += chunk.getnElements();
+
+			// same grid as the whole terrain: texture coords are the global vertex (x, z) of the grid
+			float[] p = chunk.getPositions();
+			float[] uv = chunk.getTextureCoords();
+			for (int v = 0; v < chunk.getnVertices(); v++) {
+				assertEquals(uv[v * 2] / (SLICES - 1) * WIDTH, p[v * 3], 0.001f);
+				assertEquals(uv[v * 2 + 1] / (SLICES - 1) * WIDTH, p[v * 3 + 2], 0.001f);
+			}
+		}
+		assertEquals(terrain.getnElements(), nElements);
+	}
+
+}
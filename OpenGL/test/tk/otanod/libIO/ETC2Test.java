@@ -0,0 +1,194 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libIO;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class ETC2Test {
+
+	// opaque (RGB), opaque photo, alpha cutouts (palette with tRNS, RGBA), font atlas and the minimum PSNR of each one
+	private static final String[] IMAGES = { "res/drawable/grass.png", "res/drawable/stall.png", "res/drawable/grass1.png", "res/drawable/fern.png", "res/fonts/Ubuntu-R.png" };
+	private static final double[] MIN_PSNR = { 27.5, 33.0, 36.0, 36.5, 43.0 };
+
+	@Test
+	public void roundTripTest() {
+		for (int n = 0; n < IMAGES.length; n++) {
+			RawImage image = ImageFile.loadImageFile(IMAGES[n], true);
+			boolean hasAlpha = ETC2.hasAlpha(image.byteDataBuffer, image.width, image.height);
+			int format = ETC2.getFormat(hasAlpha);
+			ByteBuffer blocks = ETC2.encode(image.byteDataBuffer, image.width, image.height, format);
+			assertEquals(IMAGES[n], ETC2.getCompressedSize(image.width, image.height, format), blocks.remaining());
+
+			byte[] decoded = ETC2.decode(blocks, image.width, image.height, format);
+			double psnr = ETC2.getPSNR(image.byteDataBuffer, decoded, hasAlpha);
+			assertTrue(IMAGES[n] + " PSNR " + psnr, psnr > MIN_PSNR[n]);
+		}
+		assertFalse(ETC2.hasAlpha(ImageFile.loadImageFile("res/drawable/grass.png").byteDataBuffer, 256, 256));
+		assertTrue(ETC2.hasAlpha(ImageFile.loadImageFile("res/drawable/fern.png").byteDataBuffer, 512, 512));
+	}
+
+	@Test
+	public void flatAndGradientTest() {
+		// flat colors: the planar mode is within 2 of every color, flat alpha is exact
+		Random random = new Random(13);
+		for (int i = 0; i < 200; i++) {
+			int[] color = { random.nextInt(256), random.nextInt(256), random.nextInt(256), random.nextInt(256) };
+			ByteBuffer image = getImage(4, 4, (x, y, k) -> color[k]);
+			byte[] decoded = roundTrip(image, 4, 4, ETC2.GL_COMPRESSED_SRGB8_ALPHA8_ETC2_EAC);
+			for (int t = 0; t < 16; t++) {
+				for (int k = 0; k < 3; k++) {
+					assertEquals(color[k], decoded[t * 4 + k] & 0xff, 2);
+				}
+				assertEquals(color[3], decoded[t * 4 + 3] & 0xff);
+			}
+		}
+
+		// linear gradients are planar blocks
+		ByteBuffer gradient = getImage(16, 16, (x, y, k) -> Math.min(255, 4 * (x & 3) * (k + 1) + 8 * (y & 3) + 40 * k));
+		double psnr = ETC2.getPSNR(gradient, roundTrip(gradient, 16, 16, ETC2.GL_COMPRESSED_SRGB8_ETC2), false);
+		assertTrue("PSNR " + psnr, psnr > 45.0);
+	}
+
+	@Test
+	public void partialBlocksTest() {
+		// 1x1 to 7x6: the texels outside the image are not decoded
+		Random random = new Random(17);
+		for (int width = 1; width < 8; width++) {
+			for (int height = 1; height < 7; height++) {
+				int[] color = { random.nextInt(256), random.nextInt(256), random.nextInt(256), 255 };
+				ByteBuffer image = getImage(width, height, (x, y, k) -> color[k]);
+				ByteBuffer blocks = ETC2.encode(image, width, height, ETC2.GL_COMPRESSED_SRGB8_ETC2);
+				assertEquals(((width + 3) / 4) * ((height + 3) / 4) * 8, blocks.remaining());
+				byte[] decoded = ETC2.decode(blocks, width, height, ETC2.GL_COMPRESSED_SRGB8_ETC2);
+				assertEquals(width * height * 4, decoded.length);
+				for (int t = 0; t < width * height; t++) {
+					assertEquals(color[0], decoded[t * 4] & 0xff, 2);
+					assertEquals(255, decoded[t * 4 + 3] & 0xff);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void tAndHModesTest() {
+		// T mode: C1 = 0xF00 (bits 60..59, 57..56), C2 = 0x444, distance index 7 (64); R = 31 + 3 overflows
+		long t = (0b111L << 61) | (0b11L << 59) | (0b011L << 56)
+				| (0x0L << 52) | (0x0L << 48) | (0x4L << 44) | (0x4L << 40) | (0x4L << 36)
+				| (0b11L << 34) | (1L << 33) | (1L << 32);
+		t |= getIndexBits(new int[] { 0, 1, 2, 3, 0, 1, 2, 3, 0, 1, 2, 3, 0, 1, 2, 3 });
+		int[][] paint = { { 255, 0, 0 }, { 0x44 + 64, 0x44 + 64, 0x44 + 64 }, { 0x44, 0x44, 0x44 }, { 4, 4, 4 } };
+		assertBlock(t, paint, new int[] { 0, 1, 2, 3 });
+
+		// H mode: C1 = 0x8C3 (G bits 58..56 + 52, B bits 51 + 49..47), C2 = 0x214, da = 1, db = 0, C1 >= C2 ==> distance index 5 (32)
+		long h = (0x8L << 59) | (0b110L << 56) | (0L << 52)
+				| (0L << 51) | (0b011L << 47)
+				| (0x2L << 43) | (0x1L << 39) | (0x4L << 35)
+				| (1L << 34) | (1L << 33);
+		h = setHOverflow(h);
+		int[] c1 = { 0x88, 0xCC, 0x33 };
+		int[] c2 = { 0x22, 0x11, 0x44 };
+		int[][] hPaint = new int[4][3];
+		for (int k = 0; k < 3; k++) {
+			hPaint[0][k] = Math.min(255, c1[k] + 32);
+			hPaint[1][k] = Math.max(0, c1[k] - 32);
+			hPaint[2][k] = Math.min(255, c2[k] + 32);
+			hPaint[3][k] = Math.max(0, c2[k] - 32);
+		}
+		h |= getIndexBits(new int[] { 3, 2, 1, 0, 3, 2, 1, 0, 3, 2, 1, 0, 3, 2, 1, 0 });
+		assertBlock(h, hPaint, new int[] { 3, 2, 1, 0 });
+	}
+
+	@Test
+	public void compressTest() {
+		RawImage image = ETC2.compress(MipChain.generate(ImageFile.loadFlippedImageFile("res/drawable/fern.png")));
+		assertTrue(image.isCompressed());
+		assertEquals(ETC2.GL_COMPRESSED_SRGB8_ALPHA8_ETC2_EAC, image.getCompressedFormat());
+		assertEquals(10, image.getnLevels());
+		for (int level = 0; level < image.getnLevels(); level++) {
+			int width = image.getLevelWidth(level);
+			int height = image.getLevelHeight(level);
+			assertEquals(ETC2.getCompressedSize(width, height, image.getCompressedFormat()), image.getCompressedLevel(level).remaining());
+		}
+		assertEquals(16, image.getCompressedLevel(9).remaining());						// 1x1 level, one block
+	}
+
+	/**
+	 * Bits 63, 55..53 and 50 are free in H mode: G must overflow, R must not
+	 */
+	private static long setHOverflow(long block) {
+		for (int free = 0; free < 32; free++) {
+			long candidate = block | ((long) (free & 1) << 63) | ((long) ((free >> 1) & 7) << 53) | ((long) ((free >> 4) & 1) << 50);
+			int r = (int) (candidate >>> 59) & 0x1f;
+			int dr = ((int) (candidate >>> 56) & 7) << 29 >> 29;
+			int g = (int) (candidate >>> 51) & 0x1f;
+			int dg = ((int) (candidate >>> 48) & 7) << 29 >> 29;
+			if ( r + dr >= 0 && r + dr <= 31 && (g + dg < 0 || g + dg > 31) ) {
+				return candidate;
+			}
+		}
+		throw new AssertionError("H block");
+	}
+
+	private static void assertBlock(long block, int[][] paint, int[] indexByRow) {
+		ByteBuffer blocks = ByteBuffer.allocate(8).order(ByteOrder.BIG_ENDIAN).putLong(0, block);
+		byte[] decoded = ETC2.decode(blocks, 4, 4, ETC2.GL_COMPRESSED_SRGB8_ETC2);
+		for (int y = 0; y < 4; y++) {
+			for (int x = 0; x < 4; x++) {
+				int i = (y * 4 + x) * 4;
+				int[] expected = paint[indexByRow[y]];
+				assertArrayEquals(x + "," + y, expected, new int[] { decoded[i] & 0xff, decoded[i + 1] & 0xff, decoded[i + 2] & 0xff });
+			}
+		}
+	}
+
+	private static long getIndexBits(int[] indices) {
+		long bits = 0L;
+		for (int p = 0; p < 16; p++) {
+			bits |= ((long) (indices[p] >> 1) << (16 + p)) | ((long) (indices[p] & 1) << p);
+		}
+		return bits;
+	}
+
+	private static byte[] roundTrip(ByteBuffer image, int width, int height, int format) {
+		return ETC2.decode(ETC2.encode(image, width, height, format), width, height, format);
+	}
+
+	private interface Texel {
+		int get(int x, int y, int channel);
+	}
+
+	private static ByteBuffer getImage(int width, int height, Texel texel) {
+		ByteBuffer buffer = ByteBuffer.allocateDirect(width * height * 4).order(ByteOrder.nativeOrder());
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				for (int k = 0; k < 4; k++) {
+					buffer.put((byte) texel.get(x, y, k));
+				}
+			}
+		}
+		buffer.position(0);
+		return buffer;
+	}
+
+}
@@ -0,0 +1,121 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libIO;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class MappedTextSourceTest {
+
+	private static final String[] FILES = { "res/models/stall.obj", "res/models/fern.obj", "res/fonts/Ubuntu-R.fnt" };
+
+	@Test
+	public void linesTest() throws IOException {
+		// same lines as BufferedReader.readLine
+		String[] texts = { "", "a", "a\n", "a\nb", "a\r\nb\r\n", "a\rb\r", "\n\n", "\r\n\r\n", "a\r\r\nb", "v 1 2 3\nvt 0.5 0.5\n\nf 1/1/1\n" };
+		for (String text : texts) {
+			List<String> expected = new ArrayList<>();
+			BufferedReader reader = new BufferedReader(new StringReader(text));
+			for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+				expected.add(line);
+			}
+
+			List<String> actual = new ArrayList<>();
+			MappedTextSource.Lines lines = wrap(text).lines();
+			while ( lines.next() ) {
+				actual.add(lines.toString());
+				assertEquals(lines.length(), lines.getEnd() - lines.getStart());
+			}
+			assertFalse(lines.next());
+			assertEquals(text.replace("\r", "\\r").replace("\n", "\\n"), expected, actual);
+		}
+	}
+
+	@Test
+	public void recordsTest() {
+		MappedTextSource.Lines records = wrap("x=1,y=22,,z\n,").records((byte) ',');
+		String[] expected = { "x=1", "y=22", "", "z\n" };
+		for (String record : expected) {
+			assertTrue(records.next());
+			assertEquals(record, records.toString());
+		}
+		assertFalse(records.next());
+	}
+
+	@Test
+	public void charSequenceTest() {
+		MappedTextSource source = wrap("vt 0.25 1\nf 1/2/3");
+		MappedTextSource.Lines lines = source.lines();
+		assertTrue(lines.next());
+		assertTrue(lines.startsWith("vt "));
+		assertFalse(lines.startsWith("v "));
+		assertFalse(lines.startsWith("vt 0.25 1 and more"));
+		assertEquals('0', lines.charAt(3));
+		CharSequence number = lines.subSequence(3, 7);
+		assertEquals(0.25f, Float.parseFloat(number.toString()), 0f);
+		assertEquals(3, Integer.parseInt(source.asCharSequence(), 16, 17, 10));
+		assertTrue(lines.next());
+		assertEquals("0.25", number.toString());								// the view does not move with the cursor
+		assertEquals("f 1/2/3", lines.toString());
+		assertEquals(source.size(), source.asCharSequence().length());
+		assertEquals("vt 0.25 1\nf 1/2/3", source.asCharSequence().toString());
+
+		// one char per byte, toString(charset) decodes
+		MappedTextSource utf8 = MappedTextSource.wrap(ByteBuffer.wrap("\u00f1".getBytes(StandardCharsets.UTF_8)));
+		assertEquals(2, utf8.asCharSequence().length());
+		assertEquals("\u00f1", utf8.toString(StandardCharsets.UTF_8));
+		MappedTextSource.Lines line = utf8.lines();
+		assertTrue(line.next());
+		assertEquals("\u00f1", line.toString(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void textFileTest() throws IOException {
+		// the wrappers return the same String as the previous readers
+		for (String fname : FILES) {
+			StringBuilder lines = new StringBuilder();
+			StringBuilder lines7 = new StringBuilder();
+			for (String line : Files.readAllLines(Paths.get(fname), Charset.defaultCharset())) {
+				lines.append(line).append(System.lineSeparator());
+			}
+			for (String line : Files.readAllLines(Paths.get(fname), StandardCharsets.ISO_8859_1)) {
+				lines7.append(line).append('\n');
+			}
+			assertEquals(fname, lines.toString(), TextFile.readTextFile(fname));
+			assertEquals(fname, lines7.toString(), TextFile.readTextFile7(fname));
+			assertEquals(fname, new String(Files.readAllBytes(Paths.get(fname))), TextFile.readContent(fname));
+		}
+		assertEquals("", TextFile.readTextFile("res/models/missing.obj"));
+	}
+
+	private static MappedTextSource wrap(String text) {
+		return MappedTextSource.wrap(ByteBuffer.wrap(text.getBytes(StandardCharsets.ISO_8859_1)));
+	}
+
+}
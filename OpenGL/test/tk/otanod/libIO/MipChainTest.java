@@ -0,0 +1,144 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libIO;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class MipChainTest {
+
+	@Test
+	public void levelCountTest() {
+		assertEquals(1, MipChain.getLevelCount(1, 1));
+		assertEquals(2, MipChain.getLevelCount(2, 1));
+		assertEquals(11, MipChain.getLevelCount(1024, 1024));
+		assertEquals(11, MipChain.getLevelCount(1024, 3));
+		assertEquals(9, MipChain.getLevelCount(300, 257));
+
+		RawImage image = MipChain.generate(getImage(300, 5, 10, 20, 30, 255));
+		assertEquals(9, image.getnLevels());
+		for (int level = 0; level < image.getnLevels(); level++) {
+			assertEquals(Math.max(1, 300 >> level), image.getLevelWidth(level));
+			assertEquals(Math.max(1, 5 >> level), image.getLevelHeight(level));
+			assertEquals(image.getLevelWidth(level) * image.getLevelHeight(level) * 4, image.getLevel(level).remaining());
+		}
+		assertEquals(1, image.getLevelWidth(8));
+		assertEquals(1, image.getLevelHeight(8));
+	}
+
+	@Test
+	public void uniformColorTest() {
+		// every sRGB value survives the round trip through linear light
+		for (int c = 0; c < 256; c++) {
+			RawImage image = MipChain.generate(getImage(4, 4, c, 255 - c, c / 2, 255));
+			for (int level = 1; level < image.getnLevels(); level++) {
+				ByteBuffer texels = image.getLevel(level);
+				for (int i = 0; i < texels.remaining(); i += 4) {
+					assertEquals(c, texels.get(i) & 0xff);
+					assertEquals(255 - c, texels.get(i + 1) & 0xff);
+					assertEquals(c / 2, texels.get(i + 2) & 0xff);
+					assertEquals(255, texels.get(i + 3) & 0xff);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void gammaCorrectTest() {
+		// black and white checkerboard: half the light is sRGB 188, not 128
+		byte[] checkerboard = new byte[2 * 2 * 4];
+		for (int i : new int[] { 0, 3 }) {
+			for (int k = 0; k < 4; k++) {
+				checkerboard[i * 4 + k] = (byte) 255;
+			}
+		}
+		checkerboard[1 * 4 + 3] = (byte) 255;
+		checkerboard[2 * 4 + 3] = (byte) 255;
+		byte[] level1 = MipChain.downsample(checkerboard, 2, 2);
+		int expected = (int) Math.round(MipChain.toSRGB(0.5) * 255.0);
+		assertEquals(188, expected);
+		for (int k = 0; k < 3; k++) {
+			assertEquals(expected, level1[k] & 0xff);
+		}
+		assertEquals(255, level1[3] & 0xff);
+	}
+
+	@Test
+	public void transparentTexelsTest() {
+		// one opaque red texel and three transparent ones: the color stays red, only alpha goes down
+		byte[] texels = new byte[2 * 2 * 4];
+		texels[0] = (byte) 255;
+		texels[3] = (byte) 255;
+		byte[] level1 = MipChain.downsample(texels, 2, 2);
+		assertEquals(64, level1[3] & 0xff);
+		assertEquals(64, level1[0] & 0xff);											// premultiplied red
+		assertEquals(0, level1[1] & 0xff);
+		assertEquals(0, level1[2] & 0xff);
+
+		// premultiplied output: no channel over alpha
+		byte[] image = new byte[64 * 64 * 4];
+		Random random = new Random(3);
+		for (int i = 0; i < image.length; i += 4) {
+			int a = random.nextInt(256);
+			for (int k = 0; k < 3; k++) {
+				image[i + k] = (byte) ((random.nextInt(256) * a * 0x010101 + 0x800000) >>> 24);
+			}
+			image[i + 3] = (byte) a;
+		}
+		byte[] downsampled = MipChain.downsample(image, 64, 64);
+		for (int i = 0; i < downsampled.length; i += 4) {
+			for (int k = 0; k < 3; k++) {
+				assertTrue((downsampled[i + k] & 0xff) <= (downsampled[i + 3] & 0xff));
+			}
+		}
+	}
+
+	@Test
+	public void parallelTest() {
+		// a level over the parallel threshold gives the same texels as small bands filtered one by one
+		int width = 512;
+		int height = 384;
+		byte[] image = new byte[width * height * 4];
+		new Random(5).nextBytes(image);
+		for (int i = 0; i < image.length; i += 4) {
+			image[i + 3] = (byte) 255;
+		}
+		byte[] parallel = MipChain.downsample(image, width, height);
+		for (int band = 0; band < height; band += 2) {
+			byte[] rows = new byte[width * 2 * 4];
+			System.arraycopy(image, band * width * 4, rows, 0, rows.length);
+			byte[] sequential = MipChain.downsample(rows, width, 2);
+			for (int i = 0; i < sequential.length; i++) {
+				assertEquals(sequential[i], parallel[band / 2 * width / 2 * 4 + i]);
+			}
+		}
+	}
+
+	private static RawImage getImage(int width, int height, int r, int g, int b, int a) {
+		ByteBuffer buffer = ByteBuffer.allocateDirect(width * height * 4).order(ByteOrder.nativeOrder());
+		for (int i = 0; i < width * height; i++) {
+			buffer.put((byte) r).put((byte) g).put((byte) b).put((byte) a);
+		}
+		buffer.position(0);
+		return new RawImage("test", width, height, buffer);
+	}
+
+}
@@ -0,0 +1,108 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libIO;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Random;
+
+import javax.imageio.ImageIO;
+
+import org.junit.Test;
+
+public class PNGDecoderTest {
+
+	// RGB, palette with tRNS, RGBA, RGBA font atlas
+	private static final String[] IMAGES = { "res/drawable/grass.png", "res/drawable/grass1.png", "res/drawable/fern.png", "res/fonts/Ubuntu-R.png" };
+
+	@Test
+	public void sameAsImageIOTest() throws IOException {
+		for (String fname : IMAGES) {
+			for (boolean isFlipped : new boolean[] { false, true }) {
+				RawImage decoded = PNGDecoder.decode(fname, isFlipped);
+				assertNotNull(fname, decoded);
+				assertSameImage(fname + " " + isFlipped, ImageFile.loadImageIOFile(fname, isFlipped), decoded);
+			}
+		}
+	}
+
+	@Test
+	public void fallbackTest() throws IOException {
+		String fname = "res/drawable/grass3.png";										// not a PNG file
+		assertNull(PNGDecoder.decode(fname, false));
+		RawImage image = ImageFile.loadImageFile(fname, false);
+		assertNotNull(image.getByteDataBuffer());
+		assertSameImage(fname, ImageFile.loadImageIOFile(fname, false), image);
+	}
+
+	@Test
+	public void colorTypesTest() throws IOException {
+		// gray 1, 8 and 16 bits, RGB, RGBA, palette (as written by ImageIO)
+		int[] types = { BufferedImage.TYPE_BYTE_BINARY, BufferedImage.TYPE_BYTE_GRAY, BufferedImage.TYPE_USHORT_GRAY,
+				BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_BYTE_INDEXED };
+		Random random = new Random(3);
+		File file = File.createTempFile("PNGDecoderTest", ".png");
+		try {
+			for (int type : types) {
+				BufferedImage image = new BufferedImage(37, 23, type);					// odd width: partial bytes at the end of the rows
+				for (int y = 0; y < image.getHeight(); y++) {
+					for (int x = 0; x < image.getWidth(); x++) {
+						image.setRGB(x, y, random.nextInt());
+					}
+				}
+				ImageIO.write(image, "png", file);
+				String fname = file.getPath();
+				RawImage decoded = PNGDecoder.decode(fname, true);
+				assertNotNull("type " + type, decoded);
+				assertSameImage("type " + type, ImageFile.loadImageIOFile(fname, true), decoded);
+			}
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void interlacedTest() throws IOException {
+		File file = File.createTempFile("PNGDecoderTest", ".png");
+		try {
+			byte[] data = Files.readAllBytes(new File(IMAGES[0]).toPath());
+			data[8 + 8 + 12] = 1;														// IHDR interlace method: Adam7 (the CRC is not checked)
+			Files.write(file.toPath(), data);
+			assertNull(PNGDecoder.decode(file.getPath(), false));
+		} finally {
+			file.delete();
+		}
+	}
+
+	private static void assertSameImage(String msg, RawImage expected, RawImage actual) {
+		assertEquals(msg, expected.getWidth(), actual.getWidth());
+		assertEquals(msg, expected.getHeight(), actual.getHeight());
+		ByteBuffer e = expected.getByteDataBuffer();
+		ByteBuffer a = actual.getByteDataBuffer();
+		assertEquals(msg, 0, a.position());
+		assertEquals(msg, e.remaining(), a.remaining());
+		for (int i = 0; i < e.remaining(); i++) {
+			assertEquals(msg + " byte " + i, e.get(i), a.get(i));
+		}
+	}
+
+}
@@ -0,0 +1,102 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libIO;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class RawImagePackTest {
+
+	// index, isFlippedHorizontal, isFlippedVertical of each face (RawImagePack)
+	private static final int[][] FACES = { { 6, 1, 0 }, { 4, 1, 0 }, { 1, 0, 1 }, { 9, 0, 1 }, { 7, 1, 0 }, { 5, 1, 0 } };
+
+	@Test
+	public void cubeMapTest() {
+		for (String fname : new String[] { "res/drawable/skyboxClouds.png", "res/drawable/blendMap.png" }) {
+			RawImage image = ImageFile.loadImageFile(fname, false);
+			RawImagePack pack = new RawImagePack(image, 4, 4);
+			RawImage copy = ImageFile.loadImageFile(fname, false);
+			for (int i = 0; i < FACES.length; i++) {
+				RawImage expected = ImageFile.subImage(copy, "face", 4, 4, FACES[i][0], FACES[i][1] == 1, FACES[i][2] == 1);
+				RawImage face = pack.getRawImage(i);
+				assertTrue(face.isSubImage());
+				assertTrue(face.getByteDataBuffer() != image.getByteDataBuffer());		// own position, same memory
+				assertSameTexels(fname + " " + i, expected, face);
+			}
+		}
+	}
+
+	@Test
+	public void flipsTest() {
+		// odd sizes: the middle row (column) stays in place
+		Random random = new Random(1);
+		for (int test = 0; test < 50; test++) {
+			int cols = 1 + random.nextInt(4);
+			int rows = 1 + random.nextInt(4);
+			int width = cols * (1 + random.nextInt(9));
+			int height = rows * (1 + random.nextInt(9));
+			byte[] data = new byte[width * height * 4];
+			random.nextBytes(data);
+			int index = random.nextInt(rows * cols);
+			boolean isFlippedHorizontal = random.nextBoolean();
+			boolean isFlippedVertical = random.nextBoolean();
+
+			RawImage expected = ImageFile.subImage(getImage(data, width, height), "sub", rows, cols, index, isFlippedHorizontal, isFlippedVertical);
+			RawImage image = getImage(data, width, height);
+			RawImage view = ImageFile.subImageView(image, "sub", rows, cols, index, isFlippedHorizontal, isFlippedVertical);
+			assertSameTexels("test " + test, expected, view);
+
+			// texels outside the rectangle are untouched
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < width; x++) {
+					boolean isInside = x >= view.getSkipPixels() && x < view.getSkipPixels() + view.width && y >= view.getSkipRows() && y < view.getSkipRows() + view.height;
+					if ( !isInside ) {
+						assertEquals(ByteBuffer.wrap(data).order(ByteOrder.nativeOrder()).getInt((y * width + x) * 4), image.getByteDataBuffer().getInt((y * width + x) * 4));
+					}
+				}
+			}
+		}
+	}
+
+	private static RawImage getImage(byte[] data, int width, int height) {
+		ByteBuffer buffer = ByteBuffer.allocateDirect(data.length).order(ByteOrder.nativeOrder());
+		buffer.put(data);
+		buffer.position(0);
+		return new RawImage("image", width, height, buffer);
+	}
+
+	/**
+	 * expected is packed, actual is read as glTexImage2D does with the GL_UNPACK_* values
+	 */
+	private static void assertSameTexels(String msg, RawImage expected, RawImage actual) {
+		assertEquals(msg, expected.width, actual.width);
+		assertEquals(msg, expected.height, actual.height);
+		ByteBuffer e = expected.getByteDataBuffer();
+		ByteBuffer a = actual.getByteDataBuffer();
+		for (int y = 0; y < expected.height; y++) {
+			for (int x = 0; x < expected.width; x++) {
+				int position = ((actual.getSkipRows() + y) * actual.getRowLength() + actual.getSkipPixels() + x) * 4;
+				assertEquals(msg + " " + x + "," + y, e.getInt((y * expected.width + x) * 4), a.getInt(position));
+			}
+		}
+	}
+
+}
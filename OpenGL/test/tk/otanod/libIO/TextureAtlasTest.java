@@ -0,0 +1,210 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libIO;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TextureAtlasTest {
+
+	@Test
+	public void layoutTest() {
+		Random random = new Random(3);
+		for (int test = 0; test < 200; test++) {
+			int n = 1 + random.nextInt(12);
+			int gutter = 4 << random.nextInt(3);
+			int[] widths = new int[n];
+			int[] heights = new int[n];
+			for (int i = 0; i < n; i++) {
+				widths[i] = 1 + random.nextInt(300);
+				heights[i] = 1 + random.nextInt(300);
+			}
+			int[] size = new int[2];
+			int[] regions = TextureAtlas.layout(widths, heights, gutter, size);
+
+			assertEquals(1, Integer.bitCount(size[0]));
+			assertTrue(size[0] <= TextureAtlas.MAX_SIZE && size[1] <= TextureAtlas.MAX_SIZE);
+			assertEquals(0, size[1] % gutter);
+			for (int i = 0; i < n; i++) {
+				assertEquals(widths[i], regions[i * 4 + 2]);
+				assertEquals(heights[i], regions[i * 4 + 3]);
+				assertEquals(0, regions[i * 4] % gutter);
+				assertEquals(0, regions[i * 4 + 1] % gutter);
+				// the image and its gutter inside the atlas
+				assertTrue(regions[i * 4] >= gutter && regions[i * 4] + widths[i] + gutter <= size[0]);
+				assertTrue(regions[i * 4 + 1] >= gutter && regions[i * 4 + 1] + heights[i] + gutter <= size[1]);
+				// no image (plus gutters) overlaps another one
+				for (int j = 0; j < i; j++) {
+					boolean isApartX = regions[i * 4] + widths[i] + 2 * gutter <= regions[j * 4] || regions[j * 4] + widths[j] + 2 * gutter <= regions[i * 4];
+					boolean isApartY = regions[i * 4 + 1] + heights[i] + 2 * gutter <= regions[j * 4 + 1] || regions[j * 4 + 1] + heights[j] + 2 * gutter <= regions[i * 4 + 1];
+					assertTrue(i + " " + j, isApartX || isApartY);
+				}
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void tooBigTest() {
+		TextureAtlas.layout(new int[] { 2048 }, new int[] { 16 }, 16, new int[2]);
+	}
+
+	@Test
+	public void gutterTest() {
+		Random random = new Random(5);
+		RawImage[] images = { getRandomImage(random, 64, 64), getRandomImage(random, 100, 37), getRandomImage(random, 8, 200) };
+		int gutter = 16;
+		TextureAtlas atlas = TextureAtlas.pack("atlas", images, gutter);
+		RawImage image = atlas.getImage();
+		assertEquals(4, image.getnLevels());												// log2(gutter)
+
+		for (int i = 0; i < images.length; i++) {
+			RawImage mipmapped = MipChain.generate(images[i]);
+			float[] region = atlas.getRegion(i);
+			int x = Math.round(region[0] * image.width);
+			int y = Math.round(region[1] * image.height);
+			for (int level = 0; level < image.getnLevels(); level++) {
+				// every texel up to the gutter (and the rounding of an odd size) is the nearest texel of the same level of the image
+				int g = gutter >> level;
+				int w = mipmapped.getLevelWidth(level);
+				int h = mipmapped.getLevelHeight(level);
+				for (int row = -g; row < h + g; row++) {
+					for (int col = -g; col < w + g; col++) {
+						int expected = getTexel(mipmapped, level, Math.max(0, Math.min(w - 1, col)), Math.max(0, Math.min(h - 1, row)));
+						int actual = getTexel(image, level, (x >> level) + col, (y >> level) + row);
+						assertEquals(i + " level " + level + " " + col + "," + row, expected, actual);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void remapTest() {
+		Random random = new Random(9);
+		RawImage[] images = { getRandomImage(random, 32, 32), getRandomImage(random, 16, 48) };
+		TextureAtlas atlas = TextureAtlas.pack("atlas", images, 4);
+		RawImage image = atlas.getImage();
+		for (int i = 0; i < images.length; i++) {
+			// texel centers of the image ==> texel centers of the atlas
+			int w = images[i].width;
+			int h = images[i].height;
+			float[] uv = new float[w * h * 2];
+			for (int row = 0; row < h; row++) {
+				for (int col = 0; col < w; col++) {
+					uv[(row * w + col) * 2] = (col + 0.5f) / w;
+					uv[(row * w + col) * 2 + 1] = (row + 0.5f) / h;
+				}
+			}
+			float[] remapped = atlas.remap(uv, i);
+			for (int row = 0; row < h; row++) {
+				for (int col = 0; col < w; col++) {
+					int u = (int) Math.floor(remapped[(row * w + col) * 2] * image.width);
+					int v = (int) Math.floor(remapped[(row * w + col) * 2 + 1] * image.height);
+					assertEquals(getTexel(images[i], 0, col, row), getTexel(image, 0, u, v));
+				}
+			}
+		}
+
+		// outside [0,1] is clamped to the edge of the region
+		float[] region = atlas.getRegion(1);
+		float[] remapped = atlas.remap(new float[] { -0.5f, 1.5f, 2f, -3f }, 1);
+		assertArrayEquals(new float[] { region[0], region[1] + region[3], region[0] + region[2], region[1] }, remapped, 1e-6f);
+	}
+
+	@Test
+	public void cachedAtlasTest() throws IOException {
+		Path folder = Files.createTempDirectory("rawtex");
+		String[] files = new String[] { "res/drawable/lowPolyTree.png", "res/drawable/grass1.png" };
+		String[] sources = new String[files.length];
+		for (int i = 0; i < files.length; i++) {
+			Path source = folder.resolve(Paths.get(files[i]).getFileName());
+			Files.copy(Paths.get(files[i]), source, StandardCopyOption.REPLACE_EXISTING);
+			sources[i] = source.toString();
+		}
+		String name = folder.resolve("atlas").toString();
+		Path cache = TextureFile.getCachePath(Paths.get(name), true);
+
+		RawImage[] images = { ImageFile.loadFlippedImageFile(files[0]), ImageFile.loadFlippedImageFile(files[1]) };
+		RawImage expected = TextureAtlas.pack(name, images, TextureAtlas.DEFAULT_GUTTER).getImage();
+		TextureAtlas built = TextureAtlas.loadCached(name, sources, true, false);				// builds the atlas and writes the cache
+		long modified = Files.getLastModifiedTime(cache).toMillis();
+		TextureAtlas mapped = TextureAtlas.loadCached(name, sources, true, false);				// maps the cache
+		assertEquals(modified, Files.getLastModifiedTime(cache).toMillis());
+		assertSameLevels(expected, built.getImage());
+		assertSameLevels(expected, mapped.getImage());
+		assertArrayEquals(built.getRegion(1), mapped.getRegion(1), 0f);
+		assertFalse(mapped.getImage().isCompressed());
+
+		// the ETC2 blocks are added to the cache
+		TextureAtlas compressed = TextureAtlas.loadCached(name, sources, true, true);
+		assertTrue(compressed.getImage().isCompressed());
+		assertTrue(TextureAtlas.loadCached(name, sources, true, true).getImage().isCompressed());
+		assertSameLevels(expected, compressed.getImage());
+
+		// another image ==> rebuilt
+		Files.copy(Paths.get("res/drawable/lamp.png"), Paths.get(sources[0]), StandardCopyOption.REPLACE_EXISTING);
+		Files.setLastModifiedTime(Paths.get(sources[0]), FileTime.fromMillis(modified + 2000));
+		images[0] = ImageFile.loadFlippedImageFile("res/drawable/lamp.png");
+		assertSameLevels(TextureAtlas.pack(name, images, TextureAtlas.DEFAULT_GUTTER).getImage(), TextureAtlas.loadCached(name, sources, true, false).getImage());
+
+		for (String source : sources) {
+			Files.delete(TextureFile.getCachePath(Paths.get(source), true));
+			Files.delete(Paths.get(source));
+		}
+		Files.delete(cache);
+		Files.delete(folder);
+	}
+
+	private static RawImage getRandomImage(Random random, int width, int height) {
+		byte[] data = new byte[width * height * 4];
+		random.nextBytes(data);
+		ByteBuffer buffer = ByteBuffer.allocateDirect(data.length).order(ByteOrder.nativeOrder());
+		buffer.put(data);
+		buffer.position(0);
+		return new RawImage("random", width, height, buffer);
+	}
+
+	private static int getTexel(RawImage image, int level, int x, int y) {
+		return image.getLevel(level).getInt((y * image.getLevelWidth(level) + x) * 4);
+	}
+
+	private static void assertSameLevels(RawImage expected, RawImage actual) {
+		assertEquals(expected.getWidth(), actual.getWidth());
+		assertEquals(expected.getHeight(), actual.getHeight());
+		assertEquals(expected.getnLevels(), actual.getnLevels());
+		for (int level = 0; level < expected.getnLevels(); level++) {
+			ByteBuffer e = expected.getLevel(level).duplicate();
+			ByteBuffer a = actual.getLevel(level).duplicate();
+			e.position(0);
+			a.position(0);
+			assertEquals("level " + level, e, a);
+		}
+	}
+
+}
@@ -0,0 +1,128 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libIO;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.Test;
+
+public class TextureFileTest {
+
+	private static final String[] IMAGES = { "res/drawable/grass1.png", "res/drawable/fern.png", "res/fonts/Ubuntu-R.png" };
+
+	@Test
+	public void cachedImageTest() throws IOException {
+		Path folder = Files.createTempDirectory("rawtex");
+		for (String fname : IMAGES) {
+			Path source = folder.resolve(Paths.get(fname).getFileName());
+			Files.copy(Paths.get(fname), source, StandardCopyOption.REPLACE_EXISTING);
+			for (boolean isFlipped : new boolean[] { false, true }) {
+				Path cache = TextureFile.getCachePath(source, isFlipped);
+
+				RawImage expected = MipChain.generate(ImageFile.loadImageFile(fname, isFlipped));
+				RawImage built = ImageFile.loadCachedImageFile(source.toString(), isFlipped);	// decodes the PNG and writes the cache
+				RawImage mapped = ImageFile.loadCachedImageFile(source.toString(), isFlipped);	// maps the cache
+
+				assertTrue(fname, Files.exists(cache));
+				assertNotNull(fname, TextureFile.map(source.toString(), isFlipped, false, source, cache));
+				assertSameLevels(fname + " " + isFlipped, expected, built);
+				assertSameLevels(fname + " " + isFlipped, expected, mapped);
+			}
+			Files.delete(TextureFile.getCachePath(source, false));
+			Files.delete(TextureFile.getCachePath(source, true));
+			Files.delete(source);
+		}
+		Files.delete(folder);
+	}
+
+	@Test
+	public void staleCacheTest() throws IOException {
+		Path folder = Files.createTempDirectory("rawtex");
+		Path source = folder.resolve("image.png");
+		Path cache = TextureFile.getCachePath(source, true);
+		assertEquals("image.flipped.rawtex", cache.getFileName().toString());
+		Files.copy(Paths.get("res/drawable/grass1.png"), source);
+		ImageFile.loadCachedImageFile(source.toString(), true);
+
+		assertNotNull(TextureFile.map(source.toString(), true, false, source, cache));
+		assertNull(TextureFile.map(source.toString(), false, false, source, cache));			// flipped the other way
+
+		// same name, another image
+		Files.copy(Paths.get("res/drawable/fern.png"), source, StandardCopyOption.REPLACE_EXISTING);
+		Files.setLastModifiedTime(source, FileTime.fromMillis(Files.getLastModifiedTime(source).toMillis() + 2000));
+		assertNull(TextureFile.map(source.toString(), true, false, source, cache));
+
+		RawImage image = ImageFile.loadCachedImageFile(source.toString(), true);
+		assertSameLevels("fern", MipChain.generate(ImageFile.loadFlippedImageFile("res/drawable/fern.png")), image);
+		assertSameLevels("fern", image, TextureFile.map(source.toString(), true, false, source, cache));
+
+		Files.delete(cache);
+		Files.delete(source);
+		Files.delete(folder);
+	}
+
+	@Test
+	public void compressedCacheTest() throws IOException {
+		Path folder = Files.createTempDirectory("rawtex");
+		Path source = folder.resolve("stall.png");
+		Path cache = TextureFile.getCachePath(source, true);
+		Files.copy(Paths.get("res/drawable/stall.png"), source);
+
+		RawImage image = ImageFile.loadCachedImageFile(source.toString(), true);
+		assertFalse(image.isCompressed());
+		assertNull(TextureFile.map(source.toString(), true, true, source, cache));		// no ETC2 levels yet
+
+		RawImage built = ImageFile.loadCachedImageFile(source.toString(), true, true);	// rebuilds the cache with them
+		RawImage mapped = TextureFile.map(source.toString(), true, true, source, cache);
+		assertTrue(built.isCompressed());
+		assertEquals(ETC2.GL_COMPRESSED_SRGB8_ETC2, mapped.getCompressedFormat());
+		assertSameLevels("stall", image, mapped);
+		for (int level = 0; level < built.getnLevels(); level++) {
+			assertEquals("level " + level, built.getCompressedLevel(level), mapped.getCompressedLevel(level));
+		}
+		assertFalse(TextureFile.map(source.toString(), true, false, source, cache).isCompressed());
+
+		Files.delete(cache);
+		Files.delete(source);
+		Files.delete(folder);
+	}
+
+	private static void assertSameLevels(String message, RawImage expected, RawImage actual) {
+		assertEquals(message, expected.getWidth(), actual.getWidth());
+		assertEquals(message, expected.getHeight(), actual.getHeight());
+		assertEquals(message, expected.getnLevels(), actual.getnLevels());
+		for (int level = 0; level < expected.getnLevels(); level++) {
+			ByteBuffer e = expected.getLevel(level).duplicate();
+			ByteBuffer a = actual.getLevel(level).duplicate();
+			e.position(0);
+			a.position(0);
+			assertEquals(message + " level " + level, e.remaining(), a.remaining());
+			assertEquals(message + " level " + level, e, a);
+		}
+	}
+
+}
@@ -0,0 +1,116 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libMath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.FloatBuffer;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class Aabb3fTest {
+
+	private static final float DELTA = 1E-4f;
+
+	@Test
+	public void includeTest() {
+		Aabb3f box = new Aabb3f();
+		assertTrue(box.isEmpty());
+		assertEquals(new Aabb3f(), box.clone().include(new Aabb3f()));
+		box.include(1f, 2f, 3f).include(-1f, 5f, 0f);
+		assertEquals(new Aabb3f(-1f, 2f, 0f, 1f, 5f, 3f), box);
+		assertEquals(box, new Aabb3f().include(box));
+
+		float[] positions = { 1f, 2f, 3f, -1f, 5f, 0f };
+		assertEquals(box, new Aabb3f().setFromPositions(positions));
+		assertEquals(box, new Aabb3f().setFromPositions(FloatBuffer.wrap(positions)));
+		assertTrue(box.contains(0f, 3f, 1f));
+		assertFalse(box.contains(0f, 6f, 1f));
+		assertTrue(box.intersects(new Aabb3f(0.5f, 4f, 2f, 9f, 9f, 9f)));
+		assertFalse(box.intersects(new Aabb3f(1.5f, 4f, 2f, 9f, 9f, 9f)));
+	}
+
+	@Test
+	public void transformTest() {
+		Random rnd = new Random(1);
+		M4f m = new M4f().scale(2f, 1f, 0.5f).rotateXaxisCCW(0.4).rotateYaxisCCW(-1.2).setTranslate(3f, -1f, 7f);
+		for (int i = 0; i < 100; i++) {
+			Aabb3f box = new Aabb3f().include(rnd.nextFloat() * 10f, rnd.nextFloat() * 10f, rnd.nextFloat() * 10f)
+					.include(rnd.nextFloat() * 10f, rnd.nextFloat() * 10f, rnd.nextFloat() * 10f);
+			// box of the 8 transformed corners
+			Aabb3f expected = new Aabb3f();
+			for (int corner = 0; corner < 8; corner++) {
+				float x = ((corner & 1) == 0) ? box.minX() : box.maxX();
+				float y = ((corner & 2) == 0) ? box.minY() : box.maxY();
+				float z = ((corner & 4) == 0) ? box.minZ() : box.maxZ();
+				expected.include(
+						m.getElement(0) * x + m.getElement(4) * y + m.getElement(8)  * z + m.getElement(12),
+						m.getElement(1) * x + m.getElement(5) * y + m.getElement(9)  * z + m.getElement(13),
+						m.getElement(2) * x + m.getElement(6) * y + m.getElement(10) * z + m.getElement(14));
+			}
+			Aabb3f result = box.transform(m, box);
+			assertEquals(expected.minX(), result.minX(), DELTA);
+			assertEquals(expected.minY(), result.minY(), DELTA);
+			assertEquals(expected.minZ(), result.minZ(), DELTA);
+			assertEquals(expected.maxX(), result.maxX(), DELTA);
+			assertEquals(expected.maxY(), result.maxY(), DELTA);
+			assertEquals(expected.maxZ(), result.maxZ(), DELTA);
+		}
+		assertTrue(new Aabb3f().transform(m, new Aabb3f()).isEmpty());
+	}
+
+	@Test
+	public void sphereTest() {
+		Random rnd = new Random(2);
+		float[] positions = new float[300];
+		for (int i = 0; i < positions.length; i++) {
+			positions[i] = rnd.nextFloat() * 20f - 5f;
+		}
+		Aabb3f box = new Aabb3f().setFromPositions(positions);
+		Sphere3f sphere = new Sphere3f().setFromPositions(positions, box);
+		assertEquals(sphere, new Sphere3f().setFromPositions(FloatBuffer.wrap(positions), box));
+		for (int i = 0; i < positions.length; i += 3) {
+			assertTrue(sphere.contains(positions[i], positions[i+1], positions[i+2]));
+		}
+		// tighter than the sphere around the box
+		V3f extent = box.getExtent(new V3f());
+		assertTrue(sphere.radius() <= extent.magnitude() + DELTA);
+		Sphere3f around = new Sphere3f().setFromBounds(box);
+		assertEquals(sphere.x(), around.x(), 0f);
+		assertEquals(sphere.z(), around.z(), 0f);
+		assertTrue(sphere.radius() <= around.radius());
+		assertTrue(around.contains(box.minX(), box.minY(), box.minZ()));
+		assertTrue(around.contains(box.maxX(), box.maxY(), box.maxZ()));
+		assertEquals(new Sphere3f(0f, 0f, 0f, 0f), new Sphere3f().setFromBounds(new Aabb3f()));
+
+		M4f m = new M4f().scale(3f, 1f, 2f).rotateZaxisCCW(0.9).setTranslate(1f, 2f, 3f);
+		Sphere3f transformed = sphere.transform(m, new Sphere3f());
+		assertEquals(sphere.radius() * 3f, transformed.radius(), DELTA);
+		Sphere3f rounded = new Sphere3f(transformed.x(), transformed.y(), transformed.z(), transformed.radius() + DELTA);		// the farthest point is on the sphere
+		for (int i = 0; i < positions.length; i += 3) {
+			float x = positions[i], y = positions[i+1], z = positions[i+2];
+			assertTrue(rounded.contains(
+					m.getElement(0) * x + m.getElement(4) * y + m.getElement(8)  * z + m.getElement(12),
+					m.getElement(1) * x + m.getElement(5) * y + m.getElement(9)  * z + m.getElement(13),
+					m.getElement(2) * x + m.getElement(6) * y + m.getElement(10) * z + m.getElement(14)));
+		}
+		assertTrue(sphere.intersects(new Sphere3f(sphere.x() + sphere.radius() + 1f, sphere.y(), sphere.z(), 1.5f)));
+		assertFalse(sphere.intersects(new Sphere3f(sphere.x() + sphere.radius() + 1f, sphere.y(), sphere.z(), 0.5f)));
+	}
+
+}
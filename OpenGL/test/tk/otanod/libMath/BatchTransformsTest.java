@@ -0,0 +1,221 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libMath;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class BatchTransformsTest {
+
+	// not a multiple of the vector lanes, the tail goes through the scalar loop
+	private static final int N = 301;
+	private static final float DELTA = 1E-5f;
+
+	private static final BatchTransforms SCALAR = BatchTransforms.getScalar();
+	private static final BatchTransforms BEST = BatchTransforms.getInstance();
+
+	@Test
+	public void composeTRSYawTest() {
+		Random rnd = new Random(3);
+		float[] trs = new float[N * BatchTransforms.TRS_COMPONENTS];
+		float[] expected = new float[N * 16];
+		for (int i = 0; i < N; i++) {
+			float x = rnd.nextFloat() * 100f - 50f, z = rnd.nextFloat() * 100f - 50f, scale = rnd.nextFloat() * 5f;
+			double angle = rnd.nextFloat() * Math.PI;
+			BatchTransforms.setTRSYaw(trs, N, i, x, 0f, z, angle, scale);
+			// Main.createInstancesModelArray before the batch
+			new M4f().scale(scale, scale, scale).rotateYaxisCCW(angle).setTranslate(x, 0f, z).getElements(expected, i * 16);
+		}
+
+		float[] scalar = new float[N * 16 + 5];
+		SCALAR.composeTRS(N, trs, scalar, 5);
+		for (int i = 0; i < N * 16; i++) {
+			assertEquals("element " + i, expected[i], scalar[i + 5], DELTA * 50f);
+		}
+
+		float[] best = new float[N * 16 + 5];
+		BEST.composeTRS(N, trs, best, 5);
+		assertArrayEquals(scalar, best, 0f);
+	}
+
+	@Test
+	public void composeTRSAxisTest() {
+		// one axis quaternion = same rotation as M4f
+		double angle = 0.7;
+		float sin = (float) Math.sin(angle / 2.0), cos = (float) Math.cos(angle / 2.0);
+		float[] trs = new float[3 * BatchTransforms.TRS_COMPONENTS];
+		BatchTransforms.setTRS(trs, 3, 0, 1f, 2f, 3f, sin, 0f, 0f, cos, 2f, 3f, 4f);
+		BatchTransforms.setTRS(trs, 3, 1, 1f, 2f, 3f, 0f, sin, 0f, cos, 2f, 3f, 4f);
+		BatchTransforms.setTRS(trs, 3, 2, 1f, 2f, 3f, 0f, 0f, sin, cos, 2f, 3f, 4f);
+		float[] result = new float[3 * 16];
+		BEST.composeTRS(3, trs, result, 0);
+
+		assertArrayEquals(new M4f().scale(2f, 3f, 4f).rotateXaxisCCW(angle).setTranslate(1f, 2f, 3f).getElements(),
+				slice(result, 0), DELTA);
+		assertArrayEquals(new M4f().scale(2f, 3f, 4f).rotateYaxisCCW(angle).setTranslate(1f, 2f, 3f).getElements(),
+				slice(result, 1), DELTA);
+		assertArrayEquals(new M4f().scale(2f, 3f, 4f).rotateZaxisCCW(angle).setTranslate(1f, 2f, 3f).getElements(),
+				slice(result, 2), DELTA);
+	}
+
+	@Test
+	public void composeTRSBufferTest() {
+		Random rnd = new Random(5);
+		int n = 600;																	// more than one chunk of the direct buffer path
+		float[] trs = new float[n * BatchTransforms.TRS_COMPONENTS];
+		for (int i = 0; i < n; i++) {
+			float qx = rnd.nextFloat(), qy = rnd.nextFloat(), qz = rnd.nextFloat(), qw = rnd.nextFloat();
+			float length = (float) Math.sqrt(qx * qx + qy * qy + qz * qz + qw * qw);
+			BatchTransforms.setTRS(trs, n, i, rnd.nextFloat(), rnd.nextFloat(), rnd.nextFloat(),
+					qx / length, qy / length, qz / length, qw / length, rnd.nextFloat(), rnd.nextFloat(), rnd.nextFloat());
+		}
+		float[] expected = new float[n * 16];
+		SCALAR.composeTRS(n, trs, expected, 0);
+
+		FloatBuffer direct = ByteBuffer.allocateDirect((n * 16 + 8) * Float.BYTES).order(ByteOrder.nativeOrder()).asFloatBuffer();
+		direct.position(8);
+		BEST.composeTRS(n, trs, direct);
+		assertEquals(8, direct.position());
+		float[] result = new float[n * 16];
+		direct.get(result);
+		assertArrayEquals(expected, result, 0f);
+
+		FloatBuffer heap = FloatBuffer.allocate(n * 16 + 8);
+		heap.position(8);
+		BEST.composeTRS(n, trs, heap);
+		assertEquals(8, heap.position());
+		heap.get(result);
+		assertArrayEquals(expected, result, 0f);
+	}
+
+	@Test
+	public void mulTest() {
+		Random rnd = new Random(7);
+		M4f parent = new M4f(randomData(rnd));
+		float[] src = new float[N * 16];
+		for (int i = 0; i < src.length; i++) {
+			src[i] = rnd.nextFloat() * 2f - 1f;
+		}
+		float[] expected = new float[N * 16];
+		M4f m4 = new M4f();
+		for (int i = 0; i < N; i++) {
+			M4f.mul(parent, new M4f(slice(src, i)), m4).getElements(expected, i * 16);
+		}
+
+		float[] scalar = new float[N * 16];
+		SCALAR.mul(parent, N, src, 0, scalar, 0);
+		assertArrayEquals(expected, scalar, DELTA);
+		float[] best = new float[N * 16];
+		BEST.mul(parent, N, src, 0, best, 0);
+		assertArrayEquals(scalar, best, 0f);
+
+		FloatBuffer direct = ByteBuffer.allocateDirect(N * 16 * Float.BYTES).order(ByteOrder.nativeOrder()).asFloatBuffer();
+		BEST.mul(parent, N, src, 0, direct);
+		direct.get(best);
+		assertArrayEquals(scalar, best, 0f);
+
+		// in place
+		BEST.mul(parent, N, src, 0, src, 0);
+		assertArrayEquals(scalar, src, 0f);
+	}
+
+	@Test
+	public void transformPointsTest() {
+		Random rnd = new Random(11);
+		M4f m = new M4f().scale(2f, 3f, 4f).rotateXaxisCCW(0.3).rotateYaxisCCW(1.1).setTranslate(5f, -6f, 7f);
+		float[] points = new float[N * 3];
+		for (int i = 0; i < points.length; i++) {
+			points[i] = rnd.nextFloat() * 20f - 10f;
+		}
+		float[] scalar = new float[N * 3];
+		SCALAR.transformPoints(m, N, points, scalar);
+		for (int i = 0; i < N; i++) {
+			float[] p = transform(m, points[i], points[N + i], points[2 * N + i]);
+			assertEquals(p[0], scalar[i], DELTA * 100f);
+			assertEquals(p[1], scalar[N + i], DELTA * 100f);
+			assertEquals(p[2], scalar[2 * N + i], DELTA * 100f);
+		}
+		float[] best = new float[N * 3];
+		BEST.transformPoints(m, N, points, best);
+		assertArrayEquals(scalar, best, 0f);
+	}
+
+	@Test
+	public void transformAabbsTest() {
+		Random rnd = new Random(13);
+		M4f m = new M4f().scale(2f, 0.5f, 1f).rotateZaxisCCW(0.8).rotateYaxisCCW(-0.4).setTranslate(1f, 2f, 3f);
+		float[] aabbs = new float[N * 6];
+		for (int i = 0; i < N; i++) {
+			for (int k = 0; k < 3; k++) {
+				float a = rnd.nextFloat() * 20f - 10f, b = rnd.nextFloat() * 20f - 10f;
+				aabbs[k * N + i] = Math.min(a, b);
+				aabbs[(k + 3) * N + i] = Math.max(a, b);
+			}
+		}
+		float[] scalar = new float[N * 6];
+		SCALAR.transformAabbs(m, N, aabbs, scalar);
+		for (int i = 0; i < N; i++) {
+			// box of the 8 transformed corners
+			float[] min = { Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE };
+			float[] max = { -Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE };
+			for (int corner = 0; corner < 8; corner++) {
+				float[] p = transform(m,
+						aabbs[(((corner & 1) == 0) ? 0 : 3) * N + i],
+						aabbs[(((corner & 2) == 0) ? 1 : 4) * N + i],
+						aabbs[(((corner & 4) == 0) ? 2 : 5) * N + i]);
+				for (int k = 0; k < 3; k++) {
+					min[k] = Math.min(min[k], p[k]);
+					max[k] = Math.max(max[k], p[k]);
+				}
+			}
+			for (int k = 0; k < 3; k++) {
+				assertEquals(min[k], scalar[k * N + i], DELTA * 100f);
+				assertEquals(max[k], scalar[(k + 3) * N + i], DELTA * 100f);
+			}
+		}
+		float[] best = new float[N * 6];
+		BEST.transformAabbs(m, N, aabbs, best);
+		assertArrayEquals(scalar, best, 0f);
+	}
+
+	private static float[] transform(M4f m, float x, float y, float z) {
+		return new float[] {
+				m.getElement(0) * x + m.getElement(4) * y + m.getElement(8)  * z + m.getElement(12),
+				m.getElement(1) * x + m.getElement(5) * y + m.getElement(9)  * z + m.getElement(13),
+				m.getElement(2) * x + m.getElement(6) * y + m.getElement(10) * z + m.getElement(14) };
+	}
+
+	private static float[] slice(float[] matrices, int i) {
+		float[] m = new float[16];
+		System.arraycopy(matrices, i * 16, m, 0, 16);
+		return m;
+	}
+
+	private static float[] randomData(Random rnd) {
+		float[] data = new float[16];
+		for (int i = 0; i < 16; i++) {
+			data[i] = rnd.nextFloat();
+		}
+		return data;
+	}
+
+}
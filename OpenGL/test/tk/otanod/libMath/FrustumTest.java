@@ -0,0 +1,150 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libMath;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import tk.otanod.engine.camera.Camera;
+
+public class FrustumTest {
+
+	private static final float DELTA = 1E-5f;
+
+	// Main: 45 degrees, 16/9, near 1, far 150
+	private static final M4f PROJECTION = new M4f(Camera.getProjectionMatrix(45f, 16f / 9f, 1.0f, 150.0f));
+
+	@Test
+	public void planesTest() {
+		Frustum frustum = new Frustum(PROJECTION, new M4f());						// eye at the origin looking to -Z
+		float[] plane = new float[4];
+		for (int p = 0; p < Frustum.PLANES; p++) {
+			frustum.getPlane(p, plane, 0);
+			assertEquals(1f, (float) Math.sqrt(plane[0] * plane[0] + plane[1] * plane[1] + plane[2] * plane[2]), DELTA);
+		}
+		assertArrayEquals(new float[] { 0f, 0f, -1f, -1f }, frustum.getPlane(Frustum.NEAR, plane, 0), DELTA * 10f);
+		assertArrayEquals(new float[] { 0f, 0f, 1f, 150f }, frustum.getPlane(Frustum.FAR, plane, 0), DELTA * 100f);
+
+		assertTrue(frustum.isPointVisible(0f, 0f, -10f));
+		assertFalse(frustum.isPointVisible(0f, 0f, 10f));								// behind the camera
+		assertFalse(frustum.isPointVisible(0f, 0f, -0.5f));							// before near
+		assertFalse(frustum.isPointVisible(0f, 0f, -200f));							// after far
+		assertFalse(frustum.isPointVisible(-100f, 0f, -10f));
+		assertFalse(frustum.isPointVisible(0f, 100f, -10f));
+	}
+
+	@Test
+	public void clipSpaceTest() {
+		// visible <==> -w <= x, y, z <= w in clip space
+		Random rnd = new Random(1);
+		M4f view = M4f.lookAt(new V3f(3f, 2f, 5f), new V3f(-4f, 0f, -20f), new V3f(0f, 1f, 0f), new M4f());
+		M4f projectionView = M4f.mul(PROJECTION, view, new M4f());
+		Frustum frustum = new Frustum(PROJECTION, view);
+		int nVisible = 0;
+		for (int i = 0; i < 10000; i++) {
+			float x = rnd.nextFloat() * 200f - 100f, y = rnd.nextFloat() * 200f - 100f, z = rnd.nextFloat() * 200f - 100f;
+			float[] clip = new float[4];
+			for (int r = 0; r < 4; r++) {
+				clip[r] = projectionView.getElement(r) * x + projectionView.getElement(4 + r) * y + projectionView.getElement(8 + r) * z + projectionView.getElement(12 + r);
+			}
+			float w = clip[3];
+			float margin = 1E-3f * Math.abs(w);
+			boolean isInside = Math.abs(clip[0]) <= w - margin && Math.abs(clip[1]) <= w - margin && Math.abs(clip[2]) <= w - margin;
+			boolean isOutside = Math.abs(clip[0]) > w + margin || Math.abs(clip[1]) > w + margin || Math.abs(clip[2]) > w + margin;
+			if ( isInside ) {
+				assertTrue(frustum.isPointVisible(x, y, z));
+				nVisible++;
+			} else if ( isOutside ) {
+				assertFalse(frustum.isPointVisible(x, y, z));
+			}
+		}
+		assertTrue(nVisible > 100);
+	}
+
+	@Test
+	public void infiniteProjectionTest() {
+		float height = (float) Math.tan(Math.toRadians(22.5));
+		M4f infinite = new M4f(Camera.getInfiniteProjectionMatrix(height, -height, height, -height, 1.0f));
+		Frustum frustum = new Frustum(infinite, new M4f());
+		assertTrue(frustum.isPointVisible(0f, 0f, -1E6f));
+		assertFalse(frustum.isPointVisible(0f, 0f, 10f));
+	}
+
+	@Test
+	public void sphereAabbTest() {
+		Frustum frustum = new Frustum(PROJECTION, new M4f());
+
+		assertTrue(frustum.isVisible(new Sphere3f(0f, 0f, 2f, 5f)));					// center behind, the sphere crosses near
+		assertFalse(frustum.isVisible(new Sphere3f(0f, 0f, 10f, 5f)));
+		assertEquals(Frustum.INSIDE, frustum.classify(new Sphere3f(0f, 0f, -20f, 1f)));
+		assertEquals(Frustum.INTERSECTING, frustum.classify(new Sphere3f(0f, 0f, -150f, 1f)));
+		assertEquals(Frustum.OUTSIDE, frustum.classify(new Sphere3f(0f, 0f, -152f, 1f)));
+
+		assertTrue(frustum.isVisible(new Aabb3f(-1f, -1f, -1f, 1f, 1f, 5f)));
+		assertFalse(frustum.isVisible(new Aabb3f(-1f, -1f, 1f, 1f, 1f, 5f)));
+		assertFalse(frustum.isVisible(new Aabb3f()));
+		assertEquals(Frustum.INSIDE, frustum.classify(new Aabb3f(-1f, -1f, -21f, 1f, 1f, -19f)));
+		assertEquals(Frustum.INTERSECTING, frustum.classify(new Aabb3f(-100f, -1f, -21f, 1f, 1f, -19f)));
+		assertEquals(Frustum.OUTSIDE, frustum.classify(new Aabb3f(-100f, -1f, -21f, -90f, 1f, -19f)));
+	}
+
+	@Test
+	public void batchTest() {
+		Random rnd = new Random(2);
+		Camera camera = new Camera(new V3f(0f, 1f, 0f), new V3f(10f, 2f, -3f), new V3f(0f, 2f, 0f));
+		Frustum frustum = camera.getFrustum(PROJECTION, new Frustum());
+		int n = 5000;
+		float[] spheres = new float[n * Sphere3f.COMPONENTS];
+		float[] aabbs = new float[n * BatchTransforms.AABB_COMPONENTS];
+		Sphere3f[] sphereList = new Sphere3f[n];
+		Aabb3f[] aabbList = new Aabb3f[n];
+		for (int i = 0; i < n; i++) {
+			float x = rnd.nextFloat() * 300f - 150f, y = rnd.nextFloat() * 40f - 20f, z = rnd.nextFloat() * 300f - 150f;
+			float size = rnd.nextFloat() * 5f;
+			sphereList[i] = new Sphere3f(x, y, z, size);
+			sphereList[i].getBatch(spheres, n, i);
+			aabbList[i] = new Aabb3f(x - size, y - size * 0.5f, z - size * 2f, x + size, y + size * 0.5f, z + size * 2f);
+			aabbList[i].getBatch(aabbs, n, i);
+		}
+
+		int[] visible = new int[n];
+		int count = frustum.cullSpheres(n, spheres, visible);
+		int expected = 0;
+		for (int i = 0; i < n; i++) {
+			if ( frustum.isVisible(sphereList[i]) ) {
+				assertEquals(i, visible[expected++]);
+			}
+		}
+		assertEquals(expected, count);
+		assertTrue(count > 0 && count < n);
+
+		count = frustum.cullAabbs(n, aabbs, visible);
+		expected = 0;
+		for (int i = 0; i < n; i++) {
+			if ( frustum.isVisible(aabbList[i]) ) {
+				assertEquals(i, visible[expected++]);
+			}
+		}
+		assertEquals(expected, count);
+		assertTrue(count > 0 && count < n);
+	}
+
+}
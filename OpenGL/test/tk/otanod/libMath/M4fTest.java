@@ -21,6 +21,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.nio.FloatBuffer;
 import java.util.Random;
 
 import org.junit.Assert;
@@ -353,4 +354,136 @@ public class M4fTest {
 		}
 		
 	}
+
+	@Test
+	public void mulTest() {
+		for(int t=0;t<times;t++) {
+			M4f a = new M4f(randomData());
+			M4f b = new M4f(randomData());
+			
+			// reference: row x column
+			float[] expected = new float[16];
+			for(int row=0;row<4;row++) {
+				for(int col=0;col<4;col++) {
+					float sum = 0.0f;
+					for(int k=0;k<4;k++) {
+						sum += a.getElement(row, k) * b.getElement(k, col);
+					}
+					expected[row+col*4] = sum;
+				}
+			}
+			
+			assertEquals(new M4f(expected), M4f.mul(a, b, new M4f()));
+			assertEquals(new M4f(expected), a.clone().postMultiply(b));
+			assertEquals(new M4f(expected), b.clone().preMultiply(a));
+			// dest can be any of the operands
+			M4f aliasA = a.clone();
+			M4f.mul(aliasA, b, aliasA);
+			assertEquals(new M4f(expected), aliasA);
+			M4f aliasB = b.clone();
+			M4f.mul(a, aliasB, aliasB);
+			assertEquals(new M4f(expected), aliasB);
+		}
+	}
+
+	@Test
+	public void invertTest() {
+		for(int t=0;t<times;t++) {
+			M4f m4 = new M4f(randomData());
+			M4f expected = m4.getInverse();
+			
+			assertEquals(expected, m4.invert(new M4f()));
+			M4f alias = m4.clone();
+			alias.invert(alias);
+			assertEquals(expected, alias);
+		}
+		
+		// singular matrix ==> zero matrix
+		M4f zero = new M4f(new float[16]);
+		assertEquals(zero, new M4f().setScale(0f, 1f, 1f).invert(new M4f()));
+	}
+
+	@Test
+	public void rotateScaleInPlaceTest() {
+		for(int t=0;t<times;t++) {
+			M4f m4 = new M4f(randomData());
+			double angle = (rnd.nextDouble() - 0.5) * 4.0 * Math.PI;
+			
+			M4f rotation = new M4f();
+			rotation.setRotationXaxisCCW(angle);
+			assertEquals(m4.clone().preMultiply(rotation), m4.clone().rotateXaxisCCW(angle));
+			rotation = new M4f();
+			rotation.setRotationYaxisCCW(angle);
+			assertEquals(m4.clone().preMultiply(rotation), m4.clone().rotateYaxisCCW(angle));
+			rotation = new M4f();
+			rotation.setRotationZaxisCW(angle);
+			assertEquals(m4.clone().preMultiply(rotation), m4.clone().rotateZaxisCW(angle));
+			
+			M4f scale = new M4f().setScale(2f, 3f, 4f);
+			assertEquals(m4.clone().preMultiply(scale), m4.clone().scale(2f, 3f, 4f));
+		}
+	}
+
+	@Test
+	public void lookAtTest() {
+		for(int t=0;t<times;t++) {
+			V3f eye = new V3f(rnd.nextFloat() * 10f, rnd.nextFloat() * 10f, rnd.nextFloat() * 10f);
+			V3f center = new V3f(rnd.nextFloat() * 10f, rnd.nextFloat() * 10f, rnd.nextFloat() * 10f);
+			V3f up = new V3f(0f, 1f, 0f);
+			
+			// reference: the V3f version (right, up, forward in the rows)
+			V3f forward = eye.clone().sub(center).normalize();
+			V3f right = up.clone().crossProduct(forward).normalize();
+			V3f up2 = forward.clone().crossProduct(right).normalize();
+			float[] expected = new float[] {
+					right.x(), up2.x(), forward.x(), 0f,
+					right.y(), up2.y(), forward.y(), 0f,
+					right.z(), up2.z(), forward.z(), 0f,
+					-right.dotProduct(eye), -up2.dotProduct(eye), -forward.dotProduct(eye), 1f };
+			
+			M4f view = M4f.lookAt(eye, center, up, new M4f(randomData()));
+			Assert.assertArrayEquals(expected, view.getElements(), 0.0f);
+		}
+	}
+
+	@Test
+	public void getElementsDestinationTest() {
+		float[] data = randomData();
+		M4f m4 = new M4f(data);
+		
+		float[] dst = new float[20];
+		assertTrue(dst == m4.getElements(dst, 3));
+		for(int i=0;i<16;i++) {
+			assertEquals(data[i], dst[3+i], 0.0f);
+		}
+		assertEquals(0.0f, dst[2], 0.0f);
+		assertEquals(0.0f, dst[19], 0.0f);
+		
+		float[] m3 = m4.getM3Elements(new float[9], 0);
+		Assert.assertArrayEquals(m4.getM3Elements(), m3, 0.0f);
+	}
+
+	@Test
+	public void floatBufferTest() {
+		float[] data = randomData();
+		M4f m4 = new M4f(data);
+		
+		FloatBuffer buffer = FloatBuffer.allocate(40);
+		buffer.position(8);
+		m4.get(buffer);
+		assertEquals(8, buffer.position());							// absolute put
+		m4.get(24, buffer);
+		
+		assertEquals(m4, new M4f().set(buffer));
+		assertEquals(m4, new M4f().set(24, buffer));
+		assertEquals(8, buffer.position());
+	}
+
+	private static float[] randomData() {
+		float[] data = new float[16];
+		for(int i=0;i<16;i++) {
+			data[i] = rnd.nextFloat();
+		}
+		return data;
+	}
 }
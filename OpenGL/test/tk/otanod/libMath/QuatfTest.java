@@ -0,0 +1,135 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libMath;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class QuatfTest {
+
+	private static final float DELTA = 1E-5f;
+
+	@Test
+	public void rotationMatrixTest() {
+		// same pre-multiplied rotations as M4f
+		Random rnd = new Random(1);
+		for (int i = 0; i < 1000; i++) {
+			double ax = rnd.nextDouble() * 4 - 2, ay = rnd.nextDouble() * 4 - 2, az = rnd.nextDouble() * 4 - 2;
+			Quatf q = new Quatf().rotateXaxisCCW(ax).rotateYaxisCW(ay).rotateZaxisCCW(az);
+			M4f m = new M4f().rotateXaxisCCW(ax).rotateYaxisCW(ay).rotateZaxisCCW(az);
+			assertArrayEquals(m.getElements(), q.getMatrix(new float[16], 0), DELTA);
+			assertArrayEquals(m.getElements(), q.getMatrix(new M4f()).getElements(), DELTA);
+			assertEquals(1f, q.magnitude(), DELTA);
+		}
+	}
+
+	@Test
+	public void axisAngleTest() {
+		Quatf q = new Quatf().setAxisAngle(0f, 2f, 0f, 0.8);								// axis length does not matter
+		assertEquals(new Quatf().rotateYaxisCCW(0.8), q);
+		assertEquals(new Quatf(), new Quatf().setAxisAngle(0f, 0f, 0f, 0.8));
+	}
+
+	@Test
+	public void mulTest() {
+		Quatf a = new Quatf().rotateXaxisCCW(0.3).rotateZaxisCCW(1.2);
+		Quatf b = new Quatf().rotateYaxisCCW(-0.7);
+		M4f expected = M4f.mul(a.getMatrix(new M4f()), b.getMatrix(new M4f()), new M4f());
+		assertArrayEquals(expected.getElements(), Quatf.mul(a, b, new Quatf()).getMatrix(new float[16], 0), DELTA);
+
+		// aliasing
+		Quatf ab = Quatf.mul(a, b, new Quatf());
+		assertEquals(ab, Quatf.mul(a, b, a.clone()));
+		assertEquals(ab, a.clone().postMultiply(b));
+		assertEquals(ab, b.clone().preMultiply(a));
+	}
+
+	@Test
+	public void inverseTest() {
+		Quatf q = new Quatf().rotateXaxisCCW(0.4).rotateYaxisCCW(2.1);
+		assertEquals(new Quatf(), Quatf.mul(q, q.clone().conjugate(), new Quatf()));
+
+		Quatf scaled = new Quatf(q.x() * 3f, q.y() * 3f, q.z() * 3f, q.w() * 3f);
+		assertEquals(new Quatf(), Quatf.mul(scaled, scaled.invert(new Quatf()), new Quatf()));
+		assertEquals(q.clone().conjugate(), q.invert(new Quatf()));
+	}
+
+	@Test
+	public void transformTest() {
+		Random rnd = new Random(2);
+		for (int i = 0; i < 1000; i++) {
+			Quatf q = new Quatf().setAxisAngle(rnd.nextFloat() - 0.5f, rnd.nextFloat() - 0.5f, rnd.nextFloat() - 0.5f, rnd.nextDouble() * 6);
+			float[] m = q.getMatrix(new float[16], 0);
+			V3f v = new V3f(rnd.nextFloat() * 10f, rnd.nextFloat() * 10f, rnd.nextFloat() * 10f);
+			V3f expected = new V3f(
+					m[0] * v.x() + m[4] * v.y() + m[8] * v.z(),
+					m[1] * v.x() + m[5] * v.y() + m[9] * v.z(),
+					m[2] * v.x() + m[6] * v.y() + m[10] * v.z());
+			V3f result = q.transform(v, v);
+			assertEquals(expected.x(), result.x(), DELTA * 20f);
+			assertEquals(expected.y(), result.y(), DELTA * 20f);
+			assertEquals(expected.z(), result.z(), DELTA * 20f);
+		}
+	}
+
+	@Test
+	public void fromMatrixTest() {
+		Random rnd = new Random(3);
+		for (int i = 0; i < 1000; i++) {
+			Quatf q = new Quatf().setAxisAngle(rnd.nextFloat() - 0.5f, rnd.nextFloat() - 0.5f, rnd.nextFloat() - 0.5f, rnd.nextDouble() * 6);
+			Quatf result = new Quatf().setFromMatrix(q.getMatrix(new M4f()));
+			// q and -q are the same rotation
+			assertEquals(1f, Math.abs(q.dotProduct(result)), DELTA * 10f);
+		}
+	}
+
+	@Test
+	public void slerpTest() {
+		Quatf a = new Quatf().rotateYaxisCCW(0.2);
+		Quatf b = new Quatf().rotateYaxisCCW(1.4);
+		assertEquals(a, Quatf.slerp(a, b, 0f, new Quatf()));
+		assertEquals(b, Quatf.slerp(a, b, 1f, new Quatf()));
+		for (float t = 0f; t <= 1f; t += 0.125f) {
+			// constant angular speed
+			assertEquals(new Quatf().rotateYaxisCCW(0.2 + 1.2 * t), Quatf.slerp(a, b, t, new Quatf()));
+			Quatf nlerp = Quatf.nlerp(a, b, t, new Quatf());
+			assertEquals(1f, nlerp.magnitude(), DELTA);
+		}
+		// shortest path: -b is the same rotation as b
+		Quatf minusB = new Quatf(-b.x(), -b.y(), -b.z(), -b.w());
+		assertEquals(new Quatf().rotateYaxisCCW(0.8), Quatf.slerp(a, minusB, 0.5f, new Quatf()));
+		assertEquals(new Quatf().rotateYaxisCCW(0.8), Quatf.nlerp(a, minusB, 0.5f, new Quatf()));
+
+		// almost the same rotation, nlerp path
+		Quatf c = new Quatf().rotateYaxisCCW(0.2001);
+		Quatf mid = Quatf.slerp(a, c, 0.5f, new Quatf());
+		assertTrue(mid.toString(), Math.abs(mid.dotProduct(new Quatf().rotateYaxisCCW(0.20005))) > 1f - DELTA);
+	}
+
+	@Test
+	public void cameraRotationTest() {
+		// Camera.updateCamera: Rpitch * Ryaw
+		double yaw = 0.7, pitch = 0.25;
+		M4f expected = new M4f().rotateYaxisCCW(yaw).rotateXaxisCW(pitch);
+		Quatf q = new Quatf().rotateYaxisCCW(yaw).preMultiply(new Quatf().rotateXaxisCW(pitch));
+		assertArrayEquals(expected.getElements(), q.getMatrix(new float[16], 0), DELTA);
+	}
+
+}
@@ -0,0 +1,127 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libMath;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.FloatBuffer;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TransformTest {
+
+	private static final float DELTA = 1E-5f;
+
+	@Test
+	public void matrixTest() {
+		Transform t = new Transform().setTranslation(1f, 2f, 3f).setScale(2f, 3f, 4f).setRotation(new Quatf().rotateYaxisCCW(0.6));
+		M4f expected = new M4f().scale(2f, 3f, 4f).rotateYaxisCCW(0.6).setTranslate(1f, 2f, 3f);
+		assertArrayEquals(expected.getElements(), t.getMatrix(new float[16], 0), DELTA);
+		assertArrayEquals(expected.getElements(), t.getMatrix(new M4f()).getElements(), DELTA);
+
+		// same floats as the batch
+		float[] trs = t.getBatch(new float[Transform.FLOATS], 1, 0);
+		float[] batch = new float[16];
+		BatchTransforms.getScalar().composeTRS(1, trs, batch, 0);
+		assertArrayEquals(batch, t.getMatrix(new float[16], 0), 0f);
+	}
+
+	@Test
+	public void packedTest() {
+		Transform t = randomTransform(new Random(1), true);
+		float[] packed = t.get(new float[Transform.FLOATS + 3], 3);
+		assertEquals(t, new Transform().set(packed, 3));
+
+		FloatBuffer buffer = FloatBuffer.allocate(Transform.FLOATS * 2);
+		t.get(Transform.FLOATS, buffer);
+		assertEquals(0, buffer.position());
+		assertEquals(t, new Transform().set(Transform.FLOATS, buffer));
+	}
+
+	@Test
+	public void mulTest() {
+		Random rnd = new Random(2);
+		for (int i = 0; i < 1000; i++) {
+			Transform parent = randomTransform(rnd, true);
+			Transform child = randomTransform(rnd, i % 2 == 0);							// uniform parent scale: exact for any child
+			M4f expected = M4f.mul(parent.getMatrix(new M4f()), child.getMatrix(new M4f()), new M4f());
+			assertArrayEquals(expected.getElements(), Transform.mul(parent, child, new Transform()).getMatrix(new float[16], 0), DELTA * 100f);
+
+			// aliasing
+			Transform product = Transform.mul(parent, child, new Transform());
+			assertEquals(product, Transform.mul(parent, child, child.clone()));
+			assertEquals(product, Transform.mul(parent, child, parent.clone()));
+		}
+	}
+
+	@Test
+	public void invertTest() {
+		Random rnd = new Random(3);
+		for (int i = 0; i < 1000; i++) {
+			Transform t = randomTransform(rnd, true);
+			Transform inverse = t.invert(new Transform());
+			M4f expected = t.getMatrix(new M4f()).getInverse();
+			assertArrayEquals(expected.getElements(), inverse.getMatrix(new float[16], 0), DELTA * 10f);
+			assertArrayEquals(new Transform().get(new float[Transform.FLOATS], 0),
+					Transform.mul(t, inverse, new Transform()).get(new float[Transform.FLOATS], 0), DELTA * 10f);
+			assertEquals(inverse, t.clone().invert(t));
+		}
+	}
+
+	@Test
+	public void transformPointTest() {
+		Random rnd = new Random(4);
+		for (int i = 0; i < 1000; i++) {
+			Transform t = randomTransform(rnd, false);
+			float[] m = t.getMatrix(new float[16], 0);
+			V3f p = new V3f(rnd.nextFloat() * 10f, rnd.nextFloat() * 10f, rnd.nextFloat() * 10f);
+			V3f expected = new V3f(
+					m[0] * p.x() + m[4] * p.y() + m[8]  * p.z() + m[12],
+					m[1] * p.x() + m[5] * p.y() + m[9]  * p.z() + m[13],
+					m[2] * p.x() + m[6] * p.y() + m[10] * p.z() + m[14]);
+			V3f result = t.transformPoint(p, p);
+			assertEquals(expected.x(), result.x(), DELTA * 100f);
+			assertEquals(expected.y(), result.y(), DELTA * 100f);
+			assertEquals(expected.z(), result.z(), DELTA * 100f);
+		}
+	}
+
+	@Test
+	public void interpolateTest() {
+		Transform a = new Transform().setTranslation(0f, 0f, 0f).setScale(1f).setRotation(new Quatf().rotateZaxisCCW(0.2));
+		Transform b = new Transform().setTranslation(10f, -4f, 2f).setScale(3f).setRotation(new Quatf().rotateZaxisCCW(1.8));
+		Transform mid = new Transform().setTranslation(5f, -2f, 1f).setScale(2f).setRotation(new Quatf().rotateZaxisCCW(1.0));
+		assertEquals(mid, Transform.slerp(a, b, 0.5f, new Transform()));
+		assertEquals(mid, Transform.nlerp(a, b, 0.5f, new Transform()));								// symmetric, same as slerp at 0.5
+		assertEquals(a, Transform.slerp(a, b, 0f, new Transform()));
+		assertEquals(b, Transform.nlerp(a, b, 1f, new Transform()));
+
+		Transform quarter = Transform.slerp(a, b, 0.25f, new Transform());
+		assertEquals(new Quatf().rotateZaxisCCW(0.6), quarter.getRotation(new Quatf()));
+		assertEquals(Quatf.nlerp(a.getRotation(new Quatf()), b.getRotation(new Quatf()), 0.25f, new Quatf()),
+				Transform.nlerp(a, b, 0.25f, new Transform()).getRotation(new Quatf()));
+	}
+
+	private static Transform randomTransform(Random rnd, boolean isUniformScale) {
+		float scale = 0.5f + rnd.nextFloat() * 2f;
+		return new Transform()
+				.setTranslation(rnd.nextFloat() * 20f - 10f, rnd.nextFloat() * 20f - 10f, rnd.nextFloat() * 20f - 10f)
+				.setRotation(new Quatf().setAxisAngle(rnd.nextFloat() - 0.5f, rnd.nextFloat() - 0.5f, rnd.nextFloat() - 0.5f, rnd.nextDouble() * 6))
+				.setScale(scale, isUniformScale ? scale : 0.5f + rnd.nextFloat() * 2f, isUniformScale ? scale : 0.5f + rnd.nextFloat() * 2f);
+	}
+
+}
@@ -0,0 +1,73 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libOBJ;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.Buffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+
+import org.junit.Test;
+
+public class ElementBuffersTest {
+
+	@Test
+	public void shortIndicesTest() {
+		// the largest short index is 65534, 0xFFFF is the primitive restart index
+		int[] indices = new int[] { 0, 1, 2, 65534, 32768, 40000 };
+		Buffer elements = ElementBuffers.create(indices, ElementBuffers.MAX_SHORT_VERTICES);
+
+		assertTrue(elements instanceof ShortBuffer);
+		assertTrue(elements.isDirect());
+		assertEquals(ByteOrder.nativeOrder(), ((ShortBuffer) elements).order());
+		assertEquals(Short.BYTES, ElementBuffers.getBytesPerIndex(elements));
+		assertEquals(indices.length, elements.remaining());
+		assertArrayEquals(indices, ElementBuffers.toArray(elements));					// unsigned
+		assertEquals(0, elements.position());
+	}
+
+	@Test
+	public void intIndicesTest() {
+		int[] indices = new int[] { 0, 65535, 65536, 100000 };
+		Buffer elements = ElementBuffers.create(indices, ElementBuffers.MAX_SHORT_VERTICES + 1);
+
+		assertTrue(elements instanceof IntBuffer);
+		assertEquals(Integer.BYTES, ElementBuffers.getBytesPerIndex(elements));
+		assertArrayEquals(indices, ElementBuffers.toArray(elements));
+	}
+
+	@Test
+	public void modelsTest() {
+		// every sample model fits in 16 bits, half the bytes of the int buffer
+		for (String fname : OBJLoaderTest.MODELS) {
+			RawOBJ model = OBJLoader.read(fname);
+			Buffer elements = model.getIndexBuffer();
+
+			assertTrue(fname, model.getnVertices() <= ElementBuffers.MAX_SHORT_VERTICES);
+			assertEquals(fname, Short.BYTES, model.getBytesPerIndex());
+			assertArrayEquals(fname, model.getIndices(), ElementBuffers.toArray(elements));
+
+			// duplicate is an independent view of the same memory
+			Buffer view = ElementBuffers.duplicate(elements);
+			view.position(view.limit());
+			assertEquals(fname, model.getnElements(), elements.remaining());
+		}
+	}
+
+}
@@ -0,0 +1,143 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libOBJ;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class MeshOptimizerTest {
+
+	@Test
+	public void cacheMissesTest() {
+		// 2 triangles sharing an edge: 4 misses with a big cache, 5 with a single entry cache (2 2 is a hit)
+		int[] indices = new int[] { 0, 1, 2, 2, 1, 3 };
+		assertEquals(2.0f, MeshOptimizer.getACMR(indices, 4, 16), 0.0f);
+		assertEquals(1.0f, MeshOptimizer.getATVR(indices, 4, 16), 0.0f);
+		assertEquals(2.5f, MeshOptimizer.getACMR(indices, 4, 1), 0.0f);
+	}
+
+	@Test
+	public void gridTest() {
+		int slices = 128;
+		int[] indices = getGrid(slices);
+		int nVertices = slices * slices;
+		float acmrBefore = MeshOptimizer.getACMR(indices, nVertices, MeshOptimizer.FIFO_CACHE_SIZE);
+		float atvrBefore = MeshOptimizer.getATVR(indices, nVertices, MeshOptimizer.FIFO_CACHE_SIZE);
+
+		int[] optimized = MeshOptimizer.optimizeVertexCache(indices, nVertices);
+		float acmrAfter = MeshOptimizer.getACMR(optimized, nVertices, MeshOptimizer.FIFO_CACHE_SIZE);
+		float atvrAfter = MeshOptimizer.getATVR(optimized, nVertices, MeshOptimizer.FIFO_CACHE_SIZE);
+
+		// scan order misses the 16 entries cache on every row: ACMR 1.0, ATVR 2.0
+		assertTrue("ACMR " + acmrBefore + " ==> " + acmrAfter, acmrAfter < 0.8f * acmrBefore);
+		assertTrue("ATVR " + atvrBefore + " ==> " + atvrAfter, atvrAfter < 0.8f * atvrBefore);
+		assertEquals(getTriangles(indices), getTriangles(optimized));
+	}
+
+	@Test
+	public void modelsTest() {
+		for (String fname : OBJLoaderTest.MODELS) {
+			RawOBJ model = OBJLoader.read(fname);
+			RawOBJ optimized = MeshOptimizer.optimize(model);
+			int nVertices = model.getPositions().length / 3;
+
+			assertEquals(fname, model.getnElements(), optimized.getnElements());
+			assertTrue(fname, MeshOptimizer.getACMR(optimized.getIndices(), nVertices, MeshOptimizer.FIFO_CACHE_SIZE)
+					<= MeshOptimizer.getACMR(model.getIndices(), nVertices, MeshOptimizer.FIFO_CACHE_SIZE) * 1.05f);
+
+			// same triangles (same winding) with the same vertex attributes on each corner
+			assertEquals(fname, getCorners(model), getCorners(optimized));
+
+			// vertex fetch order: each new vertex is the next one in memory
+			int next = 0;
+			for (int index : optimized.getIndices()) {
+				assertTrue(fname, index <= next);
+				if ( index == next ) {
+					next++;
+				}
+			}
+		}
+	}
+
+	@Test
+	public void vertexFetchRemapTest() {
+		int[] indices = new int[] { 3, 1, 4, 4, 1, 0 };
+		int[] remap = MeshOptimizer.getVertexFetchRemap(indices, 6);
+
+		assertArrayEquals(new int[] { 3, 1, 4, 0, 2, 5 }, remap);
+		assertArrayEquals(new int[] { 0, 1, 2, 2, 1, 3 }, MeshOptimizer.remapIndices(indices, remap));
+		assertArrayEquals(new float[] { 3f, 30f, 1f, 10f, 4f, 40f, 0f, 0f, 2f, 20f, 5f, 50f },
+				MeshOptimizer.remapVertices(new float[] { 0f, 0f, 1f, 10f, 2f, 20f, 3f, 30f, 4f, 40f, 5f, 50f }, 2, remap), 0.0f);
+	}
+
+	private static int[] getGrid(int slices) {
+		// same index order as TerrainFlat
+		int[] indices = new int[6 * (slices - 1) * (slices - 1)];
+		int pointer = 0;
+		for (int gz = 0; gz < slices - 1; gz++) {
+			for (int gx = 0; gx < slices - 1; gx++) {
+				int topLeft = (gz * slices) + gx;
+				int topRight = topLeft + 1;
+				int bottomLeft = ((gz + 1) * slices) + gx;
+				int bottomRight = bottomLeft + 1;
+				indices[pointer++] = topLeft;
+				indices[pointer++] = bottomLeft;
+				indices[pointer++] = topRight;
+				indices[pointer++] = topRight;
+				indices[pointer++] = bottomLeft;
+				indices[pointer++] = bottomRight;
+			}
+		}
+		return indices;
+	}
+
+	private static List<String> getTriangles(int[] indices) {
+		List<String> triangles = new ArrayList<>();
+		for (int t = 0; t < indices.length / 3; t++) {
+			triangles.add(indices[t * 3] + " " + indices[t * 3 + 1] + " " + indices[t * 3 + 2]);
+		}
+		Collections.sort(triangles);
+		return triangles;
+	}
+
+	private static List<String> getCorners(RawOBJ model) {
+		// one string per triangle with the attributes of its 3 corners, sorted
+		float[] p = model.getPositions();
+		float[] uv = model.getTextureCoords();
+		float[] n = model.getNormals();
+		int[] indices = model.getIndices();
+		List<String> triangles = new ArrayList<>();
+		for (int t = 0; t < indices.length / 3; t++) {
+			StringBuilder sb = new StringBuilder();
+			for (int k = 0; k < 3; k++) {
+				int v = indices[t * 3 + k];
+				sb.append(p[v * 3]).append(',').append(p[v * 3 + 1]).append(',').append(p[v * 3 + 2]).append('/')
+					.append(uv[v * 2]).append(',').append(uv[v * 2 + 1]).append('/')
+					.append(n[v * 3]).append(',').append(n[v * 3 + 1]).append(',').append(n[v * 3 + 2]).append(' ');
+			}
+			triangles.add(sb.toString());
+		}
+		Collections.sort(triangles);
+		return triangles;
+	}
+
+}
@@ -0,0 +1,120 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libOBJ;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class MeshSimplifierTest {
+
+	@Test
+	public void sphereTest() {
+		// smooth closed mesh: every target is reached with a small error (radius 0.5)
+		RawOBJ model = OBJLoader.read("res/models/sphere.obj");
+		RawOBJ lod = MeshSimplifier.simplify(model, 0.25f);
+
+		assertEquals(model.getnElements() / 4, lod.getnElements());
+		assertTrue(MeshSimplifier.getError(model, lod) < 0.01f);						// 1% of the diameter
+		assertAttributesFromOriginal(model, lod);
+	}
+
+	@Test
+	public void chainTest() {
+		for (String fname : new String[] { "res/models/tree.obj", "res/models/pine_sorted.obj", "res/models/fern.obj" }) {
+			RawOBJ model = OBJLoader.read(fname);
+			List<MeshLOD> chain = MeshSimplifier.buildLODChain(model);
+			float diagonal = getDiagonal(model);
+
+			assertEquals(fname, MeshSimplifier.DEFAULT_LOD_RATIOS.length, chain.size());
+			assertSame(fname, model, chain.get(0).getModel());
+			int previous = Integer.MAX_VALUE;
+			for (MeshLOD level : chain) {
+				int target = Math.round(model.getnElements() / 3 * level.getTargetRatio());
+				assertTrue(fname + " " + level, level.getTriangles() <= target + 1);
+				assertTrue(fname + " " + level, level.getTriangles() < previous);
+				assertTrue(fname + " " + level, level.getError() < 0.2f * diagonal);
+				assertAttributesFromOriginal(model, level.getModel());
+				previous = level.getTriangles();
+			}
+			assertTrue(fname + " " + chain.get(1), chain.get(1).getError() < 0.15f * diagonal);
+		}
+	}
+
+	@Test
+	public void seamTest() {
+		// every face of tree.obj has its own texture coordinates: all the edges are UV seams
+		RawOBJ model = OBJLoader.read("res/models/tree.obj");
+
+		// no UV error allowed: nothing can move
+		RawOBJ locked = MeshSimplifier.simplify(model, 0.5f, 0f);
+		assertEquals(model.getnElements(), locked.getnElements());
+		assertEquals(0f, MeshSimplifier.getError(model, locked), 0f);
+
+		// welded by position, the texture coordinates move at most maxUVError across the seams
+		RawOBJ lod = MeshSimplifier.simplify(model, 0.5f, MeshSimplifier.DEFAULT_MAX_UV_ERROR);
+		assertTrue(lod.getnElements() <= model.getnElements() / 2 + 3);
+		assertAttributesFromOriginal(model, lod);
+		RawOBJ tighter = MeshSimplifier.simplify(model, 0.5f, MeshSimplifier.DEFAULT_MAX_UV_ERROR / 4f);
+		assertTrue(tighter.getnElements() > lod.getnElements());
+	}
+
+	private static void assertAttributesFromOriginal(RawOBJ model, RawOBJ lod) {
+		// half edge collapses do not create new positions, texture coordinates or normals
+		Set<String> positions = getSet(model.getPositions(), 3);
+		Set<String> textureCoords = getSet(model.getTextureCoords(), 2);
+		Set<String> normals = getSet(model.getNormals(), 3);
+		assertTrue(positions.containsAll(getSet(lod.getPositions(), 3)));
+		assertTrue(textureCoords.containsAll(getSet(lod.getTextureCoords(), 2)));
+		assertTrue(normals.containsAll(getSet(lod.getNormals(), 3)));
+		for (int index : lod.getIndices()) {
+			assertTrue(index >= 0 && index < lod.getPositions().length / 3);
+		}
+	}
+
+	private static Set<String> getSet(float[] data, int components) {
+		Set<String> set = new HashSet<>();
+		for (int v = 0; v < data.length / components; v++) {
+			StringBuilder sb = new StringBuilder();
+			for (int k = 0; k < components; k++) {
+				sb.append(data[v * components + k]).append(',');
+			}
+			set.add(sb.toString());
+		}
+		return set;
+	}
+
+	private static float getDiagonal(RawOBJ model) {
+		float[] p = model.getPositions();
+		float diagonal2 = 0f;
+		for (int k = 0; k < 3; k++) {
+			float min = Float.MAX_VALUE;
+			float max = -Float.MAX_VALUE;
+			for (int v = 0; v < p.length / 3; v++) {
+				min = Math.min(min, p[v * 3 + k]);
+				max = Math.max(max, p[v * 3 + k]);
+			}
+			diagonal2 += (max - min) * (max - min);
+		}
+		return (float) Math.sqrt(diagonal2);
+	}
+
+}
@@ -0,0 +1,90 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libOBJ;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * Load time of a big synthetic OBJ (a grid of SIDE x SIDE vertices) with the streaming loader
+ * and with the memory mapped loader using 1, 2, 4, ... threads. Run from the OpenGL folder:
+ *
+ *   java -cp bin tk.otanod.libOBJ.OBJLoaderParallelBenchmark [megabytes]
+ */
+public class OBJLoaderParallelBenchmark {
+
+	public static void main(String[] args) throws IOException {
+		int megabytes = (args.length > 0) ? Integer.parseInt(args[0]) : 256;
+		File file = createGridOBJ(megabytes);
+		double mb = file.length() / (1024.0 * 1024.0);
+		System.out.printf("Synthetic OBJ %s (%.1f MB)%n", file.getName(), mb);
+
+		double seconds = time(() -> OBJLoader.read(file.getPath()));
+		System.out.printf("Streaming loader         : %6.3f s %8.2f MB/s%n", seconds, mb / seconds);
+
+		int cores = Runtime.getRuntime().availableProcessors();
+		for (int threads = 1; threads <= cores; threads *= 2) {
+			ForkJoinPool pool = new ForkJoinPool(threads);
+			long chunkSize = Math.max(4L << 20, file.length() / (threads * 4L));
+			seconds = time(() -> OBJLoader.readParallel(file.getPath(), pool, chunkSize));
+			System.out.printf("Mapped loader %2d threads : %6.3f s %8.2f MB/s%n", threads, seconds, mb / seconds);
+			pool.shutdown();
+		}
+		file.delete();
+	}
+
+	private static double time(Supplier<RawOBJ> loader) {
+		loader.get();															// warm up
+		long t0 = System.nanoTime();
+		RawOBJ model = loader.get();
+		long t1 = System.nanoTime();
+		if ( model.getnElements() == 42 ) {
+			System.out.println();
+		}
+		return (t1 - t0) / 1E9;
+	}
+
+	private static File createGridOBJ(int megabytes) throws IOException {
+		// ~100 bytes per vertex (v + vt + vn) plus ~70 bytes per triangle
+		int side = (int) Math.sqrt(megabytes * 1024.0 * 1024.0 / 240.0);
+		File file = File.createTempFile("grid" + side, ".obj");
+		file.deleteOnExit();
+		try ( BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.US_ASCII) ) {
+			for (int i = 0; i < side; i++) {
+				for (int j = 0; j < side; j++) {
+					writer.write(String.format(Locale.ROOT, "v %.6f %.6f %.6f%n", (float) j, (float) Math.sin(i * 0.1 + j * 0.1), (float) i));
+					writer.write(String.format(Locale.ROOT, "vt %.6f %.6f%n", j / (float) side, i / (float) side));
+					writer.write(String.format(Locale.ROOT, "vn %.6f %.6f %.6f%n", 0f, 1f, 0f));
+				}
+			}
+			for (int i = 0; i < side - 1; i++) {
+				for (int j = 0; j < side - 1; j++) {
+					int a = i * side + j + 1;
+					int b = a + side;
+					writer.write("f " + a + "/" + a + "/" + a + " " + b + "/" + b + "/" + b + " " + (a + 1) + "/" + (a + 1) + "/" + (a + 1) + "\n");
+					writer.write("f " + (a + 1) + "/" + (a + 1) + "/" + (a + 1) + " " + b + "/" + b + "/" + b + " " + (b + 1) + "/" + (b + 1) + "/" + (b + 1) + "\n");
+				}
+			}
+		}
+		return file;
+	}
+
+}
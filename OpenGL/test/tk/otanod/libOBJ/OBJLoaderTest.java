@@ -0,0 +1,318 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libOBJ;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import tk.otanod.libMath.Aabb3f;
+
+public class OBJLoaderTest {
+
+	// deer.obj has no normals, the String.split loader can not read it
+	static final String[] MODELS = new String[] {
+			"res/models/fern.obj",
+			"res/models/grass.obj",
+			"res/models/grassY.obj",
+			"res/models/lamp.obj",
+			"res/models/lowPolyTree.obj",
+			"res/models/person.obj",
+			"res/models/pine.obj",
+			"res/models/pine_sorted.obj",
+			"res/models/sphere.obj",
+			"res/models/stall.obj",
+			"res/models/stall_orig.obj",
+			"res/models/teapot.obj",
+			"res/models/tree.obj",
+	};
+
+	@Test
+	public void samePositionsAsTextLoaderTest() {
+		// the String.split loader keeps the right position of every corner (position is its master index)
+		for (String fname : MODELS) {
+			RawOBJ expected = OBJLoader.readText(fname);
+			RawOBJ actual = OBJLoader.read(fname);
+
+			assertEquals(fname, expected.getnElements(), actual.getnElements());
+			for (int i = 0; i < actual.getnElements(); i++) {
+				int e = expected.getIndices()[i];
+				int a = actual.getIndices()[i];
+				for (int k = 0; k < 3; k++) {
+					assertEquals(fname, expected.getPositions()[e * 3 + k], actual.getPositions()[a * 3 + k], 0.0f);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void weldedVerticesTest() throws IOException {
+		for (String fname : MODELS) {
+			OBJParser parser = parse(fname);
+			RawOBJ model = OBJLoader.read(fname);
+			int nCorners = parser.corners.size() / 3;
+			int nVertices = model.getPositions().length / 3;
+
+			assertEquals(fname, nCorners, model.getnElements());
+			assertEquals(fname, nVertices * 2, model.getTextureCoords().length);
+			assertEquals(fname, nVertices * 3, model.getNormals().length);
+
+			// every corner gets its own texture coordinate and normal, also on the UV seams and hard edges
+			Set<String> triples = new HashSet<>();
+			for (int i = 0; i < nCorners; i++) {
+				int p = parser.corners.get(i * 3 + 0);
+				int t = parser.corners.get(i * 3 + 1);
+				int n = parser.corners.get(i * 3 + 2);
+				int v = model.getIndices()[i];
+				triples.add(p + "/" + t + "/" + n);
+
+				for (int k = 0; k < 3; k++) {
+					assertEquals(fname, parser.positions.get(p * 3 + k), model.getPositions()[v * 3 + k], 0.0f);
+					assertEquals(fname, parser.normals.get(n * 3 + k), model.getNormals()[v * 3 + k], 0.0f);
+				}
+				for (int k = 0; k < 2; k++) {
+					assertEquals(fname, parser.textureCoords.get(t * 2 + k), model.getTextureCoords()[v * 2 + k], 0.0f);
+				}
+			}
+
+			// one vertex per unique (v, vt, vn)
+			assertEquals(fname, triples.size(), nVertices);
+		}
+	}
+
+	@Test
+	public void parallelSameModelTest() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		for (String fname : MODELS) {
+			RawOBJ expected = OBJLoader.read(fname);
+			for (long chunkSize : new long[] { 1, 1000, 4096, 1 << 20 }) {
+				RawOBJ actual = OBJLoader.readParallel(fname, pool, chunkSize);
+				
+				assertEquals(fname, expected.getnElements(), actual.getnElements());
+				assertArrayEquals(fname, expected.getIndices(), actual.getIndices());
+				assertArrayEquals(fname, expected.getPositions(), actual.getPositions(), 0.0f);
+				assertArrayEquals(fname, expected.getTextureCoords(), actual.getTextureCoords(), 0.0f);
+				assertArrayEquals(fname, expected.getNormals(), actual.getNormals(), 0.0f);
+			}
+		}
+		pool.shutdown();
+	}
+
+	@Test
+	public void missingNormalsTest() {
+		RawOBJ deer = OBJLoader.read("res/models/deer.obj");
+
+		assertEquals(1508 * 3, deer.getnElements());
+		assertEquals(deer.getPositions().length, deer.getNormals().length);
+		for (float normal : deer.getNormals()) {
+			assertEquals(0f, normal, 0.0f);
+		}
+	}
+
+	@Test
+	public void polygonsAndRelativeIndicesTest() throws IOException {
+		File file = File.createTempFile("quad", ".obj");
+		file.deleteOnExit();
+		String obj = "# quad\r\n"
+				+ "v -1.0 1.0 0.0\r\n"
+				+ "v\t-1.0 -1.0 0.0\r\n"
+				+ "v 1.0 -1.0 0.0\r\n"
+				+ "v 1.0e0 1.0E+0 -0.0\r\n"
+				+ "vt 0 1\r\n"
+				+ "vt 0 0\r\n"
+				+ "vt 1 0\r\n"
+				+ "vt 1 1\r\n"
+				+ "vn 0 0 1\r\n"
+				+ "f -4/-4/-1 -3/-3/-1 -2/-2/-1 -1/-1/-1\r\n"
+				+ "f 1//1 3//1 4//1";												// last line without new line
+		Files.write(file.toPath(), obj.getBytes(StandardCharsets.US_ASCII));
+
+		RawOBJ quad = OBJLoader.read(file.getPath());
+
+		// the second face has no texture coordinates, its corners are different vertices
+		assertArrayEquals(new int[] { 0, 1, 2, 0, 2, 3, 4, 5, 6 }, quad.getIndices());
+		assertArrayEquals(new float[] { -1f, 1f, 0f, -1f, -1f, 0f, 1f, -1f, 0f, 1f, 1f, -0f,
+				-1f, 1f, 0f, 1f, -1f, 0f, 1f, 1f, -0f }, quad.getPositions(), 0.0f);
+		assertArrayEquals(new float[] { 0f, 1f, 0f, 0f, 1f, 0f, 1f, 1f, 0f, 0f, 0f, 0f, 0f, 0f }, quad.getTextureCoords(), 0.0f);
+
+		// one line per chunk, the relative indices point to the previous chunks
+		RawOBJ quadChunks = OBJLoader.readParallel(file.getPath(), ForkJoinPool.commonPool(), 1);
+
+		assertArrayEquals(quad.getIndices(), quadChunks.getIndices());
+		assertArrayEquals(quad.getPositions(), quadChunks.getPositions(), 0.0f);
+		assertArrayEquals(quad.getTextureCoords(), quadChunks.getTextureCoords(), 0.0f);
+		assertArrayEquals(quad.getNormals(), quadChunks.getNormals(), 0.0f);
+	}
+
+	@Test
+	public void cachedModelTest() throws IOException {
+		Path folder = Files.createTempDirectory("rawobj");
+		for (String fname : MODELS) {
+			Path source = folder.resolve(Paths.get(fname).getFileName());
+			Files.copy(Paths.get(fname), source, StandardCopyOption.REPLACE_EXISTING);
+			Path cache = RawOBJFile.getCachePath(source);
+			
+			RawOBJ expected = MeshOptimizer.optimize(OBJLoader.read(fname));
+			RawOBJ built = OBJLoader.loadCached(source.toString());				// parses the OBJ and writes the cache
+			RawOBJ mapped = OBJLoader.loadCached(source.toString());				// maps the cache
+			
+			assertTrue(fname, Files.exists(cache));
+			assertEquals(fname, expected.getnElements(), mapped.getnElements());
+			assertArrayEquals(fname, expected.getIndices(), built.getIndices());
+			assertArrayEquals(fname, expected.getIndices(), mapped.getIndices());
+			assertArrayEquals(fname, expected.getPositions(), mapped.getPositions(), 0.0f);
+			assertArrayEquals(fname, expected.getTextureCoords(), mapped.getTextureCoords(), 0.0f);
+			assertArrayEquals(fname, expected.getNormals(), mapped.getNormals(), 0.0f);
+			
+			// direct native buffers, ready for glBufferData
+			assertTrue(fname, mapped.getPositionBuffer().isDirect());
+			assertTrue(fname, mapped.getIndexBuffer().isDirect());
+			assertEquals(fname, expected.getBytesPerIndex(), mapped.getBytesPerIndex());
+			assertEquals(fname, ByteOrder.nativeOrder(), mapped.getNormalBuffer().order());
+			assertEquals(fname, expected.getTextureCoords().length, mapped.getTextureCoordBuffer().remaining());
+			
+			// bounds stored in the cache, no scan of the mapped positions
+			Aabb3f bounds = new Aabb3f().setFromPositions(expected.getPositions());
+			assertFalse(fname, bounds.isEmpty());
+			assertEquals(fname, bounds, expected.getBounds());
+			assertEquals(fname, bounds, mapped.getBounds());
+			assertEquals(fname, expected.getBoundingSphere(), mapped.getBoundingSphere());
+			
+			Files.delete(cache);
+			Files.delete(source);
+		}
+		Files.delete(folder);
+	}
+
+	@Test
+	public void staleCacheTest() throws IOException {
+		Path source = Files.createTempFile("triangle", ".obj");
+		Path cache = RawOBJFile.getCachePath(source);
+		Files.write(source, "v 0 0 0\nv 1 0 0\nv 0 1 0\nf 1 2 3\n".getBytes(StandardCharsets.US_ASCII));
+		OBJLoader.loadCached(source.toString());
+		
+		assertNotEquals(null, RawOBJFile.map(source, cache));
+		
+		// the source changed ==> the cache is not used and it is rebuilt
+		Files.write(source, "v 0 0 0\nv 2 0 0\nv 0 2 0\nf 1 2 3\n".getBytes(StandardCharsets.US_ASCII));
+		Files.setLastModifiedTime(source, FileTime.fromMillis(Files.getLastModifiedTime(source).toMillis() + 2000));
+		assertNull(RawOBJFile.map(source, cache));
+		
+		RawOBJ triangle = OBJLoader.loadCached(source.toString());
+		assertArrayEquals(new float[] { 0f, 0f, 0f, 2f, 0f, 0f, 0f, 2f, 0f }, triangle.getPositions(), 0.0f);
+		assertArrayEquals(triangle.getPositions(), RawOBJFile.map(source, cache).getPositions(), 0.0f);
+		
+		Files.delete(cache);
+		Files.delete(source);
+	}
+
+	@Test
+	public void corruptCacheTest() throws IOException {
+		Path source = Files.createTempFile("triangle", ".obj");
+		Path cache = RawOBJFile.getCachePath(source);
+		Files.write(source, "v 0 0 0\nv 1 0 0\nv 0 1 0\nf 1 2 3\n".getBytes(StandardCharsets.US_ASCII));
+		OBJLoader.loadCached(source.toString());
+		byte[] valid = Files.readAllBytes(cache);
+		
+		// a section offset or a count outside the file ==> no cache, the model is parsed again
+		long[][] corruptions = {
+				{ 32, -1 }, { 36, Integer.MAX_VALUE }, { 40, valid.length }, { 48, Long.MAX_VALUE }, { 56, -64 }, { 64, 0 },
+		};
+		for (long[] corruption : corruptions) {
+			byte[] bytes = valid.clone();
+			ByteBuffer header = ByteBuffer.wrap(bytes).order(ByteOrder.nativeOrder());
+			if ( corruption[0] < 40 ) {
+				header.putInt((int) corruption[0], (int) corruption[1]);
+			} else {
+				header.putLong((int) corruption[0], corruption[1]);
+			}
+			Files.write(cache, bytes);
+			String name = corruption[0] + " = " + corruption[1];
+			
+			assertNull(name, RawOBJFile.map(source, cache));
+			RawOBJ triangle = OBJLoader.loadCached(source.toString());
+			assertArrayEquals(name, new float[] { 0f, 0f, 0f, 1f, 0f, 0f, 0f, 1f, 0f }, triangle.getPositions(), 0.0f);
+		}
+		
+		Files.delete(cache);
+		Files.delete(source);
+	}
+
+	private static OBJParser parse(String fname) throws IOException {
+		byte[] bytes = Files.readAllBytes(Paths.get(fname));
+		OBJParser parser = new OBJParser(bytes.length);
+		parser.parse(ByteBuffer.wrap(bytes), 0, bytes.length);
+		return parser;
+	}
+
+	@Test
+	public void parseFloatTest() {
+		// same bits as Float.parseFloat (the old text loader): fast path, its limits and the slow path
+		StringBuilder sb = new StringBuilder();
+		String[] fixed = new String[] {
+				"0", "-0", "0.000000", "1", "-1", "0.1", "0.2", "0.3", "0.646102", "-0.646102", "2.449246",
+				"16777215", "16777216", "16777217", "1677721.7", "0.16777217", "9999999", "99999999", "123456789",
+				"1.17549435e-38", "1.4e-45", "3.4028235e38", "3.4028236e38", "1e10", "1e11", "1e-10", "1e-11",
+				"0.00000000001", "10000000000", "1.00000005960464477539", "1.0000000596046448", "0.50000002980232239",
+				"8.589973e9", "8.5899735e9", "7.038531e-26", "+2.5", "2.5E+3", "2.5e-3",
+				// 15 digits within 2^-53 of a float midpoint: the double rounds to the midpoint, the float cast rounds again
+				"8.03369665145874", "9.83503007888794", "8.46465253829956", "-9.64534616470337",
+		};
+		for (String value : fixed) {
+			sb.append("v ").append(value).append(" 0 0\n");
+		}
+		Random random = new Random(13);
+		int nRandom = 200000;
+		String[] randoms = new String[nRandom];
+		for (int i = 0; i < nRandom; i++) {
+			// up to 9 significant digits (8 and 9 leave the fast path), exponents around the fast path limits
+			long mantissa = random.nextInt(1 + (int) Math.pow(10, 1 + random.nextInt(9)));
+			int exp10 = random.nextInt(27) - 13;
+			randoms[i] = ( random.nextBoolean() ? "-" : "" ) + mantissa + "e" + exp10;
+			sb.append("v ").append(randoms[i]).append(" 0 0\n");
+		}
+		byte[] bytes = sb.toString().getBytes(StandardCharsets.ISO_8859_1);
+		OBJParser parser = new OBJParser(bytes.length);
+		parser.parse(ByteBuffer.wrap(bytes), 0, bytes.length);
+
+		for (int i = 0; i < fixed.length; i++) {
+			assertEquals(fixed[i], Float.floatToIntBits(Float.parseFloat(fixed[i])), Float.floatToIntBits(parser.positions.get(i * 3)));
+		}
+		for (int i = 0; i < nRandom; i++) {
+			assertEquals(randoms[i], Float.floatToIntBits(Float.parseFloat(randoms[i])), Float.floatToIntBits(parser.positions.get((fixed.length + i) * 3)));
+		}
+	}
+
+}
@@ -0,0 +1,137 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.libOBJ;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class QuantizedOBJTest {
+
+	@Test
+	public void halfTest() {
+		// every half float survives the round trip (NaN payloads aside)
+		for (int h = 0; h < 0x10000; h++) {
+			float value = QuantizedOBJ.fromHalf((short) h);
+			if ( !Float.isNaN(value) ) {
+				assertEquals(Integer.toHexString(h), (short) h, QuantizedOBJ.toHalf(value));
+			}
+		}
+		assertEquals(1.0f, QuantizedOBJ.fromHalf((short) 0x3c00), 0f);
+		assertEquals(65504f, QuantizedOBJ.fromHalf((short) 0x7bff), 0f);
+		assertEquals(0x1p-24f, QuantizedOBJ.fromHalf((short) 0x0001), 0f);
+		assertEquals((short) 0x7c00, QuantizedOBJ.toHalf(65520f));						// rounds over the largest half
+		assertEquals((short) 0x7bff, QuantizedOBJ.toHalf(65519f));
+		assertEquals((short) 0x3c00, QuantizedOBJ.toHalf(1f + 0x1p-11f));				// tie, rounds to even
+		assertEquals((short) 0x3c02, QuantizedOBJ.toHalf(1f + 3 * 0x1p-11f));			// tie, rounds to even
+		assertTrue(Float.isNaN(QuantizedOBJ.fromHalf(QuantizedOBJ.toHalf(Float.NaN))));
+
+		// error bound: half of the 10 bits mantissa
+		Random random = new Random(7);
+		for (int i = 0; i < 100000; i++) {
+			float value = (random.nextFloat() * 2f - 1f) * 16f;
+			float decoded = QuantizedOBJ.fromHalf(QuantizedOBJ.toHalf(value));
+			float bound = Math.max(Math.abs(value) * 0x1p-11f, 0x1p-25f);
+			assertTrue(value + " " + decoded, Math.abs(decoded - value) <= bound);
+		}
+	}
+
+	@Test
+	public void octahedralTest() {
+		Random random = new Random(11);
+		short[] encoded = new short[2];
+		float[] decoded = new float[3];
+		double maxAngle = 0.0;
+		for (int i = 0; i < 100000; i++) {
+			float x = (float) random.nextGaussian();
+			float y = (float) random.nextGaussian();
+			float z = (float) random.nextGaussian();
+			float length = (float) Math.sqrt(x * x + y * y + z * z);
+			x /= length;
+			y /= length;
+			z /= length;
+			QuantizedOBJ.encodeOctahedral(x, y, z, encoded);
+			QuantizedOBJ.decodeOctahedral(encoded[0], encoded[1], decoded);
+			maxAngle = Math.max(maxAngle, getAngle(x, y, z, decoded));
+		}
+		assertTrue("max angle " + maxAngle, maxAngle < 0.0001);
+
+		// axes are exact, a zero normal becomes +Z
+		float[][] axes = new float[][] { { 1, 0, 0 }, { -1, 0, 0 }, { 0, 1, 0 }, { 0, -1, 0 }, { 0, 0, 1 }, { 0, 0, -1 } };
+		for (float[] axis : axes) {
+			QuantizedOBJ.encodeOctahedral(axis[0], axis[1], axis[2], encoded);
+			QuantizedOBJ.decodeOctahedral(encoded[0], encoded[1], decoded);
+			assertArrayEquals(axis, decoded, 0f);
+		}
+		QuantizedOBJ.encodeOctahedral(0f, 0f, 0f, encoded);
+		QuantizedOBJ.decodeOctahedral(encoded[0], encoded[1], decoded);
+		assertArrayEquals(new float[] { 0, 0, 1 }, decoded, 0f);
+	}
+
+	@Test
+	public void modelsTest() {
+		for (String fname : OBJLoaderTest.MODELS) {
+			RawOBJ model = OBJLoader.read(fname);
+			QuantizedOBJ quantized = QuantizedOBJ.quantize(model);
+			float[] p = model.getPositions();
+			float[] uv = model.getTextureCoords();
+			float[] n = model.getNormals();
+			float[] extent = quantized.getPositionExtent();
+			int nVertices = p.length / 3;
+
+			assertEquals(fname, model.getnElements(), quantized.getnElements());
+			assertEquals(fname, nVertices, quantized.getnVertices());
+			assertEquals(fname, nVertices * 4, quantized.getPositionBuffer().remaining());
+			assertEquals(fname, nVertices * 2, quantized.getTextureCoordBuffer().remaining());
+			assertEquals(fname, nVertices * 2, quantized.getNormalBuffer().remaining());
+			assertEquals(fname, model.getIndexBuffer(), quantized.getIndexBuffer());
+
+			float[] position = new float[3];
+			float[] textureCoord = new float[2];
+			float[] normal = new float[3];
+			for (int v = 0; v < nVertices; v++) {
+				quantized.getPosition(v, position);
+				for (int k = 0; k < 3; k++) {
+					float bound = extent[k] / 65535f / 2f + Math.ulp(Math.abs(p[v * 3 + k]) + extent[k]) * 2f;
+					assertEquals(fname + " position " + v, p[v * 3 + k], position[k], bound);
+				}
+
+				quantized.getTextureCoord(v, textureCoord);
+				for (int k = 0; k < 2; k++) {
+					float bound = Math.max(Math.abs(uv[v * 2 + k]) * 0x1p-11f, 0x1p-25f);
+					assertEquals(fname + " uv " + v, uv[v * 2 + k], textureCoord[k], bound);
+				}
+
+				if ( n[v * 3] != 0f || n[v * 3 + 1] != 0f || n[v * 3 + 2] != 0f ) {
+					quantized.getNormal(v, normal);
+					assertTrue(fname + " normal " + v, getAngle(n[v * 3], n[v * 3 + 1], n[v * 3 + 2], normal) < 0.0001);
+				}
+			}
+		}
+	}
+
+	private static double getAngle(double x, double y, double z, float[] n) {
+		// atan2(|a x b|, a . b), acos loses the small angles
+		double cx = y * n[2] - z * n[1];
+		double cy = z * n[0] - x * n[2];
+		double cz = x * n[1] - y * n[0];
+		return Math.atan2(Math.sqrt(cx * cx + cy * cy + cz * cz), x * n[0] + y * n[1] + z * n[2]);
+	}
+
+}
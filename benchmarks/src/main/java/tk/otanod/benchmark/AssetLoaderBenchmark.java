@@ -0,0 +1,73 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tk.otanod.engine.loader.AssetLoader;
+
+/**
+ * Cold start of the demo (Main): every asset it loads, a new JVM per measurement (SingleShotTime, no warm up).
+ *   isAsync false   the assets are loaded one after another, the window opens after this time
+ *   isAsync true    AssetLoader pools, the window opens at once and the models appear within this time
+ * The GPU uploads are not included (no GL context).
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+@State(Scope.Benchmark)
+public class AssetLoaderBenchmark {
+
+	@Param({ "false", "true" })
+	public boolean isAsync;
+
+	@Benchmark
+	public Object coldStart() {
+		try ( AssetLoader loader = new AssetLoader(isAsync) ) {
+			loader.loadImagePack(new String[] { path("res/drawable/grassy2.png"), path("res/drawable/mud.png"), path("res/drawable/grassFlowers.png"),
+					path("res/drawable/path.png"), path("res/drawable/blendMap1.png") }, true);
+			String[] models = { "stall", "tree", "lowPolyTree", "lamp", "grassY", "pine_sorted", "fern" };
+			String[] textures = { "stall", "tree", "lowPolyTree", "lamp", "grass1", "pine", "fern" };
+			for (int i = 0; i < models.length; i++) {
+				loader.loadOBJ(path("res/models/" + models[i] + ".obj"));
+				loader.loadFlippedImage(path("res/drawable/" + textures[i] + ".png"));
+			}
+			loader.loadCubeMap(path("res/drawable/skyboxClouds.png"), 4, 4);
+			for (String font : new String[] { "LeckerliOne-Regular", "Ubuntu-R" }) {
+				loader.loadImage(path("res/fonts/" + font + ".png"), false);
+				loader.loadFont(path("res/fonts/" + font + ".fnt"));
+			}
+			return loader.getAllLoaded().join();
+		}
+	}
+
+	private static String path(String relative) {
+		return Assets.path(relative);
+	}
+
+}
@@ -0,0 +1,48 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.benchmark;
+
+import java.io.File;
+
+/**
+ * The loaders use paths relative to the OpenGL folder (res/models/..., res/drawable/...).
+ * The benchmarks run from the repository root or from the OpenGL folder, -Djgames.home=<OpenGL folder> overrides both.
+ */
+final class Assets {
+
+	private static final String HOME = getHome();
+
+	private Assets() {
+	}
+
+	static String path(String relative) {
+		return HOME.isEmpty() ? relative : HOME + File.separator + relative;
+	}
+
+	private static String getHome() {
+		String home = System.getProperty("jgames.home");
+		if ( home != null ) {
+			return home;
+		}
+		if ( new File("res").isDirectory() ) {
+			return "";
+		}
+		if ( new File("OpenGL", "res").isDirectory() ) {
+			return "OpenGL";
+		}
+		throw new IllegalStateException("res folder not found in " + new File("").getAbsolutePath() + ", use -Djgames.home=<OpenGL folder>");
+	}
+
+}
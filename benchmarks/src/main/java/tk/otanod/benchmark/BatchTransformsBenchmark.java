@@ -0,0 +1,172 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tk.otanod.libMath.BatchTransforms;
+import tk.otanod.libMath.M4f;
+
+/**
+ * Instance matrices: one M4f per instance (Main.createInstancesModelArray before BatchTransforms) against the batch
+ * kernels, scalar and jdk.incubator.vector (composeTRS has no vector kernel, see BatchTransformsVector).
+ * The fork adds the incubator module, this benchmark needs JDK 17 or newer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Thread)
+public class BatchTransformsBenchmark {
+
+	@Param({ "1000", "10000", "100000" })
+	private int instances;
+
+	private final BatchTransforms scalar = BatchTransforms.getScalar();
+	private final BatchTransforms vector = BatchTransforms.getInstance();
+	private final M4f view = new M4f().rotateXaxisCCW(0.2).rotateYaxisCCW(0.5).setTranslate(-3f, -2f, -10f);
+	private final M4f m4 = new M4f();
+
+	private float[] x, z, scale;
+	private double[] angle;
+	private float[] trs;
+	private float[] models;
+	private M4f[] modelsM4f;
+	private float[] result;
+	private float[] points;
+	private float[] aabbs;
+
+	@Setup
+	public void setup() {
+		if ( !vector.isVectorized() ) {
+			throw new IllegalStateException("jdk.incubator.vector is not available");
+		}
+		Random random = new Random(1);
+		x = new float[instances];
+		z = new float[instances];
+		scale = new float[instances];
+		angle = new double[instances];
+		trs = new float[instances * BatchTransforms.TRS_COMPONENTS];
+		points = new float[instances * BatchTransforms.POINT_COMPONENTS];
+		aabbs = new float[instances * BatchTransforms.AABB_COMPONENTS];
+		for (int i = 0; i < instances; i++) {
+			x[i] = random.nextFloat() * 160f - 80f;
+			z[i] = random.nextFloat() * 160f - 80f;
+			scale[i] = random.nextFloat() * 2f + 3f;
+			angle[i] = random.nextFloat() * Math.PI;
+			BatchTransforms.setTRSYaw(trs, instances, i, x[i], 0f, z[i], angle[i], scale[i]);
+			points[i] = x[i];
+			points[instances + i] = scale[i];
+			points[2 * instances + i] = z[i];
+			for (int k = 0; k < 3; k++) {
+				aabbs[(BatchTransforms.MIN_X + k) * instances + i] = points[k * instances + i] - scale[i];
+				aabbs[(BatchTransforms.MAX_X + k) * instances + i] = points[k * instances + i] + scale[i];
+			}
+		}
+		models = new float[instances * 16];
+		result = new float[instances * 16];
+		scalar.composeTRS(instances, trs, models, 0);
+		modelsM4f = new M4f[instances];
+		for (int i = 0; i < instances; i++) {
+			modelsM4f[i] = new M4f().scale(scale[i], scale[i], scale[i]).rotateYaxisCCW(angle[i]).setTranslate(x[i], 0f, z[i]);
+		}
+	}
+
+	/************************
+	 *	TRS ==> MATRICES
+	 ************************/
+
+	@Benchmark
+	public float[] composeM4f() {
+		for (int i = 0; i < instances; i++) {
+			m4.identity().scale(scale[i], scale[i], scale[i]).rotateYaxisCCW(angle[i]).setTranslate(x[i], 0f, z[i]);
+			m4.getElements(result, i * 16);
+		}
+		return result;
+	}
+
+	@Benchmark
+	public float[] composeScalar() {
+		scalar.composeTRS(instances, trs, result, 0);
+		return result;
+	}
+
+	/************************
+	 *	VIEW * MODELS
+	 ************************/
+
+	@Benchmark
+	public float[] mulM4f() {
+		for (int i = 0; i < instances; i++) {
+			M4f.mul(view, modelsM4f[i], m4).getElements(result, i * 16);
+		}
+		return result;
+	}
+
+	@Benchmark
+	public float[] mulScalar() {
+		scalar.mul(view, instances, models, 0, result, 0);
+		return result;
+	}
+
+	@Benchmark
+	public float[] mulVector() {
+		vector.mul(view, instances, models, 0, result, 0);
+		return result;
+	}
+
+	/************************
+	 *	POINTS AND AABBs
+	 ************************/
+
+	@Benchmark
+	public float[] pointsScalar() {
+		scalar.transformPoints(view, instances, points, result);
+		return result;
+	}
+
+	@Benchmark
+	public float[] pointsVector() {
+		vector.transformPoints(view, instances, points, result);
+		return result;
+	}
+
+	@Benchmark
+	public float[] aabbsScalar() {
+		scalar.transformAabbs(view, instances, aabbs, result);
+		return result;
+	}
+
+	@Benchmark
+	public float[] aabbsVector() {
+		vector.transformAabbs(view, instances, aabbs, result);
+		return result;
+	}
+
+}
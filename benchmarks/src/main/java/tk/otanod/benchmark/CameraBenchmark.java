@@ -0,0 +1,69 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tk.otanod.engine.camera.Camera;
+import tk.otanod.libMath.M4f;
+import tk.otanod.libMath.V3f;
+
+/**
+ * View matrix of the camera: float[] version (new matrix each call) and M4f.lookAt into an existing matrix.
+ * updateCamera is a full frame of the camera (yaw, pitch and a step forward).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CameraBenchmark {
+
+	private final V3f eye = new V3f(1f, 2f, 5f);
+	private final V3f center = new V3f(0f, 0f, 0f);
+	private final V3f up = new V3f(0f, 1f, 0f);
+	private final M4f dest = new M4f();
+	private final Camera camera = new Camera(new V3f(0f, 1f, 0f), new V3f(0f, 0f, -1f), new V3f(0f, 2f, 5f));
+
+	@Benchmark
+	public float[] getViewMatrixLookAt() {
+		return Camera.getViewMatrixLookAt(eye, center, up);
+	}
+
+	@Benchmark
+	public M4f lookAtDest() {
+		return M4f.lookAt(eye, center, up, dest);
+	}
+
+	@Benchmark
+	public M4f updateCamera() {
+		camera.setDeltaYaw(0.1);
+		camera.setDeltaPitch(0.01);
+		camera.moveForward(0.01f);
+		return camera.getLookAtViewMatrix();
+	}
+
+}
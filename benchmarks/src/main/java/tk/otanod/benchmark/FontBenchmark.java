@@ -0,0 +1,72 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tk.otanod.engine.font.Font;
+
+/**
+ * Text layout: instance matrices and atlas areas of every glyph of a string.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FontBenchmark {
+
+	private static final String PANGRAM = "The quick brown fox jumps over the lazy dog. 0123456789 ";
+
+	@Param({ "100", "1000", "10000" })
+	public int length;
+
+	private Font font;
+	private String text;
+
+	@Setup
+	public void setup() {
+		font = new Font(Assets.path("res/fonts/Ubuntu-R.fnt"));
+		StringBuilder sb = new StringBuilder(length);
+		while ( sb.length() < length ) {
+			sb.append(PANGRAM);
+		}
+		text = sb.substring(0, length);
+	}
+
+	@Benchmark
+	public float[] buildInstancesModel() {
+		return font.buildInstancesModel(text, -0.5f, 1.0f);
+	}
+
+	@Benchmark
+	public float[] buildInstancesTextureAtlasArea() {
+		return font.buildInstancesTextureAtlasArea(text);
+	}
+
+}
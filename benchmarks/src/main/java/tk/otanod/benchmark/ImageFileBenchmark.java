@@ -0,0 +1,76 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tk.otanod.libIO.ImageFile;
+import tk.otanod.libIO.RawImage;
+
+/**
+ * Image decoding to the RGBA buffer uploaded by glTexImage2D.
+ * loadImageFile decodes the PNG files with PNGDecoder, loadImageIOFile is the ImageIO + BufferedImage path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ImageFileBenchmark {
+
+	@Param({ "res/drawable/grass.png", "res/drawable/grass1.png", "res/drawable/grass2.png", "res/drawable/stall.png", "res/drawable/skyboxClouds.png", "res/fonts/Ubuntu-R.png" })
+	public String image;
+
+	private String fname;
+
+	@Setup
+	public void setup() {
+		fname = Assets.path(image);
+	}
+
+	@Benchmark
+	public RawImage loadImageFile() {
+		return ImageFile.loadImageFile(fname);
+	}
+
+	@Benchmark
+	public RawImage loadFlippedImageFile() {
+		return ImageFile.loadFlippedImageFile(fname);
+	}
+
+	@Benchmark
+	public RawImage loadImageIOFile() {
+		return ImageFile.loadImageIOFile(fname, false);
+	}
+
+	@Benchmark
+	public RawImage loadFlippedImageIOFile() {
+		return ImageFile.loadImageIOFile(fname, true);
+	}
+
+}
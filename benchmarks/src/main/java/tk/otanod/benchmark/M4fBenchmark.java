@@ -0,0 +1,83 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tk.otanod.libMath.M4f;
+
+/**
+ * Allocating M4f API (new matrices and arrays) against the destination API (mul, invert, getElements(dst, offset)).
+ * Run with -prof gc to see the allocation rate of each one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class M4fBenchmark {
+
+	private final M4f a = new M4f().rotateYaxisCCW(0.3).scale(2f, 2f, 2f).setTranslate(1f, 2f, 3f);
+	private final M4f b = new M4f(new float[] { 1.2f, 0f, 0f, 0f, 0f, 2.1f, 0f, 0f, 0f, 0f, -1f, -1f, 0f, 0f, -0.2f, 0f });
+	private final M4f dest = new M4f();
+	private final float[] dst = new float[16];
+
+	@Benchmark
+	public M4f multiplyClone() {
+		return b.clone().preMultiply(a);
+	}
+
+	@Benchmark
+	public M4f multiplyDest() {
+		return M4f.mul(a, b, dest);
+	}
+
+	@Benchmark
+	public M4f inverse() {
+		return a.getInverse();
+	}
+
+	@Benchmark
+	public M4f inverseDest() {
+		return a.invert(dest);
+	}
+
+	@Benchmark
+	public M4f transpose() {
+		return a.getTranspose();
+	}
+
+	@Benchmark
+	public float[] getElements() {
+		return a.getElements();
+	}
+
+	@Benchmark
+	public float[] getElementsDest() {
+		return a.getElements(dst, 0);
+	}
+
+}
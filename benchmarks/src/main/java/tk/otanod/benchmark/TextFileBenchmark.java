@@ -0,0 +1,170 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.benchmark;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tk.otanod.libIO.MappedTextSource;
+import tk.otanod.libIO.TextFile;
+
+/**
+ * Text reading of a generated OBJ file (a grid, sizeMB megabytes, written to a temporary file by the setup).
+ *   bufferedReaderLines / mappedLines           line iteration: a String per line vs the MappedTextSource cursor
+ *   readTextFileBufferedReader / readTextFile   whole file as a String: the previous TextFile.readTextFile vs the MappedTextSource wrapper
+ * Each line counts the "v " lines, so the JIT cannot drop the line.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx3g" })
+@State(Scope.Benchmark)
+public class TextFileBenchmark {
+
+	@Param({ "500" })
+	public int sizeMB;
+
+	private Path file;
+	private String fname;
+
+	@Setup
+	public void setup() throws IOException {
+		file = Files.createTempFile("jgames", ".obj");
+		fname = file.toString();
+		writeGrid(file, (long) sizeMB << 20);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	@Benchmark
+	public long bufferedReaderLines() throws IOException {
+		long vertices = 0;
+		try ( BufferedReader reader = new BufferedReader(new FileReader(fname)) ) {
+			String line;
+			while ( (line = reader.readLine()) != null ) {
+				if ( line.startsWith("v ") ) {
+					vertices++;
+				}
+			}
+		}
+		return vertices;
+	}
+
+	@Benchmark
+	public long mappedLines() throws IOException {
+		long vertices = 0;
+		MappedTextSource.Lines lines = MappedTextSource.open(fname).lines();
+		while ( lines.next() ) {
+			if ( lines.startsWith("v ") ) {
+				vertices++;
+			}
+		}
+		return vertices;
+	}
+
+	/**
+	 * TextFile.readTextFile before MappedTextSource
+	 */
+	@Benchmark
+	public String readTextFileBufferedReader() throws IOException {
+		try ( BufferedReader br = new BufferedReader(new FileReader(fname)) ) {
+			StringBuilder sb = new StringBuilder();
+			String line = br.readLine();
+			while (line != null) {
+				sb.append(line);
+				sb.append(System.lineSeparator());
+				line = br.readLine();
+			}
+			return sb.toString();
+		}
+	}
+
+	@Benchmark
+	public String readTextFile() {
+		return TextFile.readTextFile(fname);
+	}
+
+	/**
+	 * n x n grid with v, vt, vn and two faces per cell, n chosen for size bytes
+	 */
+	private static void writeGrid(Path file, long size) throws IOException {
+		int n = (int) Math.sqrt(size / 230.0);									// about 230 bytes per vertex
+		try ( OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 20) ) {
+			StringBuilder sb = new StringBuilder();
+			for (int z = 0; z < n; z++) {
+				for (int x = 0; x < n; x++) {
+					sb.append("v ").append(x * 0.5f).append(' ').append((float) Math.sin(x * 0.1) * (float) Math.cos(z * 0.1)).append(' ').append(z * 0.5f).append('\n');
+				}
+				flush(sb, out);
+			}
+			for (int z = 0; z < n; z++) {
+				for (int x = 0; x < n; x++) {
+					sb.append("vt ").append(x / (float) n).append(' ').append(z / (float) n).append('\n');
+					sb.append("vn 0.0 1.0 0.0\n");
+				}
+				flush(sb, out);
+			}
+			for (int z = 0; z < n - 1; z++) {
+				for (int x = 0; x < n - 1; x++) {
+					int a = z * n + x + 1;
+					int b = a + 1;
+					int c = a + n;
+					int d = c + 1;
+					appendFace(sb, a, c, b);
+					appendFace(sb, b, c, d);
+				}
+				flush(sb, out);
+			}
+		}
+	}
+
+	private static void appendFace(StringBuilder sb, int a, int b, int c) {
+		sb.append('f');
+		for (int i : new int[] { a, b, c }) {
+			sb.append(' ').append(i).append('/').append(i).append('/').append(i);
+		}
+		sb.append('\n');
+	}
+
+	private static void flush(StringBuilder sb, OutputStream out) throws IOException {
+		out.write(sb.toString().getBytes(StandardCharsets.ISO_8859_1));
+		sb.setLength(0);
+	}
+
+}
@@ -0,0 +1,80 @@
+/*
+
+Copyright (c) <17 oct. 2026> <jdperezg@yahoo.es> All rights reserved.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+
+*/
+
+package tk.otanod.benchmark;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tk.otanod.libIO.ImageFile;
+import tk.otanod.libIO.MipChain;
+import tk.otanod.libIO.RawImage;
+
+/**
+ * Texture ready for the upload of every mip level.
+ * decodeAndMipmaps decodes the PNG and filters the chain on the CPU (a stale cache),
+ * loadCachedImageFile maps the .rawtex file and touches every page of the levels (the driver reads them all).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TextureCacheBenchmark {
+
+	private static final int PAGE_SIZE = 4096;
+
+	@Param({ "res/drawable/grass1.png", "res/drawable/grass2.png", "res/drawable/pine.png", "res/fonts/Ubuntu-R.png" })
+	public String image;
+
+	private String fname;
+
+	@Setup
+	public void setup() {
+		fname = Assets.path(image);
+		ImageFile.loadCachedImageFile(fname, true);								// writes the cache when it is missing or stale
+	}
+
+	@Benchmark
+	public RawImage decodeAndMipmaps() {
+		return MipChain.generate(ImageFile.loadFlippedImageFile(fname));
+	}
+
+	@Benchmark
+	public long loadCachedImageFile() {
+		RawImage texture = ImageFile.loadCachedImageFile(fname, true);
+		long sum = 0;
+		for (int level = 0; level < texture.getnLevels(); level++) {
+			ByteBuffer texels = texture.getLevel(level);
+			for (int i = 0; i < texels.limit(); i += PAGE_SIZE) {
+				sum += texels.get(i);
+			}
+		}
+		return sum;
+	}
+
+}